@@ -0,0 +1,472 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.function.IntPredicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An IntList that watches its own mix of operations and moves its values
+ * into whichever storage suits that mix best:
+ *
+ *   ARRAY     - ArrayIntList, best for get and addBack
+ *   RING      - CircularIntList, best when values are added or removed at the front
+ *   UNROLLED  - UnrolledIntList, best when values are added or removed in the middle
+ *   INDEXED   - ArrayIntList with a hash index, best when contains/indexOf dominate
+ *
+ * Operations are counted in windows of windowSize calls. At the end of each
+ * window the storage that fits the window best is picked; if the same pick
+ * wins confirmWindows windows in a row and differs from the current storage,
+ * all the values are copied over in one pass and the migration is logged.
+ * Lists smaller than minSizeForMigration are never migrated, since every
+ * storage is fast enough for them.
+ *
+ * Values stay in insertion order in every storage, so migrating is never visible
+ * to callers except through speed. The list starts out as ARRAY.
+ */
+public class AdaptiveIntList implements IntList
+{
+    private static final Logger LOGGER = Logger.getLogger(AdaptiveIntList.class.getName());
+
+    /**
+     * The storages an AdaptiveIntList can move between.
+     */
+    public enum Storage
+    {
+        ARRAY, RING, UNROLLED, INDEXED
+    }
+
+    // current storage
+    private IntList storage;
+    private Storage kind;
+
+    // tunable thresholds
+    private int windowSize = 4096;
+    private int confirmWindows = 2;
+    private int minSizeForMigration = 1024;
+    private double frontRatio = 0.25;       // share of front adds/removes that calls for RING
+    private double middleRatio = 0.10;      // share of middle adds/removes that calls for UNROLLED
+    private double searchRatio = 0.50;      // share of contains/indexOf that calls for INDEXED
+
+    // counts for the current window
+    private int windowOperations;
+    private int frontOperations;
+    private int middleOperations;
+    private int searchOperations;
+
+    private Storage candidate;      // storage picked by the last window(s)
+    private int candidateWindows;   // number of windows in a row that picked candidate
+    private long migrations;
+    private int modCount;   // structural modifications, migrations included, checked by iterators
+
+    public AdaptiveIntList()
+    {
+        storage = new ArrayIntList();
+        kind = Storage.ARRAY;
+    }
+
+    // ---------------------------------------------------------------
+    // IntList operations, counted and forwarded to the storage
+    // ---------------------------------------------------------------
+
+    @Override
+    public void addFront(int value)
+    {
+        storage.addFront(value);
+        modCount++;
+        frontOperations++;
+        countOperation();
+    }
+
+    @Override
+    public void addBack(int value)
+    {
+        storage.addBack(value);
+        modCount++;
+        countOperation();
+    }
+
+    @Override
+    public void add(int index, int value)
+    {
+        int oldSize = storage.size();
+        storage.add(index, value);
+        modCount++;
+        countPositional(index, oldSize);
+    }
+
+    @Override
+    public void removeFront()
+    {
+        storage.removeFront();
+        modCount++;
+        frontOperations++;
+        countOperation();
+    }
+
+    @Override
+    public void removeBack()
+    {
+        storage.removeBack();
+        modCount++;
+        countOperation();
+    }
+
+    @Override
+    public int remove(int index)
+    {
+        int oldSize = storage.size();
+        int removedValue = storage.remove(index);
+        modCount++;
+        countPositional(index, oldSize - 1);
+        return removedValue;
+    }
+
+    @Override
+    public int get(int index)
+    {
+        int value = storage.get(index);
+        countOperation();
+        return value;
+    }
+
+    @Override
+    public boolean contains(int value)
+    {
+        boolean found = storage.contains(value);
+        searchOperations++;
+        countOperation();
+        return found;
+    }
+
+    @Override
+    public int indexOf(int value)
+    {
+        int index = storage.indexOf(value);
+        searchOperations++;
+        countOperation();
+        return index;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return storage.isEmpty();
+    }
+
+    @Override
+    public int size()
+    {
+        return storage.size();
+    }
+
+    @Override
+    public int capacity()
+    {
+        return storage.capacity();
+    }
+
+    @Override
+    public long bytesUsed()
+    {
+        // storage, kind and candidate references, nine int counters and thresholds,
+        // three double ratios and the migration count
+        return IntListFootprint.object(3 * IntListFootprint.REFERENCE + 9 * Integer.BYTES + 4 * Long.BYTES)
+                + storage.bytesUsed();
+    }
+
+    @Override
+    public void clear()
+    {
+        storage.clear();
+        modCount++;
+    }
+
+    @Override
+    public void applyEdits(IntEditBatch batch)
+    {
+        storage.applyEdits(batch);
+        modCount++;
+    }
+
+    @Override
+    public boolean forEachWhile(IntPredicate action)
+    {
+        return storage.forEachWhile(action);
+    }
+
+    @Override
+    public int[] toArray()
+    {
+        return storage.toArray();
+    }
+
+    @Override
+    public boolean removeIf(IntPredicate filter)
+    {
+        if (!storage.removeIf(filter))
+        {
+            return false;
+        }
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Returns an iterator over the current storage. Any later mutation,
+     * or a migration to another storage, makes it throw
+     * ConcurrentModificationException instead of reading stale values.
+     *
+     * @return an Iterator.
+     */
+    @Override
+    public Iterator<Integer> iterator()
+    {
+        Iterator<Integer> values = storage.iterator();
+        int expectedModCount = modCount;
+        return new Iterator<Integer>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return values.hasNext();
+            }
+
+            @Override
+            public Integer next()
+            {
+                if (modCount != expectedModCount)
+                {
+                    throw new ConcurrentModificationException();
+                }
+                return values.next();
+            }
+        };
+    }
+
+    @Override
+    public String toString()
+    {
+        return storage.toString();
+    }
+
+    // ---------------------------------------------------------------
+    // adaptation
+    // ---------------------------------------------------------------
+
+    /**
+     * Returns the kind of storage the values are in right now.
+     *
+     * @return the current storage
+     */
+    public Storage storage()
+    {
+        return kind;
+    }
+
+    /**
+     * Returns the number of times the values were moved to another storage.
+     *
+     * @return the number of migrations
+     */
+    public long migrations()
+    {
+        return migrations;
+    }
+
+    /**
+     * Moves the values into the specified storage right away, whatever
+     * the recent operation mix was.
+     *
+     * @param target the storage to move to
+     */
+    public void migrateTo(Storage target)
+    {
+        if (target == kind)
+        {
+            return;
+        }
+
+        IntList next = newStorage(target);
+        storage.forEachInt(next::addBack);   // one pass, order kept
+
+        LOGGER.log(Level.FINE, "AdaptiveIntList migrated from {0} to {1} (size={2})",
+                new Object[] {kind, target, storage.size()});
+        storage = next;
+        kind = target;
+        migrations++;
+        modCount++;
+    }
+
+    /**
+     * Sets how many operations make up one sampling window. Default 4096.
+     *
+     * @param windowSize operations per window, at least 1
+     */
+    public void setWindowSize(int windowSize)
+    {
+        if (windowSize < 1)
+        {
+            throw new IllegalArgumentException("windowSize must be at least 1");
+        }
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Sets how many windows in a row must pick the same new storage before
+     * migrating, so a short burst does not cause a costly copy. Default 2.
+     *
+     * @param confirmWindows windows in a row, at least 1
+     */
+    public void setConfirmWindows(int confirmWindows)
+    {
+        if (confirmWindows < 1)
+        {
+            throw new IllegalArgumentException("confirmWindows must be at least 1");
+        }
+        this.confirmWindows = confirmWindows;
+    }
+
+    /**
+     * Sets the size below which the list never migrates. Default 1024.
+     *
+     * @param minSizeForMigration smallest size worth migrating
+     */
+    public void setMinSizeForMigration(int minSizeForMigration)
+    {
+        this.minSizeForMigration = minSizeForMigration;
+    }
+
+    /**
+     * Sets the share of a window's operations that must be front adds/removes
+     * to pick RING. Default 0.25.
+     *
+     * @param frontRatio share between 0 and 1
+     */
+    public void setFrontRatio(double frontRatio)
+    {
+        this.frontRatio = checkRatio(frontRatio);
+    }
+
+    /**
+     * Sets the share of a window's operations that must be adds/removes away
+     * from both ends to pick UNROLLED. Default 0.10.
+     *
+     * @param middleRatio share between 0 and 1
+     */
+    public void setMiddleRatio(double middleRatio)
+    {
+        this.middleRatio = checkRatio(middleRatio);
+    }
+
+    /**
+     * Sets the share of a window's operations that must be contains/indexOf
+     * to pick INDEXED. Default 0.50.
+     *
+     * @param searchRatio share between 0 and 1
+     */
+    public void setSearchRatio(double searchRatio)
+    {
+        this.searchRatio = checkRatio(searchRatio);
+    }
+
+    private static double checkRatio(double ratio)
+    {
+        if (!(ratio >= 0 && ratio <= 1))
+        {
+            throw new IllegalArgumentException("ratio must be between 0 and 1");
+        }
+        return ratio;
+    }
+
+    // add/remove at index: count as front, back or middle depending on where index is
+    private void countPositional(int index, int sizeBefore)
+    {
+        if (index == 0)
+        {
+            frontOperations++;
+        }
+        else if (index < sizeBefore)
+        {
+            middleOperations++;
+        }
+        countOperation();
+    }
+
+    private void countOperation()
+    {
+        windowOperations++;
+        if (windowOperations >= windowSize)
+        {
+            endWindow();
+        }
+    }
+
+    private void endWindow()
+    {
+        Storage pick = pickStorage();
+        windowOperations = 0;
+        frontOperations = 0;
+        middleOperations = 0;
+        searchOperations = 0;
+
+        if (pick == kind || storage.size() < minSizeForMigration)
+        {
+            candidate = null;
+            candidateWindows = 0;
+            return;
+        }
+
+        if (pick == candidate)
+        {
+            candidateWindows++;
+        }
+        else
+        {
+            candidate = pick;
+            candidateWindows = 1;
+        }
+        if (candidateWindows >= confirmWindows)
+        {
+            migrateTo(pick);
+            candidate = null;
+            candidateWindows = 0;
+        }
+    }
+
+    // the storage that fits the window that just ended
+    private Storage pickStorage()
+    {
+        double operations = windowOperations;
+        if (frontOperations / operations >= frontRatio)
+        {
+            return Storage.RING;
+        }
+        if (middleOperations / operations >= middleRatio)
+        {
+            return Storage.UNROLLED;
+        }
+        if (searchOperations / operations >= searchRatio)
+        {
+            return Storage.INDEXED;
+        }
+        // nothing special: a ring buffer is as good as an array for get and addBack, so stay in it
+        return (kind == Storage.RING) ? Storage.RING : Storage.ARRAY;
+    }
+
+    private static IntList newStorage(Storage kind)
+    {
+        switch (kind)
+        {
+            case RING:
+                return new CircularIntList();
+            case UNROLLED:
+                return new UnrolledIntList();
+            case INDEXED:
+                ArrayIntList indexed = new ArrayIntList();
+                indexed.attachHashIndex();
+                return indexed;
+            default:
+                return new ArrayIntList();
+        }
+    }
+}
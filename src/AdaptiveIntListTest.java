@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveIntListTest {
+
+    private static AdaptiveIntList smallWindows() {
+        AdaptiveIntList theList = new AdaptiveIntList();
+        theList.setWindowSize(100);
+        theList.setMinSizeForMigration(10);
+        return theList;
+    }
+
+    @Test
+    void startsAsArray() {
+        AdaptiveIntList theList = new AdaptiveIntList();
+        assertEquals(AdaptiveIntList.Storage.ARRAY, theList.storage());
+    }
+
+    @Test
+    void frontHeavyMovesToRing() {
+        AdaptiveIntList theList = smallWindows();
+        for (int i = 0; i < 1000; i++) {
+            theList.addFront(i);
+        }
+        assertEquals(AdaptiveIntList.Storage.RING, theList.storage());
+        assertEquals(999, theList.get(0));
+        assertEquals(0, theList.get(999));
+    }
+
+    @Test
+    void middleHeavyMovesToUnrolled() {
+        AdaptiveIntList theList = smallWindows();
+        for (int i = 0; i < 1000; i++) {
+            theList.addBack(i);
+        }
+        for (int i = 0; i < 500; i++) {
+            theList.add(theList.size() / 2, -i);
+        }
+        assertEquals(AdaptiveIntList.Storage.UNROLLED, theList.storage());
+        assertEquals(1500, theList.size());
+        assertEquals(0, theList.get(0));
+    }
+
+    @Test
+    void searchHeavyMovesToIndexed() {
+        AdaptiveIntList theList = smallWindows();
+        for (int i = 0; i < 100; i++) {
+            theList.addBack(i);
+        }
+        for (int i = 0; i < 300; i++) {
+            assertEquals(i % 100, theList.indexOf(i % 100));
+        }
+        assertEquals(AdaptiveIntList.Storage.INDEXED, theList.storage());
+        assertTrue(theList.contains(42));
+    }
+
+    @Test
+    void smallListsDoNotMigrate() {
+        AdaptiveIntList theList = new AdaptiveIntList();
+        theList.setWindowSize(10);
+        for (int i = 0; i < 500; i++) {
+            theList.addFront(i);
+        }
+        assertEquals(AdaptiveIntList.Storage.ARRAY, theList.storage());
+        assertEquals(0, theList.migrations());
+    }
+
+    @Test
+    void migrateToKeepsOrder() {
+        AdaptiveIntList theList = new AdaptiveIntList();
+        for (int i = 0; i < 5; i++) {
+            theList.addBack(i);
+        }
+        theList.migrateTo(AdaptiveIntList.Storage.UNROLLED);
+        assertEquals("[0, 1, 2, 3, 4]", theList.toString());
+        assertEquals(1, theList.migrations());
+    }
+
+    @Test
+    void migrationInvalidatesIterators() {
+        AdaptiveIntList theList = new AdaptiveIntList();
+        for (int i = 0; i < 5; i++) {
+            theList.addBack(i);
+        }
+        Iterator<Integer> values = theList.iterator();
+        assertEquals(0, values.next());
+        theList.migrateTo(AdaptiveIntList.Storage.RING);
+        assertThrows(ConcurrentModificationException.class, values::next);
+
+        values = theList.iterator();
+        assertEquals(0, values.next());
+        theList.addBack(5);
+        assertThrows(ConcurrentModificationException.class, values::next);
+    }
+}
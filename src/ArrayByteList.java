@@ -0,0 +1,394 @@
+// GENERATED by PrimitiveListGenerator from templates/ArrayPrimitiveList.java.template, do not edit
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * ArrayIntList for byte values: a byte[] buffer that doubles when
+ * full, with every shift done as one block copy.
+ */
+public class ArrayByteList implements ByteList
+{
+    // internal (private) representation
+    private byte[] buffer;
+    private int size;       // number of "spots used" in the buffer
+    private int modCount;   // number of structural modifications, used by iterators
+    private final static int INITIAL_CAPACITY = 10;
+
+    public ArrayByteList()
+    {
+        buffer = new byte[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Prepends (inserts) the specified value at the front of the list (at index 0).
+     * Shifts the value currently at the front of the list (if any) and any
+     * subsequent values to the right.
+     *
+     * @param value value to be inserted
+     */
+    @Override
+    public void addFront(byte value) // linear time O(size), one block copy
+    {
+        add(0, value);
+    }
+
+    /**
+     * Appends (inserts) the specified value at the back of the list (at index size()-1).
+     *
+     * @param value value to be inserted
+     */
+    @Override
+    public void addBack(byte value) // fast, constant time if no resize
+    {
+        if (size == buffer.length)
+        {
+            resize(2 * buffer.length);
+        }
+        buffer[size] = value;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Appends length values of the specified array to the back of the list
+     * with one block copy, growing the buffer at most once.
+     *
+     * @param values array holding the values to append
+     * @param offset position in values of the first value to append
+     * @param length number of values to append
+     * @throws IndexOutOfBoundsException if offset and length do not fit in values
+     */
+    @Override
+    public void addAll(byte[] values, int offset, int length) // linear time O(length)
+    {
+        IntSubList.checkRange(offset, offset + length, values.length);
+        if (size + length > buffer.length)
+        {
+            resize(Math.max(2 * buffer.length, size + length));
+        }
+        System.arraycopy(values, offset, buffer, size, length);
+        size += length;
+        modCount++;
+    }
+
+    /**
+     * Inserts the specified value at the specified position in this list.
+     * Shifts the value currently at that position (if any) and any subsequent
+     * values to the right.
+     *
+     * @param index index at which the specified value is to be inserted
+     * @param value value to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public void add(int index, byte value) // O(size - index), one block copy
+    {
+        if (index < 0 || index > size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        if (size == buffer.length)
+        {
+            resize(2 * buffer.length);
+        }
+        System.arraycopy(buffer, index, buffer, index + 1, size - index);
+        buffer[index] = value;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Removes the value located at the front of the list
+     * (at index 0), if it is present.
+     * Shifts any subsequent values to the left.
+     */
+    @Override
+    public void removeFront() // linear time O(size), one block copy
+    {
+        if (size == 0)
+        {
+            throw new IllegalStateException("List is empty");
+        }
+        remove(0);
+    }
+
+    /**
+     * Removes the value located at the back of the list
+     * (at index size()-1), if it is present.
+     */
+    @Override
+    public void removeBack() // fast, constant time O(1)
+    {
+        if (size == 0)
+        {
+            throw new IllegalStateException("Already empty!");
+        }
+        size--;
+        buffer[size] = 0;
+        modCount++;
+    }
+
+    /**
+     * Removes the value at the specified position in this list.
+     * Shifts any subsequent values to the left. Returns the value
+     * that was removed from the list.
+     *
+     * @param index the index of the value to be removed
+     * @return the value previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public byte remove(int index) // O(size - index), one block copy
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        byte removedValue = buffer[index];
+        System.arraycopy(buffer, index + 1, buffer, index, size - 1 - index);
+        buffer[size - 1] = 0;
+        size--;
+        modCount++;
+        return removedValue;
+    }
+
+    /**
+     * Returns the value at the specified position in the list.
+     *
+     * @param index index of the value to return
+     * @return the value at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public byte get(int index) // fast, constant time, O(1)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        return buffer[index];
+    }
+
+    /**
+     * Returns true if this list contains the specified value.
+     *
+     * @param value value whose presence in this list is to be searched for
+     * @return true if this list contains the specified value
+     */
+    @Override
+    public boolean contains(byte value) // linear time O(size)
+    {
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified value
+     * in this list, or -1 if this list does not contain the value.
+     *
+     * @param value value to search for
+     * @return the index of the first occurrence of the specified value in this list
+     * or -1 if this list does not contain the value
+     */
+    @Override
+    public int indexOf(byte value) // linear time O(size)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            if (buffer[i] == value)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true if this list contains no values.
+     *
+     * @return true if this list contains no values
+     */
+    @Override
+    public boolean isEmpty() // fast, constant time O(1)
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of values in this list.
+     *
+     * @return the number of values in this list
+     */
+    @Override
+    public int size() // fast, constant time O(1)
+    {
+        return size;
+    }
+
+    @Override
+    public int capacity()
+    {
+        return buffer.length;
+    }
+
+    @Override
+    public long bytesUsed()
+    {
+        // buffer reference, size and modCount
+        return IntListFootprint.object(IntListFootprint.REFERENCE + 2 * Integer.BYTES)
+                + IntListFootprint.array(buffer.length, Byte.BYTES);
+    }
+
+    /**
+     * Removes all the values from this list.
+     * The list will be empty after this call returns.
+     */
+    @Override
+    public void clear()
+    {
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Passes each value in this list, in order, to the specified action
+     * until the action returns false or every value has been visited.
+     *
+     * Reads the buffer directly, no boxing and no iterator
+     * Linear time O(size)
+     *
+     * @param action the action to be performed for each value
+     * @return true if every value was visited, false if the action stopped the walk
+     */
+    @Override
+    public boolean forEachWhile(ValuePredicate action)
+    {
+        int expectedModCount = modCount;
+        for (int i = 0; i < size; i++)
+        {
+            if (!action.test(buffer[i]))
+            {
+                return false;
+            }
+        }
+        if (modCount != expectedModCount)
+        {
+            throw new ConcurrentModificationException();
+        }
+        return true;
+    }
+
+    /**
+     * Returns an array containing all the values in this list, in order.
+     *
+     * @return a new array containing the values in this list
+     */
+    @Override
+    public byte[] toArray() // linear time O(size), one block copy
+    {
+        byte[] result = new byte[size];
+        System.arraycopy(buffer, 0, result, 0, size);
+        return result;
+    }
+
+    /**
+     * Removes every value in this list that matches the specified predicate.
+     *
+     * Compacts the kept values toward the front in a single pass,
+     * linear time O(size) no matter how many values are removed
+     *
+     * @param filter a predicate which returns true for values to be removed
+     * @return true if any values were removed
+     */
+    @Override
+    public boolean removeIf(ValuePredicate filter)
+    {
+        int kept = 0;
+        for (int i = 0; i < size; i++)
+        {
+            if (!filter.test(buffer[i]))
+            {
+                buffer[kept] = buffer[i];
+                kept++;
+            }
+        }
+        if (kept == size)
+        {
+            return false;
+        }
+        for (int i = kept; i < size; i++)
+        {
+            buffer[i] = 0;
+        }
+        size = kept;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Shrinks the buffer to the number of values in this list.
+     */
+    public void trimToSize()
+    {
+        if (buffer.length > size)
+        {
+            resize(size);
+        }
+    }
+
+    private void resize(int newSize) // linear time O(size), one block copy
+    {
+        byte[] temp = new byte[Math.max(newSize, 1)];
+        System.arraycopy(buffer, 0, temp, 0, size);
+        buffer = temp;
+    }
+
+    @Override
+    public Iterator<Byte> iterator()
+    {
+        return new ArrayByteListIterator();
+    }
+
+    @Override
+    public String toString() // linear time O(size)
+    {
+        StringBuilder result = new StringBuilder(2 + 4 * size);
+        result.append('[');
+        for (int i = 0; i < size; i++)
+        {
+            if (i > 0)
+            {
+                result.append(", ");
+            }
+            result.append(buffer[i]);
+        }
+        return result.append(']').toString();
+    }
+
+    private class ArrayByteListIterator implements Iterator<Byte>
+    {
+        private int currentPosition;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext()
+        {
+            return currentPosition < size;
+        }
+
+        @Override
+        public Byte next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            return buffer[currentPosition++];
+        }
+    }
+}
@@ -1,11 +1,16 @@
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
 
 public class ArrayIntList implements IntList
 {
     // internal (private) representation
     private int[] buffer;
     private int size;       // number of "spots used" in the buffer
+    private int modCount;   // number of structural modifications, used by views and iterators
+    private IntIndex hashIndex;     // optional value -> first index lookup table, null when not attached
+    private IntListMetrics metrics; // optional usage counters, null when not instrumented
     private final static int INITAL_CAPACITY = 10;
 
     public ArrayIntList()
@@ -43,12 +48,21 @@ public class ArrayIntList implements IntList
         {
             buffer[i] = buffer[i - 1];
         }
+        if (metrics != null)
+        {
+            metrics.recordShift(size);
+        }
 
 
         // put value in position [0]
         buffer[0] = value;
 
         size ++;
+        modCount++;
+        if (hashIndex != null)
+        {
+            hashIndex.invalidate();
+        }
     }
 
     /**
@@ -73,6 +87,41 @@ public class ArrayIntList implements IntList
 
         buffer[size] = value;
         size++;
+        modCount++;
+        if (hashIndex != null)
+        {
+            hashIndex.appended(value, size - 1);
+        }
+    }
+
+    /**
+     * Appends length values of the specified array to the back of the list
+     * with one block copy, growing the buffer at most once.
+     *
+     * @param values array holding the values to append
+     * @param offset position in values of the first value to append
+     * @param length number of values to append
+     * @throws IndexOutOfBoundsException if offset and length do not fit in values
+     */
+    @Override
+    public void addAll(int[] values, int offset, int length) // linear time O(length)
+    {
+        IntSubList.checkRange(offset, offset + length, values.length);
+        if (size + length > buffer.length)
+        {
+            resize(Math.max(2 * buffer.length, size + length));
+        }
+
+        System.arraycopy(values, offset, buffer, size, length);
+        size += length;
+        modCount++;
+        if (hashIndex != null)
+        {
+            for (int i = size - length; i < size; i++)
+            {
+                hashIndex.appended(buffer[i], i);
+            }
+        }
     }
 
     /**
@@ -106,9 +155,26 @@ public class ArrayIntList implements IntList
         {
             buffer[i] = buffer[i - 1];
         }
+        if (metrics != null)
+        {
+            metrics.recordShift(size - index);
+        }
 
         buffer[index] = value;
         size++;
+        modCount++;
+        if (hashIndex != null)
+        {
+            // adding at the back shifts nothing, so the index can follow it
+            if (index == size - 1)
+            {
+                hashIndex.appended(value, index);
+            }
+            else
+            {
+                hashIndex.invalidate();
+            }
+        }
     }
 
     /**
@@ -128,9 +194,18 @@ public class ArrayIntList implements IntList
         {
             buffer[i] = buffer[i + 1];
         }
+        if (metrics != null)
+        {
+            metrics.recordShift(size - 1);
+        }
 
         buffer[size - 1] = 0;
         size--;
+        modCount++;
+        if (hashIndex != null)
+        {
+            hashIndex.invalidate();
+        }
     }
 
     /**
@@ -146,7 +221,12 @@ public class ArrayIntList implements IntList
         }
 
         size--;
+        if (hashIndex != null)
+        {
+            hashIndex.removedLast(buffer[size], size);
+        }
         buffer[size] = 0;
+        modCount++;
 
 //        for(int i = 0; i < buffer.length; i++)
 //        {
@@ -179,9 +259,25 @@ public class ArrayIntList implements IntList
         for (int i = index; i < size - 1; i++) {
             buffer[i] = buffer[i + 1];
         }
+        if (metrics != null)
+        {
+            metrics.recordShift(size - 1 - index);
+        }
 
         buffer[size - 1] = 0;
         size--;
+        modCount++;
+        if (hashIndex != null)
+        {
+            if (index == size)
+            {
+                hashIndex.removedLast(removedValue, index);
+            }
+            else
+            {
+                hashIndex.invalidate();
+            }
+        }
 
         return removedValue;
     }
@@ -213,7 +309,13 @@ public class ArrayIntList implements IntList
     @Override
     public boolean contains(int value) // worst case - linear time O(size)
                                        // when value is not in list or when value is last in list
+                                       // O(1) expected with a hash index attached
     {
+        if (hashIndex != null)
+        {
+            return hashIndex.indexOf(value, buffer, size) != -1;
+        }
+
         for (int i = 0; i < size; i++)
         {
             if (buffer[i] == value)
@@ -235,7 +337,13 @@ public class ArrayIntList implements IntList
     @Override
     public int indexOf(int value) // worst case - linear time O(size)
                                   // when value is not in list or when value is last in list
+                                  // O(1) expected with a hash index attached
     {
+        if (hashIndex != null)
+        {
+            return hashIndex.indexOf(value, buffer, size);
+        }
+
         for (int i = 0; i < size; i++)
         {
             if (buffer[i] == value)
@@ -268,6 +376,37 @@ public class ArrayIntList implements IntList
         return size;
     }
 
+    /**
+     * Returns the length of the buffer: the number of values this list can
+     * hold before the next resize.
+     *
+     * @return the capacity of the buffer
+     */
+    @Override
+    public int capacity()
+    {
+        return buffer.length;
+    }
+
+    /**
+     * Returns an estimate of the heap held by this list: the list object,
+     * the buffer (used or not) and the hash index, if one is attached.
+     *
+     * @return the estimated heap footprint of this list in bytes
+     */
+    @Override
+    public long bytesUsed()
+    {
+        // buffer, hashIndex and metrics references, size and modCount
+        long bytes = IntListFootprint.object(3 * IntListFootprint.REFERENCE + 2 * Integer.BYTES)
+                + IntListFootprint.array(buffer.length, Integer.BYTES);
+        if (hashIndex != null)
+        {
+            bytes += hashIndex.bytesUsed();
+        }
+        return bytes;
+    }
+
     /**
      * Removes all the values from this list.
      * The list will be empty after this call returns.
@@ -276,6 +415,296 @@ public class ArrayIntList implements IntList
     public void clear()
     {
         size = 0;
+        modCount++;
+        if (hashIndex != null)
+        {
+            hashIndex.cleared();
+        }
+    }
+
+    /**
+     * Starts recording this list's shifts and resizes into the specified
+     * metrics, or stops recording if metrics is null. Lists are not
+     * instrumented by default and then pay only a null check per operation.
+     *
+     * @param metrics the metrics to record into, or null
+     */
+    public void setMetrics(IntListMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the metrics this list records into, or null if it is not instrumented.
+     *
+     * @return the metrics of this list, or null
+     */
+    public IntListMetrics metrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Attaches a hash index to this list (if it does not already have one)
+     * and returns it. While attached, contains and indexOf look values up in
+     * the index instead of scanning the buffer.
+     *
+     * The index is built on the first lookup. addBack and removeBack keep it
+     * up to date; other mutations make it stale and the next lookup rebuilds
+     * it, so it pays off when lookups far outnumber those mutations.
+     * The returned index exposes hit/rebuild counters to check that.
+     *
+     * The index takes roughly 8 bytes per slot, with at least twice as many
+     * slots as distinct values.
+     *
+     * @return the hash index attached to this list
+     */
+    public IntIndex attachHashIndex()
+    {
+        if (hashIndex == null)
+        {
+            hashIndex = new IntIndex();
+        }
+        return hashIndex;
+    }
+
+    /**
+     * Detaches the hash index (if any), so contains and indexOf go back
+     * to scanning the buffer and the memory of the index can be reclaimed.
+     */
+    public void detachHashIndex()
+    {
+        hashIndex = null;
+    }
+
+    /**
+     * Returns the hash index attached to this list, or null if there is none.
+     *
+     * @return the attached hash index, or null
+     */
+    public IntIndex hashIndex()
+    {
+        return hashIndex;
+    }
+
+    /**
+     * Returns a view of the portion of this list between fromIndex (inclusive)
+     * and toIndex (exclusive). The view shares this list's buffer, so no values
+     * are copied; it just adds an offset to every index.
+     *
+     * Changes made through the view write through to this list. Structural
+     * changes made to this list directly (not through the view) make the view
+     * invalid, and any later use of it throws ConcurrentModificationException.
+     *
+     * @param fromIndex low endpoint (inclusive) of the view
+     * @param toIndex high endpoint (exclusive) of the view
+     * @return a view of the specified range within this list
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    @Override
+    public IntList subList(int fromIndex, int toIndex) // fast, constant time O(1), nothing is copied
+    {
+        IntSubList.checkRange(fromIndex, toIndex, size);
+        return new ArrayIntSubList(null, fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Passes each value in this list, in order, to the specified action
+     * until the action returns false or every value has been visited.
+     *
+     * Reads the buffer directly, no boxing and no iterator
+     * Linear time O(size)
+     *
+     * @param action the action to be performed for each value
+     * @return true if every value was visited, false if the action stopped the walk
+     */
+    @Override
+    public boolean forEachWhile(IntPredicate action)
+    {
+        return forEachWhile(0, size, action);
+    }
+
+    /**
+     * Returns an array containing all the values in this list, in order.
+     *
+     * @return a new array containing the values in this list
+     */
+    @Override
+    public int[] toArray() // linear time O(size), one block copy
+    {
+        int[] result = new int[size];
+        System.arraycopy(buffer, 0, result, 0, size);
+        return result;
+    }
+
+    // the backing buffer itself, for package code that reads [0, size()) in place (see IntAggregator)
+    int[] elements()
+    {
+        return buffer;
+    }
+
+    // grows the buffer to fit count more values and returns it, for package code that writes
+    // [size(), size() + count) in place and then calls appended(count) (see IntListCodec)
+    int[] reserve(int count)
+    {
+        if (size + count > buffer.length)
+        {
+            resize(Math.max(2 * buffer.length, size + count));
+        }
+        return buffer;
+    }
+
+    // makes the count values written past size() into the buffer from reserve part of the list
+    void appended(int count)
+    {
+        size += count;
+        modCount++;
+        if (hashIndex != null)
+        {
+            for (int i = size - count; i < size; i++)
+            {
+                hashIndex.appended(buffer[i], i);
+            }
+        }
+    }
+
+    /**
+     * Removes every value in this list that matches the specified predicate.
+     *
+     * Compacts the kept values toward the front in a single pass,
+     * linear time O(size) no matter how many values are removed
+     *
+     * @param filter a predicate which returns true for values to be removed
+     * @return true if any values were removed
+     */
+    @Override
+    public boolean removeIf(IntPredicate filter)
+    {
+        int kept = 0;
+        for (int i = 0; i < size; i++)
+        {
+            if (!filter.test(buffer[i]))
+            {
+                buffer[kept] = buffer[i];
+                kept++;
+            }
+        }
+        if (kept == size)
+        {
+            return false;
+        }
+
+        for (int i = kept; i < size; i++)
+        {
+            buffer[i] = 0;
+        }
+        size = kept;
+        modCount++;
+        if (hashIndex != null)
+        {
+            hashIndex.invalidate();
+        }
+        return true;
+    }
+
+    /**
+     * Applies every insert and remove of the specified batch, whose indexes
+     * refer to this list as it is before the call, in one pass.
+     *
+     * The values between edits are moved with block copies: into a new
+     * buffer when the batch inserts, within this one when it only removes.
+     * Linear time O(size + edits log edits), however many edits there are,
+     * where the same edits one add(index)/remove(index) at a time shift the
+     * tail once each. Nothing changes if the batch does not fit this list.
+     *
+     * @param batch the edits to apply
+     * @throws IndexOutOfBoundsException if an edit is past the end of this list
+     * @throws IllegalArgumentException if two removes of the batch overlap
+     */
+    @Override
+    public void applyEdits(IntEditBatch batch)
+    {
+        batch.check(size);
+        if (batch.isEmpty())
+        {
+            return;
+        }
+
+        int newSize = batch.resultSize(size);
+        if (batch.insertCount() == 0)
+        {
+            // only removes: every kept range moves left, so it can be done in place
+            batch.applyTo(buffer, size, buffer);
+            for (int i = newSize; i < size; i++)
+            {
+                buffer[i] = 0;
+            }
+        }
+        else
+        {
+            int newCapacity = (newSize > buffer.length) ? Math.max(newSize, 2 * buffer.length) : buffer.length;
+            int[] temp = new int[newCapacity];
+            batch.applyTo(buffer, size, temp);
+            if (metrics != null && newCapacity != buffer.length)
+            {
+                metrics.recordResize(buffer.length, newCapacity);
+            }
+            buffer = temp;
+        }
+        size = newSize;
+        modCount++;
+        if (hashIndex != null)
+        {
+            hashIndex.invalidate();
+        }
+    }
+
+    // walks buffer[from, to), shared by the list and its views
+    private boolean forEachWhile(int from, int to, IntPredicate action)
+    {
+        int expectedModCount = modCount;
+        for (int i = from; i < to; i++)
+        {
+            if (!action.test(buffer[i]))
+            {
+                return false;
+            }
+        }
+        if (modCount != expectedModCount)
+        {
+            throw new ConcurrentModificationException();
+        }
+        return true;
+    }
+
+    // removes the values in [fromIndex, toIndex) in one shift instead of one shift per value
+    private void removeRange(int fromIndex, int toIndex) // linear time O(size - fromIndex)
+    {
+        int removed = toIndex - fromIndex;
+        if (removed == 0)
+        {
+            return;
+        }
+
+        for (int i = toIndex; i < size; i++)
+        {
+            buffer[i - removed] = buffer[i];
+        }
+        if (metrics != null)
+        {
+            metrics.recordShift(size - toIndex);
+        }
+        for (int i = size - removed; i < size; i++)
+        {
+            buffer[i] = 0;
+        }
+
+        size -= removed;
+        modCount++;
+        if (hashIndex != null)
+        {
+            hashIndex.invalidate();
+        }
     }
 
     private void resize(int newSize) // "slow", linear time - O(n) or O(size),
@@ -290,6 +719,11 @@ public class ArrayIntList implements IntList
             temp[i]= buffer[i];
         }
 
+        if (metrics != null)
+        {
+            metrics.recordResize(buffer.length, newSize);
+        }
+
         // make the switchover
         buffer = temp;
 
@@ -309,34 +743,21 @@ public class ArrayIntList implements IntList
 
     @Override
     public String toString() // slow, linear time O(size) because we have to visit every item
+                             // the StringBuilder is presized exactly, see IntListFormat
     {
-        if (size == 0)
-        {
-            return "[]";
-        }
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
-        sb.append(buffer[0]);
-
-        for (int i = 1; i < size; i++)
-        {
-            sb.append(", ");
-            sb.append(buffer[i]);
-        }
-
-        sb.append("]");
-        return sb.toString();
+        return IntListFormat.toString(this, Integer.MAX_VALUE);
     }
 
     // nested or inner class (helper class)
     public class ArrayIntListIterator implements Iterator<Integer>
     {
         private int currentPosition;
+        private final int expectedModCount;
 
         public ArrayIntListIterator()
         {
             currentPosition = 0;
+            expectedModCount = modCount;
         }
 
         @Override
@@ -362,6 +783,10 @@ public class ArrayIntList implements IntList
             {
                 throw new NoSuchElementException();
             }
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
 
             int value = get(currentPosition);
             currentPosition++;
@@ -369,4 +794,210 @@ public class ArrayIntList implements IntList
         }
     }
 
+    // view over [offset, offset + size) of the enclosing list's buffer
+    private class ArrayIntSubList implements IntList
+    {
+        private final ArrayIntSubList parent;   // enclosing view, or null if this is a view of the list itself
+        private final int offset;               // index in the buffer of this view's index 0
+        private int size;
+        private int expectedModCount;
+
+        ArrayIntSubList(ArrayIntSubList parent, int offset, int size)
+        {
+            this.parent = parent;
+            this.offset = offset;
+            this.size = size;
+            this.expectedModCount = modCount;
+        }
+
+        @Override
+        public void addFront(int value)
+        {
+            add(0, value);
+        }
+
+        @Override
+        public void addBack(int value)
+        {
+            add(size, value);
+        }
+
+        @Override
+        public void add(int index, int value)
+        {
+            checkForComodification();
+            if (index < 0 || index > size)
+            {
+                throw new IndexOutOfBoundsException("Index out of range");
+            }
+
+            ArrayIntList.this.add(offset + index, value);
+            updateSize(1);
+        }
+
+        @Override
+        public void removeFront()
+        {
+            checkForComodification();
+            if (size == 0)
+            {
+                throw new IllegalStateException("List is empty");
+            }
+            remove(0);
+        }
+
+        @Override
+        public void removeBack()
+        {
+            checkForComodification();
+            if (size == 0)
+            {
+                throw new IllegalStateException("Already empty!");
+            }
+            remove(size - 1);
+        }
+
+        @Override
+        public int remove(int index)
+        {
+            checkForComodification();
+            if (index < 0 || index >= size)
+            {
+                throw new IndexOutOfBoundsException("Index out of range");
+            }
+
+            int removedValue = ArrayIntList.this.remove(offset + index);
+            updateSize(-1);
+            return removedValue;
+        }
+
+        @Override
+        public int get(int index) // fast, constant time O(1), straight into the shared buffer
+        {
+            checkForComodification();
+            if (index < 0 || index >= size)
+            {
+                throw new IndexOutOfBoundsException("Index out of range");
+            }
+            return buffer[offset + index];
+        }
+
+        @Override
+        public boolean contains(int value)
+        {
+            return indexOf(value) != -1;
+        }
+
+        @Override
+        public int indexOf(int value)
+        {
+            checkForComodification();
+            for (int i = 0; i < size; i++)
+            {
+                if (buffer[offset + i] == value)
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            checkForComodification();
+            return size == 0;
+        }
+
+        @Override
+        public int size()
+        {
+            checkForComodification();
+            return size;
+        }
+
+        @Override
+        public long bytesUsed()
+        {
+            // parent and enclosing list references, offset, size and expectedModCount
+            return IntListFootprint.object(2 * IntListFootprint.REFERENCE + 3 * Integer.BYTES);
+        }
+
+        @Override
+        public void clear()
+        {
+            checkForComodification();
+            removeRange(offset, offset + size);
+            updateSize(-size);
+        }
+
+        @Override
+        public IntList subList(int fromIndex, int toIndex)
+        {
+            checkForComodification();
+            IntSubList.checkRange(fromIndex, toIndex, size);
+            return new ArrayIntSubList(this, offset + fromIndex, toIndex - fromIndex);
+        }
+
+        @Override
+        public boolean forEachWhile(IntPredicate action)
+        {
+            checkForComodification();
+            return ArrayIntList.this.forEachWhile(offset, offset + size, action);
+        }
+
+        @Override
+        public Iterator<Integer> iterator()
+        {
+            checkForComodification();
+            return new Iterator<Integer>()
+            {
+                private int currentPosition = 0;
+
+                @Override
+                public boolean hasNext()
+                {
+                    return currentPosition < size;
+                }
+
+                @Override
+                public Integer next()
+                {
+                    if (!hasNext())
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    return get(currentPosition++);
+                }
+            };
+        }
+
+        @Override
+        public String toString()
+        {
+            checkForComodification();
+            return IntListFormat.toString(this, Integer.MAX_VALUE);
+        }
+
+        private void checkForComodification()
+        {
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        // a write through this view also changes the size of every enclosing view
+        private void updateSize(int delta)
+        {
+            ArrayIntSubList view = this;
+            while (view != null)
+            {
+                view.size += delta;
+                view.expectedModCount = modCount;
+                view = view.parent;
+            }
+        }
+    }
+
 } // end of ArrayIntList
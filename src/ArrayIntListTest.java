@@ -378,4 +378,184 @@ class ArrayIntListTest {
         theList.addBack(88);
         assertEquals(theList.toString(), "[42, 88]");
     }
-}
\ No newline at end of file
+
+    @org.junit.jupiter.api.Test
+    void subList()
+    {
+        ArrayIntList theList = new ArrayIntList();
+        for (int i = 0; i < 10; i++) {
+            theList.addBack(i);
+        }
+        IntList view = theList.subList(3, 7);
+        assertEquals(view.size(), 4);
+        assertEquals(view.get(0), 3);
+        assertEquals(view.get(3), 6);
+        assertEquals(view.indexOf(5), 2);
+        assertFalse(view.contains(8));
+        assertEquals(view.toString(), "[3, 4, 5, 6]");
+    }
+
+    @org.junit.jupiter.api.Test
+    void subListWritesThrough()
+    {
+        ArrayIntList theList = new ArrayIntList();
+        for (int i = 0; i < 10; i++) {
+            theList.addBack(i);
+        }
+        IntList view = theList.subList(2, 5);
+        view.addBack(99);
+        view.remove(0);
+        view.addFront(77);
+        assertEquals(view.toString(), "[77, 3, 4, 99]");
+        assertEquals(theList.toString(), "[0, 1, 77, 3, 4, 99, 5, 6, 7, 8, 9]");
+        view.clear();
+        assertEquals(theList.toString(), "[0, 1, 5, 6, 7, 8, 9]");
+    }
+
+    @org.junit.jupiter.api.Test
+    void subListOfSubList()
+    {
+        ArrayIntList theList = new ArrayIntList();
+        for (int i = 0; i < 10; i++) {
+            theList.addBack(i);
+        }
+        IntList outer = theList.subList(1, 9);
+        IntList inner = outer.subList(2, 4);
+        assertEquals(inner.toString(), "[3, 4]");
+        inner.addBack(42);
+        assertEquals(outer.size(), 9);
+        assertEquals(theList.get(5), 42);
+    }
+
+    @org.junit.jupiter.api.Test
+    void subListBadRange()
+    {
+        ArrayIntList theList = new ArrayIntList();
+        theList.addBack(42);
+        assertThrows(IndexOutOfBoundsException.class, () -> { theList.subList(0, 2); });
+        assertThrows(IndexOutOfBoundsException.class, () -> { theList.subList(1, 0); });
+    }
+
+    @org.junit.jupiter.api.Test
+    void subListDetectsConcurrentModification()
+    {
+        ArrayIntList theList = new ArrayIntList();
+        for (int i = 0; i < 10; i++) {
+            theList.addBack(i);
+        }
+        IntList view = theList.subList(2, 5);
+        theList.addFront(-1);
+        assertThrows(java.util.ConcurrentModificationException.class, () -> { view.get(0); });
+    }
+
+    @org.junit.jupiter.api.Test
+    void hashIndexLookups()
+    {
+        ArrayIntList theList = new ArrayIntList();
+        for (int i = 0; i < 10; i++) {
+            theList.addBack(i % 5);
+        }
+        IntIndex index = theList.attachHashIndex();
+        assertEquals(theList.indexOf(3), 3);
+        assertTrue(theList.contains(4));
+        assertFalse(theList.contains(99));
+        assertEquals(index.rebuilds(), 1);
+        assertEquals(index.hits(), 2);
+    }
+
+    @org.junit.jupiter.api.Test
+    void hashIndexFollowsAddBackAndRemoveBack()
+    {
+        ArrayIntList theList = new ArrayIntList();
+        IntIndex index = theList.attachHashIndex();
+        theList.addBack(42);
+        assertEquals(theList.indexOf(42), 0);
+        theList.addBack(88);
+        theList.addBack(42);
+        theList.removeBack();
+        assertEquals(theList.indexOf(42), 0);
+        theList.removeBack();
+        assertEquals(theList.indexOf(88), -1);
+        assertEquals(index.rebuilds(), 1);
+    }
+
+    @org.junit.jupiter.api.Test
+    void hashIndexRebuildsAfterShift()
+    {
+        ArrayIntList theList = new ArrayIntList();
+        IntIndex index = theList.attachHashIndex();
+        theList.addBack(42);
+        theList.addBack(88);
+        assertEquals(theList.indexOf(88), 1);
+        theList.addFront(7);
+        assertEquals(index.invalidations(), 1);
+        assertEquals(theList.indexOf(88), 2);
+        theList.remove(0);
+        assertEquals(theList.indexOf(42), 0);
+        assertEquals(index.rebuilds(), 3);
+    }
+
+    @org.junit.jupiter.api.Test
+    void hashIndexMatchesLinearScan()
+    {
+        java.util.Random random = new java.util.Random(42);
+        ArrayIntList indexed = new ArrayIntList();
+        ArrayIntList plain = new ArrayIntList();
+        indexed.attachHashIndex();
+        for (int i = 0; i < 2000; i++) {
+            int value = random.nextInt(50);
+            int op = random.nextInt(6);
+            if (op < 3) {
+                indexed.addBack(value);
+                plain.addBack(value);
+            } else if (op == 3 && !plain.isEmpty()) {
+                indexed.removeBack();
+                plain.removeBack();
+            } else if (op == 4 && !plain.isEmpty()) {
+                int at = random.nextInt(plain.size());
+                assertEquals(indexed.remove(at), plain.remove(at));
+            }
+            assertEquals(indexed.indexOf(value), plain.indexOf(value));
+        }
+        indexed.clear();
+        assertFalse(indexed.contains(0));
+    }
+
+    @org.junit.jupiter.api.Test
+    void toStringBoundedSummarizesTheRest()
+    {
+        ArrayIntList theList = new ArrayIntList();
+        for (int i = 1; i <= 10; i++) {
+            theList.addBack(i);
+        }
+        assertEquals("[1, 2, 3, ... 7 more]", theList.toString(3));
+        assertEquals("[... 10 more]", theList.toString(0));
+        assertEquals(theList.toString(), theList.toString(10));
+        assertEquals(theList.toString(), theList.toString(Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> theList.toString(-1));
+        assertEquals("[]", new ArrayIntList().toString(5));
+    }
+
+    @org.junit.jupiter.api.Test
+    void appendToMatchesStringValueOf() throws java.io.IOException
+    {
+        ArrayIntList theList = new ArrayIntList();
+        int[] values = {0, -1, 9, 10, -99, 100, 12345, Integer.MIN_VALUE, Integer.MAX_VALUE, 1000000000, -1000000000};
+        StringBuilder expected = new StringBuilder("[");
+        for (int value : values) {
+            theList.addBack(value);
+            expected.append(expected.length() > 1 ? ", " : "").append(value);
+        }
+        for (int i = 0; i < 500; i++) {    // spans several chunks of the internal char block
+            theList.addBack(-i * 7919);
+            expected.append(", ").append(-i * 7919);
+        }
+        expected.append("]");
+
+        java.io.StringWriter out = new java.io.StringWriter();
+        theList.appendTo(out);
+        assertEquals(expected.toString(), out.toString());
+        assertEquals(expected.toString(), theList.toString());
+        assertEquals(expected.toString(), theList.subList(0, theList.size()).toString());
+    }
+}
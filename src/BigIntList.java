@@ -0,0 +1,170 @@
+import java.util.Iterator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * The BigIntList interface defines a set of operations for an ordered
+ * (indexed) collection of ints that may hold more than Integer.MAX_VALUE
+ * values, so positions and the size are longs.
+ *
+ * The methods that differ from IntList only in returning a long are
+ * named longSize() and longIndexOf(int), since Java cannot overload on
+ * the return type. That lets one class, such as SegmentedIntList, be both
+ * an IntList and a BigIntList.
+ *
+ * asIntList() and BigIntList.of(IntList) adapt between the two, so code
+ * written against IntList keeps working on the first 2^31-1 values.
+ */
+public interface BigIntList extends Iterable<Integer> {
+
+    /**
+     * Prepends (inserts) the specified value at the front of the list (at index 0).
+     * @param value value to be inserted
+     */
+    void addFront(int value);
+
+    /**
+     * Appends (inserts) the specified value at the back of the list (at index longSize()-1).
+     * @param value value to be inserted
+     */
+    void addBack(int value);
+
+    /**
+     * Inserts the specified value at the specified position in this list.
+     * Shifts the value currently at that position (if any) and any subsequent
+     * values to the right.
+     * @param index index at which the specified value is to be inserted
+     * @param value value to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    void add(long index, int value);
+
+    /**
+     * Removes the value located at the front of the list (at index 0).
+     * @throws IllegalStateException if the list is empty
+     */
+    void removeFront();
+
+    /**
+     * Removes the value located at the back of the list (at index longSize()-1).
+     * @throws IllegalStateException if the list is empty
+     */
+    void removeBack();
+
+    /**
+     * Removes the value at the specified position in this list.
+     * Shifts any subsequent values to the left.
+     * @param index the index of the value to be removed
+     * @return the value previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    int remove(long index);
+
+    /**
+     * Returns the value at the specified position in the list.
+     * @param index index of the value to return
+     * @return the value at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    int get(long index);
+
+    /**
+     * Replaces the value at the specified position in the list.
+     * @param index index of the value to replace
+     * @param value value to be stored at the specified position
+     * @return the value previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    int set(long index, int value);
+
+    /**
+     * Returns true if this list contains the specified value.
+     * @param value value whose presence in this list is to be searched for
+     * @return true if this list contains the specified value
+     */
+    boolean contains(int value);
+
+    /**
+     * Returns the index of the first occurrence of the specified value
+     * in this list, or -1 if this list does not contain the value.
+     * @param value value to search for
+     * @return the index of the first occurrence, or -1
+     */
+    long longIndexOf(int value);
+
+    /**
+     * Returns true if this list contains no values.
+     * @return true if this list contains no values
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the number of values in this list.
+     * @return the number of values in this list
+     */
+    long longSize();
+
+    /**
+     * Removes all the values from this list.
+     */
+    void clear();
+
+    /**
+     * Passes each value in this list, in order, to the specified action
+     * until the action returns false or every value has been visited.
+     * @param action the action to be performed for each value; returning
+     * false stops the walk early
+     * @return true if every value was visited, false if the action stopped the walk
+     */
+    default boolean forEachWhile(IntPredicate action)
+    {
+        Iterator<Integer> iterator = iterator();
+        while (iterator.hasNext())
+        {
+            if (!action.test(iterator.next()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Passes each value in this list, in order, to the specified action.
+     * @param action the action to be performed for each value
+     */
+    default void forEachInt(IntConsumer action)
+    {
+        forEachWhile(value -> {
+            action.accept(value);
+            return true;
+        });
+    }
+
+    /**
+     * Returns an IntList view of this list. Reads and writes go through to
+     * this list; the view's size() is capped at Integer.MAX_VALUE, so int
+     * indexes reach the first 2^31-1 values.
+     * @return an IntList backed by this list
+     */
+    default IntList asIntList()
+    {
+        return new BigIntListAdapters.IntListView(this);
+    }
+
+    /**
+     * Returns the specified IntList as a BigIntList. If it already is one it
+     * is returned as is; otherwise a view is returned that forwards to it and
+     * rejects indexes past Integer.MAX_VALUE.
+     * @param list the list to adapt
+     * @return a BigIntList backed by list
+     */
+    static BigIntList of(IntList list)
+    {
+        if (list instanceof BigIntList)
+        {
+            return (BigIntList) list;
+        }
+        return new BigIntListAdapters.BigView(list);
+    }
+}
@@ -0,0 +1,265 @@
+import java.util.Iterator;
+import java.util.function.IntPredicate;
+
+/**
+ * The views returned by BigIntList.asIntList() and BigIntList.of(IntList).
+ * Both forward every call; they only translate between int and long
+ * positions.
+ */
+final class BigIntListAdapters
+{
+    private BigIntListAdapters()
+    {
+    }
+
+    /**
+     * An IntList over a BigIntList. size() is capped at Integer.MAX_VALUE,
+     * so only the first 2^31-1 values have int indexes; forEachWhile and
+     * iterator still visit every value.
+     */
+    static final class IntListView implements IntList
+    {
+        private final BigIntList list;
+
+        IntListView(BigIntList list)
+        {
+            this.list = list;
+        }
+
+        @Override
+        public void addFront(int value)
+        {
+            list.addFront(value);
+        }
+
+        @Override
+        public void addBack(int value)
+        {
+            list.addBack(value);
+        }
+
+        @Override
+        public void add(int index, int value)
+        {
+            list.add(index, value);
+        }
+
+        @Override
+        public void removeFront()
+        {
+            list.removeFront();
+        }
+
+        @Override
+        public void removeBack()
+        {
+            list.removeBack();
+        }
+
+        @Override
+        public int remove(int index)
+        {
+            return list.remove(index);
+        }
+
+        @Override
+        public int get(int index)
+        {
+            return list.get(index);
+        }
+
+        @Override
+        public boolean contains(int value)
+        {
+            return list.contains(value);
+        }
+
+        @Override
+        public int indexOf(int value)
+        {
+            long index = list.longIndexOf(value);
+            return (index <= Integer.MAX_VALUE) ? (int) index : -1;
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return list.isEmpty();
+        }
+
+        @Override
+        public int size()
+        {
+            return (int) Math.min(list.longSize(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long bytesUsed()
+        {
+            return IntListFootprint.object(IntListFootprint.REFERENCE);
+        }
+
+        @Override
+        public void clear()
+        {
+            list.clear();
+        }
+
+        @Override
+        public boolean forEachWhile(IntPredicate action)
+        {
+            return list.forEachWhile(action);
+        }
+
+        @Override
+        public Iterator<Integer> iterator()
+        {
+            return list.iterator();
+        }
+
+        @Override
+        public String toString()
+        {
+            return IntListFormat.toString(this, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * A BigIntList over an IntList, which can never hold more than
+     * Integer.MAX_VALUE values. removeFront and removeBack check for an
+     * empty list themselves, since not every IntList throws there.
+     */
+    static final class BigView implements BigIntList
+    {
+        private final IntList list;
+
+        BigView(IntList list)
+        {
+            this.list = list;
+        }
+
+        @Override
+        public void addFront(int value)
+        {
+            list.addFront(value);
+        }
+
+        @Override
+        public void addBack(int value)
+        {
+            list.addBack(value);
+        }
+
+        @Override
+        public void add(long index, int value)
+        {
+            list.add(toIntIndex(index), value);
+        }
+
+        @Override
+        public void removeFront()
+        {
+            if (list.isEmpty())
+            {
+                throw new IllegalStateException("List is empty");
+            }
+            list.removeFront();
+        }
+
+        @Override
+        public void removeBack()
+        {
+            if (list.isEmpty())
+            {
+                throw new IllegalStateException("Already empty!");
+            }
+            list.removeBack();
+        }
+
+        @Override
+        public int remove(long index)
+        {
+            return list.remove(toIntIndex(index));
+        }
+
+        @Override
+        public int get(long index)
+        {
+            return list.get(toIntIndex(index));
+        }
+
+        @Override
+        public int set(long index, int value)
+        {
+            // IntList has no set, so replace by remove and add
+            int intIndex = toIntIndex(index);
+            int oldValue = list.remove(intIndex);
+            list.add(intIndex, value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean contains(int value)
+        {
+            return list.contains(value);
+        }
+
+        @Override
+        public long longIndexOf(int value)
+        {
+            return list.indexOf(value);
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return list.isEmpty();
+        }
+
+        @Override
+        public long longSize()
+        {
+            return list.size();
+        }
+
+        @Override
+        public void clear()
+        {
+            list.clear();
+        }
+
+        @Override
+        public boolean forEachWhile(IntPredicate action)
+        {
+            return list.forEachWhile(action);
+        }
+
+        @Override
+        public IntList asIntList()
+        {
+            return list;
+        }
+
+        @Override
+        public Iterator<Integer> iterator()
+        {
+            return list.iterator();
+        }
+
+        @Override
+        public String toString()
+        {
+            return list.toString();
+        }
+
+        // out-of-range longs must not wrap around into valid int indexes
+        private static int toIntIndex(long index)
+        {
+            if (index < 0 || index > Integer.MAX_VALUE)
+            {
+                throw new IndexOutOfBoundsException("Index out of range");
+            }
+            return (int) index;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BigIntListTest {
+
+    private static void matchesArrayList(BigIntList theList) {
+        Random random = new Random(37);
+        ArrayList<Integer> oracle = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            int op = random.nextInt(7);
+            int value = random.nextInt(100);
+            if (op == 0) {
+                theList.addFront(value);
+                oracle.add(0, value);
+            } else if (op <= 2) {
+                theList.addBack(value);
+                oracle.add(value);
+            } else if (op == 3) {
+                int index = random.nextInt(oracle.size() + 1);
+                theList.add((long) index, value);
+                oracle.add(index, value);
+            } else if (op == 4 && !oracle.isEmpty()) {
+                int index = random.nextInt(oracle.size());
+                assertEquals((int) oracle.remove(index), theList.remove((long) index));
+            } else if (op == 5 && !oracle.isEmpty()) {
+                int index = random.nextInt(oracle.size());
+                assertEquals((int) oracle.set(index, value), theList.set(index, value));
+            } else {
+                assertEquals(oracle.indexOf(value), theList.longIndexOf(value));
+            }
+        }
+        assertEquals(oracle.size(), theList.longSize());
+        assertEquals(oracle.toString(), theList.toString());
+        assertEquals(oracle.toString(), theList.asIntList().toString());
+    }
+
+    @Test
+    void offHeapMatchesArrayList() {
+        matchesArrayList(new OffHeapIntList(3));
+    }
+
+    @Test
+    void segmentedMatchesArrayList() {
+        matchesArrayList(new SegmentedIntList(3));
+    }
+
+    @Test
+    void wrappedIntListMatchesArrayList() {
+        matchesArrayList(BigIntList.of(new ArrayIntList()));
+    }
+
+    @Test
+    void wrappedLinkedListThrowsWhenEmpty() {
+        BigIntList theList = BigIntList.of(new LinkedIntList());
+        assertThrows(IllegalStateException.class, theList::removeFront);
+        assertThrows(IllegalStateException.class, theList::removeBack);
+        theList.addBack(1);
+        theList.removeBack();
+        assertTrue(theList.isEmpty());
+    }
+
+    @Test
+    void offHeapReleasesChunks() {
+        OffHeapIntList theList = new OffHeapIntList(4);
+        for (int i = 0; i < 64; i++) {
+            theList.addBack(i);
+        }
+        assertEquals(4 * 16 * 4, theList.offHeapBytes());
+        while (!theList.isEmpty()) {
+            theList.removeBack();
+        }
+        assertEquals(16 * 4, theList.offHeapBytes());
+        assertThrows(IllegalStateException.class, theList::removeFront);
+        assertThrows(IndexOutOfBoundsException.class, () -> theList.get(0));
+    }
+
+    @Test
+    void adaptersForwardToTheSameValues() {
+        SegmentedIntList segmented = new SegmentedIntList();
+        assertSame(segmented, BigIntList.of(segmented));
+        assertSame(segmented, segmented.asIntList());
+
+        ArrayIntList array = new ArrayIntList();
+        BigIntList big = BigIntList.of(array);
+        assertSame(array, big.asIntList());
+        big.addBack(5);
+        assertEquals(1, array.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> big.get(1L << 32));
+
+        OffHeapIntList offHeap = new OffHeapIntList();
+        IntList view = offHeap.asIntList();
+        view.addBack(1);
+        view.addBack(2);
+        view.add(1, 9);
+        assertEquals(3, offHeap.longSize());
+        assertEquals(9, offHeap.get(1L));
+        assertEquals("[1, 9, 2]", view.toString());
+        assertEquals(12, view.view().sum());
+    }
+}
@@ -0,0 +1,103 @@
+// GENERATED by PrimitiveListGenerator from templates/PrimitiveListBenchmark.java.template, do not edit
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * ArrayByteList and LinkedByteList against ArrayList<Byte>: append,
+ * sum and indexOf over the same random bytes.
+ *
+ * usage: java ByteListBenchmark [size] [rounds]
+ */
+public class ByteListBenchmark
+{
+    public static void main(String[] args)
+    {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+        Random random = new Random(1);
+        byte[] values = new byte[size];
+        for (int i = 0; i < size; i++)
+        {
+            values[i] = (byte) random.nextInt();
+            if (values[i] == Byte.MAX_VALUE)
+            {
+                values[i] = 0;
+            }
+        }
+        byte last = Byte.MAX_VALUE;      // only at the end, so indexOf walks everything
+        values[size - 1] = last;
+
+        System.out.printf("%d bytes, best of %d rounds%n", size, rounds);
+        for (String kind : new String[] {"ArrayByteList", "LinkedByteList", "ArrayList<Byte>"})
+        {
+            long[] checksum = {0};
+            Object[] list = new Object[1];
+            long append = best(rounds, () -> list[0] = fill(kind, values));
+            long sum = best(rounds, () -> checksum[0] += sum(list[0]));
+            long indexOf = best(rounds, () -> checksum[0] += indexOf(list[0], last));
+            System.out.printf("  %-20s append %8.2f ms   sum %8.2f ms   indexOf %8.2f ms   (checksum %d)%n",
+                    kind, append / 1e6, sum / 1e6, indexOf / 1e6, checksum[0]);
+        }
+    }
+
+    private static Object fill(String kind, byte[] values)
+    {
+        if (kind.startsWith("ArrayList"))
+        {
+            List<Byte> boxed = new ArrayList<>();
+            for (byte value : values)
+            {
+                boxed.add(value);
+            }
+            return boxed;
+        }
+        ByteList list = kind.startsWith("Array") ? new ArrayByteList() : new LinkedByteList();
+        for (byte value : values)
+        {
+            list.addBack(value);
+        }
+        return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long sum(Object list)
+    {
+        long[] sum = {0};
+        if (list instanceof ByteList)
+        {
+            ((ByteList) list).forEachValue(value -> sum[0] += value);
+        }
+        else
+        {
+            for (Byte value : (List<Byte>) list)
+            {
+                sum[0] += value;
+            }
+        }
+        return sum[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long indexOf(Object list, byte value)
+    {
+        return (list instanceof ByteList)
+                ? ((ByteList) list).indexOf(value)
+                : ((List<Byte>) list).indexOf(value);
+    }
+
+    // fastest of rounds runs, after one warm-up run
+    private static long best(int rounds, Runnable task)
+    {
+        task.run();
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++)
+        {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
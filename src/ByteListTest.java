@@ -0,0 +1,134 @@
+// GENERATED by PrimitiveListGenerator from templates/PrimitiveListTest.java.template, do not edit
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteListTest {
+
+    private static ByteList[] lists() {
+        return new ByteList[] {new ArrayByteList(), new LinkedByteList()};
+    }
+
+    @Test
+    void matchesArrayListThroughRandomOperations() {
+        for (ByteList theList : lists()) {
+            Random random = new Random(43);
+            List<Byte> expected = new ArrayList<>();
+            for (int step = 0; step < 5_000; step++) {
+                byte value = (byte) random.nextInt();
+                switch (random.nextInt(8)) {
+                    case 0:
+                        theList.addFront(value);
+                        expected.add(0, value);
+                        break;
+                    case 1:
+                    case 2:
+                        theList.addBack(value);
+                        expected.add(value);
+                        break;
+                    case 3:
+                        int index = random.nextInt(expected.size() + 1);
+                        theList.add(index, value);
+                        expected.add(index, value);
+                        break;
+                    case 4:
+                        if (!expected.isEmpty()) {
+                            int removeAt = random.nextInt(expected.size());
+                            assertEquals(expected.remove(removeAt).byteValue(), theList.remove(removeAt));
+                        }
+                        break;
+                    case 5:
+                        if (!expected.isEmpty()) {
+                            byte existing = expected.get(random.nextInt(expected.size()));
+                            assertEquals(expected.indexOf(existing), theList.indexOf(existing));
+                            assertTrue(theList.contains(existing));
+                        }
+                        break;
+                    case 6:
+                        if (!expected.isEmpty()) {
+                            theList.removeBack();
+                            expected.remove(expected.size() - 1);
+                        }
+                        break;
+                    default:
+                        assertEquals(expected.indexOf(value), theList.indexOf(value));
+                        break;
+                }
+                assertEquals(expected.size(), theList.size());
+            }
+            assertEquals(expected.toString(), theList.toString());
+        }
+    }
+
+    @Test
+    void bulkOperations() {
+        for (ByteList theList : lists()) {
+            byte[] values = {1, 2, 3, 4, 5, 6};
+            theList.addAll(values, 1, 4);
+            assertArrayEquals(new byte[] {2, 3, 4, 5}, theList.toArray());
+            assertTrue(theList.removeIf(value -> value % 2 == 0));
+            assertArrayEquals(new byte[] {3, 5}, theList.toArray());
+            theList.addBack((byte) 7);
+            assertEquals(2, theList.indexOf((byte) 7));
+            long[] sum = {0};
+            theList.forEachValue(value -> sum[0] += value);
+            assertEquals(15, sum[0]);
+            assertThrows(IndexOutOfBoundsException.class, () -> theList.addAll(values, 4, 3));
+        }
+    }
+
+    @Test
+    void extremeValues() {
+        for (ByteList theList : lists()) {
+            theList.addBack(Byte.MIN_VALUE);
+            theList.addBack(Byte.MAX_VALUE);
+            theList.addFront((byte) 0);
+            assertEquals(Byte.MIN_VALUE, theList.get(1));
+            assertEquals(Byte.MAX_VALUE, theList.get(2));
+            assertEquals(2, theList.indexOf(Byte.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void footprint() {
+        ArrayByteList array = new ArrayByteList();
+        LinkedByteList linked = new LinkedByteList();
+        long emptyArray = array.bytesUsed();
+        long emptyLinked = linked.bytesUsed();
+        for (int i = 0; i < 11; i++) {
+            array.addBack((byte) i);
+            linked.addBack((byte) i);
+        }
+        assertEquals(20, array.capacity());
+        assertTrue(array.bytesUsed() > emptyArray);
+        assertEquals(11, linked.capacity());
+        assertEquals(emptyLinked + 11 * 24, linked.bytesUsed());
+    }
+
+    @Test
+    void rangeChecks() {
+        for (ByteList theList : lists()) {
+            assertThrows(IndexOutOfBoundsException.class, () -> theList.get(0));
+            assertThrows(IndexOutOfBoundsException.class, () -> theList.add(1, (byte) 1));
+            assertThrows(IndexOutOfBoundsException.class, () -> theList.remove(0));
+        }
+    }
+
+    @Test
+    void iteratorDetectsModification() {
+        for (ByteList theList : lists()) {
+            theList.addBack((byte) 1);
+            theList.addBack((byte) 2);
+            Iterator<Byte> iterator = theList.iterator();
+            assertEquals(1, iterator.next().byteValue());
+            theList.addBack((byte) 3);
+            assertThrows(ConcurrentModificationException.class, iterator::next);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+import java.util.Iterator;
+import java.util.function.IntPredicate;
+
+/**
+ * An IntList decorator that remembers the results of indexOf and contains
+ * for recently or frequently asked values, in a bounded primitive cache.
+ *
+ * Each cached value maps to its first index, or -1 if absent, so one
+ * entry answers both indexOf and contains. Mutations keep entries exact
+ * instead of dropping the whole cache:
+ *
+ *   insert at i   - cached indexes at or after i move up by one; the
+ *                   inserted value's entry becomes i if it was -1 or later
+ *   remove at i   - cached indexes after i move down by one; the removed
+ *                   value's entry is dropped if i was its first index
+ *   append        - only entries of -1 for the appended values change
+ *   clear, removeIf - entries of -1 stay correct, all others are dropped
+ *
+ * Only a dropped entry counts as an invalidation. Adjusting indexes scans
+ * the cache, so it costs O(cache capacity) per insert or remove before
+ * the end of the list. That is the right trade for lists that are read
+ * far more often than they change.
+ *
+ * Like InstrumentedIntList, every change must go through this decorator:
+ * the cache cannot see changes made to the wrapped list directly. Not
+ * thread-safe.
+ */
+public class CachedIntList implements IntList
+{
+    /**
+     * How the cache chooses an entry to evict when it is full.
+     */
+    public enum Eviction
+    {
+        /** Least recently used: simple, but one scan of cold values flushes the hot ones. */
+        LRU,
+
+        /**
+         * Window TinyLFU: a small LRU window in front of a main area, with
+         * admission decided by recent access frequency; resists scans.
+         */
+        W_TINY_LFU
+    }
+
+    private static final int NOT_CACHED = Integer.MIN_VALUE;
+
+    private final IntList delegate;
+    private final IntLookupCache cache;
+
+    /**
+     * Wraps the specified list with a W-TinyLFU cache.
+     *
+     * @param delegate the list whose lookups are cached
+     * @param capacity the most values to remember
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public CachedIntList(IntList delegate, int capacity)
+    {
+        this(delegate, capacity, Eviction.W_TINY_LFU);
+    }
+
+    /**
+     * Wraps the specified list with a cache using the specified eviction policy.
+     *
+     * @param delegate the list whose lookups are cached
+     * @param capacity the most values to remember
+     * @param eviction how to choose an entry to evict
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public CachedIntList(IntList delegate, int capacity, Eviction eviction)
+    {
+        this.delegate = delegate;
+        this.cache = new IntLookupCache(capacity, eviction);
+    }
+
+    /**
+     * Returns the list this decorator wraps.
+     *
+     * @return the wrapped list
+     */
+    public IntList delegate()
+    {
+        return delegate;
+    }
+
+    /**
+     * @return the number of indexOf and contains calls answered from the cache
+     */
+    public long hits()
+    {
+        return cache.hits();
+    }
+
+    /**
+     * @return the number of indexOf and contains calls passed on to the wrapped list
+     */
+    public long misses()
+    {
+        return cache.misses();
+    }
+
+    /**
+     * @return hits / (hits + misses), or 0 before the first lookup
+     */
+    public double hitRatio()
+    {
+        long lookups = cache.hits() + cache.misses();
+        return (lookups == 0) ? 0 : (double) cache.hits() / lookups;
+    }
+
+    /**
+     * @return the number of entries evicted to make room for others
+     */
+    public long evictions()
+    {
+        return cache.evictions();
+    }
+
+    /**
+     * @return the number of entries dropped because a mutation made them unknowable
+     */
+    public long invalidations()
+    {
+        return cache.invalidations();
+    }
+
+    /**
+     * @return the number of values currently cached
+     */
+    public int cachedValues()
+    {
+        return cache.size();
+    }
+
+    @Override
+    public void addFront(int value)
+    {
+        delegate.addFront(value);
+        inserted(0, value);
+    }
+
+    @Override
+    public void addBack(int value)
+    {
+        delegate.addBack(value);
+        appended(value, delegate.size() - 1);
+    }
+
+    @Override
+    public void add(int index, int value)
+    {
+        delegate.add(index, value);
+        inserted(index, value);
+    }
+
+    @Override
+    public void addAll(int[] values, int offset, int length)
+    {
+        int start = delegate.size();
+        delegate.addAll(values, offset, length);
+        for (int i = 0; i < length; i++)
+        {
+            appended(values[offset + i], start + i);
+        }
+    }
+
+    @Override
+    public void removeFront()
+    {
+        if (delegate.isEmpty())
+        {
+            delegate.removeFront();     // throws or does nothing, as the delegate does; no value left the list
+            return;
+        }
+        int value = delegate.get(0);
+        delegate.removeFront();
+        removed(0, value);
+    }
+
+    @Override
+    public void removeBack()
+    {
+        if (delegate.isEmpty())
+        {
+            delegate.removeBack();
+            return;
+        }
+        int index = delegate.size() - 1;
+        int value = delegate.get(index);
+        delegate.removeBack();
+        removed(index, value);
+    }
+
+    @Override
+    public int remove(int index)
+    {
+        int removedValue = delegate.remove(index);
+        removed(index, removedValue);
+        return removedValue;
+    }
+
+    @Override
+    public int get(int index)
+    {
+        return delegate.get(index);
+    }
+
+    @Override
+    public boolean contains(int value)
+    {
+        return indexOf(value) != -1;
+    }
+
+    @Override
+    public int indexOf(int value)
+    {
+        int index = cache.get(value, NOT_CACHED);
+        if (index == NOT_CACHED)
+        {
+            index = delegate.indexOf(value);
+            cache.put(value, index);
+        }
+        return index;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public int size()
+    {
+        return delegate.size();
+    }
+
+    @Override
+    public int capacity()
+    {
+        return delegate.capacity();
+    }
+
+    /**
+     * Returns the estimated heap of the delegate plus that of the cache,
+     * which is fixed by the cache capacity: about 24 bytes per entry for
+     * the slots, the key to slot map, and for W_TINY_LFU the frequency sketch.
+     *
+     * @return the estimated heap footprint of this list and its cache in bytes
+     */
+    @Override
+    public long bytesUsed()
+    {
+        // delegate and cache references
+        return IntListFootprint.object(2 * IntListFootprint.REFERENCE) + cache.bytesUsed() + delegate.bytesUsed();
+    }
+
+    @Override
+    public void clear()
+    {
+        delegate.clear();
+        cache.invalidateValuesFrom(0);
+    }
+
+    @Override
+    public boolean removeIf(IntPredicate filter)
+    {
+        boolean changed = delegate.removeIf(filter);
+        if (changed)
+        {
+            cache.invalidateValuesFrom(0);
+        }
+        return changed;
+    }
+
+    /**
+     * Applies the batch to the wrapped list in one pass, then drops the
+     * cached indexes at or after the first edit, and the cached misses of
+     * the inserted values. Entries before the first edit stay valid.
+     *
+     * @param batch the edits to apply
+     */
+    @Override
+    public void applyEdits(IntEditBatch batch)
+    {
+        delegate.applyEdits(batch);
+        if (batch.isEmpty())
+        {
+            return;
+        }
+        cache.invalidateValuesFrom(batch.firstIndex());
+        for (int k = 0; k < batch.insertCount(); k++)
+        {
+            int value = batch.insertValue(k);
+            if (cache.peek(value, NOT_CACHED) == -1)
+            {
+                cache.invalidate(value);
+            }
+        }
+    }
+
+    @Override
+    public boolean forEachWhile(IntPredicate action)
+    {
+        return delegate.forEachWhile(action);
+    }
+
+    @Override
+    public int[] toArray()
+    {
+        return delegate.toArray();
+    }
+
+    @Override
+    public Iterator<Integer> iterator()
+    {
+        return delegate.iterator();
+    }
+
+    @Override
+    public String toString()
+    {
+        return delegate.toString();
+    }
+
+    // ---------------------------------------------------------------
+    // cache maintenance
+    // ---------------------------------------------------------------
+
+    private void inserted(int index, int value)
+    {
+        cache.shiftValues(index, 1);
+        int cached = cache.peek(value, NOT_CACHED);
+        if (cached == -1 || cached > index)
+        {
+            cache.update(value, index);
+        }
+    }
+
+    private void appended(int value, int index)
+    {
+        if (cache.peek(value, NOT_CACHED) == -1)
+        {
+            cache.update(value, index);
+        }
+    }
+
+    private void removed(int index, int value)
+    {
+        if (cache.peek(value, NOT_CACHED) == index)
+        {
+            cache.invalidate(value);    // the next occurrence, if any, is unknown
+        }
+        cache.shiftValues(index + 1, -1);
+    }
+}
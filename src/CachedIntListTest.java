@@ -0,0 +1,167 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedIntListTest {
+
+    @Test
+    void lookupsMatchUncachedListThroughRandomMutations() {
+        for (CachedIntList.Eviction eviction : CachedIntList.Eviction.values()) {
+            Random random = new Random(42);
+            ArrayIntList expected = new ArrayIntList();
+            CachedIntList theList = new CachedIntList(new ArrayIntList(), 16, eviction);
+
+            for (int step = 0; step < 20_000; step++) {
+                int value = random.nextInt(40);
+                int operation = random.nextInt(20);
+                if (operation == 0) {
+                    expected.addFront(value);
+                    theList.addFront(value);
+                } else if (operation == 1 || operation == 2) {
+                    expected.addBack(value);
+                    theList.addBack(value);
+                } else if (operation == 3) {
+                    int index = random.nextInt(expected.size() + 1);
+                    expected.add(index, value);
+                    theList.add(index, value);
+                } else if (operation == 4 && !expected.isEmpty()) {
+                    int index = random.nextInt(expected.size());
+                    assertEquals(expected.remove(index), theList.remove(index));
+                } else if (operation == 5 && !expected.isEmpty()) {
+                    expected.removeFront();
+                    theList.removeFront();
+                } else if (operation == 6 && !expected.isEmpty()) {
+                    expected.removeBack();
+                    theList.removeBack();
+                } else if (operation == 7 && random.nextInt(50) == 0) {
+                    expected.removeIf(v -> v % 3 == 0);
+                    theList.removeIf(v -> v % 3 == 0);
+                } else if (operation == 8 && random.nextInt(200) == 0) {
+                    expected.clear();
+                    theList.clear();
+                } else if (operation == 9) {
+                    int[] values = {value, value + 1, value};
+                    expected.addAll(values, 0, 3);
+                    theList.addAll(values, 0, 3);
+                } else {
+                    assertEquals(expected.indexOf(value), theList.indexOf(value), "step " + step);
+                    assertEquals(expected.contains(value), theList.contains(value));
+                }
+            }
+            assertArrayEquals(expected.toArray(), theList.toArray());
+            assertTrue(theList.hits() > 0);
+            assertTrue(theList.evictions() > 0);
+            assertTrue(theList.cachedValues() <= 16);
+        }
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        CachedIntList theList = new CachedIntList(new ArrayIntList(), 8);
+        theList.addBack(5);
+        theList.addBack(7);
+        assertEquals(0, theList.hitRatio());
+        assertEquals(1, theList.indexOf(7));
+        assertEquals(1, theList.indexOf(7));
+        assertTrue(theList.contains(7));
+        assertFalse(theList.contains(9));
+        assertEquals(2, theList.hits());
+        assertEquals(2, theList.misses());
+        assertEquals(0.5, theList.hitRatio());
+    }
+
+    @Test
+    void mutationsAdjustEntriesInsteadOfDroppingThem() {
+        CachedIntList theList = new CachedIntList(new ArrayIntList(), 8);
+        for (int value : new int[] {10, 20, 30}) {
+            theList.addBack(value);
+        }
+        theList.indexOf(10);
+        theList.indexOf(30);
+        theList.indexOf(40);
+
+        theList.addFront(5);            // shifts 10 and 30
+        theList.addBack(40);            // 40 was absent, now known
+        theList.remove(2);              // removes 20: shifts 30, nothing dropped
+        assertEquals(0, theList.invalidations());
+
+        long misses = theList.misses();
+        assertEquals(1, theList.indexOf(10));
+        assertEquals(2, theList.indexOf(30));
+        assertEquals(3, theList.indexOf(40));
+        assertEquals(misses, theList.misses());
+
+        theList.removeFront();          // removes 5, not cached
+        theList.remove(0);              // removes 10, its only occurrence
+        assertEquals(1, theList.invalidations());
+        assertEquals(-1, theList.indexOf(10));
+        assertEquals(0, theList.indexOf(30));
+    }
+
+    @Test
+    void clearKeepsOnlyAbsentEntries() {
+        CachedIntList theList = new CachedIntList(new ArrayIntList(), 8);
+        theList.addBack(1);
+        theList.addBack(2);
+        theList.indexOf(1);
+        theList.indexOf(2);
+        theList.indexOf(3);
+        theList.clear();
+        assertEquals(2, theList.invalidations());
+        assertEquals(1, theList.cachedValues());
+        assertFalse(theList.contains(1));
+        assertFalse(theList.contains(3));
+    }
+
+    @Test
+    void removingFromEmptyListKeepsEntries() {
+        CachedIntList theList = new CachedIntList(new LinkedIntList(), 8);     // empty removes are no-ops
+        assertFalse(theList.contains(0));
+        theList.removeBack();
+        theList.removeFront();
+        assertEquals(0, theList.invalidations());
+        assertEquals(1, theList.cachedValues());
+        assertFalse(theList.contains(0));
+        assertEquals(1, theList.hits());
+
+        CachedIntList array = new CachedIntList(new ArrayIntList(), 8);         // empty removes throw
+        assertFalse(array.contains(0));
+        assertThrows(IllegalStateException.class, array::removeBack);
+        assertThrows(IllegalStateException.class, array::removeFront);
+        assertEquals(0, array.invalidations());
+        assertEquals(1, array.cachedValues());
+    }
+
+    @Test
+    void tinyLfuKeepsHotValuesThroughScan() {
+        double[] ratios = new double[2];
+        for (CachedIntList.Eviction eviction : CachedIntList.Eviction.values()) {
+            ArrayIntList values = new ArrayIntList();
+            for (int i = 0; i < 10_000; i++) {
+                values.addBack(i);
+            }
+            CachedIntList theList = new CachedIntList(values, 100, eviction);
+            Random random = new Random(7);
+            int scan = 1_000;
+            for (int round = 0; round < 200; round++) {
+                for (int i = 0; i < 50; i++) {
+                    theList.indexOf(random.nextInt(50));       // hot values
+                }
+                for (int i = 0; i < 100; i++) {
+                    theList.indexOf(scan++);                   // one-off values
+                }
+            }
+            ratios[eviction.ordinal()] = theList.hitRatio();
+        }
+        assertTrue(ratios[CachedIntList.Eviction.W_TINY_LFU.ordinal()] > 0.3);
+        assertTrue(ratios[CachedIntList.Eviction.W_TINY_LFU.ordinal()]
+                > ratios[CachedIntList.Eviction.LRU.ordinal()] + 0.1);
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new CachedIntList(new ArrayIntList(), 0));
+    }
+}
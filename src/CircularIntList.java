@@ -0,0 +1,358 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * An IntList stored in a ring buffer: like ArrayIntList, but index 0 can be
+ * anywhere in the buffer and the values wrap around its end. That makes
+ * addFront and removeFront as cheap as addBack and removeBack, while get
+ * stays constant time.
+ *
+ * add(index) and remove(index) shift whichever side of index is shorter,
+ * so they cost at most half as much as on ArrayIntList.
+ */
+public class CircularIntList implements IntList
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    // internal (private) representation
+    private int[] buffer;   // capacity is always a power of two, so wrapping is a mask
+    private int head;       // buffer position of index 0
+    private int size;
+    private int modCount;
+
+    public CircularIntList()
+    {
+        buffer = new int[INITIAL_CAPACITY];
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Prepends (inserts) the specified value at the front of the list (at index 0).
+     *
+     * fast, constant time O(1) if no resize, head just moves back one spot
+     *
+     * @param value value to be inserted
+     */
+    @Override
+    public void addFront(int value)
+    {
+        if (size == buffer.length)
+        {
+            resize(2 * buffer.length);
+        }
+
+        head = (head - 1) & (buffer.length - 1);
+        buffer[head] = value;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Appends (inserts) the specified value at the back of the list (at index size()-1).
+     *
+     * fast, constant time O(1) if no resize
+     *
+     * @param value value to be inserted
+     */
+    @Override
+    public void addBack(int value)
+    {
+        if (size == buffer.length)
+        {
+            resize(2 * buffer.length);
+        }
+
+        buffer[slot(size)] = value;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Inserts the specified value at the specified position in this list.
+     * Shifts the values on the shorter side of index by one position.
+     *
+     * linear time O(min(index, size - index))
+     *
+     * @param index index at which the specified value is to be inserted
+     * @param value value to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public void add(int index, int value)
+    {
+        if (index < 0 || index > size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+
+        if (size == buffer.length)
+        {
+            resize(2 * buffer.length);
+        }
+
+        if (index < size / 2)
+        {
+            // move the front part one spot toward the front
+            head = (head - 1) & (buffer.length - 1);
+            for (int i = 0; i < index; i++)
+            {
+                buffer[slot(i)] = buffer[slot(i + 1)];
+            }
+        }
+        else
+        {
+            // move the back part one spot toward the back
+            for (int i = size; i > index; i--)
+            {
+                buffer[slot(i)] = buffer[slot(i - 1)];
+            }
+        }
+
+        buffer[slot(index)] = value;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Removes the value located at the front of the list (at index 0).
+     *
+     * fast, constant time O(1)
+     *
+     * @throws IllegalStateException if the list is empty
+     */
+    @Override
+    public void removeFront()
+    {
+        if (size == 0)
+        {
+            throw new IllegalStateException("List is empty");
+        }
+
+        buffer[head] = 0;
+        head = (head + 1) & (buffer.length - 1);
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Removes the value located at the back of the list (at index size()-1).
+     *
+     * fast, constant time O(1)
+     *
+     * @throws IllegalStateException if the list is empty
+     */
+    @Override
+    public void removeBack()
+    {
+        if (size == 0)
+        {
+            throw new IllegalStateException("Already empty!");
+        }
+
+        size--;
+        buffer[slot(size)] = 0;
+        modCount++;
+    }
+
+    /**
+     * Removes the value at the specified position in this list.
+     * Shifts the values on the shorter side of index by one position.
+     *
+     * linear time O(min(index, size - index))
+     *
+     * @param index the index of the value to be removed
+     * @return the value previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public int remove(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+
+        int removedValue = buffer[slot(index)];
+        if (index < size / 2)
+        {
+            // close the gap by moving the front part one spot toward the back
+            for (int i = index; i > 0; i--)
+            {
+                buffer[slot(i)] = buffer[slot(i - 1)];
+            }
+            buffer[head] = 0;
+            head = (head + 1) & (buffer.length - 1);
+        }
+        else
+        {
+            // close the gap by moving the back part one spot toward the front
+            for (int i = index; i < size - 1; i++)
+            {
+                buffer[slot(i)] = buffer[slot(i + 1)];
+            }
+            buffer[slot(size - 1)] = 0;
+        }
+
+        size--;
+        modCount++;
+        return removedValue;
+    }
+
+    /**
+     * Returns the value at the specified position in the list.
+     *
+     * fast, constant time O(1)
+     *
+     * @param index index of the value to return
+     * @return the value at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public int get(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        return buffer[slot(index)];
+    }
+
+    @Override
+    public boolean contains(int value) // linear time O(size)
+    {
+        return indexOf(value) != -1;
+    }
+
+    @Override
+    public int indexOf(int value) // linear time O(size)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            if (buffer[slot(i)] == value)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public int capacity()
+    {
+        return buffer.length;
+    }
+
+    @Override
+    public long bytesUsed()
+    {
+        // buffer reference, head, size and modCount
+        return IntListFootprint.object(IntListFootprint.REFERENCE + 3 * Integer.BYTES)
+                + IntListFootprint.array(buffer.length, Integer.BYTES);
+    }
+
+    @Override
+    public void clear()
+    {
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public boolean forEachWhile(IntPredicate action)
+    {
+        int expectedModCount = modCount;
+        for (int i = 0; i < size; i++)
+        {
+            if (!action.test(buffer[slot(i)]))
+            {
+                return false;
+            }
+        }
+        if (modCount != expectedModCount)
+        {
+            throw new ConcurrentModificationException();
+        }
+        return true;
+    }
+
+    @Override
+    public int[] toArray() // linear time O(size), at most two block copies
+    {
+        return toArray(size);
+    }
+
+    @Override
+    public Iterator<Integer> iterator()
+    {
+        return new Iterator<Integer>()
+        {
+            private int currentPosition = 0;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext()
+            {
+                return currentPosition < size;
+            }
+
+            @Override
+            public Integer next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                if (modCount != expectedModCount)
+                {
+                    throw new ConcurrentModificationException();
+                }
+                return buffer[slot(currentPosition++)];
+            }
+        };
+    }
+
+    @Override
+    public String toString()
+    {
+        return IntListFormat.toString(this, Integer.MAX_VALUE);
+    }
+
+    // buffer position of list index
+    private int slot(int index)
+    {
+        return (head + index) & (buffer.length - 1);
+    }
+
+    // copies the values into a new buffer, unwrapped so that index 0 is at position 0
+    private void resize(int newSize) // linear time O(size)
+    {
+        buffer = toArray(newSize);
+        head = 0;
+    }
+
+    // the values in list order, at the start of a new array of the given length
+    private int[] toArray(int capacity)
+    {
+        int[] temp = new int[capacity];
+        int firstPart = Math.min(size, buffer.length - head);
+        System.arraycopy(buffer, head, temp, 0, firstPart);
+        System.arraycopy(buffer, 0, temp, firstPart, size - firstPart);
+        return temp;
+    }
+}
@@ -0,0 +1,66 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircularIntListTest {
+
+    @Test
+    void addFrontAndBackWrapAround() {
+        CircularIntList theList = new CircularIntList();
+        for (int i = 0; i < 20; i++) {
+            theList.addFront(-i);
+            theList.addBack(i);
+        }
+        assertEquals(40, theList.size());
+        assertEquals(-19, theList.get(0));
+        assertEquals(19, theList.get(39));
+        theList.removeFront();
+        theList.removeBack();
+        assertEquals(-18, theList.get(0));
+        assertEquals(18, theList.get(37));
+    }
+
+    @Test
+    void removeFromEmptyList() {
+        CircularIntList theList = new CircularIntList();
+        assertThrows(IllegalStateException.class, theList::removeFront);
+        assertThrows(IllegalStateException.class, theList::removeBack);
+        assertThrows(IndexOutOfBoundsException.class, () -> theList.get(0));
+    }
+
+    @Test
+    void matchesArrayList() {
+        Random random = new Random(11);
+        CircularIntList theList = new CircularIntList();
+        ArrayList<Integer> oracle = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            int op = random.nextInt(6);
+            int value = random.nextInt(100);
+            if (op == 0) {
+                theList.addFront(value);
+                oracle.add(0, value);
+            } else if (op == 1) {
+                theList.addBack(value);
+                oracle.add(value);
+            } else if (op == 2) {
+                int index = random.nextInt(oracle.size() + 1);
+                theList.add(index, value);
+                oracle.add(index, value);
+            } else if (op == 3 && !oracle.isEmpty()) {
+                int index = random.nextInt(oracle.size());
+                assertEquals((int) oracle.remove(index), theList.remove(index));
+            } else if (op == 4 && !oracle.isEmpty()) {
+                theList.removeFront();
+                oracle.remove(0);
+            } else if (!oracle.isEmpty()) {
+                assertEquals(oracle.indexOf(value), theList.indexOf(value));
+            }
+        }
+        assertEquals(oracle.toString(), theList.toString());
+        int[] values = theList.toArray();
+        assertEquals(oracle.size(), values.length);
+    }
+}
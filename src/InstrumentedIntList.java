@@ -0,0 +1,218 @@
+import java.util.Iterator;
+import java.util.function.IntPredicate;
+
+/**
+ * An IntList decorator that counts and times every call to the list it
+ * wraps, recording into an IntListMetrics.
+ *
+ * If the wrapped list is an ArrayIntList or a LinkedIntList, it is also
+ * told to record its internal counters (values shifted, resizes, nodes
+ * walked) into the same metrics, so one object describes both what callers
+ * asked for and what it cost.
+ *
+ * Timing costs two System.nanoTime() calls per operation, so wrap only
+ * the lists you want to watch; unwrapped lists are not affected.
+ */
+public class InstrumentedIntList implements IntList
+{
+    private final IntList delegate;
+    private final IntListMetrics metrics;
+
+    /**
+     * Wraps the specified list, recording into a new IntListMetrics.
+     *
+     * @param delegate the list to instrument
+     */
+    public InstrumentedIntList(IntList delegate)
+    {
+        this(delegate, new IntListMetrics());
+    }
+
+    /**
+     * Wraps the specified list, recording into the specified metrics,
+     * which may be shared with other lists.
+     *
+     * @param delegate the list to instrument
+     * @param metrics the metrics to record into
+     */
+    public InstrumentedIntList(IntList delegate, IntListMetrics metrics)
+    {
+        this.delegate = delegate;
+        this.metrics = metrics;
+
+        if (delegate instanceof ArrayIntList)
+        {
+            ((ArrayIntList) delegate).setMetrics(metrics);
+        }
+        else if (delegate instanceof LinkedIntList)
+        {
+            ((LinkedIntList) delegate).setMetrics(metrics);
+        }
+    }
+
+    /**
+     * Returns the metrics this list records into.
+     *
+     * @return the metrics of this list
+     */
+    public IntListMetrics metrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Returns the list this decorator wraps.
+     *
+     * @return the wrapped list
+     */
+    public IntList delegate()
+    {
+        return delegate;
+    }
+
+    @Override
+    public void addFront(int value)
+    {
+        long start = System.nanoTime();
+        delegate.addFront(value);
+        metrics.recordOperation(IntListMetrics.Operation.ADD_FRONT, System.nanoTime() - start);
+    }
+
+    @Override
+    public void addBack(int value)
+    {
+        long start = System.nanoTime();
+        delegate.addBack(value);
+        metrics.recordOperation(IntListMetrics.Operation.ADD_BACK, System.nanoTime() - start);
+    }
+
+    @Override
+    public void add(int index, int value)
+    {
+        long start = System.nanoTime();
+        delegate.add(index, value);
+        metrics.recordOperation(IntListMetrics.Operation.ADD, System.nanoTime() - start);
+    }
+
+    @Override
+    public void removeFront()
+    {
+        long start = System.nanoTime();
+        delegate.removeFront();
+        metrics.recordOperation(IntListMetrics.Operation.REMOVE_FRONT, System.nanoTime() - start);
+    }
+
+    @Override
+    public void removeBack()
+    {
+        long start = System.nanoTime();
+        delegate.removeBack();
+        metrics.recordOperation(IntListMetrics.Operation.REMOVE_BACK, System.nanoTime() - start);
+    }
+
+    @Override
+    public int remove(int index)
+    {
+        long start = System.nanoTime();
+        int removedValue = delegate.remove(index);
+        metrics.recordOperation(IntListMetrics.Operation.REMOVE, System.nanoTime() - start);
+        return removedValue;
+    }
+
+    @Override
+    public int get(int index)
+    {
+        long start = System.nanoTime();
+        int value = delegate.get(index);
+        metrics.recordOperation(IntListMetrics.Operation.GET, System.nanoTime() - start);
+        return value;
+    }
+
+    @Override
+    public boolean contains(int value)
+    {
+        long start = System.nanoTime();
+        boolean found = delegate.contains(value);
+        metrics.recordOperation(IntListMetrics.Operation.CONTAINS, System.nanoTime() - start);
+        return found;
+    }
+
+    @Override
+    public int indexOf(int value)
+    {
+        long start = System.nanoTime();
+        int index = delegate.indexOf(value);
+        metrics.recordOperation(IntListMetrics.Operation.INDEX_OF, System.nanoTime() - start);
+        return index;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public int size()
+    {
+        return delegate.size();
+    }
+
+    @Override
+    public int capacity()
+    {
+        return delegate.capacity();
+    }
+
+    // the metrics may be shared with other lists, so only the wrapper itself is added
+    @Override
+    public long bytesUsed()
+    {
+        return IntListFootprint.object(2 * IntListFootprint.REFERENCE) + delegate.bytesUsed();
+    }
+
+    @Override
+    public void clear()
+    {
+        long start = System.nanoTime();
+        delegate.clear();
+        metrics.recordOperation(IntListMetrics.Operation.CLEAR, System.nanoTime() - start);
+    }
+
+    // not one of the counted operations, but the delegate's single pass must not turn into many calls
+    @Override
+    public void applyEdits(IntEditBatch batch)
+    {
+        delegate.applyEdits(batch);
+    }
+
+    @Override
+    public boolean forEachWhile(IntPredicate action)
+    {
+        return delegate.forEachWhile(action);
+    }
+
+    @Override
+    public int[] toArray()
+    {
+        return delegate.toArray();
+    }
+
+    @Override
+    public boolean removeIf(IntPredicate filter)
+    {
+        return delegate.removeIf(filter);
+    }
+
+    @Override
+    public Iterator<Integer> iterator()
+    {
+        return delegate.iterator();
+    }
+
+    @Override
+    public String toString()
+    {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedIntListTest {
+
+    @Test
+    void countsOperations() {
+        InstrumentedIntList theList = new InstrumentedIntList(new ArrayIntList());
+        theList.addBack(42);
+        theList.addBack(88);
+        theList.get(1);
+        theList.indexOf(88);
+        IntListMetrics metrics = theList.metrics();
+        assertEquals(2, metrics.getOperationCount(IntListMetrics.Operation.ADD_BACK));
+        assertEquals(1, metrics.getOperationCount(IntListMetrics.Operation.GET));
+        assertEquals(1, metrics.getOperationCount(IntListMetrics.Operation.INDEX_OF));
+        assertTrue(metrics.getLatencyPercentileNanos(IntListMetrics.Operation.GET, 50) > 0);
+        assertEquals(0, metrics.getLatencyPercentileNanos(IntListMetrics.Operation.CLEAR, 50));
+    }
+
+    @Test
+    void arrayIntListShiftsAndResizes() {
+        ArrayIntList theList = new ArrayIntList();
+        IntListMetrics metrics = new IntListMetrics();
+        theList.setMetrics(metrics);
+        for (int i = 0; i < 10; i++) {
+            theList.addBack(i);
+        }
+        assertEquals(0, metrics.getResizes());
+        theList.addFront(-1);       // full: resize, then shift 10 values
+        assertEquals(1, metrics.getResizes());
+        assertEquals(10, metrics.getElementsShifted());
+        assertEquals(IntListFootprint.array(20, Integer.BYTES), metrics.getBytesAllocated());
+        theList.remove(8);          // shift the last 2 values
+        assertEquals(12, metrics.getElementsShifted());
+    }
+
+    @Test
+    void linkedIntListTraversals() {
+        LinkedIntList theList = new LinkedIntList();
+        for (int i = 0; i < 10; i++) {
+            theList.addFront(i);
+        }
+        IntListMetrics metrics = new IntListMetrics();
+        theList.setMetrics(metrics);
+        theList.get(2);
+        theList.get(6);
+        assertEquals(2, metrics.getTraversals());
+        assertEquals(4.0, metrics.getAverageTraversalLength());
+    }
+
+    @Test
+    void linkedIntListSearchesCountMisses() {
+        LinkedIntList theList = new LinkedIntList();
+        for (int i = 0; i < 10; i++) {
+            theList.addBack(i);
+        }
+        IntListMetrics metrics = new IntListMetrics();
+        theList.setMetrics(metrics);
+        assertEquals(-1, theList.indexOf(42));
+        assertEquals(1, metrics.getTraversals());
+        assertEquals(theList.size(), metrics.getNodesTraversed());
+        assertFalse(theList.contains(42));
+        assertTrue(theList.contains(3));
+        assertEquals(3, metrics.getTraversals());
+        assertEquals(2 * theList.size() + 3, metrics.getNodesTraversed());
+    }
+
+    @Test
+    void publishedThroughJmx() throws Exception {
+        IntListMetrics metrics = new IntListMetrics();
+        ObjectName name = metrics.registerMBean("test-" + System.nanoTime());
+        try {
+            ArrayIntList theList = new ArrayIntList();
+            theList.setMetrics(metrics);
+            for (int i = 0; i < 11; i++) {
+                theList.addBack(i);
+            }
+            Object resizes = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Resizes");
+            assertEquals(1L, resizes);
+        } finally {
+            metrics.unregisterMBean();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,352 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * The engine behind the IntList aggregation methods (statistics, histogram,
+ * topK, percentile). Every aggregate is a function over a range of an int[]
+ * plus a way to combine two partial results, so one driver runs them all:
+ *
+ *   ArrayIntList, sequential  - the function runs once over the list's own buffer
+ *   ArrayIntList, parallel    - the buffer is split in halves with fork-join
+ *                               until ranges are CHUNK_SIZE values or smaller
+ *   other lists               - the list is walked once with forEachWhile,
+ *                               CHUNK_SIZE values at a time into an int[] chunk;
+ *                               in parallel, each full chunk is handed to the
+ *                               common pool while the walk continues
+ *
+ * Values are never boxed. The list must not be modified while an aggregate runs.
+ */
+final class IntAggregator
+{
+    static final int CHUNK_SIZE = 1 << 15;
+
+    private IntAggregator()
+    {
+    }
+
+    /**
+     * An aggregate over values[from, to).
+     */
+    @FunctionalInterface
+    interface RangeFunction<R>
+    {
+        R apply(int[] values, int from, int to);
+    }
+
+    static <R> R aggregate(IntList list, RangeFunction<R> function, BinaryOperator<R> combine, boolean parallel)
+    {
+        if (list instanceof ArrayIntList)
+        {
+            int[] buffer = ((ArrayIntList) list).elements();
+            int size = list.size();
+            if (!parallel || size <= CHUNK_SIZE)
+            {
+                return function.apply(buffer, 0, size);
+            }
+            return ForkJoinPool.commonPool().invoke(new RangeTask<>(buffer, 0, size, function, combine));
+        }
+        return parallel ? chunksInParallel(list, function, combine) : chunks(list, function, combine);
+    }
+
+    // one reused chunk, aggregated as soon as it fills
+    private static <R> R chunks(IntList list, RangeFunction<R> function, BinaryOperator<R> combine)
+    {
+        int[] chunk = new int[Math.min(CHUNK_SIZE, Math.max(1, list.size()))];
+        int[] count = {0};
+        Partial<R> result = new Partial<>(combine);
+        list.forEachWhile(value -> {
+            chunk[count[0]++] = value;
+            if (count[0] == chunk.length)
+            {
+                result.add(function.apply(chunk, 0, count[0]));
+                count[0] = 0;
+            }
+            return true;
+        });
+        result.add(function.apply(chunk, 0, count[0]));
+        return result.value;
+    }
+
+    // running result of the sequential walk
+    private static final class Partial<R>
+    {
+        private final BinaryOperator<R> combine;
+        private R value;
+
+        Partial(BinaryOperator<R> combine)
+        {
+            this.combine = combine;
+        }
+
+        void add(R partial)
+        {
+            value = (value == null) ? partial : combine.apply(value, partial);
+        }
+    }
+
+    // a new chunk per CHUNK_SIZE values, each aggregated by the pool while the walk goes on;
+    // combine(left, right) gets neighbouring results, left first
+    static <R> R chunksInParallel(IntList list, RangeFunction<R> function, BinaryOperator<R> combine)
+    {
+        List<ForkJoinTask<R>> tasks = new ArrayList<>();
+        int[][] chunk = {new int[CHUNK_SIZE]};
+        int[] count = {0};
+        list.forEachWhile(value -> {
+            chunk[0][count[0]++] = value;
+            if (count[0] == CHUNK_SIZE)
+            {
+                int[] full = chunk[0];
+                tasks.add(ForkJoinPool.commonPool().submit(() -> function.apply(full, 0, CHUNK_SIZE)));
+                chunk[0] = new int[CHUNK_SIZE];
+                count[0] = 0;
+            }
+            return true;
+        });
+
+        R result = function.apply(chunk[0], 0, count[0]);
+        for (int i = tasks.size() - 1; i >= 0; i--)     // combine in list order
+        {
+            result = combine.apply(tasks.get(i).join(), result);
+        }
+        return result;
+    }
+
+    private static final class RangeTask<R> extends RecursiveTask<R>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] values;
+        private final int from;
+        private final int to;
+        private final RangeFunction<R> function;
+        private final BinaryOperator<R> combine;
+
+        RangeTask(int[] values, int from, int to, RangeFunction<R> function, BinaryOperator<R> combine)
+        {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.function = function;
+            this.combine = combine;
+        }
+
+        @Override
+        protected R compute()
+        {
+            if (to - from <= CHUNK_SIZE)
+            {
+                return function.apply(values, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            RangeTask<R> left = new RangeTask<>(values, from, middle, function, combine);
+            left.fork();
+            R right = new RangeTask<>(values, middle, to, function, combine).compute();
+            return combine.apply(left.join(), right);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // aggregates
+    // ---------------------------------------------------------------
+
+    static IntStatistics statistics(IntList list, boolean parallel)
+    {
+        return aggregate(list, IntStatistics::of, IntStatistics::combine, parallel);
+    }
+
+    static long[] histogram(IntList list, int min, int max, int buckets, boolean parallel)
+    {
+        if (buckets < 1)
+        {
+            throw new IllegalArgumentException("buckets must be at least 1");
+        }
+        if (min > max)
+        {
+            throw new IllegalArgumentException("min must not be greater than max");
+        }
+        long width = (long) max - min + 1;
+        return aggregate(list, (values, from, to) -> {
+            long[] counts = new long[buckets];
+            for (int i = from; i < to; i++)
+            {
+                int value = values[i];
+                if (value >= min && value <= max)
+                {
+                    counts[(int) ((value - (long) min) * buckets / width)]++;
+                }
+            }
+            return counts;
+        }, (a, b) -> {
+            for (int i = 0; i < buckets; i++)
+            {
+                a[i] += b[i];
+            }
+            return a;
+        }, parallel);
+    }
+
+    static int[] topK(IntList list, int k, boolean parallel)
+    {
+        if (k < 0)
+        {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        return aggregate(list, (values, from, to) -> topK(values, from, to, k),
+                (a, b) -> mergeDescending(a, b, k), parallel);
+    }
+
+    // the k largest values of values[from, to), largest first, kept in a min-heap while scanning
+    private static int[] topK(int[] values, int from, int to, int k)
+    {
+        int[] heap = new int[Math.min(k, to - from)];
+        int size = 0;
+        for (int i = from; i < to; i++)
+        {
+            int value = values[i];
+            if (size < heap.length)
+            {
+                // sift up
+                int child = size++;
+                while (child > 0 && heap[(child - 1) >>> 1] > value)
+                {
+                    heap[child] = heap[(child - 1) >>> 1];
+                    child = (child - 1) >>> 1;
+                }
+                heap[child] = value;
+            }
+            else if (size > 0 && value > heap[0])
+            {
+                siftDown(heap, size, value);
+            }
+        }
+
+        // pop the heap from smallest to largest into the back of the result
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--)
+        {
+            result[i] = heap[0];
+            size--;
+            if (size > 0)
+            {
+                siftDown(heap, size, heap[size]);
+            }
+        }
+        return result;
+    }
+
+    // puts value at the root of the min-heap heap[0, size) and moves it down to its place
+    private static void siftDown(int[] heap, int size, int value)
+    {
+        int parent = 0;
+        while (true)
+        {
+            int child = 2 * parent + 1;
+            if (child >= size)
+            {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child])
+            {
+                child++;
+            }
+            if (heap[child] >= value)
+            {
+                break;
+            }
+            heap[parent] = heap[child];
+            parent = child;
+        }
+        heap[parent] = value;
+    }
+
+    private static int[] mergeDescending(int[] a, int[] b, int k)
+    {
+        int[] result = new int[Math.min(k, a.length + b.length)];
+        int i = 0;
+        int j = 0;
+        for (int r = 0; r < result.length; r++)
+        {
+            result[r] = (j == b.length || (i < a.length && a[i] >= b[j])) ? a[i++] : b[j++];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the value at the nearest-rank percentile: the smallest value
+     * with at least percent% of the values less than or equal to it.
+     * Works on a copy with quickselect, expected linear time.
+     */
+    static int percentile(IntList list, double percent)
+    {
+        if (!(percent >= 0 && percent <= 100))
+        {
+            throw new IllegalArgumentException("percent must be between 0 and 100");
+        }
+        int[] values = list.toArray();
+        if (values.length == 0)
+        {
+            throw new NoSuchElementException("List is empty");
+        }
+        int rank = (int) Math.ceil(percent / 100 * values.length) - 1;
+        return select(values, Math.max(0, rank));
+    }
+
+    // rearranges values so that values[rank] is the rank-th smallest, and returns it
+    static int select(int[] values, int rank)
+    {
+        int low = 0;
+        int high = values.length - 1;
+        while (low < high)
+        {
+            // median of three as the pivot keeps sorted input linear
+            int middle = (low + high) >>> 1;
+            int pivot = median(values[low], values[middle], values[high]);
+
+            int i = low;
+            int j = high;
+            while (i <= j)
+            {
+                while (values[i] < pivot)
+                {
+                    i++;
+                }
+                while (values[j] > pivot)
+                {
+                    j--;
+                }
+                if (i <= j)
+                {
+                    int temp = values[i];
+                    values[i] = values[j];
+                    values[j] = temp;
+                    i++;
+                    j--;
+                }
+            }
+
+            if (rank <= j)
+            {
+                high = j;
+            }
+            else if (rank >= i)
+            {
+                low = i;
+            }
+            else
+            {
+                break;      // j < rank < i: values[rank] equals the pivot
+            }
+        }
+        return values[rank];
+    }
+
+    private static int median(int a, int b, int c)
+    {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+}
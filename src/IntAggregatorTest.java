@@ -0,0 +1,118 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntAggregatorTest {
+
+    private static int[] randomValues(int count, long seed) {
+        Random random = new Random(seed);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextInt(2_000_001) - 1_000_000;
+        }
+        return values;
+    }
+
+    private static IntList[] lists(int[] values) {
+        ArrayIntList array = new ArrayIntList();
+        LinkedIntList linked = new LinkedIntList();
+        UnrolledIntList unrolled = new UnrolledIntList();
+        for (int value : values) {
+            array.addBack(value);
+            unrolled.addBack(value);
+        }
+        for (int i = values.length - 1; i >= 0; i--) {
+            linked.addFront(values[i]);     // addFront is constant time on LinkedIntList
+        }
+        return new IntList[] {array, linked, unrolled};
+    }
+
+    @Test
+    void statisticsMatchDirectComputation() {
+        int[] values = randomValues(200_000, 40);
+        long sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        double mean = (double) sum / values.length;
+        double squares = 0;
+        for (int value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        int min = Arrays.stream(values).min().getAsInt();
+        int max = Arrays.stream(values).max().getAsInt();
+
+        for (IntList list : lists(values)) {
+            for (IntStatistics stats : new IntStatistics[] {list.statistics(), list.parallelStatistics()}) {
+                assertEquals(values.length, stats.count());
+                assertEquals(sum, stats.sum());
+                assertEquals(min, stats.min());
+                assertEquals(max, stats.max());
+                assertEquals(mean, stats.mean(), 1e-6);
+                assertEquals(squares / values.length, stats.variance(), 1e-3);
+            }
+        }
+    }
+
+    @Test
+    void emptyListStatistics() {
+        IntStatistics stats = new ArrayIntList().parallelStatistics();
+        assertEquals(0, stats.count());
+        assertEquals(Integer.MAX_VALUE, stats.min());
+        assertEquals(Integer.MIN_VALUE, stats.max());
+        assertEquals(0.0, stats.variance(), 0.0);
+        assertThrows(NoSuchElementException.class, () -> new LinkedIntList().percentile(50));
+    }
+
+    @Test
+    void histogramCountsEveryValueInRange() {
+        int[] values = randomValues(100_000, 41);
+        long[] expected = new long[20];
+        for (int value : values) {
+            if (value >= -500_000 && value < 500_000) {
+                expected[(value + 500_000) / 50_000]++;
+            }
+        }
+        for (IntList list : lists(values)) {
+            assertArrayEquals(expected, list.histogram(-500_000, 499_999, 20));
+            assertArrayEquals(expected, list.parallelHistogram(-500_000, 499_999, 20));
+        }
+        ArrayIntList extremes = new ArrayIntList();
+        extremes.addBack(Integer.MIN_VALUE);
+        extremes.addBack(Integer.MAX_VALUE);
+        assertArrayEquals(new long[] {1, 1}, extremes.histogram(Integer.MIN_VALUE, Integer.MAX_VALUE, 2));
+        assertThrows(IllegalArgumentException.class, () -> extremes.histogram(0, 10, 0));
+    }
+
+    @Test
+    void topKAndPercentileMatchSorting() {
+        int[] values = randomValues(100_000, 42);
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int[] expectedTop = new int[10];
+        for (int i = 0; i < 10; i++) {
+            expectedTop[i] = sorted[sorted.length - 1 - i];
+        }
+
+        for (IntList list : lists(values)) {
+            assertArrayEquals(expectedTop, list.topK(10));
+            assertArrayEquals(expectedTop, list.parallelTopK(10));
+            assertEquals(sorted[0], list.percentile(0));
+            assertEquals(sorted[49_999], list.percentile(50));
+            assertEquals(sorted[98_999], list.percentile(99));
+            assertEquals(sorted[sorted.length - 1], list.percentile(100));
+        }
+        assertArrayEquals(values, lists(values)[0].toArray());   // percentile works on a copy
+
+        ArrayIntList small = new ArrayIntList();
+        small.addBack(3);
+        small.addBack(3);
+        small.addBack(1);
+        assertArrayEquals(new int[] {3, 3, 1}, small.topK(5));
+        assertEquals(0, small.topK(0).length);
+    }
+}
@@ -0,0 +1,328 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Multi-threaded stress runs for the concurrent variants: IntQueue,
+ * IntRingBuffer and JournaledIntList. The sequential IntListFuzzer cannot
+ * reach their races, so each run here hammers one structure from many
+ * threads with values that encode who wrote them. Afterwards it checks
+ * what must hold whatever the interleaving:
+ *
+ *   IntQueue          - every value taken exactly once, and each consumer
+ *                       sees any one producer's values in order
+ *   IntRingBuffer     - every consumer sees every value, in order, at the
+ *                       sequence it was published under
+ *   JournaledIntList  - every value present exactly once, each writer's
+ *                       appends in order, and a reopened list equal to
+ *                       the one that was closed
+ *
+ * Values are producer * stride + counter, so a value names its producer.
+ * A worker that throws fails the run.
+ *
+ * usage: java IntConcurrencyStress [seconds]
+ */
+public class IntConcurrencyStress
+{
+    private IntConcurrencyStress()
+    {
+    }
+
+    /**
+     * Producers put, consumers drain in batches, until every value is taken.
+     */
+    static void queue(int producers, int valuesPerProducer, int consumers, int capacity)
+            throws InterruptedException
+    {
+        IntQueue queue = new IntQueue(capacity);
+        long total = (long) producers * valuesPerProducer;
+        AtomicLong taken = new AtomicLong();
+        ArrayIntList[] received = new ArrayIntList[consumers];
+        Workers workers = new Workers();
+
+        for (int p = 0; p < producers; p++)
+        {
+            int producer = p;
+            workers.start("producer-" + p, () -> {
+                for (int i = 0; i < valuesPerProducer; i++)
+                {
+                    queue.put(producer * valuesPerProducer + i);
+                }
+            });
+        }
+        for (int c = 0; c < consumers; c++)
+        {
+            ArrayIntList values = new ArrayIntList();
+            received[c] = values;
+            workers.start("consumer-" + c, () -> {
+                ArrayIntList batch = new ArrayIntList();
+                while (taken.get() < total && !workers.failed())
+                {
+                    batch.clear();
+                    int count = queue.drainTo(batch, 64);
+                    if (count == 0)
+                    {
+                        Thread.yield();
+                        continue;
+                    }
+                    values.addAll(batch.toArray(), 0, count);
+                    taken.addAndGet(count);
+                }
+            });
+        }
+        workers.join();
+
+        boolean[] seen = new boolean[(int) total];
+        for (ArrayIntList values : received)
+        {
+            int[] lastOfProducer = new int[producers];
+            Arrays.fill(lastOfProducer, -1);
+            values.forEachInt(value -> {
+                check(!seen[value], "value " + value + " taken twice");
+                seen[value] = true;
+                int producer = value / valuesPerProducer;
+                check(value > lastOfProducer[producer], "values of producer " + producer + " out of order");
+                lastOfProducer[producer] = value;
+            });
+        }
+        for (int value = 0; value < total; value++)
+        {
+            check(seen[value], "value " + value + " never taken");
+        }
+    }
+
+    /**
+     * One producer publishes 0, 1, 2, ... singly and in runs; every consumer must see them all.
+     */
+    static void ringBuffer(int consumers, int values, int capacity, IntRingBuffer.WaitStrategy waitStrategy)
+            throws InterruptedException
+    {
+        IntRingBuffer ring = new IntRingBuffer(capacity, waitStrategy);
+        List<IntRingBuffer.Consumer> readers = new ArrayList<>();
+        for (int c = 0; c < consumers; c++)
+        {
+            readers.add(ring.addConsumer());
+        }
+        Workers workers = new Workers();
+
+        for (IntRingBuffer.Consumer reader : readers)
+        {
+            workers.start("reader", () -> {
+                long[] expected = {0};
+                IntRingBuffer.EventHandler handler = (value, sequence, endOfBatch) -> {
+                    check(sequence == expected[0], "sequence " + sequence + ", expected " + expected[0]);
+                    check(value == (int) sequence, "value " + value + " at sequence " + sequence);
+                    expected[0]++;
+                };
+                while (expected[0] < values && !workers.failed())
+                {
+                    if (reader.poll(handler) == 0)
+                    {
+                        Thread.yield();     // leave the CPU to the producer even on one core
+                    }
+                }
+            });
+        }
+        workers.start("producer", () -> {
+            int[] run = new int[Math.min(16, capacity)];
+            int next = 0;
+            while (next < values)
+            {
+                if (next % 3 == 0 && values - next >= run.length)
+                {
+                    for (int i = 0; i < run.length; i++)
+                    {
+                        run[i] = next + i;
+                    }
+                    ring.publishValues(run, 0, run.length);
+                    next += run.length;
+                }
+                else
+                {
+                    ring.publishValue(next++);
+                }
+            }
+        });
+        workers.join();
+    }
+
+    /**
+     * Writers append and prepend tagged values while readers look values
+     * up; then the list is closed, reopened and compared.
+     */
+    static void journaled(int writers, int valuesPerWriter, int readers) throws InterruptedException, IOException
+    {
+        Path directory = Files.createTempDirectory("journaled-stress");
+        try
+        {
+            int[] closedContents;
+            JournaledIntList list = JournaledIntList.open(directory, 1, false, 64L << 20);
+            try
+            {
+                Workers workers = new Workers();
+                CountDownLatch writersDone = new CountDownLatch(writers);
+                for (int w = 0; w < writers; w++)
+                {
+                    int writer = w;
+                    workers.start("writer-" + w, () -> {
+                        for (int i = 0; i < valuesPerWriter; i++)
+                        {
+                            int value = writer * valuesPerWriter + i;
+                            if (i % 5 == 0)
+                            {
+                                list.addFront(value);
+                            }
+                            else
+                            {
+                                list.addBack(value);
+                            }
+                        }
+                        writersDone.countDown();
+                    });
+                }
+                for (int r = 0; r < readers; r++)
+                {
+                    workers.start("reader-" + r, () -> {
+                        int probe = 0;
+                        while (writersDone.getCount() > 0 && !workers.failed())
+                        {
+                            list.indexOf(probe);
+                            list.contains(probe);
+                            probe = (probe + 7) % (writers * valuesPerWriter);
+
+                            // a snapshot is taken under the lock, so it never shows a half-done change
+                            IntSet distinct = new IntSet();
+                            for (int value : list.toArray())
+                            {
+                                check(distinct.add(value), "snapshot holds " + value + " twice");
+                            }
+                        }
+                    });
+                }
+                workers.join();
+
+                closedContents = list.toArray();
+                check(closedContents.length == writers * valuesPerWriter, "size " + closedContents.length);
+                boolean[] seen = new boolean[closedContents.length];
+                int[] lastAppended = new int[writers];
+                Arrays.fill(lastAppended, -1);
+                for (int value : closedContents)
+                {
+                    check(!seen[value], "value " + value + " present twice");
+                    seen[value] = true;
+                    int writer = value / valuesPerWriter;
+                    if ((value % valuesPerWriter) % 5 != 0)
+                    {
+                        check(value > lastAppended[writer], "appends of writer " + writer + " out of order");
+                        lastAppended[writer] = value;
+                    }
+                }
+            }
+            finally
+            {
+                list.close();
+            }
+
+            try (JournaledIntList reopened = JournaledIntList.open(directory))
+            {
+                check(Arrays.equals(closedContents, reopened.toArray()), "reopened list differs");
+            }
+        }
+        finally
+        {
+            try (Stream<Path> files = Files.walk(directory))
+            {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+                {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private static void check(boolean condition, String message)
+    {
+        if (!condition)
+        {
+            throw new AssertionError(message);
+        }
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        long seconds = (args.length > 0) ? Long.parseLong(args[0]) : 60;
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        int rounds = 0;
+        while (System.nanoTime() < deadline)
+        {
+            queue(8, 20_000, 4, 64);
+            for (IntRingBuffer.WaitStrategy strategy : IntRingBuffer.WaitStrategy.values())
+            {
+                ringBuffer(3, 200_000, 64, strategy);
+            }
+            journaled(4, 5_000, 2);
+            rounds++;
+        }
+        System.out.printf("%d rounds, no violations%n", rounds);
+    }
+
+    // ---------------------------------------------------------------
+    // worker threads
+    // ---------------------------------------------------------------
+
+    @FunctionalInterface
+    interface Task
+    {
+        void run() throws Exception;
+    }
+
+    // threads whose first failure is rethrown by join
+    private static final class Workers
+    {
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        void start(String name, Task task)
+        {
+            Thread thread = new Thread(() -> {
+                try
+                {
+                    task.run();
+                }
+                catch (Throwable e)
+                {
+                    failure.compareAndSet(null, e);
+                }
+            }, "IntConcurrencyStress-" + name);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        boolean failed()
+        {
+            return failure.get() != null;
+        }
+
+        void join() throws InterruptedException
+        {
+            for (Thread thread : threads)
+            {
+                thread.join();
+            }
+            Throwable first = failure.get();
+            if (first != null)
+            {
+                throw new AssertionError("worker failed: " + first, first);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+import org.junit.jupiter.api.Test;
+
+class IntConcurrencyStressTest {
+
+    @Test
+    void queueDeliversEveryValueOnce() throws Exception {
+        IntConcurrencyStress.queue(6, 5_000, 3, 32);
+        IntConcurrencyStress.queue(2, 5_000, 1, 1);
+    }
+
+    @Test
+    void ringBufferConsumersSeeEveryValueInOrder() throws Exception {
+        for (IntRingBuffer.WaitStrategy strategy : IntRingBuffer.WaitStrategy.values()) {
+            IntConcurrencyStress.ringBuffer(3, 10_000, 32, strategy);
+        }
+    }
+
+    @Test
+    void journaledListSurvivesConcurrentWritersAndReopen() throws Exception {
+        IntConcurrencyStress.journaled(4, 1_000, 2);
+    }
+}
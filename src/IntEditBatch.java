@@ -0,0 +1,360 @@
+import java.util.Arrays;
+
+/**
+ * A batch of inserts and removes to apply to an IntList in one pass with
+ * IntList.applyEdits, such as the edits of a diff.
+ *
+ * Every index refers to the list as it is before the batch, not as it
+ * becomes while earlier edits are applied:
+ *
+ *   insert(i, v)      puts v just before the value now at index i
+ *                     (i == size() appends)
+ *   remove(i)         removes the value now at index i
+ *   remove(from, to)  removes the values now at [from, to)
+ *
+ * So the order edits are added in does not matter, except that inserts at
+ * the same index keep it. An insert into a removed range lands where the
+ * range was. Removing a value twice is an error.
+ *
+ * applyEdits sorts the edits by index and merges touching removes into
+ * runs, then rebuilds the list in a single pass: O(n + e log e) for n
+ * values and e edits, where e separate add(index) and remove(index) calls
+ * on an ArrayIntList cost O(n * e) moves. The whole batch is checked
+ * against the list first, so a batch with an edit out of range changes
+ * nothing.
+ *
+ * A batch is not tied to a list: it can be applied to several, and reused
+ * after clear().
+ */
+public final class IntEditBatch
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    // inserts in the order they were added; key is index << 32 | order
+    private long[] insertKeys = new long[INITIAL_CAPACITY];
+    private int[] insertValues = new int[INITIAL_CAPACITY];
+    private int insertCount;
+
+    // removed ranges in the order they were added
+    private int[] removeFrom = new int[INITIAL_CAPACITY];
+    private int[] removeTo = new int[INITIAL_CAPACITY];
+    private int removeCount;
+
+    // sorted form, rebuilt by sort() after the batch changes
+    private boolean sorted = true;
+    private int[] sortedInsertIndexes = new int[0];
+    private int[] sortedInsertValues = new int[0];
+    private int[] runFrom = new int[0];
+    private int[] runTo = new int[0];
+    private int runCount;
+    private int removedValues;
+
+    /**
+     * Adds an insert of value just before the value now at index.
+     *
+     * @param index index, in the list before the batch, to insert at
+     * @param value value to be inserted
+     * @return this batch
+     * @throws IndexOutOfBoundsException if index is negative
+     */
+    public IntEditBatch insert(int index, int value)
+    {
+        if (index < 0)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        if (insertCount == insertKeys.length)
+        {
+            insertKeys = Arrays.copyOf(insertKeys, 2 * insertCount);
+            insertValues = Arrays.copyOf(insertValues, 2 * insertCount);
+        }
+        insertKeys[insertCount] = ((long) index << 32) | insertCount;
+        insertValues[insertCount] = value;
+        insertCount++;
+        sorted = false;
+        return this;
+    }
+
+    /**
+     * Adds a remove of the value now at index.
+     *
+     * @param index index, in the list before the batch, of the value to remove
+     * @return this batch
+     * @throws IndexOutOfBoundsException if index is negative
+     */
+    public IntEditBatch remove(int index)
+    {
+        if (index < 0 || index == Integer.MAX_VALUE)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        return remove(index, index + 1);
+    }
+
+    /**
+     * Adds a remove of the values now at fromIndex (inclusive) to toIndex
+     * (exclusive). An empty range adds nothing.
+     *
+     * @param fromIndex index, in the list before the batch, of the first value to remove
+     * @param toIndex index just past the last value to remove
+     * @return this batch
+     * @throws IndexOutOfBoundsException if fromIndex is negative or greater than toIndex
+     */
+    public IntEditBatch remove(int fromIndex, int toIndex)
+    {
+        if (fromIndex < 0 || fromIndex > toIndex)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        if (fromIndex == toIndex)
+        {
+            return this;
+        }
+        if (removeCount == removeFrom.length)
+        {
+            removeFrom = Arrays.copyOf(removeFrom, 2 * removeCount);
+            removeTo = Arrays.copyOf(removeTo, 2 * removeCount);
+        }
+        removeFrom[removeCount] = fromIndex;
+        removeTo[removeCount] = toIndex;
+        removeCount++;
+        sorted = false;
+        return this;
+    }
+
+    /**
+     * Returns the number of inserts and removes in this batch; a range
+     * remove counts once.
+     *
+     * @return the number of edits
+     */
+    public int size()
+    {
+        return insertCount + removeCount;
+    }
+
+    /**
+     * Returns true if this batch holds no edits.
+     *
+     * @return true if this batch holds no edits
+     */
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    /**
+     * Removes every edit from this batch, keeping its arrays for reuse.
+     */
+    public void clear()
+    {
+        insertCount = 0;
+        removeCount = 0;
+        sorted = false;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IntEditBatch[" + insertCount + " inserts, " + removeCount + " removes]";
+    }
+
+    // ---------------------------------------------------------------
+    // applying, used by the lists
+    // ---------------------------------------------------------------
+
+    /**
+     * Receives the result of a batch, front to back, from walk.
+     */
+    interface Walker
+    {
+        /** The values at [from, to) of the old list stay, next in the result. */
+        void keep(int from, int to);
+
+        /** value is the next value of the result. */
+        void insert(int value);
+
+        /** The values at [from, to) of the old list are dropped. */
+        void remove(int from, int to);
+    }
+
+    /**
+     * Throws if this batch does not fit a list of the specified size.
+     * Lists call this before they change anything.
+     *
+     * @throws IndexOutOfBoundsException if an edit is past the end of the list
+     * @throws IllegalArgumentException if two removes overlap
+     */
+    void check(int size)
+    {
+        sort();
+        if (insertCount > 0 && sortedInsertIndexes[insertCount - 1] > size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        if (runCount > 0 && runTo[runCount - 1] > size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+    }
+
+    /**
+     * Returns the size of a list of the specified size after this batch.
+     */
+    int resultSize(int size)
+    {
+        sort();
+        return size + insertCount - removedValues;
+    }
+
+    /**
+     * Returns the lowest index this batch touches, or -1 if it is empty.
+     */
+    int firstIndex()
+    {
+        sort();
+        int first = -1;
+        if (insertCount > 0)
+        {
+            first = sortedInsertIndexes[0];
+        }
+        if (runCount > 0 && (first == -1 || runFrom[0] < first))
+        {
+            first = runFrom[0];
+        }
+        return first;
+    }
+
+    int insertCount()
+    {
+        return insertCount;
+    }
+
+    int insertValue(int k)
+    {
+        return insertValues[k];
+    }
+
+    /**
+     * Describes the result of this batch on a checked list of the
+     * specified size as a sequence of kept ranges, inserted values and
+     * removed ranges. O(e) calls, whatever the size of the list.
+     */
+    void walk(int size, Walker walker)
+    {
+        sort();
+        int position = 0;   // index in the old list of the next value to keep
+        int k = 0;
+        int r = 0;
+        while (position < size || k < insertCount)
+        {
+            int next = size;
+            if (k < insertCount)
+            {
+                next = Math.min(next, sortedInsertIndexes[k]);
+            }
+            if (r < runCount)
+            {
+                next = Math.min(next, runFrom[r]);
+            }
+            if (next > position)
+            {
+                walker.keep(position, next);
+                position = next;
+            }
+
+            // inserts at position go before the value there; those inside a removed run land after it
+            if (k < insertCount && sortedInsertIndexes[k] <= position)
+            {
+                walker.insert(sortedInsertValues[k++]);
+            }
+            else if (r < runCount && runFrom[r] <= position)
+            {
+                walker.remove(runFrom[r], runTo[r]);
+                position = runTo[r++];
+            }
+        }
+    }
+
+    /**
+     * Writes the result of this batch on the first size values of source
+     * into target, which must hold resultSize(size) values. Kept ranges are
+     * block copies, so this is one linear pass.
+     */
+    void applyTo(int[] source, int size, int[] target)
+    {
+        int[] written = {0};
+        walk(size, new Walker()
+        {
+            @Override
+            public void keep(int from, int to)
+            {
+                System.arraycopy(source, from, target, written[0], to - from);
+                written[0] += to - from;
+            }
+
+            @Override
+            public void insert(int value)
+            {
+                target[written[0]++] = value;
+            }
+
+            @Override
+            public void remove(int from, int to)
+            {
+            }
+        });
+    }
+
+    // sorts the inserts by index (stable) and merges the removes into runs
+    private void sort()
+    {
+        if (sorted)
+        {
+            return;
+        }
+
+        long[] keys = Arrays.copyOf(insertKeys, insertCount);
+        Arrays.sort(keys);
+        sortedInsertIndexes = new int[insertCount];
+        sortedInsertValues = new int[insertCount];
+        for (int k = 0; k < insertCount; k++)
+        {
+            sortedInsertIndexes[k] = (int) (keys[k] >>> 32);
+            sortedInsertValues[k] = insertValues[(int) keys[k]];
+        }
+
+        // sort the ranges by start, packed like the inserts
+        long[] ranges = new long[removeCount];
+        for (int i = 0; i < removeCount; i++)
+        {
+            ranges[i] = ((long) removeFrom[i] << 32) | i;
+        }
+        Arrays.sort(ranges);
+        runFrom = new int[removeCount];
+        runTo = new int[removeCount];
+        runCount = 0;
+        removedValues = 0;
+        for (long range : ranges)
+        {
+            int from = (int) (range >>> 32);
+            int to = removeTo[(int) range];
+            if (runCount > 0 && from < runTo[runCount - 1])
+            {
+                throw new IllegalArgumentException("Index " + from + " removed twice");
+            }
+            if (runCount > 0 && from == runTo[runCount - 1])
+            {
+                runTo[runCount - 1] = to;       // touching removes become one run
+            }
+            else
+            {
+                runFrom[runCount] = from;
+                runTo[runCount] = to;
+                runCount++;
+            }
+            removedValues += to - from;
+        }
+        sorted = true;
+    }
+}
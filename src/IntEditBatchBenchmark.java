@@ -0,0 +1,123 @@
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Times a diff's worth of random inserts and removes applied one
+ * add(index)/remove(index) call at a time against the same edits applied
+ * with applyEdits, on ArrayIntList and LinkedIntList. Each one-at-a-time
+ * call shifts (or walks to) the tail again, O(size * edits); applyEdits is
+ * one pass.
+ *
+ * usage: java IntEditBatchBenchmark [size] [edits] [rounds]
+ */
+public class IntEditBatchBenchmark
+{
+    public static void main(String[] args)
+    {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        int edits = (args.length > 1) ? Integer.parseInt(args[1]) : 5_000;
+        int rounds = (args.length > 2) ? Integer.parseInt(args[2]) : 3;
+
+        IntEditBatch batch = randomBatch(size, edits, new Random(42));
+        System.out.printf("%d values, %d edits, best of %d rounds%n", size, edits, rounds);
+        run("ArrayIntList", () -> filled(new ArrayIntList(), size), batch, size, rounds);
+        // a linked walk per edit is far slower than a shift, so the linked list is ten times shorter
+        IntEditBatch linkedBatch = randomBatch(size / 10, edits, new Random(42));
+        run("LinkedIntList (size / 10)", () -> filled(new LinkedIntList(), size / 10), linkedBatch, size / 10, rounds);
+    }
+
+    private static void run(String name, Supplier<IntList> lists, IntEditBatch batch, int size, int rounds)
+    {
+        long[] checksum = {0};
+        long oneByOne = best(rounds, lists, list -> {
+            applyOneByOne(list, batch, size);
+            checksum[0] += list.size();
+        });
+        long batched = best(rounds, lists, list -> {
+            list.applyEdits(batch);
+            checksum[0] += list.size();
+        });
+        System.out.printf("  %-26s one by one %9.2f ms   applyEdits %8.2f ms   (checksum %d)%n",
+                name, oneByOne / 1e6, batched / 1e6, checksum[0]);
+    }
+
+    // the same edits as add(index)/remove(index) calls, with indexes moved by the edits before them
+    private static void applyOneByOne(IntList list, IntEditBatch batch, int size)
+    {
+        batch.walk(size, new IntEditBatch.Walker()
+        {
+            private int position = 0;
+
+            @Override
+            public void keep(int from, int to)
+            {
+                position += to - from;
+            }
+
+            @Override
+            public void insert(int value)
+            {
+                list.add(position++, value);
+            }
+
+            @Override
+            public void remove(int from, int to)
+            {
+                for (int i = from; i < to; i++)
+                {
+                    list.remove(position);
+                }
+            }
+        });
+    }
+
+    private static IntEditBatch randomBatch(int size, int edits, Random random)
+    {
+        IntEditBatch batch = new IntEditBatch();
+        boolean[] removed = new boolean[size];
+        for (int i = 0; i < edits; i++)
+        {
+            int index = random.nextInt(size);
+            if (random.nextBoolean())
+            {
+                batch.insert(index, random.nextInt());
+            }
+            else if (!removed[index])
+            {
+                removed[index] = true;
+                batch.remove(index);
+            }
+        }
+        return batch;
+    }
+
+    private static IntList filled(IntList list, int size)
+    {
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++)
+        {
+            list.addBack(random.nextInt());
+        }
+        return list;
+    }
+
+    interface ListTask
+    {
+        void run(IntList list);
+    }
+
+    // fastest of rounds runs on a fresh list each, after one warm-up run; building the list is not timed
+    private static long best(int rounds, Supplier<IntList> lists, ListTask task)
+    {
+        task.run(lists.get());
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++)
+        {
+            IntList list = lists.get();
+            long start = System.nanoTime();
+            task.run(list);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
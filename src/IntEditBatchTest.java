@@ -0,0 +1,193 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntEditBatchTest {
+
+    private static Path newDirectory() throws IOException {
+        return Files.createTempDirectory("edit-batch");
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // the meaning of a batch spelled out: before each old index its inserts, then the value unless removed
+    private static int[] expected(int[] old, List<int[]> inserts, boolean[] removed) {
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i <= old.length; i++) {
+            for (int[] insert : inserts) {
+                if (insert[0] == i) {
+                    result.add(insert[1]);
+                }
+            }
+            if (i < old.length && !removed[i]) {
+                result.add(old[i]);
+            }
+        }
+        return result.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void everyImplementationMatchesTheDefinition() throws Exception {
+        for (Map.Entry<String, Supplier<IntList>> implementation : IntListFuzzer.implementations().entrySet()) {
+            Random random = new Random(11);
+            for (int round = 0; round < 30; round++) {
+                IntList theList = implementation.getValue().get();
+                try {
+                    int size = random.nextInt(60);
+                    for (int i = 0; i < size; i++) {
+                        theList.addBack(random.nextInt(1000));
+                    }
+                    int[] old = theList.toArray();
+
+                    IntEditBatch batch = new IntEditBatch();
+                    List<int[]> inserts = new ArrayList<>();
+                    boolean[] removed = new boolean[size];
+                    for (int edit = random.nextInt(20); edit > 0; edit--) {
+                        if (random.nextBoolean()) {
+                            int index = random.nextInt(size + 1);
+                            int value = -random.nextInt(1000);
+                            batch.insert(index, value);
+                            inserts.add(new int[] {index, value});
+                        } else if (size > 0) {
+                            int from = random.nextInt(size);
+                            int to = Math.min(size, from + 1 + random.nextInt(4));
+                            boolean free = true;
+                            for (int i = from; i < to; i++) {
+                                free &= !removed[i];
+                            }
+                            if (free) {
+                                Arrays.fill(removed, from, to, true);
+                                if (to - from == 1) {
+                                    batch.remove(from);
+                                } else {
+                                    batch.remove(from, to);
+                                }
+                            }
+                        }
+                    }
+
+                    theList.applyEdits(batch);
+                    assertArrayEquals(expected(old, inserts, removed), theList.toArray(),
+                            implementation.getKey() + ", round " + round);
+                } finally {
+                    IntListFuzzer.release(theList);
+                }
+            }
+        }
+    }
+
+    @Test
+    void insertsAtOneIndexKeepTheirOrder() {
+        for (IntList theList : new IntList[] {new ArrayIntList(), new LinkedIntList(), new CircularIntList()}) {
+            theList.addAll(new int[] {10, 20, 30, 40, 50}, 0, 5);
+            theList.applyEdits(new IntEditBatch()
+                    .insert(5, 7).insert(2, 1).insert(2, 2).insert(0, 0)
+                    .remove(1, 4).insert(3, 3)              // into the removed range
+                    .remove(4));
+            assertEquals("[0, 10, 1, 2, 3, 7]", theList.toString(), theList.getClass().getName());
+        }
+    }
+
+    @Test
+    void batchThatDoesNotFitChangesNothing() throws Exception {
+        for (Map.Entry<String, Supplier<IntList>> implementation : IntListFuzzer.implementations().entrySet()) {
+            IntList theList = implementation.getValue().get();
+            try {
+                theList.addAll(new int[] {1, 2, 3}, 0, 3);
+
+                IntEditBatch pastEnd = new IntEditBatch().insert(0, 9).remove(1).insert(4, 9);
+                assertThrows(IndexOutOfBoundsException.class, () -> theList.applyEdits(pastEnd));
+                IntEditBatch removePastEnd = new IntEditBatch().insert(0, 9).remove(2, 4);
+                assertThrows(IndexOutOfBoundsException.class, () -> theList.applyEdits(removePastEnd));
+                IntEditBatch overlapping = new IntEditBatch().insert(0, 9).remove(0, 2).remove(1);
+                assertThrows(IllegalArgumentException.class, () -> theList.applyEdits(overlapping));
+
+                assertArrayEquals(new int[] {1, 2, 3}, theList.toArray(), implementation.getKey());
+            } finally {
+                IntListFuzzer.release(theList);
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> new IntEditBatch().insert(-1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> new IntEditBatch().remove(3, 2));
+    }
+
+    @Test
+    void batchCanBeReused() {
+        IntEditBatch batch = new IntEditBatch().insert(0, 5).remove(1);
+        assertEquals(2, batch.size());
+        ArrayIntList first = new ArrayIntList();
+        LinkedIntList second = new LinkedIntList();
+        first.addAll(new int[] {1, 2, 3}, 0, 3);
+        second.addAll(new int[] {7, 8}, 0, 2);
+        first.applyEdits(batch);
+        second.applyEdits(batch);
+        assertEquals("[5, 1, 3]", first.toString());
+        assertEquals("[5, 7]", second.toString());
+
+        batch.clear();
+        assertTrue(batch.isEmpty());
+        first.applyEdits(batch);
+        assertEquals("[5, 1, 3]", first.toString());
+        first.applyEdits(batch.remove(0, 3).insert(3, 4));
+        assertEquals("[4]", first.toString());
+    }
+
+    @Test
+    void cachedLookupsSeeTheEdits() {
+        ArrayIntList plain = new ArrayIntList();
+        CachedIntList cached = new CachedIntList(new ArrayIntList(), 16);
+        for (int i = 0; i < 20; i++) {
+            plain.addBack(i);
+            cached.addBack(i);
+        }
+        for (int value = -5; value < 25; value++) {
+            cached.indexOf(value);      // fill the cache, misses included
+        }
+
+        IntEditBatch batch = new IntEditBatch().insert(15, 21).insert(3, -2).remove(5, 8).insert(20, 3);
+        plain.applyEdits(batch);
+        cached.applyEdits(batch);
+        for (int value = -5; value < 25; value++) {
+            assertEquals(plain.indexOf(value), cached.indexOf(value), "indexOf " + value);
+        }
+    }
+
+    @Test
+    void journaledBatchReplaysToTheSameList() throws Exception {
+        Path directory = newDirectory();
+        try {
+            int[] contents;
+            try (JournaledIntList theList = JournaledIntList.open(directory)) {
+                for (int i = 0; i < 10; i++) {
+                    theList.addBack(i);
+                }
+                theList.applyEdits(new IntEditBatch().insert(0, 100).remove(2, 5).insert(4, 101).insert(10, 102));
+                contents = theList.toArray();
+                assertArrayEquals(new int[] {100, 0, 1, 101, 5, 6, 7, 8, 9, 102}, contents);
+            }
+            try (JournaledIntList reopened = JournaledIntList.open(directory)) {
+                assertArrayEquals(contents, reopened.toArray());
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+}
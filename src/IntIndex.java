@@ -0,0 +1,165 @@
+/**
+ * An optional hash index for an ArrayIntList that maps each value to the
+ * index of its first occurrence, so contains and indexOf become
+ * O(1) expected instead of a linear scan.
+ *
+ * The table is an IntIntMap (open addressing, linear probing), so nothing
+ * is boxed. addBack and removeBack keep the index up to date in constant
+ * time. Mutations that shift values (addFront,
+ * add(index), removeFront, remove(index)) only mark the index stale; it is
+ * rebuilt in one pass over the buffer on the next lookup.
+ *
+ * The counters tell whether the index pays off: many hits per rebuild
+ * means it does, close to one rebuild per lookup means the list is changed
+ * too often between lookups and the index should be detached.
+ */
+public class IntIndex
+{
+    private IntIntMap firstIndex;   // value -> index of its first occurrence
+    private boolean stale;          // true when the table no longer matches the list
+
+    private long hits;
+    private long rebuilds;
+    private long invalidations;
+
+    IntIndex()
+    {
+        firstIndex = new IntIntMap();
+        stale = true;
+    }
+
+    /**
+     * Returns the number of lookups answered by an up-to-date index,
+     * without having to rebuild it first.
+     * @return the number of lookups that did not need a rebuild
+     */
+    public long hits()
+    {
+        return hits;
+    }
+
+    /**
+     * Returns the number of times the index was rebuilt from the list.
+     * Each rebuild is a linear pass over the list.
+     * @return the number of rebuilds
+     */
+    public long rebuilds()
+    {
+        return rebuilds;
+    }
+
+    /**
+     * Returns the number of mutations that made the index stale.
+     * @return the number of invalidations
+     */
+    public long invalidations()
+    {
+        return invalidations;
+    }
+
+    /**
+     * Returns the number of distinct values currently in the index.
+     * @return the number of distinct values, or 0 while the index is stale
+     */
+    public int distinctValues()
+    {
+        return stale ? 0 : firstIndex.size();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IntIndex[hits=" + hits + ", rebuilds=" + rebuilds
+                + ", invalidations=" + invalidations + "]";
+    }
+
+    // ---------------------------------------------------------------
+    // maintenance, called by the owning list
+    // ---------------------------------------------------------------
+
+    /**
+     * Returns the index of the first occurrence of value in buffer[0, size),
+     * rebuilding the table first if it is stale.
+     */
+    int indexOf(int value, int[] buffer, int size) // O(1) expected, O(size) if a rebuild is needed
+    {
+        if (stale)
+        {
+            rebuild(buffer, size);
+        }
+        else
+        {
+            hits++;
+        }
+        return firstIndex.getOrDefault(value, -1);
+    }
+
+    /**
+     * Records that value was appended at the specified index.
+     */
+    void appended(int value, int index) // O(1) expected
+    {
+        if (!stale)
+        {
+            firstIndex.putIfAbsent(value, index);
+        }
+    }
+
+    /**
+     * Records that the value at the last index was removed.
+     */
+    void removedLast(int value, int index) // O(1) expected
+    {
+        // only forget the value if that was its first occurrence,
+        // otherwise an earlier occurrence is still the answer
+        if (!stale && firstIndex.getOrDefault(value, -1) == index)
+        {
+            firstIndex.remove(value);
+        }
+    }
+
+    /**
+     * Records that every value was removed.
+     */
+    void cleared()
+    {
+        firstIndex = new IntIntMap();
+        stale = false;
+    }
+
+    /**
+     * Records a mutation that the index cannot follow cheaply.
+     * The table is rebuilt on the next lookup.
+     */
+    void invalidate()
+    {
+        if (!stale)
+        {
+            stale = true;
+            invalidations++;
+        }
+    }
+
+    /**
+     * Returns an estimate of the heap held by this index, in bytes.
+     */
+    long bytesUsed()
+    {
+        // firstIndex reference, stale, and three long counters
+        return IntListFootprint.object(IntListFootprint.REFERENCE + 1 + 3 * Long.BYTES) + firstIndex.bytesUsed();
+    }
+
+    private void rebuild(int[] buffer, int size) // linear time O(size)
+    {
+        firstIndex = new IntIntMap(size, 0.5f);
+
+        // walk back to front, so the first occurrence is the one left in the table
+        for (int i = size - 1; i >= 0; i--)
+        {
+            firstIndex.put(buffer[i], i);
+        }
+
+        stale = false;
+        rebuilds++;
+    }
+}
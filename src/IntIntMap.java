@@ -0,0 +1,377 @@
+import java.util.Arrays;
+
+/**
+ * A map from int keys to int values, without boxing.
+ *
+ * Entries live in two parallel arrays (keys and values) using open
+ * addressing with linear probing, the same flat-buffer layout as
+ * ArrayIntList. The key 0 marks an empty slot, so an entry for the key 0
+ * itself is kept in a separate field. The table doubles when the number of
+ * entries passes the load factor; removal shifts later entries of the same
+ * probe run back instead of leaving tombstones.
+ */
+public class IntIntMap
+{
+    private static final int MIN_CAPACITY = 8;
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;           // keys.length - 1, the table length is a power of two
+    private int size;           // number of entries, including the one for key 0
+    private int resizeAt;       // grow when size passes this
+    private final float loadFactor;
+
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public IntIntMap()
+    {
+        this(0, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates an empty map sized to hold expectedSize entries without growing.
+     *
+     * @param expectedSize the number of entries the map should hold before growing
+     * @param loadFactor the fraction of slots that may be in use, between 0 and 1 (exclusive)
+     * @throws IllegalArgumentException if expectedSize is negative or loadFactor is out of range
+     */
+    public IntIntMap(int expectedSize, float loadFactor)
+    {
+        if (expectedSize < 0)
+        {
+            throw new IllegalArgumentException("expectedSize must not be negative");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1))
+        {
+            throw new IllegalArgumentException("loadFactor must be between 0 and 1");
+        }
+
+        this.loadFactor = loadFactor;
+        allocate(capacityFor(expectedSize, loadFactor));
+    }
+
+    /**
+     * Returns the value for the specified key, or defaultValue if the map has no entry for it.
+     *
+     * @param key the key whose value is to be returned
+     * @param defaultValue the value to return if there is no entry for the key
+     * @return the value for the key, or defaultValue
+     */
+    public int getOrDefault(int key, int defaultValue) // O(1) expected
+    {
+        if (key == 0)
+        {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+
+        int slot = find(key);
+        return (keys[slot] == 0) ? defaultValue : values[slot];
+    }
+
+    /**
+     * Returns true if this map has an entry for the specified key.
+     *
+     * @param key the key to look for
+     * @return true if this map has an entry for the key
+     */
+    public boolean containsKey(int key) // O(1) expected
+    {
+        if (key == 0)
+        {
+            return hasZeroKey;
+        }
+        return keys[find(key)] != 0;
+    }
+
+    /**
+     * Sets the value for the specified key, replacing any existing value.
+     *
+     * @param key the key
+     * @param value the value for the key
+     */
+    public void put(int key, int value) // O(1) expected, O(size) if the table has to grow
+    {
+        if (key == 0)
+        {
+            if (!hasZeroKey)
+            {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+
+        int slot = find(key);
+        if (keys[slot] == 0)
+        {
+            keys[slot] = key;
+            values[slot] = value;
+            entryAdded();
+        }
+        else
+        {
+            values[slot] = value;
+        }
+    }
+
+    /**
+     * Sets the value for the specified key only if the map has no entry for it yet.
+     *
+     * @param key the key
+     * @param value the value for the key
+     * @return true if the entry was added, false if the key already had a value
+     */
+    public boolean putIfAbsent(int key, int value) // O(1) expected
+    {
+        if (containsKey(key))
+        {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    /**
+     * Adds delta to the value for the specified key, treating a missing entry as 0.
+     * This is the counting operation behind IntList.frequencies().
+     *
+     * @param key the key
+     * @param delta the amount to add
+     * @return the new value for the key
+     */
+    public int addTo(int key, int delta) // O(1) expected
+    {
+        if (key == 0)
+        {
+            put(0, (hasZeroKey ? zeroValue : 0) + delta);
+            return zeroValue;
+        }
+
+        int slot = find(key);
+        if (keys[slot] == 0)
+        {
+            keys[slot] = key;
+            values[slot] = delta;
+            entryAdded();
+            return delta;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    /**
+     * Removes the entry for the specified key, if it is present.
+     *
+     * @param key the key whose entry is to be removed
+     * @return true if the map had an entry for the key
+     */
+    public boolean remove(int key) // O(1) expected
+    {
+        if (key == 0)
+        {
+            if (!hasZeroKey)
+            {
+                return false;
+            }
+            hasZeroKey = false;
+            size--;
+            return true;
+        }
+
+        int slot = find(key);
+        if (keys[slot] == 0)
+        {
+            return false;
+        }
+
+        // shift later entries of the same probe run back into the gap
+        int gap = slot;
+        int current = (gap + 1) & mask;
+        while (keys[current] != 0)
+        {
+            int home = hash(keys[current]) & mask;
+            if (((current - home) & mask) >= ((current - gap) & mask))
+            {
+                keys[gap] = keys[current];
+                values[gap] = values[current];
+                gap = current;
+            }
+            current = (current + 1) & mask;
+        }
+        keys[gap] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the number of entries in this map.
+     *
+     * @return the number of entries in this map
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true if this map has no entries.
+     *
+     * @return true if this map has no entries
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes all the entries from this map, keeping its current capacity.
+     */
+    public void clear()
+    {
+        Arrays.fill(keys, 0);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    /**
+     * Passes each entry of this map, in no particular order, to the specified action.
+     *
+     * @param action the action to be performed for each entry
+     */
+    public void forEachEntry(EntryConsumer action)
+    {
+        if (hasZeroKey)
+        {
+            action.accept(0, zeroValue);
+        }
+        for (int slot = 0; slot < keys.length; slot++)
+        {
+            if (keys[slot] != 0)
+            {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return the number of slots in the table
+     */
+    public int capacity()
+    {
+        return keys.length;
+    }
+
+    /**
+     * Returns an estimate of the heap used by this map, in bytes.
+     *
+     * @return the approximate number of bytes used
+     */
+    public long bytesUsed()
+    {
+        // keys and values references, mask, size, resizeAt, loadFactor, hasZeroKey and zeroValue
+        return IntListFootprint.object(2 * IntListFootprint.REFERENCE + 5 * Integer.BYTES + 1)
+                + 2 * IntListFootprint.array(keys.length, Integer.BYTES);
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        forEachEntry((key, value) -> {
+            if (sb.length() > 1)
+            {
+                sb.append(", ");
+            }
+            sb.append(key).append('=').append(value);
+        });
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * Receives the entries of an IntIntMap.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer
+    {
+        void accept(int key, int value);
+    }
+
+    // ---------------------------------------------------------------
+    // table internals
+    // ---------------------------------------------------------------
+
+    // smallest power-of-two table that holds expectedSize entries under loadFactor
+    static int capacityFor(int expectedSize, float loadFactor)
+    {
+        long needed = (long) Math.ceil(expectedSize / (double) loadFactor) + 1;
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed)
+        {
+            if (capacity >= (1 << 30))
+            {
+                throw new IllegalStateException("Map is too large");
+            }
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    private void entryAdded()
+    {
+        size++;
+        if (size > resizeAt)
+        {
+            rehash(2 * keys.length);
+        }
+    }
+
+    private void rehash(int capacity) // linear time O(capacity)
+    {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] != 0)
+            {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // spreads the bits of a key so that runs of consecutive keys do not cluster
+    static int hash(int key)
+    {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // slot holding key, or the empty slot where it would go (key must not be 0)
+    private int find(int key)
+    {
+        int slot = hash(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
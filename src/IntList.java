@@ -1,3 +1,7 @@
+import java.io.IOException;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
 /**
  * The IntList interface defines a set of operations
  * for an ordered (indexed) collection of ints, which
@@ -93,4 +97,360 @@ public interface IntList extends Iterable<Integer> {
      * The list will be empty after this call returns.
      */
     void clear();
+
+    /**
+     * Returns the number of values this list can hold before it has to
+     * allocate more storage. capacity() - size() is the slack: memory that
+     * is held but not used. Lists that allocate per value, such as
+     * LinkedIntList, and views report size().
+     * @return the number of values that fit in the current storage,
+     * capped at Integer.MAX_VALUE
+     */
+    default int capacity()
+    {
+        return size();
+    }
+
+    /**
+     * Returns an estimate of the heap held by this list, in bytes: the
+     * list object, its buffers or nodes, and any index or cache it owns,
+     * as laid out by a 64-bit JVM with compressed oops (see
+     * IntListFootprint). Views count only themselves, since the values
+     * belong to the backing list; decorators add their own cost to that of
+     * the list they wrap. Shared objects such as IntListMetrics and
+     * off-heap memory are not counted.
+     *
+     * The default is the cost of capacity() values packed in an int[],
+     * a lower bound for any list that stores its values on the heap.
+     * @return the estimated heap footprint of this list in bytes
+     */
+    default long bytesUsed()
+    {
+        return IntListFootprint.array(capacity(), Integer.BYTES);
+    }
+
+    /**
+     * Returns a view of the portion of this list between the specified
+     * fromIndex, inclusive, and toIndex, exclusive. Nothing is copied:
+     * the view reads from and writes through to this list, and its
+     * index 0 is this list's fromIndex.
+     * If this list is structurally modified other than through the view,
+     * the view's behavior is undefined; implementations detect this
+     * where they can and throw ConcurrentModificationException.
+     * @param fromIndex low endpoint (inclusive) of the view
+     * @param toIndex high endpoint (exclusive) of the view
+     * @return a view of the specified range within this list
+     * @throws IndexOutOfBoundsException if fromIndex &lt; 0, toIndex &gt; size()
+     * or fromIndex &gt; toIndex
+     */
+    default IntList subList(int fromIndex, int toIndex)
+    {
+        IntSubList.checkRange(fromIndex, toIndex, size());
+        return new IntSubList(this, fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Passes each value in this list, in order, to the specified action
+     * until the action returns false or every value has been visited.
+     * Implementations walk their own storage directly, so no values are boxed.
+     * @param action the action to be performed for each value; returning
+     * false stops the walk early
+     * @return true if every value was visited, false if the action stopped the walk
+     */
+    default boolean forEachWhile(IntPredicate action)
+    {
+        for (int value : this)
+        {
+            if (!action.test(value))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Passes each value in this list, in order, to the specified action.
+     * @param action the action to be performed for each value
+     */
+    default void forEachInt(IntConsumer action)
+    {
+        forEachWhile(value -> {
+            action.accept(value);
+            return true;
+        });
+    }
+
+    /**
+     * Returns an array containing all the values in this list, in order.
+     * @return a new array containing the values in this list
+     */
+    default int[] toArray()
+    {
+        int[] result = new int[size()];
+        int[] position = new int[1];
+        forEachInt(value -> result[position[0]++] = value);
+        return result;
+    }
+
+    /**
+     * Appends length values of the specified array, starting at offset, to
+     * the back of this list, in order.
+     * @param values array holding the values to append
+     * @param offset position in values of the first value to append
+     * @param length number of values to append
+     * @throws IndexOutOfBoundsException if offset and length do not fit in values
+     */
+    default void addAll(int[] values, int offset, int length)
+    {
+        IntSubList.checkRange(offset, offset + length, values.length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            addBack(values[i]);
+        }
+    }
+
+    /**
+     * Applies every insert and remove of the specified batch, whose indexes
+     * refer to this list as it is before the call. The batch is checked
+     * first, so if any edit does not fit, this list is left unchanged.
+     * The default copies the values out, merges the edits in and puts the
+     * result back, O(size() + edits); ArrayIntList and LinkedIntList apply
+     * the edits in place in a single pass.
+     * @param batch the edits to apply
+     * @throws IndexOutOfBoundsException if an edit is past the end of this list
+     * @throws IllegalArgumentException if two removes of the batch overlap
+     */
+    default void applyEdits(IntEditBatch batch)
+    {
+        int size = size();
+        batch.check(size);
+        if (batch.isEmpty())
+        {
+            return;
+        }
+        int[] result = new int[batch.resultSize(size)];
+        batch.applyTo(toArray(), size, result);
+        clear();
+        addAll(result, 0, result.length);
+    }
+
+    /**
+     * Appends the values of this list to out in the same "[a, b, c]" format
+     * as toString(), without first building the whole String.
+     * @param out where the text is appended, such as a Writer or StringBuilder
+     * @throws IOException if out throws it
+     */
+    default void appendTo(Appendable out) throws IOException
+    {
+        IntListFormat.appendTo(this, out, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Appends at most maxElements values of this list to out, followed by
+     * "... N more" if some were left out, for example "[1, 2, ... 8 more]".
+     * @param out where the text is appended
+     * @param maxElements the largest number of values to write
+     * @throws IOException if out throws it
+     * @throws IllegalArgumentException if maxElements is negative
+     */
+    default void appendTo(Appendable out, int maxElements) throws IOException
+    {
+        IntListFormat.appendTo(this, out, maxElements);
+    }
+
+    /**
+     * Returns a String holding at most maxElements values of this list,
+     * followed by "... N more" if some were left out. Safe for logging
+     * lists of any size.
+     * @param maxElements the largest number of values to include
+     * @return a summary of this list
+     * @throws IllegalArgumentException if maxElements is negative
+     */
+    default String toString(int maxElements)
+    {
+        return IntListFormat.toString(this, maxElements);
+    }
+
+    /**
+     * Returns the count, sum, min, max, mean and variance of the values in
+     * this list, computed in one walk without boxing.
+     * @return the statistics of this list
+     */
+    default IntStatistics statistics()
+    {
+        return IntAggregator.statistics(this, false);
+    }
+
+    /**
+     * Same as statistics(), computed on the common fork-join pool. An
+     * ArrayIntList is split directly; other lists are walked once and
+     * aggregated a chunk at a time in parallel with the walk.
+     * @return the statistics of this list
+     */
+    default IntStatistics parallelStatistics()
+    {
+        return IntAggregator.statistics(this, true);
+    }
+
+    /**
+     * Counts the values of this list in buckets of equal width between
+     * min and max, both inclusive. Values outside that range are not counted.
+     * @param min the lowest value of the first bucket
+     * @param max the highest value of the last bucket
+     * @param buckets the number of buckets
+     * @return the count of each bucket, lowest first
+     * @throws IllegalArgumentException if buckets &lt; 1 or min &gt; max
+     */
+    default long[] histogram(int min, int max, int buckets)
+    {
+        return IntAggregator.histogram(this, min, max, buckets, false);
+    }
+
+    /**
+     * Same as histogram(min, max, buckets), computed on the common fork-join pool.
+     * @param min the lowest value of the first bucket
+     * @param max the highest value of the last bucket
+     * @param buckets the number of buckets
+     * @return the count of each bucket, lowest first
+     */
+    default long[] parallelHistogram(int min, int max, int buckets)
+    {
+        return IntAggregator.histogram(this, min, max, buckets, true);
+    }
+
+    /**
+     * Returns the k largest values of this list, largest first (fewer if
+     * the list is smaller). Takes O(size() log k) time with a k-entry heap.
+     * @param k the number of values to return
+     * @return a new array of the largest values
+     * @throws IllegalArgumentException if k is negative
+     */
+    default int[] topK(int k)
+    {
+        return IntAggregator.topK(this, k, false);
+    }
+
+    /**
+     * Same as topK(k), computed on the common fork-join pool.
+     * @param k the number of values to return
+     * @return a new array of the largest values
+     */
+    default int[] parallelTopK(int k)
+    {
+        return IntAggregator.topK(this, k, true);
+    }
+
+    /**
+     * Returns the nearest-rank percentile of the values in this list: the
+     * smallest value such that at least percent% of the values are less
+     * than or equal to it. percentile(50) is the median. Uses quickselect
+     * on a copy, expected linear time; this list is not reordered.
+     * @param percent a percentage from 0 to 100
+     * @return the value at that percentile
+     * @throws IllegalArgumentException if percent is not between 0 and 100
+     * @throws java.util.NoSuchElementException if this list is empty
+     */
+    default int percentile(double percent)
+    {
+        return IntAggregator.percentile(this, percent);
+    }
+
+    /**
+     * Returns a lazy pipeline over the values of this list. Operations such as
+     * map, filter and limit are only recorded; nothing is computed until a
+     * terminal operation such as toIntList(), toArray(), sum() or forEachInt()
+     * runs, and then all the stages run together in a single pass over this list.
+     * @return a new pipeline whose source is this list
+     */
+    default IntPipeline view()
+    {
+        return IntPipeline.of(this);
+    }
+
+    /**
+     * Removes every value in this list that matches the specified predicate.
+     * The values that are kept stay in their original order.
+     * @param filter a predicate which returns true for values to be removed
+     * @return true if any values were removed
+     */
+    default boolean removeIf(IntPredicate filter)
+    {
+        int[] values = toArray();
+        int kept = 0;
+        for (int value : values)
+        {
+            if (!filter.test(value))
+            {
+                values[kept++] = value;
+            }
+        }
+        if (kept == values.length)
+        {
+            return false;
+        }
+
+        clear();
+        for (int i = 0; i < kept; i++)
+        {
+            addBack(values[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Removes from this list every value that is also in the specified list.
+     * The other list is loaded into an IntSet first, so this takes
+     * O(size() + other.size()) expected time instead of calling
+     * other.contains for every value.
+     * @param other list holding the values to be removed from this list
+     * @return true if this list changed as a result of the call
+     */
+    default boolean removeAll(IntList other)
+    {
+        IntSet remove = IntSet.of(other);
+        return removeIf(remove::contains);
+    }
+
+    /**
+     * Keeps only the values in this list that are also in the specified list.
+     * Takes O(size() + other.size()) expected time.
+     * @param other list holding the values to be kept in this list
+     * @return true if this list changed as a result of the call
+     */
+    default boolean retainAll(IntList other)
+    {
+        IntSet keep = IntSet.of(other);
+        return removeIf(value -> !keep.contains(value));
+    }
+
+    /**
+     * Returns a new list holding the first occurrence of each distinct value
+     * in this list, in the order they first appear.
+     * @return a new list without duplicate values
+     */
+    default IntList distinct()
+    {
+        IntSet seen = new IntSet();
+        ArrayIntList result = new ArrayIntList();
+        forEachInt(value -> {
+            if (seen.add(value))
+            {
+                result.addBack(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns a map from each distinct value in this list to the number
+     * of times it occurs.
+     * @return a new map of value counts
+     */
+    default IntIntMap frequencies()
+    {
+        IntIntMap counts = new IntIntMap();
+        forEachInt(value -> counts.addTo(value, 1));
+        return counts;
+    }
 }
@@ -0,0 +1,682 @@
+import java.util.Arrays;
+
+/**
+ * Set algebra (union, intersection, difference) and equi-joins between
+ * IntLists, without calling contains() in a loop.
+ *
+ * Each operation can run three ways:
+ *
+ *   HASH        - load one side into an IntSet (or a chained index for
+ *                 joins) and probe it with the other: O(n + m), best when
+ *                 neither side is sorted
+ *   SORT_MERGE  - sort both sides (skipped if already sorted) and walk them
+ *                 together: O(n + m) on sorted input, no hashing
+ *   GALLOPING   - for each value of the small side, find its place in the
+ *                 sorted large side by exponential then binary search:
+ *                 O(small * log(large / small)), best when one sorted side
+ *                 is much larger than the other
+ *
+ * AUTO (the default) checks whether each side is already sorted, which
+ * takes one pass, and picks from the sizes:
+ *
+ *   both sorted                        - GALLOPING if one side is at least
+ *                                        GALLOP_RATIO times larger, else SORT_MERGE
+ *   the larger side sorted, ratio met  - GALLOPING (only the small side is sorted)
+ *   otherwise                          - HASH
+ *
+ * Set operations treat the lists as sets of values: duplicates count once
+ * and the result is a new ArrayIntList in ascending order, whatever the
+ * strategy. IntListAlgebraBenchmark shows where each strategy wins.
+ */
+public final class IntListAlgebra
+{
+    /**
+     * How an operation matches the values of its two inputs.
+     */
+    public enum Strategy
+    {
+        AUTO, HASH, SORT_MERGE, GALLOPING
+    }
+
+    /**
+     * Receives one matching pair of a join.
+     */
+    @FunctionalInterface
+    public interface IndexPairConsumer
+    {
+        /**
+         * @param leftIndex index in the left list
+         * @param rightIndex index in the right list, where the same value is
+         */
+        void accept(int leftIndex, int rightIndex);
+    }
+
+    static final int GALLOP_RATIO = 32;
+
+    private IntListAlgebra()
+    {
+    }
+
+    /**
+     * Returns the strategy AUTO would use for these two lists.
+     *
+     * @param left the first list
+     * @param right the second list
+     * @return HASH, SORT_MERGE or GALLOPING
+     */
+    public static Strategy choose(IntList left, IntList right)
+    {
+        return choose(isSorted(left), isSorted(right), left.size(), right.size());
+    }
+
+    static Strategy choose(boolean leftSorted, boolean rightSorted, int leftSize, int rightSize)
+    {
+        long small = Math.max(1, Math.min(leftSize, rightSize));
+        long large = Math.max(leftSize, rightSize);
+        boolean lopsided = large >= GALLOP_RATIO * small;
+        boolean largeSorted = (leftSize >= rightSize) ? leftSorted : rightSorted;
+        if (leftSorted && rightSorted)
+        {
+            return lopsided ? Strategy.GALLOPING : Strategy.SORT_MERGE;
+        }
+        return (largeSorted && lopsided) ? Strategy.GALLOPING : Strategy.HASH;
+    }
+
+    // ---------------------------------------------------------------
+    // set operations
+    // ---------------------------------------------------------------
+
+    /**
+     * Returns the values that are in either list.
+     *
+     * @param left the first list
+     * @param right the second list
+     * @return a new list of the distinct values of both lists, ascending
+     */
+    public static IntList union(IntList left, IntList right)
+    {
+        return union(left, right, Strategy.AUTO);
+    }
+
+    /**
+     * Returns the values that are in either list, using the specified strategy.
+     *
+     * @param left the first list
+     * @param right the second list
+     * @param strategy how to match the values
+     * @return a new list of the distinct values of both lists, ascending
+     */
+    public static IntList union(IntList left, IntList right, Strategy strategy)
+    {
+        switch (resolve(left, right, strategy))
+        {
+            case HASH:
+            {
+                IntSet values = IntSet.of(left);
+                right.forEachInt(values::add);
+                return sortedList(values.toArray());
+            }
+            case GALLOPING:
+            {
+                int[] a = sortedDistinct(left);
+                int[] b = sortedDistinct(right);
+                return (a.length <= b.length) ? unionGallop(a, b) : unionGallop(b, a);
+            }
+            default:
+                return unionMerge(sortedDistinct(left), sortedDistinct(right));
+        }
+    }
+
+    /**
+     * Returns the values that are in both lists.
+     *
+     * @param left the first list
+     * @param right the second list
+     * @return a new list of the distinct common values, ascending
+     */
+    public static IntList intersection(IntList left, IntList right)
+    {
+        return intersection(left, right, Strategy.AUTO);
+    }
+
+    /**
+     * Returns the values that are in both lists, using the specified strategy.
+     *
+     * @param left the first list
+     * @param right the second list
+     * @param strategy how to match the values
+     * @return a new list of the distinct common values, ascending
+     */
+    public static IntList intersection(IntList left, IntList right, Strategy strategy)
+    {
+        switch (resolve(left, right, strategy))
+        {
+            case HASH:
+            {
+                // build on the smaller side, probe with the larger
+                IntList small = (left.size() <= right.size()) ? left : right;
+                IntList large = (small == left) ? right : left;
+                IntSet smallValues = IntSet.of(small);
+                IntSet common = new IntSet();
+                large.forEachInt(value -> {
+                    if (smallValues.contains(value))
+                    {
+                        common.add(value);
+                    }
+                });
+                return sortedList(common.toArray());
+            }
+            case GALLOPING:
+            {
+                // only the small side needs to be distinct; a sorted large ArrayIntList is read in place
+                IntList small = (left.size() <= right.size()) ? left : right;
+                return intersectGallop(sortedDistinct(small), sorted((small == left) ? right : left));
+            }
+            default:
+                return intersectMerge(sortedDistinct(left), sortedDistinct(right));
+        }
+    }
+
+    /**
+     * Returns the values of left that are not in right.
+     *
+     * @param left the list to take values from
+     * @param right the list of values to leave out
+     * @return a new list of the distinct remaining values, ascending
+     */
+    public static IntList difference(IntList left, IntList right)
+    {
+        return difference(left, right, Strategy.AUTO);
+    }
+
+    /**
+     * Returns the values of left that are not in right, using the specified strategy.
+     *
+     * @param left the list to take values from
+     * @param right the list of values to leave out
+     * @param strategy how to match the values
+     * @return a new list of the distinct remaining values, ascending
+     */
+    public static IntList difference(IntList left, IntList right, Strategy strategy)
+    {
+        switch (resolve(left, right, strategy))
+        {
+            case HASH:
+            {
+                IntSet exclude = IntSet.of(right);
+                IntSet kept = new IntSet();
+                left.forEachInt(value -> {
+                    if (!exclude.contains(value))
+                    {
+                        kept.add(value);
+                    }
+                });
+                return sortedList(kept.toArray());
+            }
+            case GALLOPING:
+                return differenceGallop(sortedDistinct(left), sortedDistinct(right));
+            default:
+                return differenceMerge(sortedDistinct(left), sortedDistinct(right));
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // join
+    // ---------------------------------------------------------------
+
+    /**
+     * Calls consumer once for every pair of positions (i, j) with
+     * left.get(i) == right.get(j). Duplicates are kept: a value twice in
+     * left and three times in right gives six pairs. Pairs arrive in no
+     * particular order.
+     *
+     * @param left the left list
+     * @param right the right list
+     * @param consumer receives each matching pair of indexes
+     * @return the number of pairs
+     */
+    public static long join(IntList left, IntList right, IndexPairConsumer consumer)
+    {
+        return join(left, right, consumer, Strategy.AUTO);
+    }
+
+    /**
+     * Joins the lists on equal values using the specified strategy. See
+     * join(IntList, IntList, IndexPairConsumer).
+     *
+     * @param left the left list
+     * @param right the right list
+     * @param consumer receives each matching pair of indexes
+     * @param strategy how to match the values
+     * @return the number of pairs
+     */
+    public static long join(IntList left, IntList right, IndexPairConsumer consumer, Strategy strategy)
+    {
+        switch (resolve(left, right, strategy))
+        {
+            case HASH:
+                return (left.size() <= right.size())
+                        ? hashJoin(left.toArray(), right.toArray(), consumer, false)
+                        : hashJoin(right.toArray(), left.toArray(), consumer, true);
+            case GALLOPING:
+                return (left.size() <= right.size())
+                        ? gallopJoin(sorted(left), sorted(right), consumer, false)
+                        : gallopJoin(sorted(right), sorted(left), consumer, true);
+            default:
+                return mergeJoin(sorted(left), sorted(right), consumer);
+        }
+    }
+
+    // builds a chained index over build (value -> last position, next[] links earlier ones)
+    private static long hashJoin(int[] build, int[] probe, IndexPairConsumer consumer, boolean swapped)
+    {
+        IntIntMap last = new IntIntMap(build.length, 0.5f);
+        int[] previous = new int[build.length];
+        for (int i = 0; i < build.length; i++)
+        {
+            previous[i] = last.getOrDefault(build[i], -1);
+            last.put(build[i], i);
+        }
+
+        long pairs = 0;
+        for (int j = 0; j < probe.length; j++)
+        {
+            for (int i = last.getOrDefault(probe[j], -1); i != -1; i = previous[i])
+            {
+                emit(consumer, i, j, swapped);
+                pairs++;
+            }
+        }
+        return pairs;
+    }
+
+    private static long mergeJoin(Sorted a, Sorted b, IndexPairConsumer consumer)
+    {
+        long pairs = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length)
+        {
+            int x = a.values[i];
+            int y = b.values[j];
+            if (x < y)
+            {
+                i++;
+            }
+            else if (x > y)
+            {
+                j++;
+            }
+            else
+            {
+                int aEnd = a.runEnd(i);
+                int bEnd = b.runEnd(j);
+                pairs += crossProduct(a, i, aEnd, b, j, bEnd, consumer, false);
+                i = aEnd;
+                j = bEnd;
+            }
+        }
+        return pairs;
+    }
+
+    private static long gallopJoin(Sorted small, Sorted large, IndexPairConsumer consumer, boolean swapped)
+    {
+        long pairs = 0;
+        int position = 0;
+        for (int i = 0; i < small.length && position < large.length; )
+        {
+            int key = small.values[i];
+            int smallEnd = small.runEnd(i);
+            position = gallop(large.values, position, large.length, key);
+            if (position < large.length && large.values[position] == key)
+            {
+                int largeEnd = large.runEnd(position);
+                pairs += crossProduct(small, i, smallEnd, large, position, largeEnd, consumer, swapped);
+                position = largeEnd;
+            }
+            i = smallEnd;
+        }
+        return pairs;
+    }
+
+    private static long crossProduct(Sorted a, int aFrom, int aTo, Sorted b, int bFrom, int bTo,
+                                     IndexPairConsumer consumer, boolean swapped)
+    {
+        for (int i = aFrom; i < aTo; i++)
+        {
+            for (int j = bFrom; j < bTo; j++)
+            {
+                emit(consumer, a.index(i), b.index(j), swapped);
+            }
+        }
+        return (long) (aTo - aFrom) * (bTo - bFrom);
+    }
+
+    private static void emit(IndexPairConsumer consumer, int first, int second, boolean swapped)
+    {
+        if (swapped)
+        {
+            consumer.accept(second, first);
+        }
+        else
+        {
+            consumer.accept(first, second);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // sorted-array kernels (inputs ascending and distinct)
+    // ---------------------------------------------------------------
+
+    private static IntList unionMerge(int[] a, int[] b)
+    {
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length)
+        {
+            if (a[i] < b[j])
+            {
+                result[n++] = a[i++];
+            }
+            else if (a[i] > b[j])
+            {
+                result[n++] = b[j++];
+            }
+            else
+            {
+                result[n++] = a[i++];
+                j++;
+            }
+        }
+        System.arraycopy(a, i, result, n, a.length - i);
+        n += a.length - i;
+        System.arraycopy(b, j, result, n, b.length - j);
+        n += b.length - j;
+        return list(result, n);
+    }
+
+    // the runs of large between values of small are block copied
+    private static IntList unionGallop(int[] small, int[] large)
+    {
+        int[] result = new int[small.length + large.length];
+        int n = 0;
+        int position = 0;
+        for (int value : small)
+        {
+            int next = gallop(large, position, large.length, value);
+            System.arraycopy(large, position, result, n, next - position);
+            n += next - position;
+            position = next;
+            if (position == large.length || large[position] != value)
+            {
+                result[n++] = value;
+            }
+        }
+        System.arraycopy(large, position, result, n, large.length - position);
+        n += large.length - position;
+        return list(result, n);
+    }
+
+    private static IntList intersectMerge(int[] a, int[] b)
+    {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length)
+        {
+            if (a[i] < b[j])
+            {
+                i++;
+            }
+            else if (a[i] > b[j])
+            {
+                j++;
+            }
+            else
+            {
+                result[n++] = a[i++];
+                j++;
+            }
+        }
+        return list(result, n);
+    }
+
+    // large may hold duplicates
+    private static IntList intersectGallop(int[] small, Sorted large)
+    {
+        int[] result = new int[small.length];
+        int n = 0;
+        int position = 0;
+        for (int value : small)
+        {
+            position = gallop(large.values, position, large.length, value);
+            if (position == large.length)
+            {
+                break;
+            }
+            if (large.values[position] == value)
+            {
+                result[n++] = value;
+            }
+        }
+        return list(result, n);
+    }
+
+    private static IntList differenceMerge(int[] a, int[] b)
+    {
+        int[] result = new int[a.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length)
+        {
+            if (a[i] < b[j])
+            {
+                result[n++] = a[i++];
+            }
+            else if (a[i] > b[j])
+            {
+                j++;
+            }
+            else
+            {
+                i++;
+                j++;
+            }
+        }
+        System.arraycopy(a, i, result, n, a.length - i);
+        return list(result, n + a.length - i);
+    }
+
+    private static IntList differenceGallop(int[] a, int[] b)
+    {
+        int[] result = new int[a.length];
+        int n = 0;
+        if (a.length <= b.length)
+        {
+            // look each value of a up in b
+            int position = 0;
+            for (int value : a)
+            {
+                position = gallop(b, position, b.length, value);
+                if (position == b.length || b[position] != value)
+                {
+                    result[n++] = value;
+                }
+            }
+        }
+        else
+        {
+            // find each value of b in a and copy the runs in between
+            int position = 0;
+            for (int value : b)
+            {
+                int next = gallop(a, position, a.length, value);
+                System.arraycopy(a, position, result, n, next - position);
+                n += next - position;
+                position = (next < a.length && a[next] == value) ? next + 1 : next;
+            }
+            System.arraycopy(a, position, result, n, a.length - position);
+            n += a.length - position;
+        }
+        return list(result, n);
+    }
+
+    /**
+     * Returns the first index in [from, to) whose value is at least key, or
+     * to: steps of 1, 2, 4, ... to bracket it, then binary search.
+     */
+    static int gallop(int[] a, int from, int to, int key)
+    {
+        int low = from;
+        int step = 1;
+        int high = from;
+        while (high < to && a[high] < key)
+        {
+            low = high + 1;
+            high = from + step;
+            step <<= 1;
+        }
+        high = Math.min(high, to);
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (a[middle] < key)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // ---------------------------------------------------------------
+    // helpers
+    // ---------------------------------------------------------------
+
+    private static Strategy resolve(IntList left, IntList right, Strategy strategy)
+    {
+        return (strategy == Strategy.AUTO) ? choose(left, right) : strategy;
+    }
+
+    static boolean isSorted(IntList list)
+    {
+        int[] previous = {Integer.MIN_VALUE};
+        return list.forEachWhile(value -> {
+            boolean ordered = value >= previous[0];
+            previous[0] = value;
+            return ordered;
+        });
+    }
+
+    // the values of list, ascending, each once; sorting is skipped for sorted lists
+    private static int[] sortedDistinct(IntList list)
+    {
+        int[] values = list.toArray();
+        if (!isSorted(values))
+        {
+            Arrays.sort(values);
+        }
+        int n = 0;
+        for (int i = 0; i < values.length; i++)
+        {
+            if (n == 0 || values[i] != values[n - 1])
+            {
+                values[n++] = values[i];
+            }
+        }
+        return (n == values.length) ? values : Arrays.copyOf(values, n);
+    }
+
+    /**
+     * The values of a list in ascending order, duplicates kept, with the
+     * list index each came from. A sorted list is its own order, so its
+     * indexes are not stored, and a sorted ArrayIntList is not even copied.
+     */
+    private static final class Sorted
+    {
+        final int[] values;
+        final int length;
+        final int[] indexes;    // null when indexes[i] == i
+
+        Sorted(int[] values, int length, int[] indexes)
+        {
+            this.values = values;
+            this.length = length;
+            this.indexes = indexes;
+        }
+
+        int index(int position)
+        {
+            return (indexes == null) ? position : indexes[position];
+        }
+
+        // end of the run of values equal to values[from]
+        int runEnd(int from)
+        {
+            int end = from + 1;
+            while (end < length && values[end] == values[from])
+            {
+                end++;
+            }
+            return end;
+        }
+    }
+
+    private static Sorted sorted(IntList list)
+    {
+        if (isSorted(list))
+        {
+            int[] values = (list instanceof ArrayIntList) ? ((ArrayIntList) list).elements() : list.toArray();
+            return new Sorted(values, list.size(), null);
+        }
+
+        // (value << 32 | index) pairs sort by value, then index
+        long[] pairs = new long[list.size()];
+        int[] n = {0};
+        list.forEachInt(value -> {
+            pairs[n[0]] = ((long) value << 32) | n[0];
+            n[0]++;
+        });
+        Arrays.sort(pairs);
+        int[] values = new int[pairs.length];
+        int[] indexes = new int[pairs.length];
+        for (int i = 0; i < pairs.length; i++)
+        {
+            values[i] = (int) (pairs[i] >> 32);
+            indexes[i] = (int) pairs[i];
+        }
+        return new Sorted(values, values.length, indexes);
+    }
+
+    private static boolean isSorted(int[] values)
+    {
+        for (int i = 1; i < values.length; i++)
+        {
+            if (values[i] < values[i - 1])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static IntList sortedList(int[] values)
+    {
+        Arrays.sort(values);
+        return list(values, values.length);
+    }
+
+    private static IntList list(int[] values, int length)
+    {
+        ArrayIntList result = new ArrayIntList();
+        result.addAll(values, 0, length);
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Times intersection and join under every IntListAlgebra strategy, on three
+ * shapes of input, each chosen so a different strategy wins:
+ *
+ *   unsorted, same size        - HASH: the others have to sort both sides first
+ *   sorted, same size          - SORT_MERGE: one linear walk, no hashing
+ *   sorted, one side 1000x     - GALLOPING: touches about small * log(ratio) values
+ *
+ * The AUTO column shows which strategy the chooser picks.
+ *
+ * usage: java IntListAlgebraBenchmark [size] [rounds]
+ */
+public class IntListAlgebraBenchmark
+{
+    public static void main(String[] args)
+    {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+        run("unsorted, same size", list(size, size, 1, false), list(size, size, 2, false), rounds);
+        run("sorted, same size", list(size, size, 3, true), list(size, size, 4, true), rounds);
+        run("sorted, 1000x larger", list(Math.max(1, size / 1000), size, 5, true), list(size, size, 6, true), rounds);
+    }
+
+    private static void run(String name, IntList left, IntList right, int rounds)
+    {
+        System.out.printf("%s (%d x %d), AUTO picks %s%n", name, left.size(), right.size(),
+                IntListAlgebra.choose(left, right));
+        for (IntListAlgebra.Strategy strategy : IntListAlgebra.Strategy.values())
+        {
+            long[] checksum = {0};
+            long intersect = best(rounds, () -> checksum[0] += IntListAlgebra.intersection(left, right, strategy).size());
+            long join = best(rounds, () -> checksum[0] += IntListAlgebra.join(left, right, (i, j) -> { }, strategy));
+            System.out.printf("  %-10s intersection %8.2f ms   join %8.2f ms   (checksum %d)%n",
+                    strategy, intersect / 1e6, join / 1e6, checksum[0]);
+        }
+    }
+
+    // fastest of rounds runs, after one warm-up run
+    private static long best(int rounds, Runnable task)
+    {
+        task.run();
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++)
+        {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static IntList list(int count, int bound, long seed, boolean sorted)
+    {
+        Random random = new Random(seed);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            values[i] = random.nextInt(2 * bound);
+        }
+        if (sorted)
+        {
+            Arrays.sort(values);
+        }
+        ArrayIntList list = new ArrayIntList();
+        list.addAll(values, 0, count);
+        return list;
+    }
+}
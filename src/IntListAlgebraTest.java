@@ -0,0 +1,142 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntListAlgebraTest {
+
+    private static final IntListAlgebra.Strategy[] STRATEGIES = IntListAlgebra.Strategy.values();
+
+    private static ArrayIntList randomList(int count, int bound, long seed, boolean sorted) {
+        Random random = new Random(seed);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextInt(2 * bound + 1) - bound;
+        }
+        if (sorted) {
+            Arrays.sort(values);
+        }
+        ArrayIntList list = new ArrayIntList();
+        list.addAll(values, 0, count);
+        return list;
+    }
+
+    private static TreeSet<Integer> set(IntList list) {
+        TreeSet<Integer> set = new TreeSet<>();
+        list.forEachInt(set::add);
+        return set;
+    }
+
+    private static int[] expected(Set<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // (size, bound, sorted) for left and right: balanced, lopsided, sorted or not, with duplicates
+    private static List<IntList[]> cases() {
+        List<IntList[]> cases = new ArrayList<>();
+        cases.add(new IntList[] {randomList(5_000, 3_000, 1, false), randomList(4_000, 3_000, 2, false)});
+        cases.add(new IntList[] {randomList(5_000, 3_000, 3, true), randomList(4_000, 3_000, 4, true)});
+        cases.add(new IntList[] {randomList(50, 100_000, 5, true), randomList(20_000, 100_000, 6, true)});
+        cases.add(new IntList[] {randomList(20_000, 100_000, 7, true), randomList(50, 100_000, 8, false)});
+        cases.add(new IntList[] {randomList(0, 10, 9, false), randomList(100, 10, 10, false)});
+        cases.add(new IntList[] {randomList(100, 10, 11, true), randomList(0, 10, 12, true)});
+        return cases;
+    }
+
+    @Test
+    void setOperationsAgreeAcrossStrategies() {
+        for (IntList[] pair : cases()) {
+            TreeSet<Integer> left = set(pair[0]);
+            TreeSet<Integer> right = set(pair[1]);
+
+            TreeSet<Integer> union = new TreeSet<>(left);
+            union.addAll(right);
+            TreeSet<Integer> intersection = new TreeSet<>(left);
+            intersection.retainAll(right);
+            TreeSet<Integer> difference = new TreeSet<>(left);
+            difference.removeAll(right);
+
+            for (IntListAlgebra.Strategy strategy : STRATEGIES) {
+                assertArrayEquals(expected(union), IntListAlgebra.union(pair[0], pair[1], strategy).toArray());
+                assertArrayEquals(expected(intersection), IntListAlgebra.intersection(pair[0], pair[1], strategy).toArray());
+                assertArrayEquals(expected(difference), IntListAlgebra.difference(pair[0], pair[1], strategy).toArray());
+            }
+        }
+    }
+
+    @Test
+    void setOperationsAcceptAnyList() {
+        LinkedIntList left = new LinkedIntList();
+        UnrolledIntList right = new UnrolledIntList();
+        for (int value : new int[] {5, -1, 3, 3, 9}) {
+            left.addFront(value);
+        }
+        for (int value : new int[] {3, 4, 5, 5}) {
+            right.addBack(value);
+        }
+        assertArrayEquals(expected(new TreeSet<>(List.of(-1, 3, 4, 5, 9))), IntListAlgebra.union(left, right).toArray());
+        assertArrayEquals(expected(new TreeSet<>(List.of(3, 5))), IntListAlgebra.intersection(left, right).toArray());
+        assertArrayEquals(expected(new TreeSet<>(List.of(-1, 9))), IntListAlgebra.difference(left, right).toArray());
+        assertArrayEquals(expected(new TreeSet<>(List.of(4))), IntListAlgebra.difference(right, left).toArray());
+    }
+
+    @Test
+    void joinFindsEveryMatchingPair() {
+        IntList[] lefts = {randomList(300, 40, 20, false), randomList(300, 40, 21, true), randomList(10, 500, 22, true)};
+        IntList[] rights = {randomList(200, 40, 23, false), randomList(400, 40, 24, true), randomList(2_000, 500, 25, true)};
+        for (int c = 0; c < lefts.length; c++) {
+            IntList left = lefts[c];
+            IntList right = rights[c];
+            Set<Long> expected = new HashSet<>();
+            for (int i = 0; i < left.size(); i++) {
+                for (int j = 0; j < right.size(); j++) {
+                    if (left.get(i) == right.get(j)) {
+                        expected.add((long) i << 32 | j);
+                    }
+                }
+            }
+
+            for (IntListAlgebra.Strategy strategy : STRATEGIES) {
+                Set<Long> actual = new HashSet<>();
+                long pairs = IntListAlgebra.join(left, right, (i, j) -> {
+                    assertEquals(left.get(i), right.get(j));
+                    assertTrue(actual.add((long) i << 32 | j), "pair reported twice");
+                }, strategy);
+                assertEquals(expected.size(), pairs);
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    void chooseFollowsSizesAndOrder() {
+        assertEquals(IntListAlgebra.Strategy.HASH, IntListAlgebra.choose(false, false, 1000, 1000));
+        assertEquals(IntListAlgebra.Strategy.SORT_MERGE, IntListAlgebra.choose(true, true, 1000, 1000));
+        assertEquals(IntListAlgebra.Strategy.GALLOPING, IntListAlgebra.choose(true, true, 10, 100_000));
+        assertEquals(IntListAlgebra.Strategy.GALLOPING, IntListAlgebra.choose(true, false, 100_000, 10));
+        assertEquals(IntListAlgebra.Strategy.HASH, IntListAlgebra.choose(false, true, 100_000, 10));
+        assertEquals(IntListAlgebra.Strategy.HASH, IntListAlgebra.choose(true, false, 1000, 1000));
+
+        assertEquals(IntListAlgebra.Strategy.SORT_MERGE,
+                IntListAlgebra.choose(randomList(100, 50, 30, true), randomList(100, 50, 31, true)));
+    }
+
+    @Test
+    void gallopFindsFirstValueNotLess() {
+        int[] values = {1, 3, 3, 5, 8, 13, 21, 34, 55};
+        assertEquals(0, IntListAlgebra.gallop(values, 0, values.length, 0));
+        assertEquals(1, IntListAlgebra.gallop(values, 0, values.length, 3));
+        assertEquals(3, IntListAlgebra.gallop(values, 2, values.length, 4));
+        assertEquals(8, IntListAlgebra.gallop(values, 0, values.length, 55));
+        assertEquals(9, IntListAlgebra.gallop(values, 0, values.length, 56));
+        assertEquals(5, IntListAlgebra.gallop(values, 5, values.length, 1));
+        assertEquals(4, IntListAlgebra.gallop(values, 0, 4, 8));
+    }
+}
@@ -0,0 +1,566 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.function.IntConsumer;
+
+/**
+ * Streams IntLists through byte channels, such as the SocketChannels
+ * between two services, with no boxing, no Strings and, once set up, no
+ * allocation per value or per call.
+ *
+ * Each list is sent as one message, so any number of lists, in any mix of
+ * encodings, can follow each other on one stream:
+ *
+ *   'I'        1 byte
+ *   encoding   1 byte, 'R', 'V', 'D' or 'P'
+ *   count      4-byte big-endian int
+ *   values     count values in that encoding
+ *
+ * The encodings, from fastest to smallest:
+ *
+ *   RAW     4-byte big-endian ints, the layout of IntListIO.writeBinary
+ *   VARINT  zigzag LEB128: 1 byte for -64..63, up to 5 bytes
+ *   DELTA   zigzag LEB128 of each value minus the one before, for sorted
+ *           or clustered lists
+ *   PACKED  the DELTA differences bit-packed in blocks of 128, each block
+ *           at the bit width of its largest: a sorted list of ids with
+ *           gaps under 8 takes 4 bits per value
+ *
+ * An Encoder owns one direct buffer that it fills from the list and drains
+ * into the channel. writeTo stops when the channel takes less than it is
+ * offered, as a non-blocking channel does when its socket buffer is full,
+ * and carries on from there on the next call, so a selector loop calls it
+ * again on OP_WRITE and never holds more than one buffer of a list.
+ * A Decoder reads whatever the channel has, keeps a value cut in half by
+ * the end of a read for the next call, and decodes straight into the
+ * buffer of an ArrayIntList.
+ *
+ * Encoders and decoders are reusable and not thread-safe. A Decoder may
+ * read ahead into the next message, so use one Decoder per channel.
+ */
+public final class IntListCodec
+{
+    static final int DEFAULT_BUFFER_BYTES = 1 << 16;
+    static final int MIN_BUFFER_BYTES = 1024;
+    static final int BLOCK_VALUES = 128;
+
+    private static final byte MAGIC = 'I';
+    private static final int HEADER_BYTES = 6;
+    private static final int MAX_VARINT_BYTES = 5;
+    private static final int MAX_BLOCK_BYTES = 1 + BLOCK_VALUES * 4;
+
+    private IntListCodec()
+    {
+    }
+
+    /**
+     * How the values of a list are turned into bytes.
+     */
+    public enum Encoding
+    {
+        RAW('R'), VARINT('V'), DELTA('D'), PACKED('P');
+
+        final byte code;
+
+        Encoding(char code)
+        {
+            this.code = (byte) code;
+        }
+
+        static Encoding of(byte code) throws IOException
+        {
+            for (Encoding encoding : values())
+            {
+                if (encoding.code == code)
+                {
+                    return encoding;
+                }
+            }
+            throw new IOException("Unknown IntList encoding " + code);
+        }
+    }
+
+    static int zigzag(int value)
+    {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // ---------------------------------------------------------------
+    // encoding
+    // ---------------------------------------------------------------
+
+    /**
+     * Writes lists to a channel one message at a time: start(list), then
+     * writeTo(channel) until it returns true.
+     */
+    public static final class Encoder
+    {
+        private final Encoding encoding;
+        private final ByteBuffer bytes;     // drain mode: [position, limit) not yet written
+        private final int[] block = new int[BLOCK_VALUES];
+
+        private int[] copy = new int[0];    // values of a source that is not an ArrayIntList
+        private int copied;
+        private final IntConsumer copier = value -> copy[copied++] = value;
+
+        private int[] values;       // values of the current list, null when none is being written
+        private int count;
+        private int next;           // index in values of the next value to encode
+        private int previous;       // last value encoded, for DELTA and PACKED
+        private long bytesWritten;
+
+        /**
+         * Creates an encoder with a 64 KB direct buffer.
+         *
+         * @param encoding the encoding of every list this encoder writes
+         */
+        public Encoder(Encoding encoding)
+        {
+            this(encoding, DEFAULT_BUFFER_BYTES);
+        }
+
+        /**
+         * Creates an encoder with a direct buffer of the specified size,
+         * the most it offers the channel in one write.
+         *
+         * @param encoding the encoding of every list this encoder writes
+         * @param bufferBytes the size of the buffer, at least 1024
+         * @throws IllegalArgumentException if bufferBytes is less than 1024
+         */
+        public Encoder(Encoding encoding, int bufferBytes)
+        {
+            if (bufferBytes < MIN_BUFFER_BYTES)
+            {
+                throw new IllegalArgumentException("bufferBytes must be at least " + MIN_BUFFER_BYTES);
+            }
+            this.encoding = encoding;
+            this.bytes = ByteBuffer.allocateDirect(bufferBytes);
+            bytes.flip();
+        }
+
+        /**
+         * Starts a message holding the values of source. An ArrayIntList is
+         * read in place, so it must not change until writeTo returns true;
+         * any other list is copied into a reusable array here.
+         *
+         * @param source the list to write
+         * @throws IllegalStateException if the previous list is not completely written
+         */
+        public void start(IntList source)
+        {
+            if (values != null)
+            {
+                throw new IllegalStateException("Previous list not completely written");
+            }
+            count = source.size();
+            if (source instanceof ArrayIntList)
+            {
+                values = ((ArrayIntList) source).elements();
+            }
+            else
+            {
+                if (copy.length < count)
+                {
+                    copy = new int[Math.max(count, 2 * copy.length)];
+                }
+                copied = 0;
+                source.forEachInt(copier);
+                values = copy;
+            }
+            next = 0;
+            previous = 0;
+
+            bytes.clear();
+            bytes.put(MAGIC).put(encoding.code).putInt(count);
+            bytes.flip();
+        }
+
+        /**
+         * Writes as much of the current list as the channel takes. Returns
+         * false as soon as the channel takes less than it is offered; call
+         * again once it can take more (OP_WRITE). A blocking channel takes
+         * everything, so there one call writes the whole list.
+         *
+         * @param channel the channel to write to
+         * @return true if the list has been completely written
+         * @throws IOException if the channel fails
+         * @throws IllegalStateException if no list was started
+         */
+        public boolean writeTo(WritableByteChannel channel) throws IOException
+        {
+            if (values == null)
+            {
+                throw new IllegalStateException("No list started");
+            }
+            while (true)
+            {
+                if (bytes.hasRemaining())
+                {
+                    bytesWritten += channel.write(bytes);
+                    if (bytes.hasRemaining())
+                    {
+                        return false;       // the channel is full
+                    }
+                }
+                if (next == count)
+                {
+                    values = null;
+                    return true;
+                }
+                bytes.clear();
+                fill();
+                bytes.flip();
+            }
+        }
+
+        /**
+         * @return true between start and the writeTo call that returns true
+         */
+        public boolean isWriting()
+        {
+            return values != null;
+        }
+
+        /**
+         * @return the total number of bytes this encoder has written
+         */
+        public long bytesWritten()
+        {
+            return bytesWritten;
+        }
+
+        // encodes values into bytes until it is full or the list is done
+        private void fill()
+        {
+            switch (encoding)
+            {
+                case RAW:
+                    int end = next + Math.min(count - next, bytes.remaining() / 4);
+                    while (next < end)
+                    {
+                        bytes.putInt(values[next++]);
+                    }
+                    break;
+                case VARINT:
+                    while (next < count && bytes.remaining() >= MAX_VARINT_BYTES)
+                    {
+                        putVarint(zigzag(values[next++]));
+                    }
+                    break;
+                case DELTA:
+                    while (next < count && bytes.remaining() >= MAX_VARINT_BYTES)
+                    {
+                        int value = values[next++];
+                        putVarint(zigzag(value - previous));
+                        previous = value;
+                    }
+                    break;
+                case PACKED:
+                    while (next < count && bytes.remaining() >= MAX_BLOCK_BYTES)
+                    {
+                        putBlock();
+                    }
+                    break;
+            }
+        }
+
+        private void putVarint(int value)
+        {
+            while ((value & ~0x7F) != 0)
+            {
+                bytes.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            bytes.put((byte) value);
+        }
+
+        // one width byte, then the zigzagged differences, lowest bits first
+        private void putBlock()
+        {
+            int n = Math.min(BLOCK_VALUES, count - next);
+            int bits = 0;
+            for (int i = 0; i < n; i++)
+            {
+                int value = values[next + i];
+                block[i] = zigzag(value - previous);
+                previous = value;
+                bits |= block[i];
+            }
+            next += n;
+
+            int width = 32 - Integer.numberOfLeadingZeros(bits);
+            bytes.put((byte) width);
+            long pending = 0;
+            int pendingBits = 0;
+            for (int i = 0; i < n; i++)
+            {
+                pending |= (block[i] & 0xFFFF_FFFFL) << pendingBits;
+                pendingBits += width;
+                while (pendingBits >= 8)
+                {
+                    bytes.put((byte) pending);
+                    pending >>>= 8;
+                    pendingBits -= 8;
+                }
+            }
+            if (pendingBits > 0)
+            {
+                bytes.put((byte) pending);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // decoding
+    // ---------------------------------------------------------------
+
+    /**
+     * Reads messages from a channel and appends their values to
+     * ArrayIntLists: readFrom(channel, list) until it returns true, once
+     * per list.
+     */
+    public static final class Decoder
+    {
+        private final ByteBuffer bytes;     // read mode: [position, limit) not yet decoded
+
+        private Encoding encoding;          // of the current message, null between messages
+        private int remaining;              // values of the current message still to come
+        private int previous;
+        private boolean endOfStream;
+        private long bytesRead;
+
+        /**
+         * Creates a decoder with a 64 KB direct buffer.
+         */
+        public Decoder()
+        {
+            this(DEFAULT_BUFFER_BYTES);
+        }
+
+        /**
+         * Creates a decoder with a direct buffer of the specified size, the
+         * most it asks the channel for in one read.
+         *
+         * @param bufferBytes the size of the buffer, at least 1024
+         * @throws IllegalArgumentException if bufferBytes is less than 1024
+         */
+        public Decoder(int bufferBytes)
+        {
+            if (bufferBytes < MIN_BUFFER_BYTES)
+            {
+                throw new IllegalArgumentException("bufferBytes must be at least " + MIN_BUFFER_BYTES);
+            }
+            this.bytes = ByteBuffer.allocateDirect(bufferBytes);
+            bytes.flip();
+        }
+
+        /**
+         * Reads what the channel has and appends the values decoded from it
+         * to the back of target. Returns false when the channel has nothing
+         * more for now; call again once it has (OP_READ), with the same
+         * target. A blocking channel waits for data instead, so there one
+         * call reads a whole list.
+         *
+         * @param channel the channel to read from
+         * @param target the list the values are appended to
+         * @return true once the last value of a list has been appended; the
+         * next call starts on the next list. false if the channel has no
+         * bytes right now, or has ended between two lists (see isEndOfStream)
+         * @throws EOFException if the channel ends inside a list
+         * @throws IOException if the channel fails or its bytes are not IntList messages
+         */
+        public boolean readFrom(ReadableByteChannel channel, ArrayIntList target) throws IOException
+        {
+            while (true)
+            {
+                if (decode(target))
+                {
+                    return true;
+                }
+                bytes.compact();
+                int read = channel.read(bytes);
+                bytes.flip();
+                if (read == -1)
+                {
+                    endOfStream = true;
+                    if (encoding != null || bytes.hasRemaining())
+                    {
+                        throw new EOFException("Stream ends inside an IntList message");
+                    }
+                    return false;
+                }
+                if (read == 0)
+                {
+                    return false;
+                }
+                bytesRead += read;
+            }
+        }
+
+        /**
+         * @return true once readFrom has seen the channel end between two lists
+         */
+        public boolean isEndOfStream()
+        {
+            return endOfStream;
+        }
+
+        /**
+         * @return the total number of bytes this decoder has read
+         */
+        public long bytesRead()
+        {
+            return bytesRead;
+        }
+
+        // decodes what is buffered; true if that completed a message
+        private boolean decode(ArrayIntList target) throws IOException
+        {
+            if (encoding == null)
+            {
+                if (bytes.remaining() < HEADER_BYTES)
+                {
+                    return false;
+                }
+                if (bytes.get() != MAGIC)
+                {
+                    throw new IOException("Not an IntList message");
+                }
+                encoding = Encoding.of(bytes.get());
+                remaining = bytes.getInt();
+                if (remaining < 0)
+                {
+                    throw new IOException("Negative IntList size " + remaining);
+                }
+                previous = 0;
+            }
+            while (remaining > 0)
+            {
+                if (decodeSome(target) == 0)
+                {
+                    return false;
+                }
+            }
+            encoding = null;
+            return true;
+        }
+
+        // decodes the complete values that are buffered, at most one block; returns how many
+        private int decodeSome(ArrayIntList target) throws IOException
+        {
+            int start = target.size();
+            int n;
+            int[] buffer;
+            switch (encoding)
+            {
+                case RAW:
+                    n = Math.min(remaining, bytes.remaining() / 4);
+                    buffer = target.reserve(n);
+                    for (int i = 0; i < n; i++)
+                    {
+                        buffer[start + i] = bytes.getInt();
+                    }
+                    break;
+                case VARINT:
+                case DELTA:
+                    // every value takes at least one byte
+                    int max = Math.min(remaining, bytes.remaining());
+                    buffer = target.reserve(max);
+                    n = 0;
+                    while (n < max && (bytes.remaining() >= MAX_VARINT_BYTES || hasVarint()))
+                    {
+                        int value = unzigzag(getVarint());
+                        if (encoding == Encoding.DELTA)
+                        {
+                            value += previous;
+                            previous = value;
+                        }
+                        buffer[start + n++] = value;
+                    }
+                    break;
+                default:
+                    n = getBlock(target, start);
+                    break;
+            }
+            if (n > 0)
+            {
+                target.appended(n);
+                remaining -= n;
+            }
+            return n;
+        }
+
+        // true if a whole varint is buffered
+        private boolean hasVarint()
+        {
+            for (int i = bytes.position(); i < bytes.limit(); i++)
+            {
+                if (bytes.get(i) >= 0)
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int getVarint() throws IOException
+        {
+            int result = 0;
+            for (int shift = 0; shift < 7 * MAX_VARINT_BYTES; shift += 7)
+            {
+                byte b = bytes.get();
+                result |= (b & 0x7F) << shift;
+                if (b >= 0)
+                {
+                    return result;
+                }
+            }
+            throw new IOException("Malformed varint in IntList message");
+        }
+
+        // decodes one PACKED block if it is completely buffered; returns its value count or 0
+        private int getBlock(ArrayIntList target, int start) throws IOException
+        {
+            if (!bytes.hasRemaining())
+            {
+                return 0;
+            }
+            int n = Math.min(BLOCK_VALUES, remaining);
+            int width = bytes.get(bytes.position()) & 0xFF;
+            if (width > 32)
+            {
+                throw new IOException("Bad bit width " + width + " in IntList message");
+            }
+            if (bytes.remaining() < 1 + (n * width + 7) / 8)
+            {
+                return 0;
+            }
+            bytes.get();
+
+            int[] buffer = target.reserve(n);
+            long mask = (1L << width) - 1;
+            long pending = 0;
+            int pendingBits = 0;
+            for (int i = 0; i < n; i++)
+            {
+                while (pendingBits < width)
+                {
+                    pending |= (bytes.get() & 0xFFL) << pendingBits;
+                    pendingBits += 8;
+                }
+                previous += unzigzag((int) (pending & mask));
+                pending >>>= width;
+                pendingBits -= width;
+                buffer[start + i] = previous;
+            }
+            return n;
+        }
+    }
+}
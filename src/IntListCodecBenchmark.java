@@ -0,0 +1,124 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+
+/**
+ * Measures each IntListCodec encoding on random, sorted and small-range
+ * lists: bytes per value, and encode and decode throughput through an
+ * in-memory channel, so the numbers are the codec's and not a socket's.
+ *
+ * usage: java IntListCodecBenchmark [size] [rounds]
+ */
+public class IntListCodecBenchmark
+{
+    public static void main(String[] args) throws IOException
+    {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+        Random random = new Random(42);
+        ArrayIntList randomValues = new ArrayIntList();
+        ArrayIntList sorted = new ArrayIntList();
+        ArrayIntList smallRange = new ArrayIntList();
+        int value = 0;
+        for (int i = 0; i < size; i++)
+        {
+            randomValues.addBack(random.nextInt());
+            value += random.nextInt(16);
+            sorted.addBack(value);
+            smallRange.addBack(random.nextInt(200) - 100);
+        }
+
+        System.out.printf("%d values, best of %d rounds%n", size, rounds);
+        run("random", randomValues, rounds);
+        run("sorted, gaps < 16", sorted, rounds);
+        run("-100..99", smallRange, rounds);
+    }
+
+    private static void run(String name, ArrayIntList list, int rounds) throws IOException
+    {
+        System.out.println(name);
+        Memory memory = new Memory(8 * list.size() + 64);
+        for (IntListCodec.Encoding encoding : IntListCodec.Encoding.values())
+        {
+            IntListCodec.Encoder encoder = new IntListCodec.Encoder(encoding);
+            IntListCodec.Decoder decoder = new IntListCodec.Decoder();
+            ArrayIntList target = new ArrayIntList();
+
+            long encode = Long.MAX_VALUE;
+            long decode = Long.MAX_VALUE;
+            for (int r = 0; r <= rounds; r++)       // round 0 warms up
+            {
+                memory.bytes.clear();
+                long start = System.nanoTime();
+                encoder.start(list);
+                encoder.writeTo(memory);
+                long encoded = System.nanoTime();
+                memory.bytes.flip();
+                target.clear();
+                decoder.readFrom(memory, target);
+                long decoded = System.nanoTime();
+                if (r > 0)
+                {
+                    encode = Math.min(encode, encoded - start);
+                    decode = Math.min(decode, decoded - encoded);
+                }
+            }
+            if (target.size() != list.size())
+            {
+                throw new AssertionError(encoding + " lost values");
+            }
+            double megabytes = 4.0 * list.size() / (1 << 20);
+            System.out.printf("  %-7s %5.2f bytes/value   encode %7.0f MB/s   decode %7.0f MB/s%n",
+                    encoding, (double) memory.bytes.limit() / list.size(),
+                    megabytes / (encode / 1e9), megabytes / (decode / 1e9));
+        }
+    }
+
+    // a heap buffer written by the encoder, then read back by the decoder
+    private static final class Memory implements WritableByteChannel, ReadableByteChannel
+    {
+        final ByteBuffer bytes;
+
+        Memory(int capacity)
+        {
+            bytes = ByteBuffer.allocate(capacity);
+        }
+
+        @Override
+        public int write(ByteBuffer source)
+        {
+            int n = source.remaining();
+            bytes.put(source);
+            return n;
+        }
+
+        @Override
+        public int read(ByteBuffer target)
+        {
+            if (!bytes.hasRemaining())
+            {
+                return -1;
+            }
+            int n = Math.min(target.remaining(), bytes.remaining());
+            int limit = bytes.limit();
+            bytes.limit(bytes.position() + n);
+            target.put(bytes);
+            bytes.limit(limit);
+            return n;
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return true;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
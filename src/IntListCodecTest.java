@@ -0,0 +1,236 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntListCodecTest {
+
+    private static ArrayIntList randomList(int size, long seed) {
+        Random random = new Random(seed);
+        ArrayIntList list = new ArrayIntList();
+        for (int i = 0; i < size; i++) {
+            list.addBack(random.nextInt());
+        }
+        list.addBack(Integer.MIN_VALUE);
+        list.addBack(Integer.MAX_VALUE);
+        list.addBack(0);
+        list.addBack(Integer.MIN_VALUE);
+        return list;
+    }
+
+    private static ArrayIntList sortedList(int size) {
+        ArrayIntList list = new ArrayIntList();
+        int value = -1000;
+        Random random = new Random(5);
+        for (int i = 0; i < size; i++) {
+            value += random.nextInt(8);
+            list.addBack(value);
+        }
+        return list;
+    }
+
+    // writes every list and reads them back over a non-blocking pipe, in one thread:
+    // the writer stops whenever the pipe is full and the reader has to take what is there
+    private static ArrayIntList[] throughPipe(IntListCodec.Encoding encoding, IntList... lists) throws IOException {
+        Pipe pipe = Pipe.open();
+        pipe.sink().configureBlocking(false);
+        pipe.source().configureBlocking(false);
+        IntListCodec.Encoder encoder = new IntListCodec.Encoder(encoding, 4096);
+        IntListCodec.Decoder decoder = new IntListCodec.Decoder(1024);
+
+        ArrayIntList[] received = new ArrayIntList[lists.length];
+        int written = 0;
+        int read = 0;
+        received[0] = new ArrayIntList();
+        while (read < lists.length) {
+            if (written < lists.length) {
+                if (!encoder.isWriting()) {
+                    encoder.start(lists[written]);
+                }
+                if (encoder.writeTo(pipe.sink())) {
+                    written++;
+                }
+            }
+            if (decoder.readFrom(pipe.source(), received[read])) {
+                read++;
+                if (read < lists.length) {
+                    received[read] = new ArrayIntList();
+                }
+            }
+        }
+        pipe.sink().close();
+        assertFalse(decoder.readFrom(pipe.source(), new ArrayIntList()));
+        assertTrue(decoder.isEndOfStream());
+        assertEquals(encoder.bytesWritten(), decoder.bytesRead());
+        pipe.source().close();
+        return received;
+    }
+
+    @Test
+    void everyEncodingRoundTripsThroughAPipe() throws IOException {
+        for (IntListCodec.Encoding encoding : IntListCodec.Encoding.values()) {
+            IntList[] lists = {randomList(100_000, 1), new ArrayIntList(), sortedList(1000),
+                    randomList(127, 2), randomList(125, 3), sortedList(129)};
+            ArrayIntList[] received = throughPipe(encoding, lists);
+            for (int i = 0; i < lists.length; i++) {
+                assertArrayEquals(lists[i].toArray(), received[i].toArray(), encoding + ", list " + i);
+            }
+        }
+    }
+
+    @Test
+    void otherListsAreCopiedOut() throws IOException {
+        LinkedIntList linked = new LinkedIntList();
+        CircularIntList circular = new CircularIntList();
+        for (int i = 0; i < 500; i++) {
+            linked.addBack(i * i);
+            circular.addFront(-i);
+        }
+        ArrayIntList[] received = throughPipe(IntListCodec.Encoding.DELTA, linked, circular, linked);
+        assertArrayEquals(linked.toArray(), received[0].toArray());
+        assertArrayEquals(circular.toArray(), received[1].toArray());
+        assertArrayEquals(linked.toArray(), received[2].toArray());
+    }
+
+    @Test
+    void compactEncodingsAreSmallerOnSortedData() throws IOException {
+        ArrayIntList sorted = sortedList(10_000);
+        long[] sizes = new long[IntListCodec.Encoding.values().length];
+        for (IntListCodec.Encoding encoding : IntListCodec.Encoding.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            IntListCodec.Encoder encoder = new IntListCodec.Encoder(encoding);
+            encoder.start(sorted);
+            assertTrue(encoder.writeTo(Channels.newChannel(out)));      // a blocking channel takes it all
+            sizes[encoding.ordinal()] = out.size();
+        }
+        assertEquals(6 + 4 * 10_000, sizes[IntListCodec.Encoding.RAW.ordinal()]);
+        assertTrue(sizes[IntListCodec.Encoding.DELTA.ordinal()] < 6 + 10_010);     // a byte a gap
+        assertTrue(sizes[IntListCodec.Encoding.PACKED.ordinal()] < 6 + 10_000 / 2 + 300);  // 4 bits a gap
+    }
+
+    @Test
+    void appendsToWhatTheTargetHolds() throws IOException {
+        ArrayIntList target = new ArrayIntList();
+        target.addBack(42);
+        target.attachHashIndex();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IntListCodec.Encoder encoder = new IntListCodec.Encoder(IntListCodec.Encoding.VARINT);
+        encoder.start(sortedList(300));
+        encoder.writeTo(Channels.newChannel(out));
+
+        IntListCodec.Decoder decoder = new IntListCodec.Decoder();
+        assertTrue(decoder.readFrom(Channels.newChannel(new java.io.ByteArrayInputStream(out.toByteArray())), target));
+        assertEquals(301, target.size());
+        assertEquals(42, target.get(0));
+        assertEquals(1, target.indexOf(sortedList(300).get(0)));
+    }
+
+    @Test
+    void rejectsCorruptAndTruncatedStreams() {
+        byte[] notAMessage = {'X', 'R', 0, 0, 0, 1, 0, 0, 0, 1};
+        byte[] unknownEncoding = {'I', 'Z', 0, 0, 0, 0};
+        byte[] truncated = {'I', 'R', 0, 0, 0, 2, 0, 0, 0, 1, 0, 0};
+        byte[] badWidth = {'I', 'P', 0, 0, 0, 1, 40, 0, 0, 0, 0, 0};
+        for (byte[] bytes : new byte[][] {notAMessage, unknownEncoding, truncated, badWidth}) {
+            IntListCodec.Decoder decoder = new IntListCodec.Decoder();
+            assertThrows(IOException.class, () -> decoder.readFrom(
+                    Channels.newChannel(new java.io.ByteArrayInputStream(bytes)), new ArrayIntList()));
+        }
+        IntListCodec.Decoder decoder = new IntListCodec.Decoder();
+        assertThrows(EOFException.class, () -> decoder.readFrom(
+                Channels.newChannel(new java.io.ByteArrayInputStream(truncated)), new ArrayIntList()));
+        assertThrows(IllegalStateException.class, () -> new IntListCodec.Encoder(IntListCodec.Encoding.RAW)
+                .writeTo(Channels.newChannel(new ByteArrayOutputStream())));
+    }
+
+    @Test
+    void roundTripsOverLoopbackSocket() throws Exception {
+        ArrayIntList list = randomList(200_000, 9);
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress("127.0.0.1", 0));
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread writer = new Thread(() -> {
+                try (SocketChannel socket = SocketChannel.open(server.getLocalAddress())) {
+                    IntListCodec.Encoder encoder = new IntListCodec.Encoder(IntListCodec.Encoding.PACKED);
+                    for (int i = 0; i < 3; i++) {
+                        encoder.start(list);
+                        while (!encoder.writeTo(socket)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            writer.start();
+            try (SocketChannel socket = server.accept()) {
+                IntListCodec.Decoder decoder = new IntListCodec.Decoder();
+                for (int i = 0; i < 3; i++) {
+                    ArrayIntList received = new ArrayIntList();
+                    assertTrue(decoder.readFrom(socket, received));
+                    assertArrayEquals(list.toArray(), received.toArray());
+                }
+                assertFalse(decoder.readFrom(socket, new ArrayIntList()));
+                assertTrue(decoder.isEndOfStream());
+            }
+            writer.join();
+            assertNull(failure.get());
+        }
+    }
+
+    @Test
+    void steadyStateAllocatesNothing() throws IOException {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        long thread = Thread.currentThread().getId();
+
+        // the bytes go round a fixed ring, written by the encoder and read back by the decoder
+        ByteBuffer ring = ByteBuffer.allocate(1 << 20);
+        WritableByteChannel sink = new WritableByteChannel() {
+            public int write(ByteBuffer source) {
+                int n = source.remaining();
+                if (ring.remaining() < n) {
+                    ring.clear();
+                }
+                ring.put(source);
+                return n;
+            }
+            public boolean isOpen() {
+                return true;
+            }
+            public void close() {
+            }
+        };
+        ArrayIntList list = sortedList(100_000);
+        for (IntListCodec.Encoding encoding : IntListCodec.Encoding.values()) {
+            IntListCodec.Encoder encoder = new IntListCodec.Encoder(encoding);
+            for (int warmUp = 0; warmUp < 3; warmUp++) {
+                encoder.start(list);
+                encoder.writeTo(sink);
+            }
+            long before = allocations.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < 10; i++) {
+                encoder.start(list);
+                encoder.writeTo(sink);
+            }
+            long allocated = allocations.getThreadAllocatedBytes(thread) - before;
+            assertTrue(allocated < 4096, encoding + " allocated " + allocated + " bytes");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Object-layout arithmetic behind IntList.bytesUsed(). The sizes are those
+ * of a 64-bit HotSpot JVM with compressed oops and compressed class
+ * pointers (the default for heaps under 32 GB):
+ *
+ *   object header   12 bytes
+ *   array header    16 bytes (12 plus the int length)
+ *   reference        4 bytes
+ *   alignment        every object is padded to a multiple of 8 bytes
+ *
+ * Fields are counted at their natural size without the JVM's field
+ * packing, so an estimate can be off by a few bytes per object. That is
+ * noise next to the buffers and nodes, which are what the estimates are
+ * for. IntListFootprintBenchmark measures the real retained heap and
+ * prints it next to these estimates.
+ */
+final class IntListFootprint
+{
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+    static final int ALIGNMENT = 8;
+
+    private IntListFootprint()
+    {
+    }
+
+    /**
+     * Returns the size of an object with the specified total field size.
+     *
+     * @param fieldBytes the sum of the sizes of the object's fields
+     * @return the padded size of the object
+     */
+    static long object(int fieldBytes)
+    {
+        return align(OBJECT_HEADER + fieldBytes);
+    }
+
+    /**
+     * Returns the size of an array.
+     *
+     * @param length the number of elements
+     * @param elementBytes the size of one element: Integer.BYTES, REFERENCE, ...
+     * @return the padded size of the array
+     */
+    static long array(long length, int elementBytes)
+    {
+        return align(ARRAY_HEADER + length * elementBytes);
+    }
+
+    static long align(long bytes)
+    {
+        return (bytes + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
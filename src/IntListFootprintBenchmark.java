@@ -0,0 +1,140 @@
+import java.lang.ref.Reference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Measures how much heap each IntList implementation really retains per
+ * value, and prints it next to the list's own bytesUsed() estimate and its
+ * slack (capacity() - size()). Lists are filled with addBack, so the slack
+ * is whatever normal growth leaves behind.
+ *
+ * Retained heap is measured without an agent: many copies of a list are
+ * built, and the used heap after a full GC is compared with the used heap
+ * before. With a million values per size that is accurate to within a few
+ * bytes per list. Run with a fixed heap (-Xms = -Xmx) for the steadiest
+ * numbers; the estimates assume compressed oops, so they only match when
+ * the heap is under 32 GB, and a warning is printed when they are off.
+ * Estimates more than 5% away from the measurement are marked.
+ *
+ * usage: java IntListFootprintBenchmark [maxSize]
+ */
+public class IntListFootprintBenchmark
+{
+    private static final int VALUES_PER_SIZE = 1_000_000;
+
+    public static void main(String[] args)
+    {
+        int maxSize = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+
+        if (!compressedOops())
+        {
+            System.out.println("warning: compressed oops are off, so every bytesUsed() estimate is too low");
+        }
+        System.out.printf("%-28s %9s %12s %9s %12s %7s %10s %7s%n",
+                "implementation", "size", "retained", "B/value", "bytesUsed()", "error", "capacity", "slack");
+        for (Map.Entry<String, IntFunction<IntList>> implementation : implementations().entrySet())
+        {
+            for (int size = 10; size <= maxSize; size *= 10)
+            {
+                int length = size;
+                IntFunction<IntList> build = implementation.getValue();
+                IntList sample = build.apply(size);
+                long estimate = sample.bytesUsed();
+
+                // enough copies for a million values, but within a quarter of the heap
+                long budget = Runtime.getRuntime().maxMemory() / 4 / estimate;
+                int copies = (int) Math.max(1, Math.min(VALUES_PER_SIZE / size, budget));
+                long retained = retainedBytes(() -> build.apply(length), copies);
+                System.out.printf("%-28s %,9d %,12d %9.2f %,12d %6.1f%% %,10d %6.1f%%%s%n",
+                        implementation.getKey(), size, retained, (double) retained / size, estimate,
+                        100.0 * (estimate - retained) / retained, sample.capacity(),
+                        100.0 * (sample.capacity() - sample.size()) / sample.capacity(),
+                        (20 * Math.abs(estimate - retained) > retained) ? "   <- estimate off" : "");
+            }
+        }
+    }
+
+    static Map<String, IntFunction<IntList>> implementations()
+    {
+        Map<String, IntFunction<IntList>> lists = new LinkedHashMap<>();
+        lists.put("ArrayIntList", size -> filled(new ArrayIntList(), size));
+        lists.put("ArrayIntList with hash index", size -> {
+            ArrayIntList list = filled(new ArrayIntList(), size);
+            list.attachHashIndex();
+            list.contains(0);       // the index is built on the first lookup
+            return list;
+        });
+        lists.put("LinkedIntList", size -> filled(new LinkedIntList(), size));
+        lists.put("CircularIntList", size -> filled(new CircularIntList(), size));
+        lists.put("UnrolledIntList", size -> filled(new UnrolledIntList(), size));
+        lists.put("SkipIntList", size -> filled(new SkipIntList(), size));
+        lists.put("SegmentedIntList", size -> filled(new SegmentedIntList(), size));
+        lists.put("AdaptiveIntList", size -> filled(new AdaptiveIntList(), size));
+        lists.put("CachedIntList (1024)", size -> filled(new CachedIntList(new ArrayIntList(), 1024), size));
+        return lists;
+    }
+
+    private static <T extends IntList> T filled(T list, int size)
+    {
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++)
+        {
+            list.addBack(random.nextInt());
+        }
+        return list;
+    }
+
+    /**
+     * Returns the average heap retained by one object from factory, measured
+     * as the growth of the used heap, after a full GC, while copies of them
+     * are held.
+     *
+     * @param factory builds one object to be measured
+     * @param copies how many objects to build; more copies, less noise
+     * @return the retained bytes per object
+     */
+    static long retainedBytes(Supplier<?> factory, int copies)
+    {
+        Object[] held = new Object[copies];
+        factory.get();                  // load and initialize the classes involved first
+        long before = usedHeap();
+        for (int i = 0; i < copies; i++)
+        {
+            held[i] = factory.get();
+        }
+        long after = usedHeap();
+        Reference.reachabilityFence(held);
+        return Math.max(0, after - before) / copies;
+    }
+
+    // the layout IntListFootprint assumes; true when it cannot be told
+    private static boolean compressedOops()
+    {
+        try
+        {
+            return Boolean.parseBoolean(java.lang.management.ManagementFactory
+                    .getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class)
+                    .getVMOption("UseCompressedOops").getValue());
+        }
+        catch (RuntimeException e)
+        {
+            return true;
+        }
+    }
+
+    private static long usedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // a GC can leave garbage behind (TLAB waste, concurrent phases), so take the lowest of a few
+        for (int i = 0; i < 4; i++)
+        {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,102 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntListFootprintTest {
+
+    @Test
+    void arrayListCountsItsWholeBuffer() {
+        ArrayIntList theList = new ArrayIntList();
+        assertEquals(10, theList.capacity());
+        assertEquals(32 + 56, theList.bytesUsed());     // object, then 16 byte header + 10 ints
+
+        for (int i = 0; i < 11; i++) {
+            theList.addBack(i);
+        }
+        assertEquals(20, theList.capacity());
+        assertEquals(32 + 96, theList.bytesUsed());
+
+        theList.clear();
+        assertEquals(20, theList.capacity());           // clear keeps the buffer
+        assertEquals(32 + 96, theList.bytesUsed());
+    }
+
+    @Test
+    void hashIndexAddsToArrayList() {
+        ArrayIntList theList = new ArrayIntList();
+        for (int i = 0; i < 100; i++) {
+            theList.addBack(i);
+        }
+        long plain = theList.bytesUsed();
+        theList.attachHashIndex();
+        theList.contains(5);
+        assertTrue(theList.bytesUsed() > plain + 2 * 4 * 100);
+        theList.detachHashIndex();
+        assertEquals(plain, theList.bytesUsed());
+    }
+
+    @Test
+    void linkedListPaysPerNodeWithoutSlack() {
+        LinkedIntList theList = new LinkedIntList();
+        long empty = theList.bytesUsed();
+        for (int i = 0; i < 50; i++) {
+            theList.addBack(i);
+        }
+        assertEquals(50, theList.capacity());
+        assertEquals(empty + 50L * LinkedIntList.NODE_BYTES, theList.bytesUsed());
+    }
+
+    @Test
+    void chunkedListsReportWholeChunks() {
+        UnrolledIntList unrolled = new UnrolledIntList();
+        SegmentedIntList segmented = new SegmentedIntList(4);
+        CircularIntList circular = new CircularIntList();
+        for (int i = 0; i < 100; i++) {
+            unrolled.addBack(i);
+            segmented.addBack(i);
+            circular.addBack(i);
+        }
+        assertEquals(0, unrolled.capacity() % UnrolledIntList.CHUNK_CAPACITY);
+        assertTrue(unrolled.capacity() >= 100);
+        assertEquals(112, segmented.capacity());
+        assertEquals(128, circular.capacity());
+        for (IntList list : new IntList[] {unrolled, segmented, circular}) {
+            assertTrue(list.bytesUsed() > 4L * list.capacity());
+        }
+    }
+
+    @Test
+    void viewsCountOnlyThemselves() {
+        ArrayIntList array = new ArrayIntList();
+        LinkedIntList linked = new LinkedIntList();
+        CircularIntList circular = new CircularIntList();
+        for (int i = 0; i < 1000; i++) {
+            array.addBack(i);
+            linked.addBack(i);
+            circular.addBack(i);
+        }
+        for (IntList view : new IntList[] {array.subList(10, 500), linked.subList(10, 500),
+                circular.subList(10, 500), new OffHeapIntList().asIntList()}) {
+            assertTrue(view.bytesUsed() <= 40, view.getClass() + " " + view.bytesUsed());
+        }
+        assertEquals(490, array.subList(10, 500).capacity());
+    }
+
+    @Test
+    void decoratorsAddToTheirDelegate() {
+        ArrayIntList array = new ArrayIntList();
+        for (int i = 0; i < 100; i++) {
+            array.addBack(i);
+        }
+        InstrumentedIntList instrumented = new InstrumentedIntList(array);
+        CachedIntList cached = new CachedIntList(array, 64);
+        assertEquals(array.capacity(), instrumented.capacity());
+        assertEquals(array.capacity(), cached.capacity());
+        assertTrue(instrumented.bytesUsed() > array.bytesUsed());
+        assertTrue(cached.bytesUsed() > array.bytesUsed() + 5 * 4 * 64);
+
+        AdaptiveIntList adaptive = new AdaptiveIntList();
+        assertEquals(10, adaptive.capacity());
+        assertTrue(adaptive.bytesUsed() > new ArrayIntList().bytesUsed());
+    }
+}
@@ -0,0 +1,196 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+
+/**
+ * Formatting shared by the IntList toString and appendTo methods.
+ *
+ * Values are turned into chars two digits at a time with a lookup table
+ * and collected in a small char[] block that is handed to the Appendable
+ * whenever it fills, so no String is created per value. toString counts
+ * the exact number of chars first, so its StringBuilder never regrows.
+ */
+final class IntListFormat
+{
+    static final int MAX_INT_CHARS = 11;        // "-2147483648"
+    private static final int BLOCK_CHARS = 1024;
+
+    // tens and ones digit of 0..99
+    private static final char[] DIGIT_TENS = new char[100];
+    private static final char[] DIGIT_ONES = new char[100];
+
+    static
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            DIGIT_TENS[i] = (char) ('0' + i / 10);
+            DIGIT_ONES[i] = (char) ('0' + i % 10);
+        }
+    }
+
+    private IntListFormat()
+    {
+    }
+
+    /**
+     * Formats list as "[a, b, c]", stopping after maxElements values and
+     * summarizing the rest as "... N more".
+     */
+    static String toString(IntList list, int maxElements)
+    {
+        StringBuilder sb = new StringBuilder(length(list, maxElements));
+        try
+        {
+            appendTo(list, sb, maxElements);
+        }
+        catch (IOException e)
+        {
+            throw new AssertionError(e);    // StringBuilder does not throw
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends list to out in the same format as toString(list, maxElements).
+     */
+    static void appendTo(IntList list, Appendable out, int maxElements) throws IOException
+    {
+        if (maxElements < 0)
+        {
+            throw new IllegalArgumentException("maxElements must not be negative");
+        }
+
+        char[] block = new char[BLOCK_CHARS];
+        int[] position = {0};
+        int[] written = {0};
+        block[position[0]++] = '[';
+        try
+        {
+            list.forEachWhile(value -> {
+                if (written[0] == maxElements)
+                {
+                    return false;
+                }
+                if (position[0] + MAX_INT_CHARS + 2 > block.length)
+                {
+                    flush(out, block, position[0]);
+                    position[0] = 0;
+                }
+                if (written[0] > 0)
+                {
+                    block[position[0]++] = ',';
+                    block[position[0]++] = ' ';
+                }
+                position[0] = formatInt(value, block, position[0]);
+                written[0]++;
+                return true;
+            });
+            flush(out, block, position[0]);
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+
+        int remaining = list.size() - written[0];
+        if (remaining > 0)
+        {
+            out.append((written[0] > 0) ? ", ... " : "... ").append(Integer.toString(remaining)).append(" more");
+        }
+        out.append(']');
+    }
+
+    /**
+     * Writes the decimal digits of value into chars starting at position.
+     *
+     * @return the position just after the last char written
+     */
+    static int formatInt(int value, char[] chars, int position)
+    {
+        int end = position + charCount(value);
+        int i = end;
+
+        // work with the negative magnitude so that MIN_VALUE needs no special case
+        int negative = (value < 0) ? value : -value;
+        while (negative <= -100)
+        {
+            int quotient = negative / 100;
+            int pair = quotient * 100 - negative;
+            negative = quotient;
+            chars[--i] = DIGIT_ONES[pair];
+            chars[--i] = DIGIT_TENS[pair];
+        }
+        if (negative <= -10)
+        {
+            chars[--i] = DIGIT_ONES[-negative];
+            chars[--i] = DIGIT_TENS[-negative];
+        }
+        else
+        {
+            chars[--i] = (char) ('0' - negative);
+        }
+        if (value < 0)
+        {
+            chars[--i] = '-';
+        }
+        return end;
+    }
+
+    /**
+     * Returns the number of chars formatInt writes for value.
+     */
+    static int charCount(int value)
+    {
+        int negative = (value < 0) ? value : -value;
+        int sign = (value < 0) ? 1 : 0;
+        int limit = -10;
+        for (int digits = 1; digits < 10; digits++)
+        {
+            if (negative > limit)
+            {
+                return digits + sign;
+            }
+            limit *= 10;
+        }
+        return 10 + sign;
+    }
+
+    // exact length of toString(list, maxElements), found with one pass that only counts digits
+    private static int length(IntList list, int maxElements)
+    {
+        long[] length = {2};    // brackets
+        int[] counted = {0};
+        list.forEachWhile(value -> {
+            if (counted[0] == maxElements)
+            {
+                return false;
+            }
+            length[0] += charCount(value) + ((counted[0] > 0) ? 2 : 0);
+            counted[0]++;
+            return true;
+        });
+        int remaining = list.size() - counted[0];
+        if (remaining > 0)
+        {
+            length[0] += ((counted[0] > 0) ? 6 : 4) + charCount(remaining) + 5;
+        }
+        return (int) Math.min(length[0], Integer.MAX_VALUE - 8);
+    }
+
+    private static void flush(Appendable out, char[] block, int length)
+    {
+        if (out instanceof StringBuilder)
+        {
+            ((StringBuilder) out).append(block, 0, length);
+            return;
+        }
+        try
+        {
+            out.append(CharBuffer.wrap(block, 0, length));
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,763 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Differential fuzzing for IntList implementations: runs long random
+ * operation sequences against an implementation and a java.util.ArrayList
+ * of Integers side by side, and checks after every step that both hold
+ * the same values and gave the same answers.
+ *
+ * Operations cover the whole interface: every add and remove, lookups,
+ * bulk addAll and removeIf, iteration, and reads and writes through
+ * subList views. Some indexes are deliberately out of range, and the
+ * implementation must throw IndexOutOfBoundsException wherever the oracle
+ * does. Removing from an empty list may be a no-op or throw
+ * IllegalStateException, since implementations differ there.
+ *
+ * A failing sequence is shrunk before it is reported. The shrinker drops
+ * ever smaller runs of operations for as long as the rest still fails.
+ * Operations hold raw random numbers that become indexes only when they
+ * run, so any subsequence is still a valid sequence. Every replay runs on
+ * a separate thread with a time limit, so an operation that never returns
+ * is reported as a failure rather than hanging the run.
+ *
+ * usage: java IntListFuzzer [seconds] [firstSeed]
+ */
+public class IntListFuzzer
+{
+    static final long REPLAY_TIMEOUT_MILLIS = 5_000;
+
+    private IntListFuzzer()
+    {
+    }
+
+    /**
+     * The implementations under test, by name. Views are fuzzed as lists
+     * of their own, with values outside the view that must stay untouched.
+     *
+     * @return a factory for a new empty list of each implementation
+     */
+    static Map<String, Supplier<IntList>> implementations()
+    {
+        Map<String, Supplier<IntList>> lists = new LinkedHashMap<>();
+        lists.put("ArrayIntList", ArrayIntList::new);
+        lists.put("ArrayIntList with hash index", () -> {
+            ArrayIntList list = new ArrayIntList();
+            list.attachHashIndex();
+            return list;
+        });
+        lists.put("LinkedIntList", LinkedIntList::new);
+        lists.put("CircularIntList", CircularIntList::new);
+        lists.put("UnrolledIntList", UnrolledIntList::new);
+        lists.put("SkipIntList", SkipIntList::new);
+        lists.put("AdaptiveIntList", AdaptiveIntList::new);
+        lists.put("SegmentedIntList", () -> new SegmentedIntList(2));
+        lists.put("OffHeapIntList", () -> new OffHeapIntList(2).asIntList());
+        lists.put("CachedIntList", () -> new CachedIntList(new ArrayIntList(), 8));
+        lists.put("InstrumentedIntList", () -> new InstrumentedIntList(new LinkedIntList()));
+        lists.put("JournaledIntList", IntListFuzzer::journaled);
+        lists.put("ArrayIntList view", () -> framedView(new ArrayIntList()));
+        lists.put("LinkedIntList view", () -> framedView(new LinkedIntList()));
+        lists.put("CircularIntList view", () -> framedView(new CircularIntList()));
+        return lists;
+    }
+
+    // a journaled list in a fresh temporary directory, removed again by release()
+    private static IntList journaled()
+    {
+        try
+        {
+            // not waiting for each fsync keeps a replay fast; close() still forces the log
+            return JournaledIntList.open(Files.createTempDirectory("int-list-fuzzer"), 10, false, 64L << 20);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes a list made by one of the implementations() factories if it
+     * holds files or threads, and deletes a journaled list's directory.
+     * Every user of implementations() calls this when done with a list.
+     *
+     * @param list the list to release
+     * @throws IOException if the list cannot be closed or its files deleted
+     */
+    static void release(IntList list) throws IOException
+    {
+        if (!(list instanceof Closeable))
+        {
+            return;
+        }
+        ((Closeable) list).close();
+        if (list instanceof JournaledIntList)
+        {
+            try (Stream<Path> files = Files.walk(((JournaledIntList) list).directory()))
+            {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+                {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    // an empty view between two fixed values, which a correct view never touches
+    private static IntList framedView(IntList list)
+    {
+        list.addBack(Integer.MIN_VALUE);
+        list.addBack(Integer.MAX_VALUE);
+        IntList view = list.subList(1, 1);
+        return new FramedView(list, view);
+    }
+
+    // ---------------------------------------------------------------
+    // operations
+    // ---------------------------------------------------------------
+
+    enum Kind
+    {
+        ADD_FRONT(6), ADD_BACK(10), ADD(6), REMOVE_FRONT(3), REMOVE_BACK(3), REMOVE(5),
+        GET(5), CONTAINS(5), INDEX_OF(5), CLEAR(1), REMOVE_IF(1), ADD_ALL(2),
+        ITERATE(2), SUB_LIST_READ(3), SUB_LIST_ADD(2), SUB_LIST_CLEAR(1);
+
+        final int weight;
+
+        Kind(int weight)
+        {
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * One step. The raw numbers become indexes only when the step runs,
+     * against the list's size at that time.
+     */
+    static final class Operation
+    {
+        final Kind kind;
+        final int a;
+        final int b;
+        final boolean outOfRange;
+        final int value;
+        final int[] values;
+
+        Operation(Kind kind, int a, int b, boolean outOfRange, int value, int[] values)
+        {
+            this.kind = kind;
+            this.a = a;
+            this.b = b;
+            this.outOfRange = outOfRange;
+            this.value = value;
+            this.values = values;
+        }
+
+        @Override
+        public String toString()
+        {
+            return kind + "(a=" + a + ", b=" + b + (outOfRange ? ", out of range" : "")
+                    + ", value=" + value + (values.length > 0 ? ", values=" + Arrays.toString(values) : "") + ")";
+        }
+    }
+
+    static List<Operation> randomOperations(long seed, int count)
+    {
+        Random random = new Random(seed);
+        Kind[] kinds = Kind.values();
+        int totalWeight = Arrays.stream(kinds).mapToInt(kind -> kind.weight).sum();
+
+        List<Operation> operations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            int pick = random.nextInt(totalWeight);
+            Kind kind = kinds[0];
+            for (Kind candidate : kinds)
+            {
+                if (pick < candidate.weight)
+                {
+                    kind = candidate;
+                    break;
+                }
+                pick -= candidate.weight;
+            }
+            int[] values = new int[(kind == Kind.ADD_ALL) ? random.nextInt(5) : 0];
+            for (int v = 0; v < values.length; v++)
+            {
+                values[v] = randomValue(random);
+            }
+            operations.add(new Operation(kind, random.nextInt() & Integer.MAX_VALUE,
+                    random.nextInt() & Integer.MAX_VALUE, random.nextInt(20) == 0, randomValue(random), values));
+        }
+        return operations;
+    }
+
+    // mostly a small range so lookups hit and values repeat, sometimes the extremes
+    private static int randomValue(Random random)
+    {
+        switch (random.nextInt(50))
+        {
+            case 0:
+                return Integer.MIN_VALUE;
+            case 1:
+                return Integer.MAX_VALUE;
+            default:
+                return random.nextInt(101) - 50;
+        }
+    }
+
+    // an index in [0, bound), or an invalid one (negative or at least bound)
+    private static int index(Operation operation, int raw, int bound)
+    {
+        if (operation.outOfRange)
+        {
+            return (raw % 2 == 0) ? -1 - raw % 3 : bound + raw % 3;
+        }
+        return (bound == 0) ? 0 : raw % bound;
+    }
+
+    /**
+     * Runs one operation on both lists and throws AssertionError if they disagree.
+     */
+    static void apply(Operation op, IntList list, List<Integer> oracle)
+    {
+        int size = oracle.size();
+        switch (op.kind)
+        {
+            case ADD_FRONT:
+                list.addFront(op.value);
+                oracle.add(0, op.value);
+                break;
+            case ADD_BACK:
+                list.addBack(op.value);
+                oracle.add(op.value);
+                break;
+            case ADD:
+            {
+                int index = index(op, op.a, size + 1);
+                same("add(" + index + ")", () -> {
+                    oracle.add(index, op.value);
+                    return null;
+                }, () -> {
+                    list.add(index, op.value);
+                    return null;
+                });
+                break;
+            }
+            case REMOVE_FRONT:
+                removeEnd(list, oracle, true);
+                break;
+            case REMOVE_BACK:
+                removeEnd(list, oracle, false);
+                break;
+            case REMOVE:
+            {
+                int index = index(op, op.a, size);
+                same("remove(" + index + ")", () -> oracle.remove(index), () -> list.remove(index));
+                break;
+            }
+            case GET:
+            {
+                int index = index(op, op.a, size);
+                same("get(" + index + ")", () -> oracle.get(index), () -> list.get(index));
+                break;
+            }
+            case CONTAINS:
+                same("contains(" + op.value + ")", () -> oracle.contains(op.value), () -> list.contains(op.value));
+                break;
+            case INDEX_OF:
+                same("indexOf(" + op.value + ")", () -> oracle.indexOf(op.value), () -> list.indexOf(op.value));
+                break;
+            case CLEAR:
+                list.clear();
+                oracle.clear();
+                break;
+            case REMOVE_IF:
+            {
+                int modulus = 2 + op.b % 5;
+                int remainder = op.a % modulus;
+                same("removeIf", () -> oracle.removeIf(v -> Math.floorMod(v, modulus) == remainder),
+                        () -> list.removeIf(v -> Math.floorMod(v, modulus) == remainder));
+                break;
+            }
+            case ADD_ALL:
+                list.addAll(op.values, 0, op.values.length);
+                for (int value : op.values)
+                {
+                    oracle.add(value);
+                }
+                break;
+            case ITERATE:
+            {
+                List<Integer> iterated = new ArrayList<>();
+                for (Iterator<Integer> it = list.iterator(); it.hasNext(); )
+                {
+                    iterated.add(it.next());
+                }
+                check(oracle.equals(iterated), "iterator gave " + iterated);
+                check(oracle.toString().equals(list.toString()), "toString gave " + list);
+                break;
+            }
+            case SUB_LIST_READ:
+            {
+                int from = index(op, op.a, size + 1);
+                int to = op.outOfRange ? from : from + op.b % (size - from + 1);
+                same("subList(" + from + ", " + to + ")", () -> oracle.subList(from, to).toString(),
+                        () -> list.subList(from, to).toString());
+                if (!op.outOfRange)
+                {
+                    List<Integer> expected = oracle.subList(from, to);
+                    IntList view = list.subList(from, to);
+                    check(view.size() == expected.size(), "subList size " + view.size());
+                    same("subList indexOf(" + op.value + ")", () -> expected.indexOf(op.value),
+                            () -> view.indexOf(op.value));
+                    check(Arrays.equals(view.toArray(), expected.stream().mapToInt(Integer::intValue).toArray()),
+                            "subList toArray " + Arrays.toString(view.toArray()));
+                }
+                break;
+            }
+            case SUB_LIST_ADD:
+            {
+                int from = index(op, op.a, size + 1);
+                int to = op.outOfRange ? from : from + op.b % (size - from + 1);
+                same("subList(" + from + ", " + to + ").addBack", () -> {
+                    oracle.subList(from, to).add(op.value);
+                    return null;
+                }, () -> {
+                    list.subList(from, to).addBack(op.value);
+                    return null;
+                });
+                break;
+            }
+            case SUB_LIST_CLEAR:
+            {
+                int from = index(op, op.a, size + 1);
+                int to = op.outOfRange ? from : from + op.b % (size - from + 1);
+                same("subList(" + from + ", " + to + ").clear", () -> {
+                    oracle.subList(from, to).clear();
+                    return null;
+                }, () -> {
+                    list.subList(from, to).clear();
+                    return null;
+                });
+                break;
+            }
+        }
+
+        check(list.size() == oracle.size(), "size " + list.size() + ", expected " + oracle.size());
+        check(list.isEmpty() == oracle.isEmpty(), "isEmpty " + list.isEmpty());
+        int[] actual = list.toArray();
+        check(Arrays.equals(actual, oracle.stream().mapToInt(Integer::intValue).toArray()),
+                "contents " + Arrays.toString(actual) + ", expected " + oracle);
+        if (list instanceof FramedView)
+        {
+            ((FramedView) list).checkFrame();
+        }
+    }
+
+    // removeFront/removeBack on an empty list: either a no-op or IllegalStateException
+    private static void removeEnd(IntList list, List<Integer> oracle, boolean front)
+    {
+        if (oracle.isEmpty())
+        {
+            try
+            {
+                if (front)
+                {
+                    list.removeFront();
+                }
+                else
+                {
+                    list.removeBack();
+                }
+            }
+            catch (IllegalStateException expected)
+            {
+                // also acceptable
+            }
+            return;
+        }
+        if (front)
+        {
+            list.removeFront();
+            oracle.remove(0);
+        }
+        else
+        {
+            list.removeBack();
+            oracle.remove(oracle.size() - 1);
+        }
+    }
+
+    // both calls return equal results, or both throw IndexOutOfBoundsException
+    private static void same(String call, Supplier<Object> expected, Supplier<Object> actual)
+    {
+        Object expectedResult;
+        try
+        {
+            expectedResult = expected.get();
+        }
+        catch (IndexOutOfBoundsException e)
+        {
+            try
+            {
+                Object result = actual.get();
+                throw new AssertionError(call + " returned " + result + ", expected IndexOutOfBoundsException");
+            }
+            catch (IndexOutOfBoundsException alsoThrown)
+            {
+                return;
+            }
+        }
+        Object actualResult = actual.get();
+        check(String.valueOf(expectedResult).equals(String.valueOf(actualResult)),
+                call + " returned " + actualResult + ", expected " + expectedResult);
+    }
+
+    private static void check(boolean condition, String message)
+    {
+        if (!condition)
+        {
+            throw new AssertionError(message);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // running and shrinking
+    // ---------------------------------------------------------------
+
+    /**
+     * Runs count random operations from seed against a new list and the
+     * oracle. On a mismatch, shrinks the sequence and throws an
+     * AssertionError that lists the operations still needed to fail.
+     *
+     * @param name the implementation's name, for the report
+     * @param factory makes a new empty list
+     * @param seed the random seed
+     * @param count the number of operations
+     */
+    static void check(String name, Supplier<IntList> factory, long seed, int count)
+    {
+        List<Operation> operations = randomOperations(seed, count);
+        Throwable failure = replay(factory, operations);
+        if (failure == null)
+        {
+            return;
+        }
+
+        StringBuilder report = new StringBuilder();
+        report.append(name).append(" failed with seed ").append(seed).append(" after at most ")
+                .append(count).append(" operations: ").append(failure).append('\n');
+        // every replay of a hang leaves a thread spinning, so a hang is reported as it was found
+        List<Operation> shrunk = (failure instanceof Timeout) ? operations : shrink(factory, operations);
+        if (shrunk == operations)
+        {
+            report.append("not shrunk, a replay did not finish:");
+        }
+        else
+        {
+            report.append("shrunk to ").append(shrunk.size()).append(" operations, failing with ")
+                    .append(replay(factory, shrunk)).append(':');
+        }
+        for (Operation operation : shrunk)
+        {
+            report.append("\n  ").append(operation);
+        }
+        AssertionError error = new AssertionError(report.toString());
+        error.initCause(failure);
+        throw error;
+    }
+
+    /**
+     * Replays operations on a new list and a new oracle, on a thread of its
+     * own so an operation that never returns cannot hang the caller.
+     *
+     * @return the first failure, or null if every operation agreed
+     */
+    static Throwable replay(Supplier<IntList> factory, List<Operation> operations)
+    {
+        return replay(factory, operations, REPLAY_TIMEOUT_MILLIS);
+    }
+
+    static Throwable replay(Supplier<IntList> factory, List<Operation> operations, long timeoutMillis)
+    {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread runner = new Thread(() -> {
+            IntList list = factory.get();
+            List<Integer> oracle = new ArrayList<>();
+            try
+            {
+                for (int step = 0; step < operations.size(); step++)
+                {
+                    try
+                    {
+                        apply(operations.get(step), list, oracle);
+                    }
+                    catch (Throwable e)
+                    {
+                        failure.set(new AssertionError("step " + step + ", " + operations.get(step) + ": " + e, e));
+                        return;
+                    }
+                }
+            }
+            finally
+            {
+                try
+                {
+                    release(list);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        }, "IntListFuzzer-replay");
+        runner.setDaemon(true);
+        runner.start();
+        try
+        {
+            runner.join(timeoutMillis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+        if (runner.isAlive())
+        {
+            // a loop that checks for interrupts ends here; any other cannot be stopped, but
+            // the runner is a daemon, so it will not keep the JVM alive
+            runner.interrupt();
+            return new Timeout("did not finish within " + timeoutMillis + " ms (infinite loop?)");
+        }
+        return failure.get();
+    }
+
+    // the failure of a replay that did not finish in time
+    static final class Timeout extends AssertionError
+    {
+        private static final long serialVersionUID = 1L;
+
+        Timeout(String message)
+        {
+            super(message);
+        }
+    }
+
+    /**
+     * Drops runs of operations, halving the run length, while the rest
+     * still fails. Stops at the first replay that times out and returns
+     * operations itself: a hung replay may leave a thread spinning, and the
+     * replays after it would be starved into timing out too.
+     */
+    static List<Operation> shrink(Supplier<IntList> factory, List<Operation> operations)
+    {
+        return shrink(factory, operations, REPLAY_TIMEOUT_MILLIS);
+    }
+
+    static List<Operation> shrink(Supplier<IntList> factory, List<Operation> operations, long timeoutMillis)
+    {
+        List<Operation> current = new ArrayList<>(operations);
+        for (int chunk = current.size() / 2; chunk >= 1; chunk /= 2)
+        {
+            for (int start = 0; start + chunk <= current.size(); )
+            {
+                List<Operation> candidate = new ArrayList<>(current.subList(0, start));
+                candidate.addAll(current.subList(start + chunk, current.size()));
+                Throwable failure = replay(factory, candidate, timeoutMillis);
+                if (failure instanceof Timeout)
+                {
+                    return operations;
+                }
+                if (failure != null)
+                {
+                    current = candidate;
+                }
+                else
+                {
+                    start += chunk;
+                }
+            }
+        }
+        return current;
+    }
+
+    public static void main(String[] args)
+    {
+        long seconds = (args.length > 0) ? Long.parseLong(args[0]) : 60;
+        long seed = (args.length > 1) ? Long.parseLong(args[1]) : System.nanoTime();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        long runs = 0;
+        while (System.nanoTime() < deadline)
+        {
+            for (Map.Entry<String, Supplier<IntList>> implementation : implementations().entrySet())
+            {
+                try
+                {
+                    check(implementation.getKey(), implementation.getValue(), seed, 5_000);
+                }
+                catch (AssertionError e)
+                {
+                    System.out.println(e.getMessage());
+                    System.exit(1);
+                }
+                runs++;
+            }
+            seed++;
+        }
+        System.out.printf("%d runs of 5000 operations, no differences (last seed %d)%n", runs, seed - 1);
+    }
+
+    // ---------------------------------------------------------------
+    // views with a frame
+    // ---------------------------------------------------------------
+
+    // a view whose backing list has a fixed value just before and just after it
+    private static final class FramedView implements IntList
+    {
+        private final IntList backing;
+        private final IntList view;
+
+        FramedView(IntList backing, IntList view)
+        {
+            this.backing = backing;
+            this.view = view;
+        }
+
+        void checkFrame()
+        {
+            check(backing.size() == view.size() + 2, "backing list has " + backing.size() + " values");
+            check(backing.get(0) == Integer.MIN_VALUE, "value before the view changed");
+            check(backing.get(backing.size() - 1) == Integer.MAX_VALUE, "value after the view changed");
+        }
+
+        @Override
+        public void addFront(int value)
+        {
+            view.addFront(value);
+        }
+
+        @Override
+        public void addBack(int value)
+        {
+            view.addBack(value);
+        }
+
+        @Override
+        public void add(int index, int value)
+        {
+            view.add(index, value);
+        }
+
+        @Override
+        public void removeFront()
+        {
+            view.removeFront();
+        }
+
+        @Override
+        public void removeBack()
+        {
+            view.removeBack();
+        }
+
+        @Override
+        public int remove(int index)
+        {
+            return view.remove(index);
+        }
+
+        @Override
+        public int get(int index)
+        {
+            return view.get(index);
+        }
+
+        @Override
+        public boolean contains(int value)
+        {
+            return view.contains(value);
+        }
+
+        @Override
+        public int indexOf(int value)
+        {
+            return view.indexOf(value);
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return view.isEmpty();
+        }
+
+        @Override
+        public int size()
+        {
+            return view.size();
+        }
+
+        @Override
+        public void clear()
+        {
+            view.clear();
+        }
+
+        @Override
+        public IntList subList(int fromIndex, int toIndex)
+        {
+            return view.subList(fromIndex, toIndex);
+        }
+
+        @Override
+        public boolean forEachWhile(java.util.function.IntPredicate action)
+        {
+            return view.forEachWhile(action);
+        }
+
+        @Override
+        public int[] toArray()
+        {
+            return view.toArray();
+        }
+
+        @Override
+        public void addAll(int[] values, int offset, int length)
+        {
+            view.addAll(values, offset, length);
+        }
+
+        @Override
+        public boolean removeIf(java.util.function.IntPredicate filter)
+        {
+            return view.removeIf(filter);
+        }
+
+        @Override
+        public Iterator<Integer> iterator()
+        {
+            return view.iterator();
+        }
+
+        @Override
+        public String toString()
+        {
+            return view.toString();
+        }
+    }
+}
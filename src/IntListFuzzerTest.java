@@ -0,0 +1,87 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntListFuzzerTest {
+
+    @Test
+    void everyImplementationMatchesArrayList() {
+        for (Map.Entry<String, Supplier<IntList>> implementation : IntListFuzzer.implementations().entrySet()) {
+            for (long seed = 1; seed <= 5; seed++) {
+                IntListFuzzer.check(implementation.getKey(), implementation.getValue(), seed, 3_000);
+            }
+        }
+    }
+
+    @Test
+    void sameSeedGivesSameOperations() {
+        assertEquals(IntListFuzzer.randomOperations(7, 100).toString(),
+                IntListFuzzer.randomOperations(7, 100).toString());
+    }
+
+    @Test
+    void shrinksFailureToTheOperationsThatMatter() {
+        // addBack forgets the value 13, so a failure needs only an add of 13
+        Supplier<IntList> broken = () -> new ArrayIntList() {
+            @Override
+            public void addBack(int value) {
+                if (value != 13) {
+                    super.addBack(value);
+                }
+            }
+        };
+        List<IntListFuzzer.Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            operations.add(new IntListFuzzer.Operation(IntListFuzzer.Kind.ADD_FRONT, i, i, false, i, new int[0]));
+        }
+        operations.add(new IntListFuzzer.Operation(IntListFuzzer.Kind.ADD_BACK, 0, 0, false, 13, new int[0]));
+        for (int i = 0; i < 40; i++) {
+            operations.add(new IntListFuzzer.Operation(IntListFuzzer.Kind.GET, i, i, false, i, new int[0]));
+        }
+
+        assertNotNull(IntListFuzzer.replay(broken, operations));
+        List<IntListFuzzer.Operation> shrunk = IntListFuzzer.shrink(broken, operations);
+        assertEquals(1, shrunk.size());
+        assertEquals(IntListFuzzer.Kind.ADD_BACK, shrunk.get(0).kind);
+    }
+
+    // a list whose contains spins until the replay gives up on it and interrupts it
+    private static final Supplier<IntList> hanging = () -> new ArrayIntList() {
+        @Override
+        public boolean contains(int value) {
+            while (!Thread.interrupted()) {
+                Thread.onSpinWait();
+            }
+            throw new IllegalStateException("interrupted");
+        }
+    };
+
+    @Test
+    void reportsOperationsThatNeverReturn() {
+        List<IntListFuzzer.Operation> operations = List.of(
+                new IntListFuzzer.Operation(IntListFuzzer.Kind.CONTAINS, 0, 0, false, 1, new int[0]));
+        long start = System.nanoTime();
+        Throwable failure = IntListFuzzer.replay(hanging, operations, 200);
+        assertNotNull(failure);
+        assertTrue(failure.getMessage().contains("did not finish"));
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);
+    }
+
+    @Test
+    void stopsShrinkingAtTheFirstTimeout() {
+        List<IntListFuzzer.Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            operations.add(new IntListFuzzer.Operation(IntListFuzzer.Kind.ADD_BACK, 0, 0, false, i, new int[0]));
+        }
+        operations.add(new IntListFuzzer.Operation(IntListFuzzer.Kind.CONTAINS, 0, 0, false, 1, new int[0]));
+        long start = System.nanoTime();
+        List<IntListFuzzer.Operation> shrunk = IntListFuzzer.shrink(hanging, operations, 200);
+        assertSame(operations, shrunk);
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);     // one timeout, not one per candidate
+    }
+}
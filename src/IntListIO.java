@@ -0,0 +1,511 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming loaders and exporters for IntLists holding more values than
+ * fit comfortably in Strings.
+ *
+ * Text is ASCII decimal ints separated by whitespace, commas or brackets,
+ * so both one-value-per-line files and toString() output can be read. It
+ * is parsed byte by byte straight out of a ByteBuffer (a memory-mapped
+ * file, or a reusable buffer filled from a stream) into an int[] chunk,
+ * and each full chunk is handed to IntList.addAll in one call. No String
+ * or Integer is created per value.
+ *
+ * Binary is a plain sequence of 4-byte big-endian ints, the same layout
+ * DataOutputStream.writeInt produces.
+ *
+ * Exports format each value straight into one reusable byte buffer that
+ * is written out whenever it fills; text is written one value per line.
+ *
+ * Every method returns a Transfer with the number of values and bytes
+ * moved and the throughput in MB/s.
+ */
+public final class IntListIO
+{
+    private static final int CHUNK_VALUES = 8192;       // values handed to addAll at a time
+    private static final int BUFFER_BYTES = 1 << 16;    // stream and export buffer size
+    private static final long MAP_REGION = 1L << 26;    // mapped window, 64 MB
+
+    private IntListIO()
+    {
+    }
+
+    /**
+     * The outcome of one load or export: how much was moved and how fast.
+     */
+    public static final class Transfer
+    {
+        private final long values;
+        private final long bytes;
+        private final long nanos;
+
+        Transfer(long values, long bytes, long nanos)
+        {
+            this.values = values;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return the number of ints read or written
+         */
+        public long values()
+        {
+            return values;
+        }
+
+        /**
+         * @return the number of bytes read or written
+         */
+        public long bytes()
+        {
+            return bytes;
+        }
+
+        /**
+         * @return the wall-clock time the transfer took, in nanoseconds
+         */
+        public long nanos()
+        {
+            return nanos;
+        }
+
+        /**
+         * Returns the throughput in megabytes (1,000,000 bytes) per second.
+         *
+         * @return MB/s, or 0 if the transfer took no measurable time
+         */
+        public double megabytesPerSecond()
+        {
+            return (nanos == 0) ? 0 : (bytes / 1e6) / (nanos / 1e9);
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%d values, %d bytes in %.3f ms (%.1f MB/s)",
+                    values, bytes, nanos / 1e6, megabytesPerSecond());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // text
+    // ---------------------------------------------------------------
+
+    /**
+     * Appends every int in the specified text file to target. The file is
+     * memory-mapped in 64 MB windows, so it may be larger than 2 GB.
+     *
+     * @param file the file to read
+     * @param target the list the values are appended to
+     * @return what was read
+     * @throws IOException if the file cannot be read
+     * @throws NumberFormatException if the file holds something other than ints and separators
+     */
+    public static Transfer readText(Path file, IntList target) throws IOException
+    {
+        long start = System.nanoTime();
+        TextParser parser = new TextParser(target);
+        long fileSize;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            fileSize = channel.size();
+            for (long position = 0; position < fileSize; position += MAP_REGION)
+            {
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAP_REGION, fileSize - position));
+                parser.parse(region);
+            }
+        }
+        parser.finish();
+        return new Transfer(parser.values, fileSize, System.nanoTime() - start);
+    }
+
+    /**
+     * Appends every int in the specified text stream to target. The stream
+     * is read through one reusable buffer and is not closed.
+     *
+     * @param in the stream to read
+     * @param target the list the values are appended to
+     * @return what was read
+     * @throws IOException if the stream cannot be read
+     * @throws NumberFormatException if the stream holds something other than ints and separators
+     */
+    public static Transfer readText(InputStream in, IntList target) throws IOException
+    {
+        long start = System.nanoTime();
+        TextParser parser = new TextParser(target);
+        byte[] bytes = new byte[BUFFER_BYTES];
+        long total = 0;
+        int read;
+        while ((read = in.read(bytes)) != -1)
+        {
+            parser.parse(ByteBuffer.wrap(bytes, 0, read));
+            total += read;
+        }
+        parser.finish();
+        return new Transfer(parser.values, total, System.nanoTime() - start);
+    }
+
+    /**
+     * Writes every value of source to the specified file, one per line,
+     * replacing the file if it exists.
+     *
+     * @param source the list to write
+     * @param file the file to write
+     * @return what was written
+     * @throws IOException if the file cannot be written
+     */
+    public static Transfer writeText(IntList source, Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            return writeText(source, channel);
+        }
+    }
+
+    /**
+     * Writes every value of source to the specified stream, one per line.
+     * The stream is flushed but not closed.
+     *
+     * @param source the list to write
+     * @param out the stream to write to
+     * @return what was written
+     * @throws IOException if the stream cannot be written
+     */
+    public static Transfer writeText(IntList source, OutputStream out) throws IOException
+    {
+        Transfer transfer = writeText(source, Channels.newChannel(out));
+        out.flush();
+        return transfer;
+    }
+
+    private static Transfer writeText(IntList source, WritableByteChannel channel) throws IOException
+    {
+        long start = System.nanoTime();
+        TextWriter writer = new TextWriter(channel);
+        try
+        {
+            source.forEachInt(writer::write);
+            writer.flush();
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        return new Transfer(writer.values, writer.bytes, System.nanoTime() - start);
+    }
+
+    // ---------------------------------------------------------------
+    // binary
+    // ---------------------------------------------------------------
+
+    /**
+     * Appends every int in the specified binary file to target.
+     *
+     * @param file the file to read
+     * @param target the list the values are appended to
+     * @return what was read
+     * @throws IOException if the file cannot be read or its length is not a multiple of 4
+     */
+    public static Transfer readBinary(Path file, IntList target) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            return readBinary(channel, target);
+        }
+    }
+
+    /**
+     * Appends every int in the specified binary stream to target. The stream
+     * is not closed.
+     *
+     * @param in the stream to read
+     * @param target the list the values are appended to
+     * @return what was read
+     * @throws IOException if the stream cannot be read or ends inside an int
+     */
+    public static Transfer readBinary(InputStream in, IntList target) throws IOException
+    {
+        return readBinary(Channels.newChannel(in), target);
+    }
+
+    private static Transfer readBinary(ReadableByteChannel channel, IntList target) throws IOException
+    {
+        long start = System.nanoTime();
+        ByteBuffer bytes = ByteBuffer.allocateDirect(4 * CHUNK_VALUES);
+        int[] chunk = new int[CHUNK_VALUES];
+        long total = 0;
+        int read;
+        while ((read = channel.read(bytes)) != -1)
+        {
+            total += read;
+            bytes.flip();
+            int count = bytes.remaining() / 4;
+            bytes.asIntBuffer().get(chunk, 0, count);
+            target.addAll(chunk, 0, count);
+            bytes.position(4 * count);
+            bytes.compact();    // keep a partly read int for the next round
+        }
+        if (bytes.position() != 0)
+        {
+            throw new IOException("Binary int data ends inside an int (" + total + " bytes)");
+        }
+        return new Transfer(total / 4, total, System.nanoTime() - start);
+    }
+
+    /**
+     * Writes every value of source to the specified file as 4-byte
+     * big-endian ints, replacing the file if it exists.
+     *
+     * @param source the list to write
+     * @param file the file to write
+     * @return what was written
+     * @throws IOException if the file cannot be written
+     */
+    public static Transfer writeBinary(IntList source, Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            return writeBinary(source, channel);
+        }
+    }
+
+    /**
+     * Writes every value of source to the specified stream as 4-byte
+     * big-endian ints. The stream is flushed but not closed.
+     *
+     * @param source the list to write
+     * @param out the stream to write to
+     * @return what was written
+     * @throws IOException if the stream cannot be written
+     */
+    public static Transfer writeBinary(IntList source, OutputStream out) throws IOException
+    {
+        Transfer transfer = writeBinary(source, Channels.newChannel(out));
+        out.flush();
+        return transfer;
+    }
+
+    private static Transfer writeBinary(IntList source, WritableByteChannel channel) throws IOException
+    {
+        long start = System.nanoTime();
+        ByteBuffer bytes = ByteBuffer.allocate(BUFFER_BYTES);
+        long[] values = new long[1];
+        try
+        {
+            source.forEachInt(value -> {
+                if (!bytes.hasRemaining())
+                {
+                    drain(bytes, channel);
+                }
+                bytes.putInt(value);
+                values[0]++;
+            });
+            drain(bytes, channel);
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        return new Transfer(values[0], 4 * values[0], System.nanoTime() - start);
+    }
+
+    // writes out everything put into bytes and empties it; IOException is wrapped for use in lambdas
+    private static void drain(ByteBuffer bytes, WritableByteChannel channel)
+    {
+        bytes.flip();
+        try
+        {
+            while (bytes.hasRemaining())
+            {
+                channel.write(bytes);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        bytes.clear();
+    }
+
+    // ---------------------------------------------------------------
+    // text parsing and formatting
+    // ---------------------------------------------------------------
+
+    /**
+     * Turns ASCII bytes into ints. Keeps its state between calls to parse,
+     * so a number may be split across two buffers.
+     */
+    private static final class TextParser
+    {
+        // largest number of ten significant digits; anything bigger is not an int
+        private static final long MAX_MAGNITUDE = 9_999_999_999L;
+
+        private final IntList target;
+        private final int[] chunk = new int[CHUNK_VALUES];
+        private int count;
+        private long values;
+
+        private long offset;        // file position of the start of the current buffer
+        private long magnitude;     // digits of the number being read so far
+        private int digits;         // digits of the number being read, leading zeros included
+        private boolean negative;
+
+        TextParser(IntList target)
+        {
+            this.target = target;
+        }
+
+        void parse(ByteBuffer bytes)
+        {
+            int start = bytes.position();
+            int end = bytes.limit();
+            for (int i = start; i < end; i++)
+            {
+                int b = bytes.get(i);
+                if (b >= '0' && b <= '9')
+                {
+                    digits++;
+                    magnitude = 10 * magnitude + (b - '0');
+                    // bounded on the value, not on digits, so leading zeros are fine
+                    if (magnitude > MAX_MAGNITUDE)
+                    {
+                        throw error("Too many digits", offset + i - start);
+                    }
+                }
+                else if (b == '-' && digits == 0 && !negative)
+                {
+                    negative = true;
+                }
+                else if (b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == ',' || b == '[' || b == ']')
+                {
+                    endNumber(offset + i - start);
+                }
+                else
+                {
+                    throw error("Unexpected character 0x" + Integer.toHexString(b & 0xFF), offset + i - start);
+                }
+            }
+            offset += end - start;
+        }
+
+        void finish()
+        {
+            endNumber(offset);
+            target.addAll(chunk, 0, count);
+            count = 0;
+        }
+
+        private void endNumber(long position)
+        {
+            if (digits == 0)
+            {
+                if (negative)
+                {
+                    throw error("'-' without digits", position);
+                }
+                return;
+            }
+
+            long value = negative ? -magnitude : magnitude;
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            {
+                throw error("Value " + value + " out of int range", position);
+            }
+            chunk[count++] = (int) value;
+            values++;
+            if (count == CHUNK_VALUES)
+            {
+                target.addAll(chunk, 0, count);
+                count = 0;
+            }
+            magnitude = 0;
+            digits = 0;
+            negative = false;
+        }
+
+        private static NumberFormatException error(String message, long position)
+        {
+            return new NumberFormatException(message + " at byte " + position);
+        }
+    }
+
+    /**
+     * Formats ints as ASCII lines into one reusable byte array.
+     */
+    private static final class TextWriter
+    {
+        private static final int MAX_LINE_BYTES = 12;   // "-2147483648\n"
+
+        private final WritableByteChannel channel;
+        private final byte[] buffer = new byte[BUFFER_BYTES];
+        private final ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+        private int position;
+        private long values;
+        private long bytes;
+
+        TextWriter(WritableByteChannel channel)
+        {
+            this.channel = channel;
+        }
+
+        void write(int value)
+        {
+            if (position + MAX_LINE_BYTES > buffer.length)
+            {
+                flush();
+            }
+
+            long remaining = value;
+            if (remaining < 0)
+            {
+                buffer[position++] = '-';
+                remaining = -remaining;
+            }
+            int end = position + digitCount(remaining);
+            int p = end;
+            do
+            {
+                buffer[--p] = (byte) ('0' + remaining % 10);
+                remaining /= 10;
+            }
+            while (remaining != 0);
+            buffer[end] = '\n';
+            position = end + 1;
+            values++;
+        }
+
+        void flush()
+        {
+            wrapped.clear().position(position);   // drain() flips it
+            drain(wrapped, channel);
+            bytes += position;
+            position = 0;
+        }
+
+        private static int digitCount(long value)
+        {
+            int count = 1;
+            while (value >= 10)
+            {
+                value /= 10;
+                count++;
+            }
+            return count;
+        }
+    }
+}
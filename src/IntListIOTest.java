@@ -0,0 +1,120 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntListIOTest {
+
+    private static ArrayIntList randomList(int size) {
+        Random random = new Random(34);
+        ArrayIntList list = new ArrayIntList();
+        for (int i = 0; i < size; i++) {
+            list.addBack(random.nextInt());
+        }
+        list.addBack(Integer.MIN_VALUE);
+        list.addBack(Integer.MAX_VALUE);
+        list.addBack(0);
+        return list;
+    }
+
+    @Test
+    void readTextAcceptsSeparatorsAndToStringOutput() throws IOException {
+        String text = "1 2\n-3,\t40\r\n  [5, -6]\n7";
+        ArrayIntList list = new ArrayIntList();
+        IntListIO.Transfer transfer = IntListIO.readText(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)), list);
+        assertEquals("[1, 2, -3, 40, 5, -6, 7]", list.toString());
+        assertEquals(7, transfer.values());
+        assertEquals(text.length(), transfer.bytes());
+
+        LinkedIntList linked = new LinkedIntList();
+        IntListIO.readText(new ByteArrayInputStream(list.toString().getBytes(StandardCharsets.US_ASCII)), linked);
+        assertEquals(list.toString(), linked.toString());
+    }
+
+    @Test
+    void readTextAcceptsLeadingZeros() throws IOException {
+        String text = "00000000042 -000000000002147483648 0000000000000 02147483647";
+        ArrayIntList list = new ArrayIntList();
+        IntListIO.readText(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)), list);
+        assertEquals("[42, -2147483648, 0, 2147483647]", list.toString());
+    }
+
+    @Test
+    void readTextRejectsBadInput() {
+        String[] bad = {"12a", "1 - 2", "2147483648", "-2147483649", "12345678901", "00099999999999"};
+        for (String text : bad) {
+            assertThrows(NumberFormatException.class, () -> IntListIO.readText(
+                    new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)), new ArrayIntList()));
+        }
+    }
+
+    @Test
+    void textRoundTripThroughFile() throws IOException {
+        ArrayIntList list = randomList(50000);
+        Path file = Files.createTempFile("intlist", ".txt");
+        try {
+            IntListIO.Transfer written = IntListIO.writeText(list, file);
+            assertEquals(list.size(), written.values());
+            assertEquals(Files.size(file), written.bytes());
+
+            ArrayIntList read = new ArrayIntList();
+            IntListIO.Transfer transfer = IntListIO.readText(file, read);
+            assertEquals(list.size(), transfer.values());
+            assertArrayEquals(list.toArray(), read.toArray());
+            assertTrue(transfer.megabytesPerSecond() > 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void binaryRoundTripThroughStreams() throws IOException {
+        ArrayIntList list = randomList(20000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IntListIO.Transfer written = IntListIO.writeBinary(list, out);
+        assertEquals(4L * list.size(), written.bytes());
+
+        ArrayIntList read = new ArrayIntList();
+        IntListIO.readBinary(new ByteArrayInputStream(out.toByteArray()), read);
+        assertArrayEquals(list.toArray(), read.toArray());
+
+        byte[] truncated = new byte[out.size() - 1];
+        System.arraycopy(out.toByteArray(), 0, truncated, 0, truncated.length);
+        assertThrows(IOException.class,
+                () -> IntListIO.readBinary(new ByteArrayInputStream(truncated), new ArrayIntList()));
+    }
+
+    @Test
+    void binaryRoundTripThroughFile() throws IOException {
+        ArrayIntList list = randomList(20000);
+        Path file = Files.createTempFile("intlist", ".bin");
+        try {
+            IntListIO.writeBinary(list, file);
+            assertEquals(4L * list.size(), Files.size(file));
+            UnrolledIntList read = new UnrolledIntList();
+            IntListIO.readBinary(file, read);
+            assertArrayEquals(list.toArray(), read.toArray());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void addAllAppendsBlock() {
+        ArrayIntList list = new ArrayIntList();
+        list.addBack(1);
+        list.attachHashIndex();
+        list.addAll(new int[] {9, 2, 3, 4, 9}, 1, 3);
+        assertEquals("[1, 2, 3, 4]", list.toString());
+        assertEquals(2, list.indexOf(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.addAll(new int[2], 1, 2));
+    }
+}
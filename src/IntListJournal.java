@@ -0,0 +1,730 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The write-ahead log behind JournaledIntList.
+ *
+ * Every mutation is encoded as a compact binary record (a one byte
+ * opcode followed by zero, one or two ints) and appended to an in-memory
+ * batch. An IntEditBatch is one BATCH record holding all of its edits, so
+ * recovery replays either the whole batch or, if a crash cut the record
+ * short, none of it. A background flusher thread writes the whole batch to the current
+ * log file and forces it to disk once every fsync interval, so many
+ * mutations share one fsync (group commit). Callers that need durability
+ * wait on awaitDurable(sequence) until the batch holding their record has
+ * been forced.
+ *
+ * Log files are numbered by generation: journal-&lt;generation&gt;.log.
+ * A checkpoint rolls over to a new generation and writes a snapshot of the
+ * list tagged with that generation; recovery loads the snapshot and replays
+ * every log of that generation and later.
+ */
+class IntListJournal implements Closeable
+{
+    // record opcodes
+    static final byte ADD_FRONT = 1;
+    static final byte ADD_BACK = 2;
+    static final byte ADD = 3;
+    static final byte REMOVE_FRONT = 4;
+    static final byte REMOVE_BACK = 5;
+    static final byte REMOVE = 6;
+    static final byte CLEAR = 7;
+    static final byte BATCH = 8;    // edit count, then per edit ADD index value or REMOVE from to
+
+    private static final int SNAPSHOT_MAGIC = 0x494E544C;   // "INTL"
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final int MAX_RECORD_BYTES = 9;
+
+    private final Path directory;
+    private final long fsyncIntervalNanos;
+    private final int maxBatchBytes;
+    private final int bufferBytes;      // usual size of the batch buffers, exceeded only by a large BATCH record
+
+    // guards the batch buffers, sequence numbers and flags
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    // held while a batch is written, so batches reach the file in order
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private ByteBuffer pending;         // records not yet handed to the file
+    private ByteBuffer writing;         // batch being written, swapped with pending
+    private long appendedSequence;      // sequence number of the last appended record
+    private long durableSequence;       // sequence number of the last forced record
+    private IOException failure;        // first write failure, fails every later call
+    private boolean closed;
+
+    private FileChannel channel;
+    private long generation;
+    private long generationBytes;       // bytes appended to the current generation
+
+    private long batchesWritten;
+    private long recordsWritten;
+    private long pendingRecords;
+
+    private final Thread flusher;
+
+    /**
+     * Opens a new log generation in the specified directory and starts the flusher.
+     */
+    IntListJournal(Path directory, long generation, long fsyncIntervalMillis, int maxBatchBytes) throws IOException
+    {
+        this.directory = directory;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, fsyncIntervalMillis));
+        this.maxBatchBytes = Math.max(MAX_RECORD_BYTES, maxBatchBytes);
+        this.bufferBytes = this.maxBatchBytes + MAX_RECORD_BYTES;
+        this.pending = ByteBuffer.allocate(bufferBytes);
+        this.writing = ByteBuffer.allocate(bufferBytes);
+        this.generation = generation;
+        this.channel = openGeneration(generation);
+
+        flusher = new Thread(this::runFlusher, "IntListJournal-flusher-" + directory.getFileName());
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // ---------------------------------------------------------------
+    // appending
+    // ---------------------------------------------------------------
+
+    /**
+     * Appends a record and returns its sequence number.
+     * The record is durable once awaitDurable(sequence) returns.
+     */
+    long append(byte op)
+    {
+        return append(op, 0, 0, 0);
+    }
+
+    long append(byte op, int argument)
+    {
+        return append(op, 1, argument, 0);
+    }
+
+    long append(byte op, int first, int second)
+    {
+        return append(op, 2, first, second);
+    }
+
+    /**
+     * Appends a BATCH record holding the edits of batch, whose indexes refer
+     * to a list of the specified size, and returns its sequence number. The
+     * record goes into one buffer whole, however large, so it reaches the
+     * file in one write.
+     */
+    long appendBatch(IntEditBatch batch, int size)
+    {
+        byte[] record = encodeBatch(batch, size);
+        lock.lock();
+        try
+        {
+            checkUsable();
+            while (pending.position() > 0 && pending.position() + record.length > pending.capacity())
+            {
+                flushRequested.signal();
+                durable.awaitUninterruptibly();
+                checkUsable();
+            }
+            if (record.length > pending.capacity())
+            {
+                pending = ByteBuffer.allocate(record.length);   // written alone; writeBatch shrinks it back
+            }
+
+            int start = pending.position();
+            pending.put(record);
+            generationBytes += record.length;
+            pendingRecords++;
+            appendedSequence++;
+            if (start == 0 || pending.position() >= maxBatchBytes)
+            {
+                flushRequested.signal();
+            }
+            return appendedSequence;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    // BATCH, the edit count, then each edit as ADD index value or REMOVE from to
+    static byte[] encodeBatch(IntEditBatch batch, int size)
+    {
+        ByteBuffer edits = ByteBuffer.allocate(1 + Integer.BYTES + batch.size() * MAX_RECORD_BYTES);
+        edits.put(BATCH).putInt(0);
+        int[] count = {0};
+        batch.walk(size, new IntEditBatch.Walker()
+        {
+            private int index = 0;      // index in the list before the batch
+
+            @Override
+            public void keep(int from, int to)
+            {
+                index = to;
+            }
+
+            @Override
+            public void insert(int value)
+            {
+                edits.put(ADD).putInt(index).putInt(value);
+                count[0]++;
+            }
+
+            @Override
+            public void remove(int from, int to)
+            {
+                edits.put(REMOVE).putInt(from).putInt(to);
+                index = to;
+                count[0]++;
+            }
+        });
+        edits.putInt(1, count[0]);
+        return Arrays.copyOf(edits.array(), edits.position());
+    }
+
+    private long append(byte op, int argumentCount, int first, int second)
+    {
+        lock.lock();
+        try
+        {
+            checkUsable();
+            // a full batch has to be written before more records fit
+            while (pending.position() >= maxBatchBytes)
+            {
+                flushRequested.signal();
+                durable.awaitUninterruptibly();
+                checkUsable();
+            }
+
+            int start = pending.position();
+            pending.put(op);
+            if (argumentCount > 0)
+            {
+                pending.putInt(first);
+            }
+            if (argumentCount > 1)
+            {
+                pending.putInt(second);
+            }
+            generationBytes += pending.position() - start;
+            pendingRecords++;
+            appendedSequence++;
+
+            // wake the flusher when a batch starts (to time it) and when it is full
+            if (start == 0 || pending.position() >= maxBatchBytes)
+            {
+                flushRequested.signal();
+            }
+            return appendedSequence;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the record with the specified sequence number has been
+     * forced to disk by a group commit.
+     *
+     * @throws UncheckedIOException if writing the log failed
+     */
+    void awaitDurable(long sequence)
+    {
+        lock.lock();
+        try
+        {
+            while (durableSequence < sequence && failure == null)
+            {
+                durable.awaitUninterruptibly();
+            }
+            if (durableSequence < sequence)
+            {
+                throw new UncheckedIOException("Journal write failed", failure);
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes and forces every record appended so far, without waiting
+     * for the next fsync interval.
+     */
+    void flush() throws IOException
+    {
+        writeBatch();
+        lock.lock();
+        try
+        {
+            if (failure != null)
+            {
+                throw failure;
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces everything appended so far into the current generation, then
+     * starts a new one. Returns the number of the new generation.
+     */
+    long rollOver() throws IOException
+    {
+        writeLock.lock();
+        try
+        {
+            flush();
+            channel.close();
+            generation++;
+            channel = openGeneration(generation);
+            lock.lock();
+            try
+            {
+                generationBytes = 0;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+            return generation;
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes appended to the current generation,
+     * which tells when it is time to checkpoint.
+     */
+    long generationBytes()
+    {
+        lock.lock();
+        try
+        {
+            return generationBytes;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the estimated heap of the two batch buffers, which is fixed
+     * by maxBatchBytes. The fields of a heap ByteBuffer take about 48 bytes.
+     */
+    long bytesUsed()
+    {
+        return 2 * (48 + IntListFootprint.array(bufferBytes, Byte.BYTES));
+    }
+
+    long batchesWritten()
+    {
+        lock.lock();
+        try
+        {
+            return batchesWritten;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    long recordsWritten()
+    {
+        lock.lock();
+        try
+        {
+            return recordsWritten;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes and forces the remaining records, stops the flusher and closes the file.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        lock.lock();
+        try
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+            flushRequested.signal();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        try
+        {
+            flusher.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        writeBatch();
+        channel.close();
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // group commit
+    // ---------------------------------------------------------------
+
+    private void runFlusher()
+    {
+        while (true)
+        {
+            lock.lock();
+            try
+            {
+                while (!closed && pending.position() == 0)
+                {
+                    flushRequested.await();
+                }
+
+                // let the batch build up for one interval, unless it fills up first
+                long remaining = fsyncIntervalNanos;
+                while (!closed && pending.position() < maxBatchBytes && remaining > 0)
+                {
+                    remaining = flushRequested.awaitNanos(remaining);
+                }
+                if (closed)
+                {
+                    return;
+                }
+            }
+            catch (InterruptedException e)
+            {
+                return;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            writeBatch();
+        }
+    }
+
+    // swaps out the pending batch, writes it with one write + force, and wakes its waiters
+    private void writeBatch()
+    {
+        writeLock.lock();
+        try
+        {
+            long batchSequence;
+            long batchRecords;
+            lock.lock();
+            try
+            {
+                if (pending.position() == 0 || failure != null)
+                {
+                    return;
+                }
+                ByteBuffer full = pending;
+                pending = writing;
+                writing = full;
+                batchSequence = appendedSequence;
+                batchRecords = pendingRecords;
+                pendingRecords = 0;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try
+            {
+                writing.flip();
+                while (writing.hasRemaining())
+                {
+                    channel.write(writing);
+                }
+                channel.force(false);
+            }
+            catch (IOException e)
+            {
+                error = e;
+            }
+            writing.clear();
+            if (writing.capacity() > bufferBytes)
+            {
+                writing = ByteBuffer.allocate(bufferBytes);     // the batch held one large BATCH record
+            }
+
+            lock.lock();
+            try
+            {
+                if (error != null)
+                {
+                    failure = error;
+                }
+                else
+                {
+                    durableSequence = batchSequence;
+                    batchesWritten++;
+                    recordsWritten += batchRecords;
+                }
+                durable.signalAll();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
+    private void checkUsable()
+    {
+        if (failure != null)
+        {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+        if (closed)
+        {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+
+    private FileChannel openGeneration(long generation) throws IOException
+    {
+        return FileChannel.open(logFile(directory, generation),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // ---------------------------------------------------------------
+    // files: recovery, snapshots, cleanup
+    // ---------------------------------------------------------------
+
+    static Path logFile(Path directory, long generation)
+    {
+        return directory.resolve("journal-" + generation + ".log");
+    }
+
+    /**
+     * Returns the generations of all log files in the directory, in ascending order.
+     */
+    static List<Long> generations(Path directory) throws IOException
+    {
+        List<Long> result = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "journal-*.log"))
+        {
+            for (Path file : files)
+            {
+                String name = file.getFileName().toString();
+                try
+                {
+                    result.add(Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length())));
+                }
+                catch (NumberFormatException e)
+                {
+                    // not one of ours
+                }
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Deletes the log files of every generation older than the specified one.
+     */
+    static void deleteGenerationsBefore(Path directory, long generation) throws IOException
+    {
+        for (long existing : generations(directory))
+        {
+            if (existing < generation)
+            {
+                Files.deleteIfExists(logFile(directory, existing));
+            }
+        }
+    }
+
+    /**
+     * Applies every complete record in the log file to target, in order.
+     * A record cut short by a crash at the end of the file is ignored.
+     */
+    static void replay(Path file, IntList target) throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16)))
+        {
+            while (true)
+            {
+                int op = in.read();
+                if (op == -1)
+                {
+                    return;
+                }
+                try
+                {
+                    switch (op)
+                    {
+                        case ADD_FRONT:
+                            target.addFront(in.readInt());
+                            break;
+                        case ADD_BACK:
+                            target.addBack(in.readInt());
+                            break;
+                        case ADD:
+                            int index = in.readInt();
+                            target.add(index, in.readInt());
+                            break;
+                        case REMOVE_FRONT:
+                            target.removeFront();
+                            break;
+                        case REMOVE_BACK:
+                            target.removeBack();
+                            break;
+                        case REMOVE:
+                            target.remove(in.readInt());
+                            break;
+                        case CLEAR:
+                            target.clear();
+                            break;
+                        case BATCH:
+                            target.applyEdits(readBatch(in, file));     // read whole before any edit applies
+                            break;
+                        default:
+                            throw new IOException("Corrupt journal " + file + ": unknown opcode " + op);
+                    }
+                }
+                catch (EOFException e)
+                {
+                    return;     // torn last record
+                }
+            }
+        }
+    }
+
+    private static IntEditBatch readBatch(DataInputStream in, Path file) throws IOException
+    {
+        IntEditBatch batch = new IntEditBatch();
+        for (int count = in.readInt(); count > 0; count--)
+        {
+            int op = in.readByte();
+            int first = in.readInt();
+            int second = in.readInt();
+            if (op == ADD)
+            {
+                batch.insert(first, second);
+            }
+            else if (op == REMOVE)
+            {
+                batch.remove(first, second);
+            }
+            else
+            {
+                throw new IOException("Corrupt journal " + file + ": unknown batch edit " + op);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Writes a snapshot of values that precedes the logs of the specified
+     * generation. The snapshot goes to a temporary file that is forced and
+     * then atomically renamed, so a crash leaves either the old snapshot or
+     * the new one.
+     */
+    static void writeSnapshot(Path directory, long generation, int[] values) throws IOException
+    {
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            OutputStream stream = new BufferedOutputStream(Channels.newOutputStream(out), 1 << 16);
+            DataOutputStream data = new DataOutputStream(stream);
+            data.writeInt(SNAPSHOT_MAGIC);
+            data.writeLong(generation);
+            data.writeInt(values.length);
+            for (int value : values)
+            {
+                data.writeInt(value);
+            }
+            data.flush();
+            out.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Loads the snapshot (if any) into target and returns the generation it
+     * precedes, or 0 if there is no snapshot.
+     */
+    static long readSnapshot(Path directory, IntList target) throws IOException
+    {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file))
+        {
+            return 0;
+        }
+
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16)))
+        {
+            if (in.readInt() != SNAPSHOT_MAGIC)
+            {
+                throw new IOException("Not an IntList snapshot: " + file);
+            }
+            long generation = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++)
+            {
+                target.addBack(in.readInt());
+            }
+            return generation;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters describing how IntList implementations are used: operation
+ * counts and latencies (from an InstrumentedIntList), values shifted
+ * and buffer resizes (from an ArrayIntList), and nodes walked (from a
+ * LinkedIntList).
+ *
+ * Metrics are opt-in. A list only records into a metrics object after
+ * setMetrics(...) is called on it, or after it is wrapped in an
+ * InstrumentedIntList; until then its only cost is one null check per
+ * operation. Counters are LongAdders, so one metrics object can be shared
+ * by many lists on many threads.
+ *
+ * The counters can be published as a JMX MBean with registerMBean(name),
+ * and resizes can also be emitted as Flight Recorder events.
+ */
+public class IntListMetrics implements IntListMetricsMXBean
+{
+    /**
+     * The IntList operations an InstrumentedIntList counts and times.
+     */
+    public enum Operation
+    {
+        ADD_FRONT, ADD_BACK, ADD, REMOVE_FRONT, REMOVE_BACK, REMOVE,
+        GET, CONTAINS, INDEX_OF, CLEAR
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final LongAdder[] operationCounts = new LongAdder[OPERATIONS.length];
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final LongAdder elementsShifted = new LongAdder();
+    private final LongAdder nodesTraversed = new LongAdder();
+    private final LongAdder traversals = new LongAdder();
+    private final LongAdder resizes = new LongAdder();
+    private final LongAdder bytesAllocated = new LongAdder();
+
+    private volatile boolean jfrEventsEnabled;
+    private ObjectName registeredName;
+
+    public IntListMetrics()
+    {
+        for (int i = 0; i < OPERATIONS.length; i++)
+        {
+            operationCounts[i] = new LongAdder();
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // recording, called by the lists
+    // ---------------------------------------------------------------
+
+    /**
+     * Records one call of the specified operation that took the specified time.
+     *
+     * @param operation the operation that was called
+     * @param nanos how long the call took, in nanoseconds
+     */
+    public void recordOperation(Operation operation, long nanos)
+    {
+        operationCounts[operation.ordinal()].increment();
+        latencies[operation.ordinal()].record(nanos);
+    }
+
+    void recordShift(int count)
+    {
+        elementsShifted.add(count);
+    }
+
+    void recordTraversal(int nodes)
+    {
+        traversals.increment();
+        nodesTraversed.add(nodes);
+    }
+
+    void recordAllocation(long bytes)
+    {
+        bytesAllocated.add(bytes);
+    }
+
+    void recordResize(int oldCapacity, int newCapacity)
+    {
+        long bytes = IntListFootprint.array(newCapacity, Integer.BYTES);
+        resizes.increment();
+        bytesAllocated.add(bytes);
+
+        if (jfrEventsEnabled)
+        {
+            IntListResizeEvent event = new IntListResizeEvent();
+            if (event.isEnabled())
+            {
+                event.oldCapacity = oldCapacity;
+                event.newCapacity = newCapacity;
+                event.bytesAllocated = bytes;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Turns the IntList.Resize Flight Recorder event on or off. Off by default;
+     * even when on, an event is only committed while a recording enables it.
+     *
+     * @param enabled true to emit resize events
+     */
+    public void setJfrEventsEnabled(boolean enabled)
+    {
+        jfrEventsEnabled = enabled;
+    }
+
+    // ---------------------------------------------------------------
+    // reading
+    // ---------------------------------------------------------------
+
+    /**
+     * Returns the number of recorded calls of the specified operation.
+     *
+     * @param operation the operation
+     * @return the number of recorded calls
+     */
+    public long getOperationCount(Operation operation)
+    {
+        return operationCounts[operation.ordinal()].sum();
+    }
+
+    /**
+     * Returns the latency of the specified operation at the given percentile,
+     * as the upper bound of the power-of-two histogram bucket it falls in.
+     *
+     * @param operation the operation
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getLatencyPercentileNanos(Operation operation, double percentile)
+    {
+        return latencies[operation.ordinal()].percentile(percentile);
+    }
+
+    /**
+     * Returns a copy of the latency histogram of the specified operation.
+     * Bucket i counts calls that took less than 2^i nanoseconds
+     * (and at least 2^(i-1) nanoseconds for i &gt; 0).
+     *
+     * @param operation the operation
+     * @return the bucket counts
+     */
+    public long[] getLatencyHistogram(Operation operation)
+    {
+        return latencies[operation.ordinal()].snapshot();
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts()
+    {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Operation operation : OPERATIONS)
+        {
+            counts.put(operation.name(), getOperationCount(operation));
+        }
+        return counts;
+    }
+
+    @Override
+    public long getElementsShifted()
+    {
+        return elementsShifted.sum();
+    }
+
+    @Override
+    public long getNodesTraversed()
+    {
+        return nodesTraversed.sum();
+    }
+
+    @Override
+    public long getTraversals()
+    {
+        return traversals.sum();
+    }
+
+    @Override
+    public double getAverageTraversalLength()
+    {
+        long walks = traversals.sum();
+        return (walks == 0) ? 0 : (double) nodesTraversed.sum() / walks;
+    }
+
+    @Override
+    public long getResizes()
+    {
+        return resizes.sum();
+    }
+
+    @Override
+    public long getBytesAllocated()
+    {
+        return bytesAllocated.sum();
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP50Nanos()
+    {
+        return percentiles(50);
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP99Nanos()
+    {
+        return percentiles(99);
+    }
+
+    @Override
+    public void resetCounters()
+    {
+        for (int i = 0; i < OPERATIONS.length; i++)
+        {
+            operationCounts[i].reset();
+            latencies[i].reset();
+        }
+        elementsShifted.reset();
+        nodesTraversed.reset();
+        traversals.reset();
+        resizes.reset();
+        bytesAllocated.reset();
+    }
+
+    // ---------------------------------------------------------------
+    // JMX
+    // ---------------------------------------------------------------
+
+    /**
+     * Registers these metrics with the platform MBean server under
+     * IntList:type=IntListMetrics,name=&lt;name&gt;.
+     *
+     * @param name the name that tells these metrics apart from others
+     * @return the name the MBean was registered under
+     * @throws IllegalStateException if the MBean could not be registered
+     */
+    public synchronized ObjectName registerMBean(String name)
+    {
+        try
+        {
+            ObjectName objectName = new ObjectName("IntList:type=IntListMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            registeredName = objectName;
+            return objectName;
+        }
+        catch (JMException e)
+        {
+            throw new IllegalStateException("Could not register IntList metrics " + name, e);
+        }
+    }
+
+    /**
+     * Removes these metrics from the platform MBean server, if they were registered.
+     */
+    public synchronized void unregisterMBean()
+    {
+        if (registeredName == null)
+        {
+            return;
+        }
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try
+        {
+            server.unregisterMBean(registeredName);
+        }
+        catch (JMException e)
+        {
+            throw new IllegalStateException("Could not unregister " + registeredName, e);
+        }
+        registeredName = null;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IntListMetrics[operations=" + getOperationCounts()
+                + ", elementsShifted=" + getElementsShifted()
+                + ", nodesTraversed=" + getNodesTraversed()
+                + ", resizes=" + getResizes()
+                + ", bytesAllocated=" + getBytesAllocated() + "]";
+    }
+
+    private Map<String, Long> percentiles(double percentile)
+    {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Operation operation : OPERATIONS)
+        {
+            result.put(operation.name(), getLatencyPercentileNanos(operation, percentile));
+        }
+        return result;
+    }
+
+    // counts of latencies in power-of-two buckets: bucket i holds [2^(i-1), 2^i) ns
+    private static final class LatencyHistogram
+    {
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+        void record(long nanos)
+        {
+            int bucket = 64 - Long.numberOfLeadingZeros(Math.max(0, nanos));
+            buckets.incrementAndGet(Math.min(bucket, 63));
+        }
+
+        long percentile(double percentile)
+        {
+            long[] counts = snapshot();
+            long total = 0;
+            for (long count : counts)
+            {
+                total += count;
+            }
+            if (total == 0)
+            {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++)
+            {
+                seen += counts[i];
+                if (seen >= rank && counts[i] > 0)
+                {
+                    return (i == 63) ? Long.MAX_VALUE : (1L << i);
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        long[] snapshot()
+        {
+            long[] counts = new long[buckets.length()];
+            for (int i = 0; i < counts.length; i++)
+            {
+                counts[i] = buckets.get(i);
+            }
+            return counts;
+        }
+
+        void reset()
+        {
+            for (int i = 0; i < buckets.length(); i++)
+            {
+                buckets.set(i, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import java.util.Map;
+
+/**
+ * The management interface of IntListMetrics, as published through JMX.
+ * Every attribute is read-only except through resetCounters().
+ */
+public interface IntListMetricsMXBean
+{
+    /**
+     * @return number of calls per operation name, as seen by an InstrumentedIntList
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * @return total number of values moved one position left or right by
+     * addFront, add(index), removeFront and remove(index) on an ArrayIntList
+     */
+    long getElementsShifted();
+
+    /**
+     * @return total number of nodes followed by LinkedIntList walks
+     */
+    long getNodesTraversed();
+
+    /**
+     * @return number of LinkedIntList walks counted in getNodesTraversed()
+     */
+    long getTraversals();
+
+    /**
+     * @return average number of nodes followed per walk, or 0 if there were none
+     */
+    double getAverageTraversalLength();
+
+    /**
+     * @return number of times an ArrayIntList buffer was resized
+     */
+    long getResizes();
+
+    /**
+     * @return bytes allocated for new buffers and nodes
+     */
+    long getBytesAllocated();
+
+    /**
+     * @return median latency per operation name in nanoseconds (upper bound of its histogram bucket)
+     */
+    Map<String, Long> getLatencyP50Nanos();
+
+    /**
+     * @return 99th percentile latency per operation name in nanoseconds (upper bound of its histogram bucket)
+     */
+    Map<String, Long> getLatencyP99Nanos();
+
+    /**
+     * Sets every counter and histogram back to zero.
+     */
+    void resetCounters();
+}
@@ -0,0 +1,28 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event committed when an instrumented ArrayIntList
+ * resizes its buffer. Only created when IntListMetrics has JFR events
+ * turned on, and only committed while a recording has the event enabled.
+ */
+@Name("IntList.Resize")
+@Label("IntList Resize")
+@Category("IntList")
+@Description("An ArrayIntList buffer was replaced by a larger one")
+class IntListResizeEvent extends Event
+{
+    @Label("Old Capacity")
+    int oldCapacity;
+
+    @Label("New Capacity")
+    int newCapacity;
+
+    @Label("Bytes Allocated")
+    @DataAmount(DataAmount.BYTES)
+    long bytesAllocated;
+}
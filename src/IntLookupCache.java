@@ -0,0 +1,461 @@
+/**
+ * A bounded map from int keys to int values, without boxing, that evicts
+ * by LRU or by W-TinyLFU. Used by CachedIntList to remember indexOf results.
+ *
+ * Entries live in slot arrays (key, value, queue, prev, next), with an
+ * IntIntMap from key to slot. Each queue is a doubly linked list threaded
+ * through prev and next, most recently used at the head.
+ *
+ * LRU keeps every entry in one queue and evicts its tail.
+ *
+ * W-TinyLFU (Einziger, Friedman and Manes) splits the entries into a small
+ * window LRU (1% of capacity) and a main area of probation and protected
+ * queues (20% / 80%). New keys enter the window. The window's tail then
+ * competes with the probation tail: whichever key a count-min sketch of
+ * recent access frequencies rates lower is evicted. A scan of one-off keys
+ * therefore cannot flush the hot keys out of the main area. Protected
+ * entries that fall off their queue go back to probation.
+ *
+ * Not thread-safe.
+ */
+final class IntLookupCache
+{
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int NONE = -1;
+
+    private final int capacity;
+    private final CachedIntList.Eviction eviction;
+    private final int[] maxQueueSize = new int[3];
+
+    // slot storage, one slot more than capacity so an insert can happen before its eviction
+    private final int[] keys;
+    private final int[] values;
+    private final int[] queues;
+    private final int[] prev;
+    private final int[] next;
+    private final IntIntMap slotOf = new IntIntMap();
+    private final int[] head = {NONE, NONE, NONE};
+    private final int[] tail = {NONE, NONE, NONE};
+    private final int[] queueSize = new int[3];
+    private int[] freeSlots;
+    private int freeCount;
+    private int size;
+
+    private final FrequencySketch sketch;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    IntLookupCache(int capacity, CachedIntList.Eviction eviction)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.eviction = eviction;
+        if (eviction == CachedIntList.Eviction.LRU)
+        {
+            maxQueueSize[WINDOW] = capacity;
+            sketch = null;
+        }
+        else
+        {
+            int window = Math.max(1, capacity / 100);
+            int main = capacity - window;
+            maxQueueSize[WINDOW] = window;
+            maxQueueSize[PROTECTED] = main * 4 / 5;
+            maxQueueSize[PROBATION] = main - maxQueueSize[PROTECTED];
+            sketch = new FrequencySketch(capacity);
+        }
+
+        keys = new int[capacity + 1];
+        values = new int[capacity + 1];
+        queues = new int[capacity + 1];
+        prev = new int[capacity + 1];
+        next = new int[capacity + 1];
+        freeSlots = new int[capacity + 1];
+        for (int slot = 0; slot <= capacity; slot++)
+        {
+            freeSlots[freeCount++] = capacity - slot;
+        }
+    }
+
+    /**
+     * Returns the value cached for key, or missingValue, counting a hit or a miss.
+     */
+    int get(int key, int missingValue)
+    {
+        if (sketch != null)
+        {
+            sketch.increment(key);
+        }
+        int slot = slotOf.getOrDefault(key, NONE);
+        if (slot == NONE)
+        {
+            misses++;
+            return missingValue;
+        }
+        hits++;
+        onAccess(slot);
+        return values[slot];
+    }
+
+    /**
+     * Caches value for key, evicting an entry if the cache is full.
+     */
+    void put(int key, int value)
+    {
+        int slot = slotOf.getOrDefault(key, NONE);
+        if (slot != NONE)
+        {
+            values[slot] = value;
+            return;
+        }
+
+        slot = freeSlots[--freeCount];
+        keys[slot] = key;
+        values[slot] = value;
+        slotOf.put(key, slot);
+        size++;
+        pushHead(WINDOW, slot);
+        if (queueSize[WINDOW] > maxQueueSize[WINDOW])
+        {
+            evictFromWindow();
+        }
+    }
+
+    /**
+     * Returns the value cached for key, or missingValue, without counting
+     * a hit or a miss or touching the eviction order.
+     */
+    int peek(int key, int missingValue)
+    {
+        int slot = slotOf.getOrDefault(key, NONE);
+        return (slot == NONE) ? missingValue : values[slot];
+    }
+
+    /**
+     * Replaces the value of an existing entry, without touching the eviction order.
+     */
+    void update(int key, int value)
+    {
+        int slot = slotOf.getOrDefault(key, NONE);
+        if (slot != NONE)
+        {
+            values[slot] = value;
+        }
+    }
+
+    /**
+     * Drops the entry for key, counting an invalidation if there was one.
+     */
+    void invalidate(int key)
+    {
+        int slot = slotOf.getOrDefault(key, NONE);
+        if (slot != NONE)
+        {
+            release(slot);
+            invalidations++;
+        }
+    }
+
+    /**
+     * Adds delta to every value that is at least from. Values below from,
+     * including the -1 of absent values, are left alone.
+     */
+    void shiftValues(int from, int delta)
+    {
+        for (int queue = WINDOW; queue <= PROTECTED; queue++)
+        {
+            for (int slot = head[queue]; slot != NONE; slot = next[slot])
+            {
+                if (values[slot] >= from)
+                {
+                    values[slot] += delta;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops every entry whose value is at least from, counting each as an invalidation.
+     */
+    void invalidateValuesFrom(int from)
+    {
+        for (int queue = WINDOW; queue <= PROTECTED; queue++)
+        {
+            for (int slot = head[queue]; slot != NONE; )
+            {
+                int following = next[slot];
+                if (values[slot] >= from)
+                {
+                    release(slot);
+                    invalidations++;
+                }
+                slot = following;
+            }
+        }
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    int capacity()
+    {
+        return capacity;
+    }
+
+    // estimated heap of the slots, the key -> slot map and the sketch
+    long bytesUsed()
+    {
+        // 12 references, capacity, freeCount, size and four long counters
+        long bytes = IntListFootprint.object(12 * IntListFootprint.REFERENCE + 3 * Integer.BYTES + 4 * Long.BYTES)
+                + 6 * IntListFootprint.array(capacity + 1, Integer.BYTES)
+                + 4 * IntListFootprint.array(3, Integer.BYTES)
+                + slotOf.bytesUsed();
+        if (sketch != null)
+        {
+            // table reference, tableMask, sampleSize, additions
+            bytes += IntListFootprint.object(IntListFootprint.REFERENCE + 3 * Integer.BYTES)
+                    + IntListFootprint.array(sketch.table.length, Long.BYTES);
+        }
+        return bytes;
+    }
+
+    CachedIntList.Eviction eviction()
+    {
+        return eviction;
+    }
+
+    long hits()
+    {
+        return hits;
+    }
+
+    long misses()
+    {
+        return misses;
+    }
+
+    long evictions()
+    {
+        return evictions;
+    }
+
+    long invalidations()
+    {
+        return invalidations;
+    }
+
+    // ---------------------------------------------------------------
+    // eviction
+    // ---------------------------------------------------------------
+
+    private void onAccess(int slot)
+    {
+        int queue = queues[slot];
+        unlink(slot);
+        if (queue == PROBATION)
+        {
+            // a second hit earns a place in protected; its tail drops back to probation
+            pushHead(PROTECTED, slot);
+            if (queueSize[PROTECTED] > maxQueueSize[PROTECTED])
+            {
+                int demoted = tail[PROTECTED];
+                unlink(demoted);
+                pushHead(PROBATION, demoted);
+            }
+        }
+        else
+        {
+            pushHead(queue, slot);
+        }
+    }
+
+    private void evictFromWindow()
+    {
+        int candidate = tail[WINDOW];
+        if (eviction == CachedIntList.Eviction.LRU)
+        {
+            evict(candidate);
+            return;
+        }
+
+        unlink(candidate);
+        if (size <= capacity)
+        {
+            pushHead(PROBATION, candidate);     // room in the main area, no contest
+            return;
+        }
+
+        int victim = (tail[PROBATION] != NONE) ? tail[PROBATION] : tail[PROTECTED];
+        if (victim != NONE && sketch.frequency(keys[candidate]) > sketch.frequency(keys[victim]))
+        {
+            evict(victim);
+            pushHead(PROBATION, candidate);
+        }
+        else
+        {
+            evict(candidate);
+        }
+    }
+
+    private void evict(int slot)
+    {
+        release(slot);
+        evictions++;
+    }
+
+    private void release(int slot)
+    {
+        if (queues[slot] != NONE)
+        {
+            unlink(slot);
+        }
+        slotOf.remove(keys[slot]);
+        freeSlots[freeCount++] = slot;
+        size--;
+    }
+
+    private void pushHead(int queue, int slot)
+    {
+        queues[slot] = queue;
+        prev[slot] = NONE;
+        next[slot] = head[queue];
+        if (head[queue] != NONE)
+        {
+            prev[head[queue]] = slot;
+        }
+        else
+        {
+            tail[queue] = slot;
+        }
+        head[queue] = slot;
+        queueSize[queue]++;
+    }
+
+    private void unlink(int slot)
+    {
+        int queue = queues[slot];
+        if (prev[slot] != NONE)
+        {
+            next[prev[slot]] = next[slot];
+        }
+        else
+        {
+            head[queue] = next[slot];
+        }
+        if (next[slot] != NONE)
+        {
+            prev[next[slot]] = prev[slot];
+        }
+        else
+        {
+            tail[queue] = prev[slot];
+        }
+        queues[slot] = NONE;
+        queueSize[queue]--;
+    }
+
+    // ---------------------------------------------------------------
+    // frequency sketch
+    // ---------------------------------------------------------------
+
+    /**
+     * A count-min sketch of 4-bit counters, 16 to a long, four rows. Once
+     * 10 * capacity increments have been counted, every counter is halved,
+     * so the sketch follows recent popularity rather than all-time counts.
+     */
+    static final class FrequencySketch
+    {
+        private static final long[] SEEDS = {
+            0x97cb3127L, 0xb3f2d8a1L, 0xd1b54a32L, 0xe6546b64L
+        };
+        private static final long HALF_MASK = 0x7777_7777_7777_7777L;
+
+        private final long[] table;
+        private final int tableMask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity)
+        {
+            int length = Integer.highestOneBit(Math.max(8, capacity - 1)) << 1;
+            table = new long[length];
+            tableMask = length - 1;
+            sampleSize = 10 * capacity;
+        }
+
+        void increment(int key)
+        {
+            boolean added = false;
+            for (int row = 0; row < SEEDS.length; row++)
+            {
+                added |= incrementAt(indexOf(key, row), counterOf(key, row));
+            }
+            if (added && ++additions == sampleSize)
+            {
+                reset();
+            }
+        }
+
+        int frequency(int key)
+        {
+            int frequency = Integer.MAX_VALUE;
+            for (int row = 0; row < SEEDS.length; row++)
+            {
+                int shift = counterOf(key, row) << 2;
+                frequency = Math.min(frequency, (int) ((table[indexOf(key, row)] >>> shift) & 0xf));
+            }
+            return frequency;
+        }
+
+        private boolean incrementAt(int index, int counter)
+        {
+            int shift = counter << 2;
+            long mask = 0xfL << shift;
+            if ((table[index] & mask) != mask)      // saturates at 15
+            {
+                table[index] += 1L << shift;
+                return true;
+            }
+            return false;
+        }
+
+        private int indexOf(int key, int row)
+        {
+            long hash = (key + SEEDS[row]) * SEEDS[row];
+            hash += hash >>> 32;
+            return (int) hash & tableMask;
+        }
+
+        // which of the 16 counters in the long, a different one per row
+        private int counterOf(int key, int row)
+        {
+            return (IntIntMap.hash(key) >>> (row << 3)) & 0xf;
+        }
+
+        private void reset()
+        {
+            for (int i = 0; i < table.length; i++)
+            {
+                table[i] = (table[i] >>> 1) & HALF_MASK;
+            }
+            additions = sampleSize / 2;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("IntLookupCache{eviction=%s, size=%d, capacity=%d, hits=%d, misses=%d, "
+                + "evictions=%d, invalidations=%d}", eviction, size, capacity, hits, misses, evictions, invalidations);
+    }
+}
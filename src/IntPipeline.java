@@ -0,0 +1,253 @@
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A lazy sequence of operations over the values of an IntList,
+ * created by IntList.view().
+ *
+ * Intermediate operations (map, filter, limit, skip) only record a stage
+ * and return a new pipeline. A terminal operation (toIntList, toArray, sum,
+ * count, forEachInt) chains the stages together into a single sink and
+ * hands it to the source list's forEachWhile, so the whole chain runs as
+ * one loop over the source buffer or nodes. No intermediate lists are
+ * built and nothing is allocated per value.
+ *
+ * A pipeline can run more than one terminal operation; each one reads the
+ * source list again as it is at that moment.
+ */
+public abstract class IntPipeline
+{
+    private final IntList source;
+    private final IntPipeline upstream;     // previous stage, or null for the source stage
+
+    private IntPipeline(IntList source, IntPipeline upstream)
+    {
+        this.source = source;
+        this.upstream = upstream;
+    }
+
+    /**
+     * Returns a pipeline that passes every value of the specified list through unchanged.
+     * @param source the list to read from
+     * @return a new pipeline over the list
+     */
+    static IntPipeline of(IntList source)
+    {
+        return new IntPipeline(source, null)
+        {
+            @Override
+            IntPredicate wrap(IntPredicate downstream)
+            {
+                return downstream;
+            }
+        };
+    }
+
+    // ---------------------------------------------------------------
+    // intermediate operations
+    // ---------------------------------------------------------------
+
+    /**
+     * Returns a pipeline whose values are the results of applying the
+     * specified function to the values of this pipeline.
+     * @param mapper the function to apply to each value
+     * @return the new pipeline
+     */
+    public IntPipeline map(IntUnaryOperator mapper)
+    {
+        return new IntPipeline(source, this)
+        {
+            @Override
+            IntPredicate wrap(IntPredicate downstream)
+            {
+                return value -> downstream.test(mapper.applyAsInt(value));
+            }
+        };
+    }
+
+    /**
+     * Returns a pipeline holding only the values of this pipeline that
+     * match the specified predicate.
+     * @param predicate the predicate a value must match to be kept
+     * @return the new pipeline
+     */
+    public IntPipeline filter(IntPredicate predicate)
+    {
+        return new IntPipeline(source, this)
+        {
+            @Override
+            IntPredicate wrap(IntPredicate downstream)
+            {
+                return value -> !predicate.test(value) || downstream.test(value);
+            }
+        };
+    }
+
+    /**
+     * Returns a pipeline holding at most the first maxSize values of this
+     * pipeline. Once maxSize values have been passed on, the walk over the
+     * source list stops.
+     * @param maxSize the number of values to keep
+     * @return the new pipeline
+     * @throws IllegalArgumentException if maxSize is negative
+     */
+    public IntPipeline limit(int maxSize)
+    {
+        if (maxSize < 0)
+        {
+            throw new IllegalArgumentException("maxSize must not be negative");
+        }
+
+        return new IntPipeline(source, this)
+        {
+            @Override
+            IntPredicate wrap(IntPredicate downstream)
+            {
+                // one counter per terminal operation, not per value
+                return new IntPredicate()
+                {
+                    private int remaining = maxSize;
+
+                    @Override
+                    public boolean test(int value)
+                    {
+                        if (remaining == 0)
+                        {
+                            return false;
+                        }
+                        remaining--;
+                        return downstream.test(value) && remaining > 0;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a pipeline that drops the first n values of this pipeline.
+     * @param n the number of values to drop
+     * @return the new pipeline
+     * @throws IllegalArgumentException if n is negative
+     */
+    public IntPipeline skip(int n)
+    {
+        if (n < 0)
+        {
+            throw new IllegalArgumentException("n must not be negative");
+        }
+
+        return new IntPipeline(source, this)
+        {
+            @Override
+            IntPredicate wrap(IntPredicate downstream)
+            {
+                return new IntPredicate()
+                {
+                    private int toSkip = n;
+
+                    @Override
+                    public boolean test(int value)
+                    {
+                        if (toSkip > 0)
+                        {
+                            toSkip--;
+                            return true;
+                        }
+                        return downstream.test(value);
+                    }
+                };
+            }
+        };
+    }
+
+    // ---------------------------------------------------------------
+    // terminal operations
+    // ---------------------------------------------------------------
+
+    /**
+     * Passes each value of this pipeline, in order, to the specified action.
+     * @param action the action to be performed for each value
+     */
+    public void forEachInt(IntConsumer action)
+    {
+        run(value -> {
+            action.accept(value);
+            return true;
+        });
+    }
+
+    /**
+     * Collects the values of this pipeline into a new ArrayIntList.
+     * @return a new list holding the values of this pipeline
+     */
+    public ArrayIntList toIntList()
+    {
+        ArrayIntList result = new ArrayIntList();
+        run(value -> {
+            result.addBack(value);
+            return true;
+        });
+        return result;
+    }
+
+    /**
+     * Collects the values of this pipeline into a new array.
+     * @return a new array holding the values of this pipeline
+     */
+    public int[] toArray()
+    {
+        return toIntList().toArray();
+    }
+
+    /**
+     * Returns the sum of the values of this pipeline. The sum is kept
+     * as a long, so it does not overflow for lists of ints.
+     * @return the sum of the values
+     */
+    public long sum()
+    {
+        long[] total = new long[1];
+        run(value -> {
+            total[0] += value;
+            return true;
+        });
+        return total[0];
+    }
+
+    /**
+     * Returns the number of values in this pipeline.
+     * @return the number of values
+     */
+    public int count()
+    {
+        int[] count = new int[1];
+        run(value -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    // ---------------------------------------------------------------
+    // internals
+    // ---------------------------------------------------------------
+
+    /**
+     * Returns a sink that applies this stage to a value and then passes the
+     * result (if any) on to downstream. A sink returns false when the walk
+     * should stop.
+     */
+    abstract IntPredicate wrap(IntPredicate downstream);
+
+    // fuse all stages, last to first, around the terminal sink, then make one pass
+    private void run(IntPredicate terminal)
+    {
+        IntPredicate sink = terminal;
+        for (IntPipeline stage = this; stage != null; stage = stage.upstream)
+        {
+            sink = stage.wrap(sink);
+        }
+        source.forEachWhile(sink);
+    }
+}
@@ -0,0 +1,70 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntPipelineTest {
+
+    private static ArrayIntList listOf10() {
+        ArrayIntList theList = new ArrayIntList();
+        for (int i = 0; i < 10; i++) {
+            theList.addBack(i);
+        }
+        return theList;
+    }
+
+    @Test
+    void mapFilterLimit() {
+        ArrayIntList theList = listOf10();
+        ArrayIntList result = theList.view()
+                .map(x -> x * 3)
+                .filter(x -> x % 2 == 0)
+                .limit(3)
+                .toIntList();
+        assertEquals("[0, 6, 12]", result.toString());
+        // the source is untouched
+        assertEquals(10, theList.size());
+    }
+
+    @Test
+    void limitStopsWalkingTheSource() {
+        ArrayIntList theList = listOf10();
+        int[] visited = new int[1];
+        int[] result = theList.view()
+                .map(x -> { visited[0]++; return x; })
+                .limit(2)
+                .toArray();
+        assertArrayEquals(new int[] {0, 1}, result);
+        assertEquals(2, visited[0]);
+    }
+
+    @Test
+    void skipAndSum() {
+        assertEquals(35, listOf10().view().skip(5).sum());
+        assertEquals(0, listOf10().view().limit(0).count());
+    }
+
+    @Test
+    void overLinkedList() {
+        LinkedIntList theList = new LinkedIntList();
+        for (int i = 0; i < 10; i++) {
+            theList.addBack(i);
+        }
+        StringBuilder sb = new StringBuilder();
+        theList.view().filter(x -> x > 6).forEachInt(sb::append);
+        assertEquals("789", sb.toString());
+    }
+
+    @Test
+    void pipelineIsLazy() {
+        ArrayIntList theList = listOf10();
+        IntPipeline evens = theList.view().filter(x -> x % 2 == 0);
+        theList.addBack(10);
+        assertEquals(6, evens.count());
+    }
+
+    @Test
+    void overSubList() {
+        ArrayIntList theList = listOf10();
+        assertEquals(3 + 4 + 5, theList.subList(3, 6).view().sum());
+    }
+}
@@ -0,0 +1,300 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A blocking first-in-first-out queue of ints for handing work between
+ * producer and consumer threads, built on the addBack/removeFront
+ * operations of a CircularIntList (a ring buffer, so both are constant time).
+ * Values are never boxed.
+ *
+ * The queue is guarded by a ReentrantLock with notEmpty/notFull Conditions
+ * rather than synchronized blocks, so a virtual thread waiting in put or
+ * take unmounts from its carrier thread instead of pinning it.
+ *
+ * A queue made with a capacity is bounded: put waits and offer fails while
+ * it is full. A queue made without one grows as needed.
+ *
+ * Consumers that can handle several values at once should use takeBatch or
+ * drainTo, which move up to maxElements values per lock acquisition.
+ */
+public class IntQueue
+{
+    private final CircularIntList values = new CircularIntList();
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * Creates an unbounded queue.
+     */
+    public IntQueue()
+    {
+        this.capacity = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Creates a queue that holds at most capacity values.
+     *
+     * @param capacity the most values the queue can hold
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public IntQueue(int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds the value at the back of the queue if there is room.
+     *
+     * @param value value to be added
+     * @return true if the value was added, false if the queue is full
+     */
+    public boolean offer(int value)
+    {
+        lock.lock();
+        try
+        {
+            if (values.size() == capacity)
+            {
+                return false;
+            }
+            enqueue(value);
+            return true;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the value at the back of the queue, waiting up to the specified
+     * time for room.
+     *
+     * @param value value to be added
+     * @param timeout how long to wait
+     * @param unit the unit of timeout
+     * @return true if the value was added, false if the time ran out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean offer(int value, long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try
+        {
+            while (values.size() == capacity)
+            {
+                if (nanos <= 0)
+                {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(value);
+            return true;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the value at the back of the queue, waiting for room if it is full.
+     *
+     * @param value value to be added
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void put(int value) throws InterruptedException
+    {
+        lock.lockInterruptibly();
+        try
+        {
+            while (values.size() == capacity)
+            {
+                notFull.await();
+            }
+            enqueue(value);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the value at the front of the queue, waiting for
+     * one if the queue is empty.
+     *
+     * @return the value that was at the front
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public int take() throws InterruptedException
+    {
+        lock.lockInterruptibly();
+        try
+        {
+            while (values.isEmpty())
+            {
+                notEmpty.await();
+            }
+            return dequeue();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the value at the front of the queue, or returns
+     * valueIfEmpty without waiting if the queue is empty.
+     *
+     * @param valueIfEmpty value to return when there is nothing to take
+     * @return the value that was at the front, or valueIfEmpty
+     */
+    public int poll(int valueIfEmpty)
+    {
+        lock.lock();
+        try
+        {
+            return values.isEmpty() ? valueIfEmpty : dequeue();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves up to maxElements values from the front of the queue to the
+     * back of target, in order, without waiting.
+     *
+     * @param target the list the values are appended to
+     * @param maxElements the most values to move, at least 1
+     * @return the number of values moved
+     * @throws IllegalArgumentException if maxElements is less than 1
+     */
+    public int drainTo(IntList target, int maxElements)
+    {
+        if (maxElements < 1)
+        {
+            throw new IllegalArgumentException("maxElements must be at least 1");
+        }
+        lock.lock();
+        try
+        {
+            return drain(target, maxElements);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the queue holds at least one value, then moves up to
+     * maxElements values to the back of target, in order.
+     *
+     * @param target the list the values are appended to
+     * @param maxElements the most values to move, at least 1
+     * @return the number of values moved, at least 1
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public int takeBatch(IntList target, int maxElements) throws InterruptedException
+    {
+        if (maxElements < 1)
+        {
+            throw new IllegalArgumentException("maxElements must be at least 1");
+        }
+        lock.lockInterruptibly();
+        try
+        {
+            while (values.isEmpty())
+            {
+                notEmpty.await();
+            }
+            return drain(target, maxElements);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of values in the queue.
+     *
+     * @return the number of values waiting
+     */
+    public int size()
+    {
+        lock.lock();
+        try
+        {
+            return values.size();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns true if the queue holds no values.
+     *
+     * @return true if the queue is empty
+     */
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the most values the queue can hold, Integer.MAX_VALUE if unbounded.
+     *
+     * @return the capacity
+     */
+    public int capacity()
+    {
+        return capacity;
+    }
+
+    // callers hold the lock
+    private void enqueue(int value)
+    {
+        values.addBack(value);
+        notEmpty.signal();
+    }
+
+    private int dequeue()
+    {
+        int value = values.get(0);
+        values.removeFront();
+        notFull.signal();
+        return value;
+    }
+
+    private int drain(IntList target, int maxElements)
+    {
+        int count = Math.min(maxElements, values.size());
+        for (int i = 0; i < count; i++)
+        {
+            target.addBack(values.get(0));
+            values.removeFront();
+        }
+        if (count > 0)
+        {
+            notFull.signalAll();    // room for up to count producers
+        }
+        return count;
+    }
+}
@@ -0,0 +1,95 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Many producers, a few batching consumers, one bounded IntQueue.
+ *
+ * Producers run on virtual threads, one per producer. Consumers are
+ * platform threads that take up to 1024 values per lock acquisition with
+ * takeBatch.
+ *
+ * usage: java IntQueueBenchmark [producers] [valuesPerProducer] [consumers] [capacity]
+ */
+public class IntQueueBenchmark
+{
+    public static void main(String[] args) throws Exception
+    {
+        int producers = (args.length > 0) ? Integer.parseInt(args[0]) : 10_000;
+        int valuesPerProducer = (args.length > 1) ? Integer.parseInt(args[1]) : 1_000;
+        int consumers = (args.length > 2) ? Integer.parseInt(args[2]) : 4;
+        int capacity = (args.length > 3) ? Integer.parseInt(args[3]) : 65_536;
+
+        IntQueue queue = new IntQueue(capacity);
+        long total = (long) producers * valuesPerProducer;
+        AtomicLong consumed = new AtomicLong();
+        AtomicLong checksum = new AtomicLong();
+
+        Thread[] consumerThreads = new Thread[consumers];
+        for (int c = 0; c < consumers; c++)
+        {
+            consumerThreads[c] = new Thread(() -> {
+                ArrayIntList batch = new ArrayIntList();
+                try
+                {
+                    while (consumed.get() < total)
+                    {
+                        batch.clear();
+                        if (queue.takeBatch(batch, 1024) > 0)
+                        {
+                            checksum.addAndGet(batch.view().sum());
+                            consumed.addAndGet(batch.size());
+                        }
+                    }
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }, "consumer-" + c);
+            consumerThreads[c].start();
+        }
+
+        ExecutorService producerPool = Executors.newVirtualThreadPerTaskExecutor();
+
+        long start = System.nanoTime();
+        for (int p = 0; p < producers; p++)
+        {
+            producerPool.execute(() -> {
+                try
+                {
+                    for (int i = 0; i < valuesPerProducer; i++)
+                    {
+                        queue.put(i);
+                    }
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        producerPool.shutdown();
+        producerPool.awaitTermination(1, TimeUnit.HOURS);
+
+        while (consumed.get() < total)
+        {
+            Thread.sleep(1);
+        }
+        long nanos = System.nanoTime() - start;
+
+        // consumers that lost the race for the last batch are still waiting on the empty queue
+        for (Thread consumer : consumerThreads)
+        {
+            consumer.interrupt();
+            consumer.join();
+        }
+
+        long expectedChecksum = (long) producers * ((long) valuesPerProducer * (valuesPerProducer - 1) / 2);
+        System.out.printf("%d virtual producers, %d consumers, capacity %d%n", producers, consumers, capacity);
+        System.out.printf("%d values in %.1f ms: %.1f M values/s (checksum %s)%n",
+                consumed.get(), nanos / 1e6, consumed.get() / (nanos / 1e3),
+                (checksum.get() == expectedChecksum) ? "ok" : "MISMATCH");
+    }
+}
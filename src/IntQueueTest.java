@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntQueueTest {
+
+    @Test
+    void boundedQueueRefusesWhenFull() throws InterruptedException {
+        IntQueue queue = new IntQueue(2);
+        assertTrue(queue.offer(1));
+        assertTrue(queue.offer(2));
+        assertFalse(queue.offer(3));
+        assertFalse(queue.offer(3, 10, TimeUnit.MILLISECONDS));
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.take());
+        assertEquals(2, queue.poll(-1));
+        assertEquals(-1, queue.poll(-1));
+        assertTrue(queue.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new IntQueue(0));
+    }
+
+    @Test
+    void unboundedQueueGrowsAndDrainsInOrder() {
+        IntQueue queue = new IntQueue();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(queue.offer(i));
+        }
+        ArrayIntList batch = new ArrayIntList();
+        assertEquals(300, queue.drainTo(batch, 300));
+        assertEquals(700, queue.drainTo(batch, 5000));
+        assertEquals(0, queue.drainTo(batch, 10));
+        assertThrows(IllegalArgumentException.class, () -> queue.drainTo(batch, -5));
+        assertThrows(IllegalArgumentException.class, () -> queue.drainTo(batch, 0));
+        assertEquals(1000, batch.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, batch.get(i));
+        }
+    }
+
+    @Test
+    void producersAndBatchingConsumerSeeEveryValue() throws InterruptedException {
+        IntQueue queue = new IntQueue(16);
+        int producers = 8;
+        int perProducer = 2000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread producer = new Thread(() -> {
+                try {
+                    for (int i = 1; i <= perProducer; i++) {
+                        queue.put(i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(producer);
+            producer.start();
+        }
+
+        ArrayIntList received = new ArrayIntList();
+        while (received.size() < producers * perProducer) {
+            assertTrue(queue.takeBatch(received, 64) >= 1);
+        }
+        for (Thread producer : threads) {
+            producer.join();
+        }
+        assertEquals((long) producers * perProducer * (perProducer + 1) / 2, received.view().sum());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void takeWaitsForAValue() throws InterruptedException {
+        IntQueue queue = new IntQueue(1);
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+                queue.put(42);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        assertEquals(42, queue.take());
+        producer.join();
+    }
+}
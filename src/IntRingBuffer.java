@@ -0,0 +1,443 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A preallocated ring of int slots that one producer thread fills and any
+ * number of consumers read, each at its own pace, in the style of the LMAX
+ * Disruptor.
+ *
+ * Like CircularIntList, the slots are an int[] whose length is a power of
+ * two, so a sequence number maps to its slot with a mask. Unlike a queue,
+ * nothing is handed off per value: the producer claims sequences, writes
+ * the slots and publishes by moving one cursor; a consumer reads every
+ * slot between its own sequence and the cursor as one batch, then moves
+ * its sequence once. The producer only waits when it would overwrite a
+ * slot the slowest consumer has not read yet.
+ *
+ * The cursor and every consumer sequence are padded to sit alone on their
+ * cache lines, so the producer and the consumers do not slow each other
+ * down through false sharing.
+ *
+ * Only one thread may call next, set and the publish methods. Consumers must be added
+ * before the producer starts.
+ */
+public class IntRingBuffer
+{
+    /**
+     * How a thread waits for the cursor (consumers) or for the slowest
+     * consumer (producer) to move.
+     */
+    public enum WaitStrategy
+    {
+        /** Spins on the CPU: lowest latency, burns a core per waiting thread. */
+        BUSY_SPIN
+        {
+            @Override
+            void idle(int attempt)
+            {
+                Thread.onSpinWait();
+            }
+        },
+
+        /** Spins briefly, then yields the CPU to other threads. */
+        YIELD
+        {
+            @Override
+            void idle(int attempt)
+            {
+                if (attempt < 100)
+                {
+                    Thread.onSpinWait();
+                }
+                else
+                {
+                    Thread.yield();
+                }
+            }
+        },
+
+        /** Spins briefly, then parks for a microsecond at a time: cheapest on CPU. */
+        PARK
+        {
+            @Override
+            void idle(int attempt)
+            {
+                if (attempt < 100)
+                {
+                    Thread.onSpinWait();
+                }
+                else
+                {
+                    LockSupport.parkNanos(1_000);
+                }
+            }
+        };
+
+        abstract void idle(int attempt);
+    }
+
+    /**
+     * Receives the values of a batch, one call per value.
+     */
+    @FunctionalInterface
+    public interface EventHandler
+    {
+        /**
+         * @param value the value in the slot
+         * @param sequence the sequence number of the slot
+         * @param endOfBatch true for the last value of the batch, a good time to flush
+         */
+        void onEvent(int value, long sequence, boolean endOfBatch);
+    }
+
+    // internal (private) representation
+    private final int[] buffer;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final Sequence cursor = new Sequence(-1);   // last published sequence
+    private volatile Sequence[] gatingSequences = new Sequence[0];
+
+    // producer-only state, never read by consumers
+    private long nextSequence = -1;     // last claimed sequence
+    private long cachedGate = -1;       // slowest consumer sequence last seen by the producer
+
+    /**
+     * Creates a ring buffer.
+     *
+     * @param capacity number of slots, a power of two
+     * @param waitStrategy how waiting threads idle
+     * @throws IllegalArgumentException if capacity is not a power of two
+     */
+    public IntRingBuffer(int capacity, WaitStrategy waitStrategy)
+    {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1)
+        {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.buffer = new int[capacity];
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return the capacity
+     */
+    public int capacity()
+    {
+        return buffer.length;
+    }
+
+    /**
+     * Returns the last published sequence, -1 if nothing was published yet.
+     *
+     * @return the cursor
+     */
+    public long cursor()
+    {
+        return cursor.get();
+    }
+
+    // ---------------------------------------------------------------
+    // producer
+    // ---------------------------------------------------------------
+
+    /**
+     * Claims the next sequence, waiting while the ring is full.
+     *
+     * @return the claimed sequence
+     */
+    public long next()
+    {
+        return next(1);
+    }
+
+    /**
+     * Claims the next n sequences, waiting while the ring lacks room for them.
+     *
+     * @param n the number of sequences to claim, from 1 to capacity()
+     * @return the highest claimed sequence; the first is that minus n-1
+     */
+    public long next(int n)
+    {
+        if (n < 1 || n > buffer.length)
+        {
+            throw new IllegalArgumentException("n must be between 1 and capacity");
+        }
+        long claimed = nextSequence + n;
+        long wrapPoint = claimed - buffer.length;
+        if (wrapPoint > cachedGate)
+        {
+            int attempt = 0;
+            long gate;
+            while (wrapPoint > (gate = minimumGatingSequence(claimed)))
+            {
+                waitStrategy.idle(attempt++);
+            }
+            cachedGate = gate;
+        }
+        nextSequence = claimed;
+        return claimed;
+    }
+
+    /**
+     * Writes the value into the slot of a claimed sequence.
+     *
+     * @param sequence a sequence returned by next and not yet published
+     * @param value the value to store
+     */
+    public void set(long sequence, int value)
+    {
+        buffer[(int) sequence & mask] = value;
+    }
+
+    /**
+     * Makes every claimed sequence up to and including sequence visible
+     * to the consumers.
+     *
+     * @param sequence the highest sequence to publish
+     */
+    public void publish(long sequence)
+    {
+        cursor.setRelease(sequence);
+    }
+
+    /**
+     * Claims one sequence, stores the value and publishes it.
+     *
+     * @param value the value to publish
+     */
+    public void publishValue(int value)
+    {
+        long sequence = next();
+        set(sequence, value);
+        publish(sequence);
+    }
+
+    /**
+     * Publishes length values of the array as one batch: one claim and
+     * one cursor update for the whole run.
+     *
+     * @param values array holding the values to publish
+     * @param offset position in values of the first value
+     * @param length number of values, from 1 to capacity()
+     */
+    public void publishValues(int[] values, int offset, int length)
+    {
+        IntSubList.checkRange(offset, offset + length, values.length);
+        long last = next(length);
+        for (long sequence = last - length + 1, i = offset; sequence <= last; sequence++, i++)
+        {
+            buffer[(int) sequence & mask] = values[(int) i];
+        }
+        publish(last);
+    }
+
+    // ---------------------------------------------------------------
+    // consumers
+    // ---------------------------------------------------------------
+
+    /**
+     * Adds a consumer that starts after the last published value. The
+     * producer will not overwrite a slot until every consumer has read it.
+     *
+     * @return the new consumer
+     */
+    public synchronized Consumer addConsumer()
+    {
+        Consumer consumer = new Consumer(cursor.get());
+        Sequence[] gates = Arrays.copyOf(gatingSequences, gatingSequences.length + 1);
+        gates[gates.length - 1] = consumer.sequence;
+        gatingSequences = gates;
+        return consumer;
+    }
+
+    /**
+     * Returns the values that have been published but not yet read by
+     * every consumer, oldest first. The copy is taken while the producer
+     * and consumers keep running, so values consumed meanwhile are left out.
+     *
+     * @return a new list of the unconsumed values
+     */
+    public IntList snapshotUnconsumed()
+    {
+        long published = cursor.get();
+        ArrayIntList snapshot = new ArrayIntList();
+        long from = minimumGatingSequence(published) + 1;
+        for (long sequence = from; sequence <= published; sequence++)
+        {
+            snapshot.addBack(buffer[(int) sequence & mask]);
+        }
+
+        // a slot can only be reused once every consumer is past it, so any
+        // value copied after the slowest consumer moved on may be stale. The
+        // slot reads are plain, so without the fence they could move after
+        // the gate loads below and a value overwritten after them be kept
+        VarHandle.acquireFence();
+        long stillUnread = minimumGatingSequence(published) + 1;
+        if (stillUnread > from)
+        {
+            snapshot.subList(0, (int) Math.min(stillUnread - from, snapshot.size())).clear();
+        }
+        return snapshot;
+    }
+
+    private long minimumGatingSequence(long defaultValue)
+    {
+        long minimum = defaultValue;
+        for (Sequence gate : gatingSequences)
+        {
+            minimum = Math.min(minimum, gate.get());
+        }
+        return minimum;
+    }
+
+    /**
+     * One reader of the ring. Each consumer sees every published value, in
+     * order, and must be used from one thread at a time.
+     */
+    public final class Consumer
+    {
+        private final Sequence sequence;    // last sequence this consumer has read
+
+        private Consumer(long start)
+        {
+            this.sequence = new Sequence(start);
+        }
+
+        /**
+         * Hands every value published since the last call to handler, as
+         * one batch, then marks them read. Does not wait.
+         *
+         * @param handler receives each value
+         * @return the number of values handled
+         */
+        public int poll(EventHandler handler)
+        {
+            return process(handler, cursor.get());
+        }
+
+        /**
+         * Waits until at least one value is published past this consumer,
+         * then handles everything available as one batch.
+         *
+         * @param handler receives each value
+         * @return the number of values handled, at least 1
+         */
+        public int waitAndPoll(EventHandler handler)
+        {
+            long next = sequence.get() + 1;
+            int attempt = 0;
+            long available;
+            while ((available = cursor.get()) < next)
+            {
+                waitStrategy.idle(attempt++);
+            }
+            return process(handler, available);
+        }
+
+        /**
+         * Copies up to maxElements unread values to the back of target, in
+         * order, then marks them read. Does not wait.
+         *
+         * @param target the list the values are appended to
+         * @param maxElements the most values to copy
+         * @return the number of values copied
+         */
+        public int drainTo(IntList target, int maxElements)
+        {
+            long first = sequence.get() + 1;
+            long last = Math.min(cursor.get(), first + maxElements - 1);
+            for (long s = first; s <= last; s++)
+            {
+                target.addBack(buffer[(int) s & mask]);
+            }
+            if (last >= first)
+            {
+                sequence.setRelease(last);
+            }
+            return (int) Math.max(0, last - first + 1);
+        }
+
+        /**
+         * Returns the last sequence this consumer has read.
+         *
+         * @return the consumer's sequence
+         */
+        public long sequence()
+        {
+            return sequence.get();
+        }
+
+        private int process(EventHandler handler, long available)
+        {
+            long first = sequence.get() + 1;
+            for (long s = first; s <= available; s++)
+            {
+                handler.onEvent(buffer[(int) s & mask], s, s == available);
+            }
+            if (available >= first)
+            {
+                sequence.setRelease(available);     // one store for the whole batch
+            }
+            return (int) Math.max(0, available - first + 1);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // padded sequence counter
+    // ---------------------------------------------------------------
+
+    // 7 longs on each side keep value on a 64-byte cache line of its own;
+    // the class hierarchy stops the JVM from reordering the fields
+    private static class LeftPadding
+    {
+        protected long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    private static class Value extends LeftPadding
+    {
+        protected volatile long value;
+    }
+
+    private static class RightPadding extends Value
+    {
+        protected long p9, p10, p11, p12, p13, p14, p15;
+    }
+
+    private static final class Sequence extends RightPadding
+    {
+        private static final VarHandle VALUE;
+
+        static
+        {
+            try
+            {
+                VALUE = MethodHandles.lookup().findVarHandle(Value.class, "value", long.class);
+            }
+            catch (ReflectiveOperationException e)
+            {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        Sequence(long initial)
+        {
+            value = initial;
+        }
+
+        long get()
+        {
+            return value;
+        }
+
+        // cheaper than a volatile write: earlier writes (the slots) become visible first
+        void setRelease(long newValue)
+        {
+            VALUE.setRelease(this, newValue);
+        }
+    }
+}
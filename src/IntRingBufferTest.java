@@ -0,0 +1,102 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntRingBufferTest {
+
+    @Test
+    void capacityMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new IntRingBuffer(12, IntRingBuffer.WaitStrategy.PARK));
+        assertEquals(16, new IntRingBuffer(16, IntRingBuffer.WaitStrategy.PARK).capacity());
+    }
+
+    @Test
+    void consumerReadsWholeBatches() {
+        IntRingBuffer ring = new IntRingBuffer(8, IntRingBuffer.WaitStrategy.BUSY_SPIN);
+        IntRingBuffer.Consumer consumer = ring.addConsumer();
+        ring.publishValues(new int[] {1, 2, 3, 4, 5}, 0, 5);
+        assertEquals("[1, 2, 3, 4, 5]", ring.snapshotUnconsumed().toString());
+
+        ArrayIntList seen = new ArrayIntList();
+        int[] ends = {0};
+        assertEquals(5, consumer.poll((value, sequence, endOfBatch) -> {
+            seen.addBack(value);
+            assertEquals(value - 1, sequence);
+            if (endOfBatch) {
+                ends[0]++;
+            }
+        }));
+        assertEquals(1, ends[0]);
+        assertEquals("[1, 2, 3, 4, 5]", seen.toString());
+        assertEquals(0, consumer.poll((value, sequence, endOfBatch) -> fail("nothing new was published")));
+        assertTrue(ring.snapshotUnconsumed().isEmpty());
+
+        ring.publishValue(6);
+        ring.publishValue(7);
+        ArrayIntList drained = new ArrayIntList();
+        assertEquals(1, consumer.drainTo(drained, 1));
+        assertEquals("[7]", ring.snapshotUnconsumed().toString());
+        assertEquals(1, consumer.drainTo(drained, 10));
+        assertEquals("[6, 7]", drained.toString());
+    }
+
+    @Test
+    void producerWaitsForSlowestConsumer() {
+        // a consumer that dies stops advancing, and the producer would wait for it forever
+        assertTimeoutPreemptively(Duration.ofMinutes(1), () -> {
+            for (IntRingBuffer.WaitStrategy strategy : IntRingBuffer.WaitStrategy.values()) {
+                IntRingBuffer ring = new IntRingBuffer(64, strategy);
+                IntRingBuffer.Consumer first = ring.addConsumer();
+                IntRingBuffer.Consumer second = ring.addConsumer();
+                // a spinning thread holds on to the CPU until its time slice ends, so on a
+                // machine with fewer cores than threads every hand-over is slow
+                int count = (strategy == IntRingBuffer.WaitStrategy.BUSY_SPIN) ? 5_000 : 100_000;
+
+                long[] sums = new long[2];
+                Thread[] consumers = new Thread[2];
+                IntRingBuffer.Consumer[] both = {first, second};
+                AtomicReference<Throwable> failure = new AtomicReference<>();
+                for (int c = 0; c < 2; c++) {
+                    int index = c;
+                    consumers[c] = new Thread(() -> {
+                        try {
+                            long[] expected = {0};
+                            while (both[index].sequence() < count - 1) {
+                                both[index].waitAndPoll((value, sequence, endOfBatch) -> {
+                                    // recorded rather than thrown, so this consumer keeps up with the producer
+                                    if (sequence != expected[0]) {
+                                        failure.compareAndSet(null, new AssertionError(
+                                                "expected sequence " + expected[0] + " but was " + sequence));
+                                    }
+                                    expected[0] = sequence + 1;
+                                    sums[index] += value;
+                                });
+                            }
+                        } catch (Throwable e) {
+                            failure.compareAndSet(null, e);
+                        }
+                    });
+                    consumers[c].setDaemon(true);
+                    consumers[c].start();
+                }
+
+                for (int i = 0; i < count; i++) {
+                    ring.publishValue(i);
+                }
+                for (Thread consumer : consumers) {
+                    consumer.join();
+                }
+                if (failure.get() != null) {
+                    fail(strategy + " consumer failed", failure.get());
+                }
+                long expectedSum = (long) count * (count - 1) / 2;
+                assertEquals(expectedSum, sums[0]);
+                assertEquals(expectedSum, sums[1]);
+                assertEquals(count - 1, ring.cursor());
+            }
+        });
+    }
+}
@@ -0,0 +1,299 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * A set of ints, without boxing.
+ *
+ * Values live in one int array using open addressing with linear probing,
+ * the same flat-buffer layout as ArrayIntList and IntIntMap. The value 0
+ * marks an empty slot, so whether the set holds 0 itself is kept in a
+ * separate flag. The table doubles when the number of values passes the
+ * load factor.
+ */
+public class IntSet
+{
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int mask;           // keys.length - 1, the table length is a power of two
+    private int size;           // number of values, including 0
+    private int resizeAt;       // grow when size passes this
+    private final float loadFactor;
+
+    private boolean hasZero;
+
+    public IntSet()
+    {
+        this(0, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates an empty set sized to hold expectedSize values without growing.
+     *
+     * @param expectedSize the number of values the set should hold before growing
+     * @param loadFactor the fraction of slots that may be in use, between 0 and 1 (exclusive)
+     * @throws IllegalArgumentException if expectedSize is negative or loadFactor is out of range
+     */
+    public IntSet(int expectedSize, float loadFactor)
+    {
+        if (expectedSize < 0)
+        {
+            throw new IllegalArgumentException("expectedSize must not be negative");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1))
+        {
+            throw new IllegalArgumentException("loadFactor must be between 0 and 1");
+        }
+
+        this.loadFactor = loadFactor;
+        allocate(IntIntMap.capacityFor(expectedSize, loadFactor));
+    }
+
+    /**
+     * Returns a set holding the values of the specified list, sized up front
+     * so building it never has to grow the table.
+     *
+     * @param list the list whose values are to be placed in the set
+     * @return a new set holding the values of the list
+     */
+    public static IntSet of(IntList list) // linear time O(size)
+    {
+        IntSet set = new IntSet(list.size(), DEFAULT_LOAD_FACTOR);
+        list.forEachInt(set::add);
+        return set;
+    }
+
+    /**
+     * Adds the specified value to this set if it is not already present.
+     *
+     * @param value value to be added
+     * @return true if the set did not already contain the value
+     */
+    public boolean add(int value) // O(1) expected
+    {
+        if (value == 0)
+        {
+            if (hasZero)
+            {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+
+        int slot = find(value);
+        if (keys[slot] != 0)
+        {
+            return false;
+        }
+
+        keys[slot] = value;
+        size++;
+        if (size > resizeAt)
+        {
+            rehash(2 * keys.length);
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if this set contains the specified value.
+     *
+     * @param value value whose presence in this set is to be tested
+     * @return true if this set contains the value
+     */
+    public boolean contains(int value) // O(1) expected
+    {
+        if (value == 0)
+        {
+            return hasZero;
+        }
+        return keys[find(value)] != 0;
+    }
+
+    /**
+     * Removes the specified value from this set, if it is present.
+     *
+     * @param value value to be removed
+     * @return true if the set contained the value
+     */
+    public boolean remove(int value) // O(1) expected
+    {
+        if (value == 0)
+        {
+            if (!hasZero)
+            {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+
+        int slot = find(value);
+        if (keys[slot] == 0)
+        {
+            return false;
+        }
+
+        // shift later values of the same probe run back into the gap
+        int gap = slot;
+        int current = (gap + 1) & mask;
+        while (keys[current] != 0)
+        {
+            int home = IntIntMap.hash(keys[current]) & mask;
+            if (((current - home) & mask) >= ((current - gap) & mask))
+            {
+                keys[gap] = keys[current];
+                gap = current;
+            }
+            current = (current + 1) & mask;
+        }
+        keys[gap] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the number of values in this set.
+     *
+     * @return the number of values in this set
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true if this set contains no values.
+     *
+     * @return true if this set contains no values
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes all the values from this set, keeping its current capacity.
+     */
+    public void clear()
+    {
+        Arrays.fill(keys, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * Passes each value in this set, in no particular order, to the specified
+     * action until the action returns false or every value has been visited.
+     *
+     * @param action the action to be performed for each value
+     * @return true if every value was visited, false if the action stopped the walk
+     */
+    public boolean forEachWhile(IntPredicate action)
+    {
+        if (hasZero && !action.test(0))
+        {
+            return false;
+        }
+        for (int slot = 0; slot < keys.length; slot++)
+        {
+            if (keys[slot] != 0 && !action.test(keys[slot]))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Passes each value in this set, in no particular order, to the specified action.
+     *
+     * @param action the action to be performed for each value
+     */
+    public void forEachInt(IntConsumer action)
+    {
+        forEachWhile(value -> {
+            action.accept(value);
+            return true;
+        });
+    }
+
+    /**
+     * Returns an array holding the values of this set, in no particular order.
+     *
+     * @return a new array holding the values of this set
+     */
+    public int[] toArray()
+    {
+        int[] result = new int[size];
+        int[] position = new int[1];
+        forEachInt(value -> result[position[0]++] = value);
+        return result;
+    }
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return the number of slots in the table
+     */
+    public int capacity()
+    {
+        return keys.length;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        forEachInt(value -> {
+            if (sb.length() > 1)
+            {
+                sb.append(", ");
+            }
+            sb.append(value);
+        });
+        sb.append("}");
+        return sb.toString();
+    }
+
+    // ---------------------------------------------------------------
+    // table internals
+    // ---------------------------------------------------------------
+
+    private void allocate(int capacity)
+    {
+        keys = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    private void rehash(int capacity) // linear time O(capacity)
+    {
+        int[] oldKeys = keys;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] != 0)
+            {
+                keys[find(oldKeys[i])] = oldKeys[i];
+            }
+        }
+    }
+
+    // slot holding value, or the empty slot where it would go (value must not be 0)
+    private int find(int value)
+    {
+        int slot = IntIntMap.hash(value) & mask;
+        while (keys[slot] != 0 && keys[slot] != value)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
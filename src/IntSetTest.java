@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntSetTest {
+
+    @Test
+    void addContainsRemove() {
+        IntSet set = new IntSet();
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.add(0));
+        assertTrue(set.add(-5));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-5));
+        assertFalse(set.contains(7));
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void matchesHashSet() {
+        Random random = new Random(3);
+        IntSet set = new IntSet(4, 0.75f);
+        HashSet<Integer> oracle = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(500) - 250;
+            if (random.nextBoolean()) {
+                assertEquals(oracle.add(value), set.add(value));
+            } else {
+                assertEquals(oracle.remove(value), set.remove(value));
+            }
+            assertEquals(oracle.size(), set.size());
+        }
+        for (int value = -250; value < 250; value++) {
+            assertEquals(oracle.contains(value), set.contains(value));
+        }
+    }
+
+    @Test
+    void badLoadFactor() {
+        assertThrows(IllegalArgumentException.class, () -> new IntSet(10, 1.0f));
+    }
+
+    @Test
+    void intIntMapCounts() {
+        IntIntMap map = new IntIntMap();
+        map.addTo(0, 1);
+        map.addTo(0, 1);
+        map.addTo(9, 5);
+        assertEquals(2, map.getOrDefault(0, -1));
+        assertEquals(5, map.getOrDefault(9, -1));
+        assertEquals(-1, map.getOrDefault(3, -1));
+        assertTrue(map.remove(9));
+        assertFalse(map.containsKey(9));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void distinctAndFrequencies() {
+        ArrayIntList list = new ArrayIntList();
+        int[] values = {3, 1, 3, 0, 1, 3};
+        for (int value : values) {
+            list.addBack(value);
+        }
+        assertEquals("[3, 1, 0]", list.distinct().toString());
+        IntIntMap counts = list.frequencies();
+        assertEquals(3, counts.getOrDefault(3, 0));
+        assertEquals(2, counts.getOrDefault(1, 0));
+        assertEquals(1, counts.getOrDefault(0, 0));
+    }
+
+    @Test
+    void removeAllAndRetainAll() {
+        IntList[] lists = {new ArrayIntList(), new LinkedIntList()};
+        for (IntList list : lists) {
+            for (int i = 0; i < 10; i++) {
+                list.addBack(i % 5);
+            }
+            ArrayIntList other = new ArrayIntList();
+            other.addBack(0);
+            other.addBack(3);
+            assertTrue(list.removeAll(other));
+            assertEquals("[1, 2, 4, 1, 2, 4]", list.toString());
+            assertEquals(6, list.size());
+            other.addBack(4);
+            assertTrue(list.retainAll(other));
+            assertEquals("[4, 4]", list.toString());
+            assertFalse(list.retainAll(other));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Count, sum, min, max, mean and variance of a group of ints, as returned
+ * by IntList.statistics() and IntList.parallelStatistics().
+ *
+ * Partial results for separate chunks are merged with combine, which uses
+ * the pairwise update of Chan et al. for the variance, so chunks can be
+ * computed in any order or in parallel without losing precision.
+ *
+ * Like IntSummaryStatistics, an empty group has a min of Integer.MAX_VALUE,
+ * a max of Integer.MIN_VALUE and a mean of 0.
+ */
+public final class IntStatistics
+{
+    private final long count;
+    private final long sum;
+    private final int min;
+    private final int max;
+    private final double mean;
+    private final double squaredDeviations;    // sum of (value - mean)^2
+
+    IntStatistics(long count, long sum, int min, int max, double mean, double squaredDeviations)
+    {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+        this.squaredDeviations = squaredDeviations;
+    }
+
+    static final IntStatistics EMPTY = new IntStatistics(0, 0, Integer.MAX_VALUE, Integer.MIN_VALUE, 0, 0);
+
+    /**
+     * Computes the statistics of values[from, to) with two passes over the
+     * range: one for sum, min and max, one for the squared deviations.
+     */
+    static IntStatistics of(int[] values, int from, int to)
+    {
+        if (from == to)
+        {
+            return EMPTY;
+        }
+
+        long sum = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = from; i < to; i++)
+        {
+            int value = values[i];
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        long count = to - from;
+        double mean = (double) sum / count;
+        double squaredDeviations = 0;
+        for (int i = from; i < to; i++)
+        {
+            double deviation = values[i] - mean;
+            squaredDeviations += deviation * deviation;
+        }
+        return new IntStatistics(count, sum, min, max, mean, squaredDeviations);
+    }
+
+    /**
+     * Merges the statistics of two disjoint groups.
+     */
+    static IntStatistics combine(IntStatistics a, IntStatistics b)
+    {
+        if (a.count == 0)
+        {
+            return b;
+        }
+        if (b.count == 0)
+        {
+            return a;
+        }
+        long count = a.count + b.count;
+        double delta = b.mean - a.mean;
+        double mean = a.mean + delta * b.count / count;
+        double squaredDeviations = a.squaredDeviations + b.squaredDeviations
+                + delta * delta * ((double) a.count * b.count / count);
+        return new IntStatistics(count, a.sum + b.sum, Math.min(a.min, b.min), Math.max(a.max, b.max),
+                mean, squaredDeviations);
+    }
+
+    /**
+     * @return the number of values
+     */
+    public long count()
+    {
+        return count;
+    }
+
+    /**
+     * @return the sum of the values, which cannot overflow for fewer than 2^32 values
+     */
+    public long sum()
+    {
+        return sum;
+    }
+
+    /**
+     * @return the smallest value
+     */
+    public int min()
+    {
+        return min;
+    }
+
+    /**
+     * @return the largest value
+     */
+    public int max()
+    {
+        return max;
+    }
+
+    /**
+     * @return the arithmetic mean of the values
+     */
+    public double mean()
+    {
+        return mean;
+    }
+
+    /**
+     * @return the population variance (divided by count), or 0 for an empty group
+     */
+    public double variance()
+    {
+        return (count == 0) ? 0 : squaredDeviations / count;
+    }
+
+    /**
+     * @return the sample variance (divided by count - 1), or 0 for fewer than two values
+     */
+    public double sampleVariance()
+    {
+        return (count < 2) ? 0 : squaredDeviations / (count - 1);
+    }
+
+    /**
+     * @return the population standard deviation
+     */
+    public double standardDeviation()
+    {
+        return Math.sqrt(variance());
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("IntStatistics{count=%d, sum=%d, min=%d, max=%d, mean=%f, variance=%f}",
+                count, sum, min, max, mean, variance());
+    }
+}
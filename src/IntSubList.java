@@ -0,0 +1,235 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A view of a range of another IntList, used by the default
+ * IntList.subList(int, int). Every operation is forwarded to the
+ * backing list with the view's offset added to the index.
+ *
+ * The backing list does not expose a modification count, so this view
+ * only notices a foreign structural change when the backing list's size
+ * no longer matches what the view expects. ArrayIntList and LinkedIntList
+ * return their own views, which detect every structural change.
+ */
+class IntSubList implements IntList
+{
+    private final IntList backing;
+    private final IntSubList parent;    // enclosing view, or null if this is a view of the list itself
+    private final int offset;           // index in the backing list of this view's index 0
+    private int size;
+    private int expectedBackingSize;
+
+    IntSubList(IntList backing, int offset, int size)
+    {
+        this(backing, null, offset, size);
+    }
+
+    private IntSubList(IntList backing, IntSubList parent, int offset, int size)
+    {
+        this.backing = backing;
+        this.parent = parent;
+        this.offset = offset;
+        this.size = size;
+        this.expectedBackingSize = backing.size();
+    }
+
+    /**
+     * Checks the arguments of a subList(fromIndex, toIndex) call.
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    static void checkRange(int fromIndex, int toIndex, int size)
+    {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+        {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex
+                    + ") out of bounds for size " + size);
+        }
+    }
+
+    @Override
+    public void addFront(int value)
+    {
+        add(0, value);
+    }
+
+    @Override
+    public void addBack(int value)
+    {
+        add(size, value);
+    }
+
+    @Override
+    public void add(int index, int value)
+    {
+        checkForComodification();
+        if (index < 0 || index > size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+
+        backing.add(offset + index, value);
+        updateSize(1);
+    }
+
+    @Override
+    public void removeFront()
+    {
+        checkForComodification();
+        if (size == 0)
+        {
+            throw new IllegalStateException("List is empty");
+        }
+        remove(0);
+    }
+
+    @Override
+    public void removeBack()
+    {
+        checkForComodification();
+        if (size == 0)
+        {
+            throw new IllegalStateException("Already empty!");
+        }
+        remove(size - 1);
+    }
+
+    @Override
+    public int remove(int index)
+    {
+        checkForComodification();
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+
+        int removedValue = backing.remove(offset + index);
+        updateSize(-1);
+        return removedValue;
+    }
+
+    @Override
+    public int get(int index)
+    {
+        checkForComodification();
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        return backing.get(offset + index);
+    }
+
+    @Override
+    public boolean contains(int value)
+    {
+        return indexOf(value) != -1;
+    }
+
+    @Override
+    public int indexOf(int value)
+    {
+        checkForComodification();
+        for (int i = 0; i < size; i++)
+        {
+            if (backing.get(offset + i) == value)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        checkForComodification();
+        return size == 0;
+    }
+
+    @Override
+    public int size()
+    {
+        checkForComodification();
+        return size;
+    }
+
+    @Override
+    public long bytesUsed()
+    {
+        // backing and parent references, offset, size and expectedBackingSize
+        return IntListFootprint.object(2 * IntListFootprint.REFERENCE + 3 * Integer.BYTES);
+    }
+
+    @Override
+    public void clear()
+    {
+        checkForComodification();
+        int removed = size;
+        for (int i = 0; i < removed; i++)
+        {
+            backing.remove(offset + removed - 1 - i);
+        }
+        updateSize(-removed);
+    }
+
+    @Override
+    public IntList subList(int fromIndex, int toIndex)
+    {
+        checkForComodification();
+        checkRange(fromIndex, toIndex, size);
+        return new IntSubList(backing, this, offset + fromIndex, toIndex - fromIndex);
+    }
+
+    @Override
+    public Iterator<Integer> iterator()
+    {
+        checkForComodification();
+        return new Iterator<Integer>()
+        {
+            private int currentPosition = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return currentPosition < size;
+            }
+
+            @Override
+            public Integer next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                return get(currentPosition++);
+            }
+        };
+    }
+
+    @Override
+    public String toString()
+    {
+        checkForComodification();
+        return IntListFormat.toString(this, Integer.MAX_VALUE);
+    }
+
+    private void checkForComodification()
+    {
+        if (backing.size() != expectedBackingSize)
+        {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    // a write through this view also changes the size of every enclosing view
+    private void updateSize(int delta)
+    {
+        IntSubList view = this;
+        while (view != null)
+        {
+            view.size += delta;
+            view.expectedBackingSize = backing.size();
+            view = view.parent;
+        }
+    }
+}
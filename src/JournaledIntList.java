@@ -0,0 +1,661 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A durable IntList: an ArrayIntList whose every mutation is also recorded
+ * in a write-ahead log (see IntListJournal) in a directory of its own.
+ *
+ * Each mutation is checked first, so an invalid call (a bad index,
+ * removing from an empty list) throws without being logged. It is then
+ * logged and only then applied to the list, so if the journal has failed
+ * or been closed the append throws and the list is left as it was. The
+ * record goes into a batch that the journal forces to disk once per fsync
+ * interval. With waitForDurability on, each mutation returns only after
+ * its batch has been forced (group commit: many threads share one fsync);
+ * with it off, mutations return at once and a crash can lose up to one
+ * interval of changes.
+ *
+ * checkpoint() writes a snapshot and starts a fresh log, so recovery only
+ * replays what happened since. Once the current log grows past
+ * compactThresholdBytes a checkpoint runs on a background thread.
+ *
+ * All operations are guarded by one lock, so the list can be shared between threads.
+ */
+public class JournaledIntList implements IntList, Closeable
+{
+    private static final Logger LOGGER = Logger.getLogger(JournaledIntList.class.getName());
+
+    private final Path directory;
+    private final ArrayIntList list;
+    private final IntListJournal journal;
+    private final boolean waitForDurability;
+    private final long compactThresholdBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ExecutorService compactor;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    private JournaledIntList(Path directory, ArrayIntList list, IntListJournal journal,
+                             boolean waitForDurability, long compactThresholdBytes)
+    {
+        this.directory = directory;
+        this.list = list;
+        this.journal = journal;
+        this.waitForDurability = waitForDurability;
+        this.compactThresholdBytes = compactThresholdBytes;
+        this.compactor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "JournaledIntList-compactor-" + directory.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens (or creates) the journaled list stored in the specified directory
+     * with the default settings: fsync every 10 ms, wait for durability,
+     * compact once the log passes 64 MB.
+     *
+     * @param directory the directory holding the snapshot and log files
+     * @return the recovered list
+     * @throws IOException if the files cannot be read or created
+     */
+    public static JournaledIntList open(Path directory) throws IOException
+    {
+        return open(directory, 10, true, 64L << 20);
+    }
+
+    /**
+     * Opens (or creates) the journaled list stored in the specified directory.
+     * The last snapshot is loaded and every log written after it is replayed,
+     * ignoring a record cut short by a crash at the end of a log.
+     *
+     * @param directory the directory holding the snapshot and log files
+     * @param fsyncIntervalMillis how long a batch of records may build up before it is forced
+     * @param waitForDurability true to make each mutation wait until its record is forced
+     * @param compactThresholdBytes log size that triggers a background checkpoint
+     * @return the recovered list
+     * @throws IOException if the files cannot be read or created
+     */
+    public static JournaledIntList open(Path directory, long fsyncIntervalMillis,
+                                        boolean waitForDurability, long compactThresholdBytes) throws IOException
+    {
+        Files.createDirectories(directory);
+
+        ArrayIntList list = new ArrayIntList();
+        long snapshotGeneration = IntListJournal.readSnapshot(directory, list);
+        List<Long> generations = IntListJournal.generations(directory);
+        long lastGeneration = snapshotGeneration;
+        for (long generation : generations)
+        {
+            if (generation >= snapshotGeneration)
+            {
+                IntListJournal.replay(IntListJournal.logFile(directory, generation), list);
+            }
+            lastGeneration = Math.max(lastGeneration, generation);
+        }
+        IntListJournal.deleteGenerationsBefore(directory, snapshotGeneration);
+
+        // never append to a log that may end in a torn record
+        IntListJournal journal = new IntListJournal(directory, lastGeneration + 1,
+                fsyncIntervalMillis, 1 << 16);
+        return new JournaledIntList(directory, list, journal, waitForDurability, compactThresholdBytes);
+    }
+
+    // ---------------------------------------------------------------
+    // mutations: check, log, apply, then (optionally) wait for the group commit
+    // ---------------------------------------------------------------
+
+    @Override
+    public void addFront(int value)
+    {
+        long sequence;
+        lock.lock();
+        try
+        {
+            sequence = journal.append(IntListJournal.ADD_FRONT, value);
+            list.addFront(value);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        committed(sequence);
+    }
+
+    @Override
+    public void addBack(int value)
+    {
+        long sequence;
+        lock.lock();
+        try
+        {
+            sequence = journal.append(IntListJournal.ADD_BACK, value);
+            list.addBack(value);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        committed(sequence);
+    }
+
+    @Override
+    public void add(int index, int value)
+    {
+        long sequence;
+        lock.lock();
+        try
+        {
+            if (index < 0 || index > list.size())
+            {
+                throw new IndexOutOfBoundsException("The index is out of range");
+            }
+            sequence = journal.append(IntListJournal.ADD, index, value);
+            list.add(index, value);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        committed(sequence);
+    }
+
+    @Override
+    public void removeFront()
+    {
+        long sequence;
+        lock.lock();
+        try
+        {
+            if (list.isEmpty())
+            {
+                throw new IllegalStateException("List is empty");
+            }
+            sequence = journal.append(IntListJournal.REMOVE_FRONT);
+            list.removeFront();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        committed(sequence);
+    }
+
+    @Override
+    public void removeBack()
+    {
+        long sequence;
+        lock.lock();
+        try
+        {
+            if (list.isEmpty())
+            {
+                throw new IllegalStateException("Already empty!");
+            }
+            sequence = journal.append(IntListJournal.REMOVE_BACK);
+            list.removeBack();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        committed(sequence);
+    }
+
+    @Override
+    public int remove(int index)
+    {
+        long sequence;
+        int removedValue;
+        lock.lock();
+        try
+        {
+            if (index < 0 || index >= list.size())
+            {
+                throw new IndexOutOfBoundsException("Index out of range");
+            }
+            sequence = journal.append(IntListJournal.REMOVE, index);
+            removedValue = list.remove(index);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        committed(sequence);
+        return removedValue;
+    }
+
+    @Override
+    public void clear()
+    {
+        long sequence;
+        lock.lock();
+        try
+        {
+            sequence = journal.append(IntListJournal.CLEAR);
+            list.clear();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        committed(sequence);
+    }
+
+    /**
+     * Logs the values as a single BATCH record of inserts at the back, then
+     * appends them, all under the lock, so a bulk load costs one record and
+     * one commit and never interleaves with other writers.
+     *
+     * @param values array holding the values to append
+     * @param offset position in values of the first value to append
+     * @param length number of values to append
+     * @throws IndexOutOfBoundsException if offset and length do not fit in values
+     */
+    @Override
+    public void addAll(int[] values, int offset, int length)
+    {
+        IntSubList.checkRange(offset, offset + length, values.length);
+        if (length == 0)
+        {
+            return;
+        }
+
+        long sequence;
+        lock.lock();
+        try
+        {
+            int size = list.size();
+            IntEditBatch batch = new IntEditBatch();
+            for (int i = offset; i < offset + length; i++)
+            {
+                batch.insert(size, values[i]);
+            }
+            sequence = journal.appendBatch(batch, size);
+            list.addAll(values, offset, length);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        committed(sequence);
+    }
+
+    /**
+     * Logs the batch as a single BATCH record, then applies it to the list
+     * in one pass, all under the lock, so readers see either none of the
+     * batch or all of it. The batch is checked before anything is logged,
+     * and a crash that cuts the record short loses the whole batch on
+     * recovery, never part of it.
+     *
+     * @param batch the edits to apply
+     * @throws IndexOutOfBoundsException if an edit is past the end of this list
+     * @throws IllegalArgumentException if two removes of the batch overlap
+     */
+    @Override
+    public void applyEdits(IntEditBatch batch)
+    {
+        long sequence;
+        lock.lock();
+        try
+        {
+            int size = list.size();
+            batch.check(size);
+            if (batch.isEmpty())
+            {
+                return;
+            }
+            // logged first: if the journal has failed, the list is left as it was
+            sequence = journal.appendBatch(batch, size);
+            list.applyEdits(batch);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        committed(sequence);
+    }
+
+    /**
+     * Finds the values to remove and logs them as a single BATCH record of
+     * removed runs, then applies it, all under the lock, so no other
+     * mutation can slip in between and a crash never recovers part of it.
+     *
+     * @param filter a predicate which returns true for values to be removed
+     * @return true if any values were removed
+     */
+    @Override
+    public boolean removeIf(IntPredicate filter)
+    {
+        long sequence;
+        lock.lock();
+        try
+        {
+            IntEditBatch batch = new IntEditBatch();
+            int size = list.size();
+            int runStart = -1;
+            for (int i = 0; i < size; i++)
+            {
+                if (filter.test(list.get(i)))
+                {
+                    if (runStart < 0)
+                    {
+                        runStart = i;
+                    }
+                }
+                else if (runStart >= 0)
+                {
+                    batch.remove(runStart, i);
+                    runStart = -1;
+                }
+            }
+            if (runStart >= 0)
+            {
+                batch.remove(runStart, size);
+            }
+            if (batch.isEmpty())
+            {
+                return false;
+            }
+            sequence = journal.appendBatch(batch, size);
+            list.applyEdits(batch);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        committed(sequence);
+        return true;
+    }
+
+    // ---------------------------------------------------------------
+    // queries
+    // ---------------------------------------------------------------
+
+    @Override
+    public int get(int index)
+    {
+        lock.lock();
+        try
+        {
+            return list.get(index);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(int value)
+    {
+        lock.lock();
+        try
+        {
+            return list.contains(value);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int indexOf(int value)
+    {
+        lock.lock();
+        try
+        {
+            return list.indexOf(value);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    @Override
+    public int size()
+    {
+        lock.lock();
+        try
+        {
+            return list.size();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int capacity()
+    {
+        lock.lock();
+        try
+        {
+            return list.capacity();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the estimated heap of the in-memory list plus the journal's
+     * two batch buffers. The lock, the compactor thread and the files are
+     * not counted.
+     *
+     * @return the estimated heap footprint of this list in bytes
+     */
+    @Override
+    public long bytesUsed()
+    {
+        lock.lock();
+        try
+        {
+            return list.bytesUsed() + journal.bytesUsed();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean forEachWhile(IntPredicate action)
+    {
+        lock.lock();
+        try
+        {
+            return list.forEachWhile(action);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int[] toArray()
+    {
+        lock.lock();
+        try
+        {
+            return list.toArray();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a copy of the values, taken when this is called,
+     * so it is not affected by later mutations from other threads.
+     *
+     * @return an Iterator.
+     */
+    @Override
+    public Iterator<Integer> iterator()
+    {
+        int[] values = toArray();
+        return Arrays.stream(values).iterator();
+    }
+
+    @Override
+    public String toString()
+    {
+        lock.lock();
+        try
+        {
+            return list.toString();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // durability
+    // ---------------------------------------------------------------
+
+    /**
+     * Writes and forces every mutation made so far, without waiting for the
+     * next fsync interval. Useful with waitForDurability off.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    public void sync() throws IOException
+    {
+        journal.flush();
+    }
+
+    /**
+     * Writes a snapshot of the list and starts a new log, then deletes the
+     * logs the snapshot replaces. Mutations are only blocked while the
+     * values are copied; the snapshot is written afterwards. Checkpoints
+     * run one at a time, so an older snapshot never replaces a newer one.
+     *
+     * @throws IOException if the snapshot or log cannot be written
+     */
+    public synchronized void checkpoint() throws IOException
+    {
+        long generation;
+        int[] values;
+        lock.lock();
+        try
+        {
+            generation = journal.rollOver();
+            values = list.toArray();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        IntListJournal.writeSnapshot(directory, generation, values);
+        IntListJournal.deleteGenerationsBefore(directory, generation);
+    }
+
+    /**
+     * Returns the directory holding this list's snapshot and log files.
+     *
+     * @return the directory the list was opened from
+     */
+    public Path directory()
+    {
+        return directory;
+    }
+
+    /**
+     * Returns the number of batches forced to disk so far. Comparing it to
+     * recordsWritten() shows how many mutations shared each fsync.
+     *
+     * @return the number of group commits
+     */
+    public long batchesWritten()
+    {
+        return journal.batchesWritten();
+    }
+
+    /**
+     * Returns the number of records forced to disk so far.
+     *
+     * @return the number of durable records
+     */
+    public long recordsWritten()
+    {
+        return journal.recordsWritten();
+    }
+
+    /**
+     * Forces the remaining records and closes the log. The list cannot be
+     * changed afterwards.
+     *
+     * @throws IOException if the last batch cannot be written
+     */
+    @Override
+    public void close() throws IOException
+    {
+        compactor.shutdown();
+        try
+        {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    // waits for the group commit if configured, and starts a compaction when the log is large
+    private void committed(long sequence)
+    {
+        if (waitForDurability)
+        {
+            journal.awaitDurable(sequence);
+        }
+
+        if (journal.generationBytes() > compactThresholdBytes && compacting.compareAndSet(false, true))
+        {
+            compactor.execute(() -> {
+                try
+                {
+                    checkpoint();
+                }
+                catch (IOException | UncheckedIOException e)
+                {
+                    LOGGER.log(Level.WARNING, "Background checkpoint of " + directory + " failed", e);
+                }
+                finally
+                {
+                    compacting.set(false);
+                }
+            });
+        }
+    }
+}
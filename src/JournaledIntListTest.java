@@ -0,0 +1,299 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournaledIntListTest {
+
+    private static Path newDirectory() throws IOException {
+        return Files.createTempDirectory("journaled-int-list");
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void reopenRecoversEveryMutation() throws IOException {
+        Path directory = newDirectory();
+        try {
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                for (int i = 0; i < 10; i++) {
+                    list.addBack(i);
+                }
+                list.addFront(-1);
+                list.add(5, 100);
+                list.removeFront();
+                list.removeBack();
+                assertEquals(3, list.remove(3));
+                assertThrows(IndexOutOfBoundsException.class, () -> list.remove(50));
+            }
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                assertEquals("[0, 1, 2, 100, 4, 5, 6, 7, 8]", list.toString());
+                list.clear();
+                list.addBack(7);
+            }
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                assertEquals("[7]", list.toString());
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    void checkpointReplacesOldLogs() throws IOException {
+        Path directory = newDirectory();
+        try {
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                for (int i = 0; i < 1000; i++) {
+                    list.addBack(i);
+                }
+                list.checkpoint();
+                list.removeFront();
+                list.addBack(1000);
+            }
+            assertEquals(1, IntListJournal.generations(directory).size());
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                assertEquals(1000, list.size());
+                assertEquals(1, list.get(0));
+                assertEquals(1000, list.get(999));
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    void tornLastRecordIsIgnored() throws IOException {
+        Path directory = newDirectory();
+        try {
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                list.addBack(1);
+                list.addBack(2);
+            }
+            List<Long> generations = IntListJournal.generations(directory);
+            Path log = IntListJournal.logFile(directory, generations.get(generations.size() - 1));
+            // an ADD_BACK whose value was only half written
+            Files.write(log, new byte[] {IntListJournal.ADD_BACK, 0, 0}, StandardOpenOption.APPEND);
+
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                assertEquals("[1, 2]", list.toString());
+                list.addBack(3);
+            }
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                assertEquals("[1, 2, 3]", list.toString());
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    void concurrentWritersShareFsyncs() throws Exception {
+        Path directory = newDirectory();
+        try {
+            int threads = 8;
+            int perThread = 200;
+            try (JournaledIntList list = JournaledIntList.open(directory, 5, true, Long.MAX_VALUE)) {
+                List<Thread> writers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    Thread writer = new Thread(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            list.addBack(i);
+                        }
+                    });
+                    writers.add(writer);
+                    writer.start();
+                }
+                for (Thread writer : writers) {
+                    writer.join();
+                }
+                assertEquals(threads * perThread, list.recordsWritten());
+                assertTrue(list.batchesWritten() < list.recordsWritten());
+            }
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                assertEquals(threads * perThread, list.size());
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    void backgroundCompactionKeepsValues() throws Exception {
+        Path directory = newDirectory();
+        try {
+            try (JournaledIntList list = JournaledIntList.open(directory, 1, false, 256)) {
+                for (int i = 0; i < 5000; i++) {
+                    list.addBack(i);
+                }
+            }
+            assertTrue(Files.exists(directory.resolve("snapshot.bin")));
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                assertEquals(5000, list.size());
+                assertEquals(4999, list.get(4999));
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    void batchIsOneRecordReplayedWholeOrNotAtAll() throws IOException {
+        Path directory = newDirectory();
+        try {
+            int[] contents;
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                for (int i = 0; i < 100; i++) {
+                    list.addBack(i);
+                }
+                // a 90-value range is one edit, and 20 000 inserts need more than one 64 KB buffer
+                IntEditBatch batch = new IntEditBatch().remove(0, 90);
+                for (int i = 0; i < 20_000; i++) {
+                    batch.insert(95, -i);
+                }
+                list.applyEdits(batch);
+                contents = list.toArray();
+                assertEquals(20_010, contents.length);
+            }
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                assertArrayEquals(contents, list.toArray());
+            }
+
+            // a batch cut short by a crash is dropped whole
+            byte[] record = IntListJournal.encodeBatch(new IntEditBatch().remove(0, 10).insert(5, 7), contents.length);
+            assertEquals(1 + 4 + 2 * 9, record.length);
+            List<Long> generations = IntListJournal.generations(directory);
+            Path log = IntListJournal.logFile(directory, generations.get(generations.size() - 1));
+            Files.write(log, java.util.Arrays.copyOf(record, record.length - 3), StandardOpenOption.APPEND);
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                assertArrayEquals(contents, list.toArray());
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    void invalidBatchIsNotLogged() throws IOException {
+        Path directory = newDirectory();
+        try {
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                list.addBack(1);
+                assertThrows(IndexOutOfBoundsException.class,
+                        () -> list.applyEdits(new IntEditBatch().insert(0, 5).remove(3)));
+                list.applyEdits(new IntEditBatch());
+                list.addBack(2);
+            }
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                assertEquals("[1, 2]", list.toString());
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    void removeIfIsOneRecord() throws IOException {
+        Path directory = newDirectory();
+        try {
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                for (int i = 0; i < 200; i++) {
+                    list.addBack(i);
+                }
+                assertTrue(list.removeIf(value -> value % 2 == 0));
+                assertEquals(201, list.recordsWritten());
+                assertFalse(list.removeIf(value -> value < 0));
+                assertEquals(201, list.recordsWritten());
+
+                ArrayIntList keep = new ArrayIntList();
+                keep.addBack(1);
+                keep.addBack(99);
+                keep.addBack(199);
+                keep.addBack(1000);
+                assertTrue(list.retainAll(keep));
+                assertEquals(202, list.recordsWritten());
+                assertEquals("[1, 99, 199]", list.toString());
+            }
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                assertEquals("[1, 99, 199]", list.toString());
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    void addAllIsOneRecord() throws IOException {
+        Path directory = newDirectory();
+        try {
+            int[] values = new int[1000];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = i * 3;
+            }
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                list.addBack(-1);
+                list.addAll(values, 10, 990);
+                assertEquals(2, list.recordsWritten());
+                list.addAll(values, 0, 0);
+                assertThrows(IndexOutOfBoundsException.class, () -> list.addAll(values, 10, 991));
+                assertEquals(2, list.recordsWritten());
+                assertEquals(991, list.size());
+            }
+            try (JournaledIntList list = JournaledIntList.open(directory)) {
+                assertEquals(991, list.size());
+                assertEquals(-1, list.get(0));
+                assertEquals(30, list.get(1));
+                assertEquals(2997, list.get(990));
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    void mutationAfterCloseLeavesListUnchanged() throws IOException {
+        Path directory = newDirectory();
+        try {
+            JournaledIntList list = JournaledIntList.open(directory);
+            list.addBack(1);
+            list.addBack(2);
+            list.close();
+            assertThrows(IllegalStateException.class, () -> list.addFront(0));
+            assertThrows(IllegalStateException.class, () -> list.addBack(3));
+            assertThrows(IllegalStateException.class, () -> list.add(1, 5));
+            assertThrows(IllegalStateException.class, list::removeFront);
+            assertThrows(IllegalStateException.class, list::removeBack);
+            assertThrows(IllegalStateException.class, () -> list.remove(0));
+            assertThrows(IllegalStateException.class, list::clear);
+            assertThrows(IndexOutOfBoundsException.class, () -> list.add(5, 5));     // checked before the log
+            assertEquals("[1, 2]", list.toString());
+
+            try (JournaledIntList reopened = JournaledIntList.open(directory)) {
+                assertEquals("[1, 2]", reopened.toString());
+                reopened.clear();
+                assertThrows(IllegalStateException.class, reopened::removeBack);
+                assertThrows(IndexOutOfBoundsException.class, () -> reopened.remove(0));
+                reopened.addBack(7);
+            }
+            try (JournaledIntList reopened = JournaledIntList.open(directory)) {
+                assertEquals("[7]", reopened.toString());
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+}
@@ -1,5 +1,8 @@
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
 
 public class LinkedIntList implements IntList
 {
@@ -27,6 +30,13 @@ public class LinkedIntList implements IntList
 
     private Node head;      // address of first node in list
     private int size;       // number of nodes/items in list
+    private int modCount;   // number of structural modifications, used by views and iterators
+    private IntListMetrics metrics; // optional usage counters, null when not instrumented
+    private long churn;             // nodes inserted or removed mid-list since the last compact()
+    private long compactAfterChurn; // churn that triggers compact(), 0 for never
+
+    // estimated heap size of one Node: 12 byte header + int + reference + outer reference, padded
+    static final int NODE_BYTES = 24;
 
     /*
 
@@ -37,6 +47,64 @@ public class LinkedIntList implements IntList
         size = 0;
     }
 
+    /**
+     * Returns a new list holding the specified values, in order. Chunks of
+     * the array are linked into chains of nodes on the common fork-join pool
+     * and the chains are joined end to start, one link per chunk.
+     *
+     * Linear time O(n), split across the pool, where n addBack calls are
+     * O(n^2) because each one walks to the back
+     *
+     * @param values the values of the new list
+     * @return a new list holding the values
+     */
+    public static LinkedIntList parallelOf(int[] values)
+    {
+        LinkedIntList list = new LinkedIntList();
+        list.adopt(LinkedIntListBuilder.chain(list, values, 0, values.length));
+        return list;
+    }
+
+    /**
+     * Returns a new list holding the values of the specified stream, in
+     * encounter order. A parallel stream links one chain of nodes per split
+     * and joins the chains as the splits combine; a sequential stream
+     * builds one chain front to back.
+     *
+     * @param values the values of the new list
+     * @return a new list holding the values
+     */
+    public static LinkedIntList parallelOf(IntStream values)
+    {
+        LinkedIntList list = new LinkedIntList();
+        list.adopt(LinkedIntListBuilder.chain(list, values));
+        return list;
+    }
+
+    /**
+     * Returns a new list holding the values of the specified list, in order.
+     * An ArrayIntList is split like an array; any other list is walked once
+     * and each chunk is linked on the common fork-join pool while the walk
+     * goes on. The source must not be modified during the call.
+     *
+     * @param values the values of the new list
+     * @return a new list holding the values
+     */
+    public static LinkedIntList parallelOf(IntList values)
+    {
+        LinkedIntList list = new LinkedIntList();
+        list.adopt(LinkedIntListBuilder.chain(list, values));
+        return list;
+    }
+
+    // makes a freshly built chain the whole of this empty list
+    private void adopt(LinkedIntListBuilder.Chain chain)
+    {
+        head = chain.first;
+        size = chain.count;
+        modCount++;
+    }
+
 
     /**
      * Prepends (inserts) the specified value at the front of the list (at index 0).
@@ -50,6 +118,11 @@ public class LinkedIntList implements IntList
     @Override
     public void addFront(int value)
     {
+        if (metrics != null)
+        {
+            metrics.recordAllocation(NODE_BYTES);
+        }
+
         // can erase the if statement since it does the same as else, nice to write it out just in case
         // if the list is empty
         if(head == null)
@@ -64,6 +137,7 @@ public class LinkedIntList implements IntList
         }
 
         size++;
+        modCount++;
 
     }
 
@@ -96,8 +170,17 @@ public class LinkedIntList implements IntList
             }
             // when I am here - current is referencing the last node
             current.next = new Node(value, null);
+            if (metrics != null)
+            {
+                metrics.recordTraversal(size - 1);
+            }
+        }
+        if (metrics != null)
+        {
+            metrics.recordAllocation(NODE_BYTES);
         }
         size++;
+        modCount++;
     }
 
     /**
@@ -127,6 +210,12 @@ public class LinkedIntList implements IntList
             }
             current.next = new Node(value, current.next);
             size++;
+            modCount++;
+            if (metrics != null) {
+                metrics.recordTraversal(index - 1);
+                metrics.recordAllocation(NODE_BYTES);
+            }
+            churned(1);
         }
     }
 
@@ -142,6 +231,7 @@ public class LinkedIntList implements IntList
         {
             head = head.next;
             size--;
+            modCount++;
         }
     }
 
@@ -163,8 +253,12 @@ public class LinkedIntList implements IntList
                 current = current.next;
             }
             current.next = null;
+            if (metrics != null) {
+                metrics.recordTraversal(size - 2);
+            }
         }
         size--;
+        modCount++;
     }
 
     /**
@@ -194,8 +288,13 @@ public class LinkedIntList implements IntList
             }
             removedValue = current.next.data;
             current.next = current.next.next;
+            if (metrics != null) {
+                metrics.recordTraversal(index - 1);
+            }
         }
         size--;
+        modCount++;
+        churned(1);
         return removedValue;
     }
 
@@ -217,6 +316,9 @@ public class LinkedIntList implements IntList
         for (int i = 0; i < index; i++) {
             current = current.next;
         }
+        if (metrics != null) {
+            metrics.recordTraversal(index);
+        }
         return current.data;
     }
 
@@ -229,15 +331,7 @@ public class LinkedIntList implements IntList
     @Override
     public boolean contains(int value)
     {
-        Node current = head;
-        while(current != null)
-        {
-            if(current.data == value)
-            {
-                return true;
-            }
-        }
-        return false;
+        return indexOf(value) != -1;    // one walk, counted by indexOf
     }
 
     /**
@@ -257,11 +351,19 @@ public class LinkedIntList implements IntList
         {
             if(current.data == value)
             {
+                if (metrics != null)
+                {
+                    metrics.recordTraversal(count);
+                }
                 return count;
             }
             count++;
             current = current.next;
         }
+        if (metrics != null)
+        {
+            metrics.recordTraversal(count);     // a miss walks the whole list
+        }
         return -1;
     }
 
@@ -287,6 +389,21 @@ public class LinkedIntList implements IntList
         return size;
     }
 
+    /**
+     * Returns an estimate of the heap held by this list: the list object
+     * and one NODE_BYTES node per value. A linked list has no slack, but
+     * each node costs six times the 4 bytes of its value.
+     *
+     * @return the estimated heap footprint of this list in bytes
+     */
+    @Override
+    public long bytesUsed()
+    {
+        // head and metrics references, size and modCount, churn and compactAfterChurn
+        return IntListFootprint.object(2 * IntListFootprint.REFERENCE + 2 * Integer.BYTES + 2 * Long.BYTES)
+                + (long) size * NODE_BYTES;
+    }
+
     /**
      * Removes all the values from this list.
      * The list will be empty after this call returns.
@@ -296,6 +413,41 @@ public class LinkedIntList implements IntList
     {
         head = null;
         size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns a view of the portion of this list between fromIndex (inclusive)
+     * and toIndex (exclusive). The view remembers the node just before its
+     * range, so walking to a position inside the view starts there instead of
+     * at head.
+     *
+     * Changes made through the view write through to this list. Structural
+     * changes made to this list directly (not through the view) make the view
+     * invalid, and any later use of it throws ConcurrentModificationException.
+     *
+     * O(fromIndex) to find the start node once, nothing is copied
+     *
+     * @param fromIndex low endpoint (inclusive) of the view
+     * @param toIndex high endpoint (exclusive) of the view
+     * @return a view of the specified range within this list
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    @Override
+    public IntList subList(int fromIndex, int toIndex)
+    {
+        IntSubList.checkRange(fromIndex, toIndex, size);
+
+        Node before = null;
+        if (fromIndex > 0)
+        {
+            before = head;
+            for (int i = 0; i < fromIndex - 1; i++)
+            {
+                before = before.next;
+            }
+        }
+        return new LinkedSubList(null, before, toIndex - fromIndex);
     }
 
     /**
@@ -310,48 +462,349 @@ public class LinkedIntList implements IntList
         return new LinkedIterator();
     }
 
-    public void print()
+    /**
+     * Appends length values of the specified array, starting at offset, to
+     * the back of this list, in order. Walks to the back once and links the
+     * new nodes from there.
+     *
+     * Linear time O(size + length), where length addBack calls walk to the
+     * back once each
+     *
+     * @param values array holding the values to append
+     * @param offset position in values of the first value to append
+     * @param length number of values to append
+     * @throws IndexOutOfBoundsException if offset and length do not fit in values
+     */
+    @Override
+    public void addAll(int[] values, int offset, int length)
     {
-        //create temp variable
-        //copy address from head
-        Node curr = head;
-        while(curr != null)
+        IntSubList.checkRange(offset, offset + length, values.length);
+        if (length == 0)
         {
-            System.out.println(curr.data);
-            curr = curr.next;
+            return;
         }
+        LinkedIntListBuilder.Chain chain = new LinkedIntListBuilder.Chain(this, values, offset, offset + length);
+        if (head == null)
+        {
+            head = chain.first;
+        }
+        else
+        {
+            Node last = head;
+            while (last.next != null)
+            {
+                last = last.next;
+            }
+            last.next = chain.first;
+        }
+        if (metrics != null)
+        {
+            metrics.recordTraversal(Math.max(0, size - 1));
+            metrics.recordAllocation((long) length * NODE_BYTES);
+        }
+        size += length;
+        modCount++;
     }
 
+    /**
+     * Returns an array containing all the values in this list, in order,
+     * copied on the common fork-join pool. The nodes are walked once to find
+     * where each chunk starts, and each chunk is copied by the pool while
+     * the walk goes on.
+     *
+     * @return a new array containing the values in this list
+     */
+    public int[] parallelToArray()
+    {
+        int expectedModCount = modCount;
+        int[] result = LinkedIntListBuilder.toArray(head, size);
+        if (modCount != expectedModCount)
+        {
+            throw new ConcurrentModificationException();
+        }
+        return result;
+    }
 
+    /**
+     * Applies every insert and remove of the specified batch, whose indexes
+     * refer to this list as it is before the call, in one walk from head:
+     * inserts link in new nodes and removed runs are unlinked as the walk
+     * passes them, and the walk stops after the last edit.
+     *
+     * Linear time O(last edited index + edits log edits), where the same
+     * edits one add(index)/remove(index) at a time walk from head once each.
+     * Nothing changes if the batch does not fit this list.
+     *
+     * @param batch the edits to apply
+     * @throws IndexOutOfBoundsException if an edit is past the end of this list
+     * @throws IllegalArgumentException if two removes of the batch overlap
+     */
     @Override
-    public String toString()
+    public void applyEdits(IntEditBatch batch)
     {
-        if (head == null)
+        int oldSize = size;
+        batch.check(oldSize);
+        if (batch.isEmpty())
         {
-            //if list is empty, indicate with []
-            return "[]";
+            return;
         }
 
-        // if I get here, the list is not empty for sure
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
+        int[] walked = {0};
+        batch.walk(oldSize, new IntEditBatch.Walker()
+        {
+            private Node before = null;     // last node of the result so far, null before head
+            private Node current = head;    // first node of the old list not yet passed
+            private int unwalked = 0;       // nodes of a kept tail that only appends need to pass
 
-        Node current = head;
+            @Override
+            public void keep(int from, int to)
+            {
+                if (to == oldSize)
+                {
+                    unwalked = to - from;   // already linked, so walked only if values are appended
+                    return;
+                }
+                advance(to - from);
+            }
+
+            @Override
+            public void insert(int value)
+            {
+                advance(unwalked);
+                unwalked = 0;
+                Node node = new Node(value, current);
+                link(node);
+                before = node;
+                if (metrics != null)
+                {
+                    metrics.recordAllocation(NODE_BYTES);
+                }
+            }
+
+            @Override
+            public void remove(int from, int to)
+            {
+                for (int i = from; i < to; i++)
+                {
+                    current = current.next;
+                }
+                link(current);
+                walked[0] += to - from;
+            }
+
+            private void advance(int nodes)
+            {
+                for (int i = 0; i < nodes; i++)
+                {
+                    before = current;
+                    current = current.next;
+                }
+                walked[0] += nodes;
+            }
+
+            private void link(Node next)
+            {
+                if (before == null)
+                {
+                    head = next;
+                }
+                else
+                {
+                    before.next = next;
+                }
+            }
+        });
 
-        // stop one before the last node
-        while (current.next != null)
+        size = batch.resultSize(oldSize);
+        modCount++;
+        if (metrics != null)
         {
-            sb.append(current.data);
-            sb.append(", ");
+            metrics.recordTraversal(walked[0]);
+        }
+        churned(oldSize - size + 2L * batch.insertCount());     // inserted plus removed nodes
+    }
 
+    /**
+     * Passes each value in this list, in order, to the specified action
+     * until the action returns false or every value has been visited.
+     *
+     * Follows the next links directly, no boxing and no iterator
+     * Linear time O(size)
+     *
+     * @param action the action to be performed for each value
+     * @return true if every value was visited, false if the action stopped the walk
+     */
+    @Override
+    public boolean forEachWhile(IntPredicate action)
+    {
+        int expectedModCount = modCount;
+        Node current = head;
+        while (current != null)
+        {
+            if (!action.test(current.data))
+            {
+                return false;
+            }
             current = current.next;
         }
+        if (modCount != expectedModCount)
+        {
+            throw new ConcurrentModificationException();
+        }
+        return true;
+    }
+
+    /**
+     * Removes every value in this list that matches the specified predicate.
+     *
+     * Unlinks matching nodes during one walk of the list
+     * Linear time O(size)
+     *
+     * @param filter a predicate which returns true for values to be removed
+     * @return true if any values were removed
+     */
+    @Override
+    public boolean removeIf(IntPredicate filter)
+    {
+        int removed = 0;
+
+        // drop matching nodes at the front first, so head is a kept node
+        while (head != null && filter.test(head.data)) {
+            head = head.next;
+            removed++;
+        }
+
+        Node current = head;
+        while (current != null && current.next != null) {
+            if (filter.test(current.next.data)) {
+                current.next = current.next.next;
+                removed++;
+            } else {
+                current = current.next;
+            }
+        }
 
-        // add in the last node
-        sb.append(current.data);
+        if (removed == 0) {
+            return false;
+        }
+        size -= removed;
+        modCount++;
+        churned(removed);
+        return true;
+    }
 
-        sb.append("]");
-        return sb.toString();
+    /**
+     * Reallocates every node of this list, front to back, and drops the old
+     * ones. After long add(index)/remove(index) traffic, consecutive nodes
+     * sit wherever they happened to be allocated, and a walk misses the
+     * cache at almost every step; fresh nodes allocated in list order sit
+     * next to each other in the allocation buffer, and the collector keeps
+     * them in that order as it moves them.
+     *
+     * Views and iterators made before the call are invalidated, as by any
+     * structural change. Resets churn() to 0.
+     *
+     * Linear time O(size), and size new nodes while the old ones are still
+     * reachable
+     */
+    public void compact()
+    {
+        LinkedIntListBuilder.Chain chain = new LinkedIntListBuilder.Chain(this);
+        for (Node current = head; current != null; current = current.next)
+        {
+            chain.add(current.data);
+        }
+        head = chain.first;
+        churn = 0;
+        modCount++;
+        if (metrics != null)
+        {
+            metrics.recordTraversal(size);
+            metrics.recordAllocation((long) size * NODE_BYTES);
+        }
+    }
+
+    /**
+     * Makes this list compact() itself once churn() reaches the specified
+     * number of nodes, or never if it is 0, the default. A threshold around
+     * size() keeps the cost of compacting to O(1) amortized per change.
+     *
+     * @param nodes the churn that triggers compact(), or 0 for never
+     * @throws IllegalArgumentException if nodes is negative
+     */
+    public void setCompactAfterChurn(long nodes)
+    {
+        if (nodes < 0)
+        {
+            throw new IllegalArgumentException("nodes must not be negative");
+        }
+        compactAfterChurn = nodes;
+        churned(0);
+    }
+
+    /**
+     * Returns the number of nodes inserted or removed since the last
+     * compact(), by add(index, value), remove(index), removeIf and
+     * applyEdits. Changes at the two ends through addFront, addBack,
+     * removeFront and removeBack, and changes made through views, are not
+     * counted.
+     *
+     * @return the churn since the last compact()
+     */
+    public long churn()
+    {
+        return churn;
+    }
+
+    private void churned(long nodes)
+    {
+        churn += nodes;
+        if (compactAfterChurn > 0 && churn >= compactAfterChurn)
+        {
+            compact();
+        }
+    }
+
+    /**
+     * Starts recording this list's node walks and node allocations into the
+     * specified metrics, or stops recording if metrics is null. Lists are not
+     * instrumented by default and then pay only a null check per operation.
+     *
+     * @param metrics the metrics to record into, or null
+     */
+    public void setMetrics(IntListMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the metrics this list records into, or null if it is not instrumented.
+     *
+     * @return the metrics of this list, or null
+     */
+    public IntListMetrics metrics()
+    {
+        return metrics;
+    }
+
+    public void print()
+    {
+        //create temp variable
+        //copy address from head
+        Node curr = head;
+        while(curr != null)
+        {
+            System.out.println(curr.data);
+            curr = curr.next;
+        }
+    }
+
+
+    @Override
+    public String toString()
+    {
+        // walks the nodes twice: once to size the StringBuilder exactly, once to fill it
+        return IntListFormat.toString(this, Integer.MAX_VALUE);
     }
 
     // helper class
@@ -359,11 +812,13 @@ public class LinkedIntList implements IntList
     {
         // keep track of my current position
         private Node current;       // holds address of current node
+        private final int expectedModCount;
 
         public LinkedIterator()
         {
             // start the current position at the first node in list
             current = head;
+            expectedModCount = modCount;
         }
 
         /**
@@ -401,10 +856,279 @@ public class LinkedIntList implements IntList
             {
                 throw new NoSuchElementException();
             }
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
 
             int result = current.data;
             current = current.next;
             return result;
         }
     }
+
+    // view over a run of size nodes, starting right after the node "before"
+    private class LinkedSubList implements IntList
+    {
+        private final LinkedSubList parent;     // enclosing view, or null if this is a view of the list itself
+        private final Node before;              // node just before the view, or null if the view starts at head
+        private int size;
+        private int expectedModCount;
+
+        LinkedSubList(LinkedSubList parent, Node before, int size)
+        {
+            this.parent = parent;
+            this.before = before;
+            this.size = size;
+            this.expectedModCount = modCount;
+        }
+
+        @Override
+        public void addFront(int value)
+        {
+            add(0, value);
+        }
+
+        @Override
+        public void addBack(int value)
+        {
+            add(size, value);
+        }
+
+        @Override
+        public void add(int index, int value)
+        {
+            checkForComodification();
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Index out of range");
+            }
+
+            Node previous = nodeBefore(index);
+            if (previous == null) {
+                head = new Node(value, head);
+            } else {
+                previous.next = new Node(value, previous.next);
+            }
+            LinkedIntList.this.size++;
+            modCount++;
+            updateSize(1);
+        }
+
+        @Override
+        public void removeFront()
+        {
+            checkForComodification();
+            if (size > 0) {
+                remove(0);
+            }
+        }
+
+        @Override
+        public void removeBack()
+        {
+            checkForComodification();
+            if (size > 0) {
+                remove(size - 1);
+            }
+        }
+
+        @Override
+        public int remove(int index)
+        {
+            checkForComodification();
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index out of range");
+            }
+
+            Node previous = nodeBefore(index);
+            int removedValue;
+            if (previous == null) {
+                removedValue = head.data;
+                head = head.next;
+            } else {
+                removedValue = previous.next.data;
+                previous.next = previous.next.next;
+            }
+            LinkedIntList.this.size--;
+            modCount++;
+            updateSize(-1);
+            return removedValue;
+        }
+
+        @Override
+        public int get(int index)
+        {
+            checkForComodification();
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index out of range");
+            }
+
+            Node current = first();
+            for (int i = 0; i < index; i++) {
+                current = current.next;
+            }
+            return current.data;
+        }
+
+        @Override
+        public boolean contains(int value)
+        {
+            return indexOf(value) != -1;
+        }
+
+        @Override
+        public int indexOf(int value)
+        {
+            checkForComodification();
+            Node current = first();
+            for (int i = 0; i < size; i++) {
+                if (current.data == value) {
+                    return i;
+                }
+                current = current.next;
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            checkForComodification();
+            return size == 0;
+        }
+
+        @Override
+        public int size()
+        {
+            checkForComodification();
+            return size;
+        }
+
+        @Override
+        public long bytesUsed()
+        {
+            // parent, before and enclosing list references, size and expectedModCount
+            return IntListFootprint.object(3 * IntListFootprint.REFERENCE + 2 * Integer.BYTES);
+        }
+
+        @Override
+        public void clear()
+        {
+            checkForComodification();
+            if (size == 0) {
+                return;
+            }
+
+            // unlink the whole run at once
+            Node after = first();
+            for (int i = 0; i < size; i++) {
+                after = after.next;
+            }
+            if (before == null) {
+                head = after;
+            } else {
+                before.next = after;
+            }
+            LinkedIntList.this.size -= size;
+            modCount++;
+            updateSize(-size);
+        }
+
+        @Override
+        public IntList subList(int fromIndex, int toIndex)
+        {
+            checkForComodification();
+            IntSubList.checkRange(fromIndex, toIndex, size);
+            return new LinkedSubList(this, nodeBefore(fromIndex), toIndex - fromIndex);
+        }
+
+        @Override
+        public boolean forEachWhile(IntPredicate action)
+        {
+            checkForComodification();
+            Node current = first();
+            for (int i = 0; i < size; i++) {
+                if (!action.test(current.data)) {
+                    return false;
+                }
+                current = current.next;
+            }
+            checkForComodification();
+            return true;
+        }
+
+        @Override
+        public Iterator<Integer> iterator()
+        {
+            checkForComodification();
+            return new Iterator<Integer>()
+            {
+                private Node current = first();
+                private int remaining = size;
+
+                @Override
+                public boolean hasNext()
+                {
+                    return remaining > 0;
+                }
+
+                @Override
+                public Integer next()
+                {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    checkForComodification();
+                    int result = current.data;
+                    current = current.next;
+                    remaining--;
+                    return result;
+                }
+            };
+        }
+
+        @Override
+        public String toString()
+        {
+            checkForComodification();
+            return IntListFormat.toString(this, Integer.MAX_VALUE);
+        }
+
+        // first node of the view (only meaningful when size > 0)
+        private Node first()
+        {
+            return (before == null) ? head : before.next;
+        }
+
+        // node just before view position index, or null if that is the head of the whole list
+        private Node nodeBefore(int index)
+        {
+            if (index == 0) {
+                return before;
+            }
+            Node current = first();
+            for (int i = 1; i < index; i++) {
+                current = current.next;
+            }
+            return current;
+        }
+
+        private void checkForComodification()
+        {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        // a write through this view also changes the size of every enclosing view
+        private void updateSize(int delta)
+        {
+            LinkedSubList view = this;
+            while (view != null) {
+                view.size += delta;
+                view.expectedModCount = modCount;
+                view = view.parent;
+            }
+        }
+    }
 }
@@ -0,0 +1,71 @@
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Times building a LinkedIntList from an int[] with addBack calls (each
+ * walks to the back, so only a small list is timed), one addAll, and
+ * parallelOf from an array, a parallel IntStream and an ArrayIntList; then
+ * toArray against parallelToArray going back. The parallel times depend on
+ * the cores of the common pool, which is printed first.
+ *
+ * usage: java LinkedIntListBuildBenchmark [size] [rounds]
+ */
+public class LinkedIntListBuildBenchmark
+{
+    public static void main(String[] args)
+    {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 4_000_000;
+        int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+        int[] values = new Random(42).ints(size).toArray();
+        ArrayIntList array = new ArrayIntList();
+        array.addAll(values, 0, size);
+        int small = Math.min(size, 20_000);
+
+        System.out.printf("%d values, best of %d rounds, common pool parallelism %d%n",
+                size, rounds, java.util.concurrent.ForkJoinPool.getCommonPoolParallelism());
+        report(String.format("addBack x %d (size %d only)", small, small), rounds, () -> {
+            LinkedIntList list = new LinkedIntList();
+            for (int i = 0; i < small; i++)
+            {
+                list.addBack(values[i]);
+            }
+            return list.size();
+        });
+        report("addAll", rounds, () -> {
+            LinkedIntList list = new LinkedIntList();
+            list.addAll(values, 0, size);
+            return list.size();
+        });
+        report("parallelOf(int[])", rounds, () -> LinkedIntList.parallelOf(values).size());
+        report("parallelOf(IntStream.parallel())", rounds,
+                () -> LinkedIntList.parallelOf(IntStream.of(values).parallel()).size());
+        report("parallelOf(ArrayIntList)", rounds, () -> LinkedIntList.parallelOf(array).size());
+
+        LinkedIntList list = LinkedIntList.parallelOf(values);
+        report("toArray", rounds, () -> list.toArray().length);
+        report("parallelToArray", rounds, () -> list.parallelToArray().length);
+    }
+
+    private static void report(String name, int rounds, Supplier<Integer> task)
+    {
+        long[] checksum = {0};
+        long time = best(rounds, () -> checksum[0] += task.get());
+        System.out.printf("  %-36s %9.2f ms   (checksum %d)%n", name, time / 1e6, checksum[0]);
+    }
+
+    // fastest of rounds runs, after one warm-up run
+    private static long best(int rounds, Runnable task)
+    {
+        task.run();
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++)
+        {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,223 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * The engine behind LinkedIntList.parallelOf and parallelToArray. The
+ * input is cut into chunks of CHUNK_SIZE values, each chunk becomes its
+ * own chain of nodes on the common fork-join pool, and the chains are
+ * stitched end to start, one link per chunk:
+ *
+ *   int[]        - split in halves with fork-join down to CHUNK_SIZE,
+ *                  each half linked to the next as the tasks join
+ *   IntStream    - collected into chains; a parallel stream builds one
+ *                  chain per split and the combiner links them in order
+ *   other lists  - an ArrayIntList is split like an int[]; any other list
+ *                  is walked once by IntAggregator.chunksInParallel, and
+ *                  each full chunk is linked by the pool while the walk
+ *                  goes on
+ *
+ * The other way, parallelToArray walks the nodes once, only hopping next
+ * links, and hands each chunk's first node to the pool to copy into its
+ * range of the array. The hop walk stays sequential, so the gain is what
+ * the copying would have cost on top of it.
+ *
+ * Values are never boxed. The source must not be modified while a build runs.
+ */
+final class LinkedIntListBuilder
+{
+    static final int CHUNK_SIZE = 1 << 14;
+
+    private LinkedIntListBuilder()
+    {
+    }
+
+    /**
+     * A chain of count linked nodes, first to last; empty when count is 0.
+     */
+    static final class Chain
+    {
+        private final LinkedIntList list;
+        LinkedIntList.Node first;
+        LinkedIntList.Node last;
+        int count;
+
+        Chain(LinkedIntList list)
+        {
+            this.list = list;
+        }
+
+        Chain(LinkedIntList list, int[] values, int from, int to)
+        {
+            this(list);
+            if (from < to)
+            {
+                // built back to front, so every node is created with its next
+                last = list.new Node(values[to - 1], null);
+                first = last;
+                for (int i = to - 2; i >= from; i--)
+                {
+                    first = list.new Node(values[i], first);
+                }
+                count = to - from;
+            }
+        }
+
+        void add(int value)
+        {
+            LinkedIntList.Node node = list.new Node(value, null);
+            if (count == 0)
+            {
+                first = node;
+            }
+            else
+            {
+                last.next = node;
+            }
+            last = node;
+            count++;
+        }
+
+        // links other after this chain and returns this; O(1). Always adds to
+        // this chain, since IntStream.collect drops the result of its combiner
+        Chain append(Chain other)
+        {
+            if (other.count == 0)
+            {
+                return this;
+            }
+            if (count == 0)
+            {
+                first = other.first;
+            }
+            else
+            {
+                last.next = other.first;
+            }
+            last = other.last;
+            count += other.count;
+            return this;
+        }
+    }
+
+    static Chain chain(LinkedIntList list, int[] values, int from, int to)
+    {
+        if (to - from <= CHUNK_SIZE)
+        {
+            return new Chain(list, values, from, to);
+        }
+        return ForkJoinPool.commonPool().invoke(new ChainTask(list, values, from, to));
+    }
+
+    static Chain chain(LinkedIntList list, IntStream values)
+    {
+        return values.collect(() -> new Chain(list), Chain::add, Chain::append);
+    }
+
+    static Chain chain(LinkedIntList list, IntList values)
+    {
+        if (values instanceof ArrayIntList)
+        {
+            return chain(list, ((ArrayIntList) values).elements(), 0, values.size());
+        }
+
+        return IntAggregator.chunksInParallel(values,
+                (chunk, from, to) -> new Chain(list, chunk, from, to), Chain::append);
+    }
+
+    static int[] toArray(LinkedIntList.Node head, int size)
+    {
+        int[] result = new int[size];
+        if (size <= CHUNK_SIZE)
+        {
+            new CopyTask(head, result, 0, size).compute();
+            return result;
+        }
+
+        List<ForkJoinTask<Void>> tasks = new ArrayList<>();
+        LinkedIntList.Node node = head;
+        for (int from = 0; from < size; from += CHUNK_SIZE)
+        {
+            int to = Math.min(size, from + CHUNK_SIZE);
+            tasks.add(ForkJoinPool.commonPool().submit(new CopyTask(node, result, from, to)));
+            if (to < size)
+            {
+                for (int i = from; i < to; i++)
+                {
+                    node = node.next;
+                }
+            }
+        }
+        for (ForkJoinTask<Void> task : tasks)
+        {
+            task.join();
+        }
+        return result;
+    }
+
+    private static final class ChainTask extends RecursiveTask<Chain>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final LinkedIntList list;
+        private final int[] values;
+        private final int from;
+        private final int to;
+
+        ChainTask(LinkedIntList list, int[] values, int from, int to)
+        {
+            this.list = list;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Chain compute()
+        {
+            if (to - from <= CHUNK_SIZE)
+            {
+                return new Chain(list, values, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ChainTask left = new ChainTask(list, values, from, middle);
+            left.fork();
+            Chain right = new ChainTask(list, values, middle, to).compute();
+            return left.join().append(right);
+        }
+    }
+
+    // copies the values of the nodes from first on into result[from, to)
+    private static final class CopyTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final LinkedIntList.Node first;
+        private final int[] result;
+        private final int from;
+        private final int to;
+
+        CopyTask(LinkedIntList.Node first, int[] result, int from, int to)
+        {
+            this.first = first;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            LinkedIntList.Node node = first;
+            for (int i = from; i < to; i++)
+            {
+                result[i] = node.data;
+                node = node.next;
+            }
+        }
+    }
+}
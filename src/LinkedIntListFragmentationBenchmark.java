@@ -0,0 +1,82 @@
+import java.util.Random;
+
+/**
+ * Shows what scattered nodes cost a LinkedIntList walk, and what compact()
+ * wins back. A list built in one go has its nodes next to each other in
+ * list order. Rounds of random inserts and removes, applied as batches so
+ * that churning a large list stays quick, replace most nodes with ones
+ * allocated in an unrelated order. The walk (a forEachInt sum) is timed on
+ * the fresh list, after the churn, and after compact().
+ *
+ * A full GC runs before each timing, so every list is measured in the old
+ * generation; the collector slides objects together without reordering
+ * them, so the churned list stays scattered.
+ *
+ * usage: java LinkedIntListFragmentationBenchmark [size] [churnRounds] [rounds]
+ */
+public class LinkedIntListFragmentationBenchmark
+{
+    public static void main(String[] args)
+    {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 2_000_000;
+        int churnRounds = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+        int rounds = (args.length > 2) ? Integer.parseInt(args[2]) : 5;
+
+        Random random = new Random(42);
+        LinkedIntList list = new LinkedIntList();
+        list.addAll(random.ints(size).toArray(), 0, size);
+        System.out.printf("%d values, %d churn rounds of %d inserts and removes, best of %d rounds%n",
+                size, churnRounds, size / 20, rounds);
+        report("fresh", list, rounds);
+
+        for (int round = 0; round < churnRounds; round++)
+        {
+            list.applyEdits(randomBatch(list.size(), size / 20, random));
+        }
+        report("after churn (" + list.churn() + " nodes)", list, rounds);
+
+        list.compact();
+        report("after compact()", list, rounds);
+    }
+
+    private static void report(String name, LinkedIntList list, int rounds)
+    {
+        System.gc();
+        long[] sum = {0};
+        long time = best(rounds, () -> list.forEachInt(value -> sum[0] += value));
+        System.out.printf("  %-32s %8.2f ms   %6.1f M values/s   (checksum %d)%n",
+                name, time / 1e6, list.size() / (time / 1e3), sum[0]);
+    }
+
+    // count removes of distinct nodes and count inserts, each at a random index
+    private static IntEditBatch randomBatch(int size, int count, Random random)
+    {
+        IntEditBatch batch = new IntEditBatch();
+        boolean[] removed = new boolean[size];
+        for (int i = 0; i < count; i++)
+        {
+            int index = random.nextInt(size);
+            if (!removed[index])
+            {
+                removed[index] = true;
+                batch.remove(index);
+            }
+            batch.insert(random.nextInt(size + 1), random.nextInt());
+        }
+        return batch;
+    }
+
+    // fastest of rounds runs, after one warm-up run
+    private static long best(int rounds, Runnable task)
+    {
+        task.run();
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++)
+        {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
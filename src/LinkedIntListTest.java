@@ -1,58 +1,301 @@
 import org.junit.jupiter.api.Test;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class LinkedIntListTest {
 
     @Test
     void addFront() {
+        LinkedIntList theList = new LinkedIntList();
+        theList.addFront(1);
+        theList.addFront(2);
+        assertEquals("[2, 1]", theList.toString());
+        assertEquals(2, theList.size());
     }
 
     @Test
     void addBack() {
+        LinkedIntList theList = new LinkedIntList();
+        theList.addBack(1);
+        theList.addBack(2);
+        assertEquals("[1, 2]", theList.toString());
     }
 
     @Test
     void add() {
+        LinkedIntList theList = new LinkedIntList();
+        theList.add(0, 1);
+        theList.add(1, 3);
+        theList.add(1, 2);
+        assertEquals("[1, 2, 3]", theList.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> theList.add(5, 9));
     }
 
     @Test
     void removeFront() {
+        LinkedIntList theList = new LinkedIntList();
+        theList.removeFront();          // no-op on an empty list
+        theList.addBack(1);
+        theList.addBack(2);
+        theList.removeFront();
+        assertEquals("[2]", theList.toString());
     }
 
     @Test
     void removeBack() {
+        LinkedIntList theList = new LinkedIntList();
+        theList.removeBack();           // no-op on an empty list
+        theList.addBack(1);
+        theList.addBack(2);
+        theList.removeBack();
+        assertEquals("[1]", theList.toString());
+        theList.removeBack();
+        assertTrue(theList.isEmpty());
     }
 
     @Test
     void remove() {
+        LinkedIntList theList = new LinkedIntList();
+        for (int i = 0; i < 4; i++) {
+            theList.addBack(i);
+        }
+        assertEquals(2, theList.remove(2));
+        assertEquals(0, theList.remove(0));
+        assertEquals("[1, 3]", theList.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> theList.remove(2));
     }
 
     @Test
     void get() {
+        LinkedIntList theList = new LinkedIntList();
+        theList.addBack(5);
+        theList.addBack(6);
+        assertEquals(6, theList.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> theList.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> theList.get(-1));
     }
 
     @Test
     void contains() {
+        LinkedIntList theList = new LinkedIntList();
+        assertFalse(theList.contains(1));
+        theList.addBack(1);
+        theList.addBack(2);
+        assertTrue(theList.contains(2));
+        assertFalse(theList.contains(3));     // walks past the last node instead of looping
     }
 
     @Test
     void indexOf() {
+        LinkedIntList theList = new LinkedIntList();
+        theList.addBack(7);
+        theList.addBack(8);
+        theList.addBack(7);
+        assertEquals(0, theList.indexOf(7));
+        assertEquals(1, theList.indexOf(8));
+        assertEquals(-1, theList.indexOf(9));
     }
 
     @Test
     void isEmpty() {
+        LinkedIntList theList = new LinkedIntList();
+        assertTrue(theList.isEmpty());
+        theList.addFront(1);
+        assertFalse(theList.isEmpty());
     }
 
     @Test
     void size() {
+        LinkedIntList theList = new LinkedIntList();
+        assertEquals(0, theList.size());
+        theList.addFront(1);
+        theList.addBack(2);
+        theList.remove(0);
+        assertEquals(1, theList.size());
     }
 
     @Test
     void clear() {
+        LinkedIntList theList = new LinkedIntList();
+        theList.addBack(1);
+        theList.addBack(2);
+        theList.clear();
+        assertTrue(theList.isEmpty());
+        assertEquals("[]", theList.toString());
     }
 
     @Test
     void iterator() {
+        LinkedIntList theList = new LinkedIntList();
+        theList.addBack(1);
+        theList.addBack(2);
+        Iterator<Integer> iterator = theList.iterator();
+        assertEquals(1, iterator.next());
+        assertEquals(2, iterator.next());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void subList() {
+        LinkedIntList theList = new LinkedIntList();
+        for (int i = 0; i < 10; i++) {
+            theList.addBack(i);
+        }
+        IntList view = theList.subList(3, 7);
+        assertEquals(4, view.size());
+        assertEquals(3, view.get(0));
+        assertEquals(6, view.get(3));
+        assertEquals(2, view.indexOf(5));
+        assertEquals("[3, 4, 5, 6]", view.toString());
+    }
+
+    @Test
+    void subListWritesThrough() {
+        LinkedIntList theList = new LinkedIntList();
+        for (int i = 0; i < 10; i++) {
+            theList.addBack(i);
+        }
+        IntList view = theList.subList(0, 3);
+        view.addFront(77);
+        view.addBack(99);
+        view.remove(1);
+        assertEquals("[77, 1, 2, 99]", view.toString());
+        assertEquals("[77, 1, 2, 99, 3, 4, 5, 6, 7, 8, 9]", theList.toString());
+        assertEquals(11, theList.size());
+
+        IntList inner = theList.subList(4, 11).subList(1, 3);
+        inner.clear();
+        assertEquals("[77, 1, 2, 99, 3, 6, 7, 8, 9]", theList.toString());
+    }
+
+    @Test
+    void subListDetectsConcurrentModification() {
+        LinkedIntList theList = new LinkedIntList();
+        for (int i = 0; i < 10; i++) {
+            theList.addBack(i);
+        }
+        IntList view = theList.subList(2, 5);
+        theList.removeBack();
+        assertThrows(ConcurrentModificationException.class, () -> view.get(0));
+    }
+
+    @Test
+    void toStringBoundedSummarizesTheRest() throws java.io.IOException
+    {
+        LinkedIntList list = new LinkedIntList();
+        for (int i = 0; i < 1000; i++) {
+            list.addBack(-i);
+        }
+        assertEquals("[0, -1, ... 998 more]", list.toString(2));
+        StringBuilder out = new StringBuilder();
+        list.appendTo(out, 1000);
+        assertEquals(list.toString(), out.toString());
+    }
+
+    @Test
+    void parallelOfMatchesAddBack() {
+        int size = 3 * LinkedIntListBuilder.CHUNK_SIZE + 17;
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i * 31 - 7;
+        }
+        CircularIntList circular = new CircularIntList();
+        circular.addAll(values, 0, size);
+        LinkedIntList[] built = {
+                LinkedIntList.parallelOf(values),
+                LinkedIntList.parallelOf(IntStream.of(values).parallel()),
+                LinkedIntList.parallelOf(IntStream.of(values)),
+                LinkedIntList.parallelOf(circular),
+                LinkedIntList.parallelOf(LinkedIntList.parallelOf(values)),
+        };
+        for (LinkedIntList theList : built) {
+            assertEquals(size, theList.size());
+            assertArrayEquals(values, theList.toArray());
+            assertArrayEquals(values, theList.parallelToArray());
+            theList.addBack(1);         // the chain ends in a proper last node
+            assertEquals(1, theList.get(size));
+        }
+
+        assertTrue(LinkedIntList.parallelOf(new int[0]).isEmpty());
+        assertTrue(LinkedIntList.parallelOf(IntStream.empty().parallel()).isEmpty());
+        ArrayIntList array = new ArrayIntList();
+        array.addAll(new int[] {1, 2}, 0, 2);
+        assertEquals("[1, 2]", LinkedIntList.parallelOf(array).toString());
+        assertEquals(0, new LinkedIntList().parallelToArray().length);
+    }
+
+    @Test
+    void parallelOfKeepsSplitsAfterEmptyOnes() {
+        // the leading splits of the filtered stream collect nothing
+        LinkedIntList theList = LinkedIntList.parallelOf(
+                IntStream.range(0, 200_000).parallel().filter(i -> i >= 150_000));
+        assertEquals(50_000, theList.size());
+        assertArrayEquals(IntStream.range(150_000, 200_000).toArray(), theList.toArray());
+
+        LinkedIntList gaps = LinkedIntList.parallelOf(
+                IntStream.range(0, 200_000).parallel().filter(i -> i % 40_000 == 39_999));
+        assertEquals("[39999, 79999, 119999, 159999, 199999]", gaps.toString());
+    }
+
+    @Test
+    void addAllLinksAtTheBack() {
+        LinkedIntList theList = new LinkedIntList();
+        theList.addAll(new int[] {9, 1, 2, 9}, 1, 2);
+        theList.addAll(new int[] {3}, 0, 1);
+        theList.addAll(new int[] {4}, 1, 0);
+        assertEquals("[1, 2, 3]", theList.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> theList.addAll(new int[] {1}, 1, 1));
+    }
+
+    @Test
+    void compactKeepsValuesAndInvalidatesViews() {
+        LinkedIntList theList = new LinkedIntList();
+        for (int i = 0; i < 100; i++) {
+            theList.add(i / 2, i);
+        }
+        int[] before = theList.toArray();
+        IntList view = theList.subList(10, 20);
+        assertEquals(98, theList.churn());      // the first two adds are at the back
+
+        theList.compact();
+        assertArrayEquals(before, theList.toArray());
+        assertEquals(0, theList.churn());
+        assertThrows(ConcurrentModificationException.class, () -> view.get(0));
+        theList.addBack(-1);
+        assertEquals(-1, theList.get(100));
+
+        LinkedIntList empty = new LinkedIntList();
+        empty.compact();
+        assertTrue(empty.isEmpty());
+    }
+
+    @Test
+    void compactsItselfAfterChurn() {
+        LinkedIntList theList = new LinkedIntList();
+        for (int i = 0; i < 50; i++) {
+            theList.addBack(i);
+        }
+        theList.setCompactAfterChurn(10);
+        for (int i = 0; i < 9; i++) {
+            theList.add(25, theList.remove(i));     // two nodes of churn a round
+        }
+        assertEquals(8, theList.churn());           // compacted once, at 10
+        theList.removeIf(value -> value % 2 == 0);
+        assertEquals(0, theList.churn());           // 8 + 25 removed passes 10
+        assertEquals(25, theList.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(1, theList.get(i) % 2);
+        }
+
+        theList.setCompactAfterChurn(0);
+        theList.applyEdits(new IntEditBatch().insert(0, 1).remove(3, 20));
+        assertEquals(18, theList.churn());          // one insert and 17 removed nodes
+        assertThrows(IllegalArgumentException.class, () -> theList.setCompactAfterChurn(-1));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,415 @@
+// GENERATED by PrimitiveListGenerator from templates/LinkedPrimitiveList.java.template, do not edit
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * LinkedIntList for long values: a singly linked list of nodes. Also
+ * keeps a tail reference, so addBack is constant time instead of a walk.
+ */
+public class LinkedLongList implements LongList
+{
+    // helper nested class
+    private static final class Node
+    {
+        long data;   // holds the data value
+        Node next;      // holds address of next node
+
+        Node(long data, Node next)
+        {
+            this.data = data;
+            this.next = next;
+        }
+    }
+
+    private Node head;      // address of first node in list
+    private Node tail;      // address of last node in list
+    private int size;       // number of nodes/items in list
+    private int modCount;   // number of structural modifications, used by iterators
+
+    public LinkedLongList()
+    {
+        head = null;
+        tail = null;
+        size = 0;
+    }
+
+    /**
+     * Prepends (inserts) the specified value at the front of the list (at index 0).
+     *
+     * O(1) constant time
+     *
+     * @param value value to be inserted
+     */
+    @Override
+    public void addFront(long value)
+    {
+        head = new Node(value, head);
+        if (tail == null)
+        {
+            tail = head;
+        }
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Appends (inserts) the specified value at the back of the list (at index size()-1).
+     *
+     * O(1) constant time, through the tail reference
+     *
+     * @param value value to be inserted
+     */
+    @Override
+    public void addBack(long value)
+    {
+        Node node = new Node(value, null);
+        if (tail == null)
+        {
+            head = node;
+        }
+        else
+        {
+            tail.next = node;
+        }
+        tail = node;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Inserts the specified value at the specified position in this list.
+     *
+     * O(index) to walk to the node before the position
+     *
+     * @param index index at which the specified value is to be inserted
+     * @param value value to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public void add(int index, long value)
+    {
+        if (index < 0 || index > size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        if (index == 0)
+        {
+            addFront(value);
+        }
+        else if (index == size)
+        {
+            addBack(value);
+        }
+        else
+        {
+            Node before = node(index - 1);
+            before.next = new Node(value, before.next);
+            size++;
+            modCount++;
+        }
+    }
+
+    /**
+     * Removes the value located at the front of the list
+     * (at index 0), if it is present.
+     */
+    @Override
+    public void removeFront()
+    {
+        if (head != null)
+        {
+            remove(0);
+        }
+    }
+
+    /**
+     * Removes the value located at the back of the list
+     * (at index size()-1), if it is present.
+     *
+     * O(size), a singly linked list has to find the node before the tail
+     */
+    @Override
+    public void removeBack()
+    {
+        if (head != null)
+        {
+            remove(size - 1);
+        }
+    }
+
+    /**
+     * Removes the value at the specified position in this list.
+     *
+     * @param index the index of the value to be removed
+     * @return the value previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public long remove(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+
+        long removedValue;
+        if (index == 0)
+        {
+            removedValue = head.data;
+            head = head.next;
+            if (head == null)
+            {
+                tail = null;
+            }
+        }
+        else
+        {
+            Node before = node(index - 1);
+            removedValue = before.next.data;
+            before.next = before.next.next;
+            if (before.next == null)
+            {
+                tail = before;
+            }
+        }
+        size--;
+        modCount++;
+        return removedValue;
+    }
+
+    /**
+     * Returns the value at the specified position in the list.
+     *
+     * @param index index of the value to return
+     * @return the value at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public long get(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        return (index == size - 1) ? tail.data : node(index).data;
+    }
+
+    /**
+     * Returns true if this list contains the specified value.
+     *
+     * @param value value whose presence in this list is to be searched for
+     * @return true if this list contains the specified value
+     */
+    @Override
+    public boolean contains(long value)
+    {
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified value
+     * in this list, or -1 if this list does not contain the value.
+     *
+     * @param value value to search for
+     * @return the index of the first occurrence of the specified value in this list
+     * or -1 if this list does not contain the value
+     */
+    @Override
+    public int indexOf(long value)
+    {
+        int count = 0;
+        for (Node current = head; current != null; current = current.next)
+        {
+            if (current.data == value)
+            {
+                return count;
+            }
+            count++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true if this list contains no values.
+     *
+     * @return true if this list contains no values
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of values in this list.
+     *
+     * @return the number of values in this list
+     */
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public int capacity()
+    {
+        return size;
+    }
+
+    @Override
+    public long bytesUsed()
+    {
+        // head and tail references, size and modCount, then one node per value
+        return IntListFootprint.object(2 * IntListFootprint.REFERENCE + 2 * Integer.BYTES)
+                + size * IntListFootprint.object(Long.BYTES + IntListFootprint.REFERENCE);
+    }
+
+    /**
+     * Removes all the values from this list.
+     * The list will be empty after this call returns.
+     */
+    @Override
+    public void clear()
+    {
+        head = null;
+        tail = null;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Passes each value in this list, in order, to the specified action
+     * until the action returns false or every value has been visited.
+     *
+     * Follows the next links directly, no boxing and no iterator
+     * Linear time O(size)
+     *
+     * @param action the action to be performed for each value
+     * @return true if every value was visited, false if the action stopped the walk
+     */
+    @Override
+    public boolean forEachWhile(ValuePredicate action)
+    {
+        int expectedModCount = modCount;
+        for (Node current = head; current != null; current = current.next)
+        {
+            if (!action.test(current.data))
+            {
+                return false;
+            }
+        }
+        if (modCount != expectedModCount)
+        {
+            throw new ConcurrentModificationException();
+        }
+        return true;
+    }
+
+    /**
+     * Removes every value in this list that matches the specified predicate.
+     *
+     * Unlinks matching nodes during one walk of the list
+     * Linear time O(size)
+     *
+     * @param filter a predicate which returns true for values to be removed
+     * @return true if any values were removed
+     */
+    @Override
+    public boolean removeIf(ValuePredicate filter)
+    {
+        int removed = 0;
+
+        // drop matching nodes at the front first, so head is a kept node
+        while (head != null && filter.test(head.data))
+        {
+            head = head.next;
+            removed++;
+        }
+
+        Node current = head;
+        while (current != null && current.next != null)
+        {
+            if (filter.test(current.next.data))
+            {
+                current.next = current.next.next;
+                removed++;
+            }
+            else
+            {
+                current = current.next;
+            }
+        }
+        tail = current;
+
+        if (removed == 0)
+        {
+            return false;
+        }
+        size -= removed;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public Iterator<Long> iterator()
+    {
+        return new LinkedLongListIterator();
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder result = new StringBuilder(2 + 4 * size);
+        result.append('[');
+        for (Node current = head; current != null; current = current.next)
+        {
+            if (current != head)
+            {
+                result.append(", ");
+            }
+            result.append(current.data);
+        }
+        return result.append(']').toString();
+    }
+
+    // O(index) walk from head
+    private Node node(int index)
+    {
+        Node current = head;
+        for (int i = 0; i < index; i++)
+        {
+            current = current.next;
+        }
+        return current;
+    }
+
+    private class LinkedLongListIterator implements Iterator<Long>
+    {
+        private Node current = head;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext()
+        {
+            return current != null;
+        }
+
+        @Override
+        public Long next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            long result = current.data;
+            current = current.next;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+// GENERATED by PrimitiveListGenerator from templates/PrimitiveList.java.template, do not edit
+/**
+ * The LongList interface defines a set of operations
+ * for an ordered (indexed) collection of longs, which
+ * in mathematics is known as a sequence.
+ *
+ * Same contract as IntList, for long values, so longs are never boxed to Long.
+ */
+public interface LongList extends Iterable<Long> {
+
+    /**
+     * Tests a long value without boxing it.
+     */
+    @FunctionalInterface
+    interface ValuePredicate {
+        boolean test(long value);
+    }
+
+    /**
+     * Accepts a long value without boxing it.
+     */
+    @FunctionalInterface
+    interface ValueConsumer {
+        void accept(long value);
+    }
+
+    /**
+     * Prepends (inserts) the specified value at the front of the list (at index 0).
+     * Shifts the value currently at the front of the list (if any) and any
+     * subsequent values to the right.
+     * @param value value to be inserted
+     */
+    void addFront(long value);
+
+    /**
+     * Appends (inserts) the specified value at the back of the list (at index size()-1).
+     * @param value value to be inserted
+     */
+    void addBack(long value);
+
+    /**
+     * Inserts the specified value at the specified position in this list.
+     * Shifts the value currently at that position (if any) and any subsequent
+     * values to the right.
+     * @param index index at which the specified value is to be inserted
+     * @param value value to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    void add(int index, long value);
+
+    /**
+     * Removes the value located at the front of the list
+     * (at index 0), if it is present.
+     * Shifts any subsequent values to the left.
+     */
+    void removeFront();
+
+    /**
+     * Removes the value located at the back of the list
+     * (at index size()-1), if it is present.
+     */
+    void removeBack();
+
+    /**
+     * Removes the value at the specified position in this list.
+     * Shifts any subsequent values to the left. Returns the value
+     * that was removed from the list.
+     * @param index the index of the value to be removed
+     * @return the value previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    long remove(int index);
+
+    /**
+     * Returns the value at the specified position in the list.
+     * @param index index of the value to return
+     * @return the value at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    long get(int index);
+
+    /**
+     * Returns true if this list contains the specified value.
+     * @param value value whose presence in this list is to be searched for
+     * @return true if this list contains the specified value
+     */
+    boolean contains(long value);
+
+    /**
+     * Returns the index of the first occurrence of the specified value
+     * in this list, or -1 if this list does not contain the value.
+     * @param value value to search for
+     * @return the index of the first occurrence of the specified value in this list
+     * or -1 if this list does not contain the value
+     */
+    int indexOf(long value);
+
+    /**
+     * Returns true if this list contains no values.
+     * @return true if this list contains no values
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the number of values in this list.
+     * @return the number of values in this list
+     */
+    int size();
+
+    /**
+     * Returns the number of values this list can hold before it has to
+     * allocate more storage. Linked lists report size().
+     * @return the number of values that fit in the current storage
+     */
+    int capacity();
+
+    /**
+     * Returns an estimate of the heap held by this list, in bytes, laid out
+     * as in IntList.bytesUsed().
+     * @return the estimated heap footprint of this list in bytes
+     */
+    long bytesUsed();
+
+    /**
+     * Removes all the values from this list.
+     * The list will be empty after this call returns.
+     */
+    void clear();
+
+    /**
+     * Passes each value in this list, in order, to the specified action
+     * until the action returns false or every value has been visited.
+     * Implementations walk their own storage directly, so no values are boxed.
+     * @param action the action to be performed for each value; returning
+     * false stops the walk early
+     * @return true if every value was visited, false if the action stopped the walk
+     */
+    boolean forEachWhile(ValuePredicate action);
+
+    /**
+     * Passes each value in this list, in order, to the specified action.
+     * @param action the action to be performed for each value
+     */
+    default void forEachValue(ValueConsumer action)
+    {
+        forEachWhile(value -> {
+            action.accept(value);
+            return true;
+        });
+    }
+
+    /**
+     * Returns an array containing all the values in this list, in order.
+     * @return a new array containing the values in this list
+     */
+    default long[] toArray()
+    {
+        long[] result = new long[size()];
+        int[] position = new int[1];
+        forEachValue(value -> result[position[0]++] = value);
+        return result;
+    }
+
+    /**
+     * Appends length values of the specified array, starting at offset, to
+     * the back of this list, in order.
+     * @param values array holding the values to append
+     * @param offset position in values of the first value to append
+     * @param length number of values to append
+     * @throws IndexOutOfBoundsException if offset and length do not fit in values
+     */
+    default void addAll(long[] values, int offset, int length)
+    {
+        IntSubList.checkRange(offset, offset + length, values.length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            addBack(values[i]);
+        }
+    }
+
+    /**
+     * Removes every value in this list that matches the specified predicate.
+     * The values that are kept stay in their original order.
+     * @param filter a predicate which returns true for values to be removed
+     * @return true if any values were removed
+     */
+    boolean removeIf(ValuePredicate filter);
+}
@@ -0,0 +1,103 @@
+// GENERATED by PrimitiveListGenerator from templates/PrimitiveListBenchmark.java.template, do not edit
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * ArrayLongList and LinkedLongList against ArrayList<Long>: append,
+ * sum and indexOf over the same random longs.
+ *
+ * usage: java LongListBenchmark [size] [rounds]
+ */
+public class LongListBenchmark
+{
+    public static void main(String[] args)
+    {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+        Random random = new Random(1);
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++)
+        {
+            values[i] = random.nextLong();
+            if (values[i] == Long.MAX_VALUE)
+            {
+                values[i] = 0;
+            }
+        }
+        long last = Long.MAX_VALUE;      // only at the end, so indexOf walks everything
+        values[size - 1] = last;
+
+        System.out.printf("%d longs, best of %d rounds%n", size, rounds);
+        for (String kind : new String[] {"ArrayLongList", "LinkedLongList", "ArrayList<Long>"})
+        {
+            long[] checksum = {0};
+            Object[] list = new Object[1];
+            long append = best(rounds, () -> list[0] = fill(kind, values));
+            long sum = best(rounds, () -> checksum[0] += sum(list[0]));
+            long indexOf = best(rounds, () -> checksum[0] += indexOf(list[0], last));
+            System.out.printf("  %-20s append %8.2f ms   sum %8.2f ms   indexOf %8.2f ms   (checksum %d)%n",
+                    kind, append / 1e6, sum / 1e6, indexOf / 1e6, checksum[0]);
+        }
+    }
+
+    private static Object fill(String kind, long[] values)
+    {
+        if (kind.startsWith("ArrayList"))
+        {
+            List<Long> boxed = new ArrayList<>();
+            for (long value : values)
+            {
+                boxed.add(value);
+            }
+            return boxed;
+        }
+        LongList list = kind.startsWith("Array") ? new ArrayLongList() : new LinkedLongList();
+        for (long value : values)
+        {
+            list.addBack(value);
+        }
+        return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long sum(Object list)
+    {
+        long[] sum = {0};
+        if (list instanceof LongList)
+        {
+            ((LongList) list).forEachValue(value -> sum[0] += value);
+        }
+        else
+        {
+            for (Long value : (List<Long>) list)
+            {
+                sum[0] += value;
+            }
+        }
+        return sum[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long indexOf(Object list, long value)
+    {
+        return (list instanceof LongList)
+                ? ((LongList) list).indexOf(value)
+                : ((List<Long>) list).indexOf(value);
+    }
+
+    // fastest of rounds runs, after one warm-up run
+    private static long best(int rounds, Runnable task)
+    {
+        task.run();
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++)
+        {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,134 @@
+// GENERATED by PrimitiveListGenerator from templates/PrimitiveListTest.java.template, do not edit
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongListTest {
+
+    private static LongList[] lists() {
+        return new LongList[] {new ArrayLongList(), new LinkedLongList()};
+    }
+
+    @Test
+    void matchesArrayListThroughRandomOperations() {
+        for (LongList theList : lists()) {
+            Random random = new Random(43);
+            List<Long> expected = new ArrayList<>();
+            for (int step = 0; step < 5_000; step++) {
+                long value = random.nextLong();
+                switch (random.nextInt(8)) {
+                    case 0:
+                        theList.addFront(value);
+                        expected.add(0, value);
+                        break;
+                    case 1:
+                    case 2:
+                        theList.addBack(value);
+                        expected.add(value);
+                        break;
+                    case 3:
+                        int index = random.nextInt(expected.size() + 1);
+                        theList.add(index, value);
+                        expected.add(index, value);
+                        break;
+                    case 4:
+                        if (!expected.isEmpty()) {
+                            int removeAt = random.nextInt(expected.size());
+                            assertEquals(expected.remove(removeAt).longValue(), theList.remove(removeAt));
+                        }
+                        break;
+                    case 5:
+                        if (!expected.isEmpty()) {
+                            long existing = expected.get(random.nextInt(expected.size()));
+                            assertEquals(expected.indexOf(existing), theList.indexOf(existing));
+                            assertTrue(theList.contains(existing));
+                        }
+                        break;
+                    case 6:
+                        if (!expected.isEmpty()) {
+                            theList.removeBack();
+                            expected.remove(expected.size() - 1);
+                        }
+                        break;
+                    default:
+                        assertEquals(expected.indexOf(value), theList.indexOf(value));
+                        break;
+                }
+                assertEquals(expected.size(), theList.size());
+            }
+            assertEquals(expected.toString(), theList.toString());
+        }
+    }
+
+    @Test
+    void bulkOperations() {
+        for (LongList theList : lists()) {
+            long[] values = {1, 2, 3, 4, 5, 6};
+            theList.addAll(values, 1, 4);
+            assertArrayEquals(new long[] {2, 3, 4, 5}, theList.toArray());
+            assertTrue(theList.removeIf(value -> value % 2 == 0));
+            assertArrayEquals(new long[] {3, 5}, theList.toArray());
+            theList.addBack((long) 7);
+            assertEquals(2, theList.indexOf((long) 7));
+            long[] sum = {0};
+            theList.forEachValue(value -> sum[0] += value);
+            assertEquals(15, sum[0]);
+            assertThrows(IndexOutOfBoundsException.class, () -> theList.addAll(values, 4, 3));
+        }
+    }
+
+    @Test
+    void extremeValues() {
+        for (LongList theList : lists()) {
+            theList.addBack(Long.MIN_VALUE);
+            theList.addBack(Long.MAX_VALUE);
+            theList.addFront((long) 0);
+            assertEquals(Long.MIN_VALUE, theList.get(1));
+            assertEquals(Long.MAX_VALUE, theList.get(2));
+            assertEquals(2, theList.indexOf(Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void footprint() {
+        ArrayLongList array = new ArrayLongList();
+        LinkedLongList linked = new LinkedLongList();
+        long emptyArray = array.bytesUsed();
+        long emptyLinked = linked.bytesUsed();
+        for (int i = 0; i < 11; i++) {
+            array.addBack((long) i);
+            linked.addBack((long) i);
+        }
+        assertEquals(20, array.capacity());
+        assertTrue(array.bytesUsed() > emptyArray);
+        assertEquals(11, linked.capacity());
+        assertEquals(emptyLinked + 11 * 24, linked.bytesUsed());
+    }
+
+    @Test
+    void rangeChecks() {
+        for (LongList theList : lists()) {
+            assertThrows(IndexOutOfBoundsException.class, () -> theList.get(0));
+            assertThrows(IndexOutOfBoundsException.class, () -> theList.add(1, (long) 1));
+            assertThrows(IndexOutOfBoundsException.class, () -> theList.remove(0));
+        }
+    }
+
+    @Test
+    void iteratorDetectsModification() {
+        for (LongList theList : lists()) {
+            theList.addBack((long) 1);
+            theList.addBack((long) 2);
+            Iterator<Long> iterator = theList.iterator();
+            assertEquals(1, iterator.next().longValue());
+            theList.addBack((long) 3);
+            assertThrows(ConcurrentModificationException.class, iterator::next);
+        }
+    }
+}
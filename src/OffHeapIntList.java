@@ -0,0 +1,324 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * A BigIntList whose values live outside the Java heap, in direct
+ * ByteBuffers of chunkSize ints each (4 MB by default). A billion values
+ * add nothing to the heap the garbage collector has to scan or copy; only
+ * the directory of chunk references is on the heap.
+ *
+ * Chunks are laid out and grown the same way as in SegmentedIntList:
+ * the chunk is index >>> chunkShift and the slot index & chunkMask.
+ * Direct memory is limited by -XX:MaxDirectMemorySize, not -Xmx, and a
+ * released chunk is freed when the garbage collector finds its buffer
+ * unreachable.
+ */
+public class OffHeapIntList implements BigIntList
+{
+    static final int DEFAULT_CHUNK_SHIFT = 20;     // 1M ints (4 MB) per chunk
+
+    // internal (private) representation
+    private final int chunkShift;
+    private final int chunkSize;
+    private final int chunkMask;
+    private IntBuffer[] chunks;     // directory: chunks[0, chunkCount) are allocated
+    private int chunkCount;
+    private long size;
+    private int modCount;
+
+    public OffHeapIntList()
+    {
+        this(DEFAULT_CHUNK_SHIFT);
+    }
+
+    // smaller chunks let tests cross chunk boundaries with few values
+    OffHeapIntList(int chunkShift)
+    {
+        if (chunkShift < 1 || chunkShift > 28)
+        {
+            throw new IllegalArgumentException("chunkShift must be between 1 and 28");
+        }
+        this.chunkShift = chunkShift;
+        this.chunkSize = 1 << chunkShift;
+        this.chunkMask = chunkSize - 1;
+        chunks = new IntBuffer[4];
+        chunkCount = 0;
+        size = 0;
+    }
+
+    @Override
+    public void addFront(int value) // slow, linear time O(size)
+    {
+        add(0, value);
+    }
+
+    @Override
+    public void addBack(int value) // fast, constant time O(1), at most one chunk is allocated
+    {
+        ensureChunkFor(size);
+        chunks[(int) (size >>> chunkShift)].put((int) size & chunkMask, value);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void add(long index, int value) // linear time O(size - index)
+    {
+        if (index < 0 || index > size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+
+        ensureChunkFor(size);
+        shiftRight(index);
+        chunks[(int) (index >>> chunkShift)].put((int) index & chunkMask, value);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void removeFront() // slow, linear time O(size)
+    {
+        if (size == 0)
+        {
+            throw new IllegalStateException("List is empty");
+        }
+        remove(0);
+    }
+
+    @Override
+    public void removeBack() // fast, constant time O(1)
+    {
+        if (size == 0)
+        {
+            throw new IllegalStateException("Already empty!");
+        }
+        remove(size - 1);
+    }
+
+    @Override
+    public int remove(long index) // linear time O(size - index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+
+        int removedValue = chunks[(int) (index >>> chunkShift)].get((int) index & chunkMask);
+        shiftLeft(index);
+        size--;
+        modCount++;
+
+        // release chunks left empty at the end, keeping one spare
+        int needed = (int) ((size + chunkMask) >>> chunkShift);
+        while (chunkCount > needed + 1)
+        {
+            chunks[--chunkCount] = null;
+        }
+        return removedValue;
+    }
+
+    @Override
+    public int get(long index) // fast, constant time O(1)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        return chunks[(int) (index >>> chunkShift)].get((int) index & chunkMask);
+    }
+
+    @Override
+    public int set(long index, int value)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        IntBuffer chunk = chunks[(int) (index >>> chunkShift)];
+        int oldValue = chunk.get((int) index & chunkMask);
+        chunk.put((int) index & chunkMask, value);
+        return oldValue;
+    }
+
+    @Override
+    public boolean contains(int value) // linear time O(size)
+    {
+        return longIndexOf(value) != -1;
+    }
+
+    @Override
+    public long longIndexOf(int value) // linear time O(size)
+    {
+        long base = 0;
+        for (int c = 0; c < chunkCount && base < size; c++)
+        {
+            IntBuffer chunk = chunks[c];
+            int used = (int) Math.min(chunkSize, size - base);
+            for (int i = 0; i < used; i++)
+            {
+                if (chunk.get(i) == value)
+                {
+                    return base + i;
+                }
+            }
+            base += chunkSize;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    @Override
+    public long longSize()
+    {
+        return size;
+    }
+
+    @Override
+    public void clear()
+    {
+        chunks = new IntBuffer[4];
+        chunkCount = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory held by this list.
+     *
+     * @return allocated chunk bytes
+     */
+    public long offHeapBytes()
+    {
+        return (long) chunkCount * chunkSize * Integer.BYTES;
+    }
+
+    @Override
+    public boolean forEachWhile(IntPredicate action)
+    {
+        int expectedModCount = modCount;
+        long base = 0;
+        for (int c = 0; c < chunkCount && base < size; c++)
+        {
+            IntBuffer chunk = chunks[c];
+            int used = (int) Math.min(chunkSize, size - base);
+            for (int i = 0; i < used; i++)
+            {
+                if (!action.test(chunk.get(i)))
+                {
+                    return false;
+                }
+            }
+            base += chunkSize;
+        }
+        if (modCount != expectedModCount)
+        {
+            throw new ConcurrentModificationException();
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<Integer> iterator()
+    {
+        return new Iterator<Integer>()
+        {
+            private long currentPosition = 0;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext()
+            {
+                return currentPosition < size;
+            }
+
+            @Override
+            public Integer next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                if (modCount != expectedModCount)
+                {
+                    throw new ConcurrentModificationException();
+                }
+                int value = chunks[(int) (currentPosition >>> chunkShift)].get((int) currentPosition & chunkMask);
+                currentPosition++;
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public String toString()
+    {
+        return IntListFormat.toString(asIntList(), Integer.MAX_VALUE);
+    }
+
+    private void ensureChunkFor(long index)
+    {
+        int chunk = (int) (index >>> chunkShift);
+        if (chunk < chunkCount)
+        {
+            return;
+        }
+        if (chunkCount == chunks.length)
+        {
+            chunks = Arrays.copyOf(chunks, 2 * chunks.length);
+        }
+        chunks[chunkCount++] = ByteBuffer.allocateDirect(chunkSize * Integer.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asIntBuffer();
+    }
+
+    // moves the values [from, size) one spot right; the chunk for position size must exist
+    private void shiftRight(long from)
+    {
+        int firstChunk = (int) (from >>> chunkShift);
+        int lastChunk = (int) (size >>> chunkShift);
+        for (int c = lastChunk; c > firstChunk; c--)
+        {
+            IntBuffer chunk = chunks[c];
+            int used = (c == lastChunk) ? (int) size & chunkMask : chunkMask;
+            chunk.put(1, chunk, 0, used);     // overlapping bulk put copies as if through a temporary
+            chunk.put(0, chunks[c - 1].get(chunkMask));
+        }
+
+        IntBuffer first = chunks[firstChunk];
+        int offset = (int) from & chunkMask;
+        int end = (firstChunk == lastChunk) ? (int) size & chunkMask : chunkMask;
+        first.put(offset + 1, first, offset, end - offset);
+    }
+
+    // moves the values (index, size) one spot left, overwriting index
+    private void shiftLeft(long index)
+    {
+        int firstChunk = (int) (index >>> chunkShift);
+        int lastChunk = (int) ((size - 1) >>> chunkShift);
+
+        IntBuffer first = chunks[firstChunk];
+        int offset = (int) index & chunkMask;
+        int end = (firstChunk == lastChunk) ? (int) (size - 1) & chunkMask : chunkMask;
+        first.put(offset, first, offset + 1, end - offset);
+
+        for (int c = firstChunk + 1; c <= lastChunk; c++)
+        {
+            IntBuffer chunk = chunks[c];
+            chunks[c - 1].put(chunkMask, chunk.get(0));
+            int last = (c == lastChunk) ? (int) (size - 1) & chunkMask : chunkMask;
+            chunk.put(0, chunk, 1, last);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates the long, short and byte versions of the list interface, its
+ * array and linked implementations, and their tests and benchmarks, from
+ * the templates in templates/.
+ *
+ * A template is a Java source with ${...} placeholders:
+ *
+ *   ${type}         the primitive type       long      short     byte
+ *   ${Type}         its name in class names  Long      Short     Byte
+ *   ${Boxed}        the wrapper class        Long      Short     Byte
+ *   ${randomValue}  a random value from a java.util.Random named random
+ *
+ * The templates follow IntList, ArrayIntList and LinkedIntList, without the
+ * int-only extras (views, hash index, metrics, aggregation). Generated
+ * files start with a do-not-edit header and are checked in next to the
+ * hand-written sources. Edit the template and run the generator again.
+ * PrimitiveListGeneratorTest fails while any generated file is out of date,
+ * so the test run is where a forgotten regeneration gets caught.
+ *
+ * usage: java PrimitiveListGenerator [--check] [projectDir]
+ *   --check   only report out-of-date files, exit status 1 if there are any
+ */
+public class PrimitiveListGenerator
+{
+    /**
+     * One primitive width and its placeholder values.
+     */
+    enum Width
+    {
+        LONG("long", "Long", "Long", "random.nextLong()"),
+        SHORT("short", "Short", "Short", "(short) random.nextInt()"),
+        BYTE("byte", "Byte", "Byte", "(byte) random.nextInt()");
+
+        final Map<String, String> placeholders = new LinkedHashMap<>();
+
+        Width(String type, String typeName, String boxed, String randomValue)
+        {
+            placeholders.put("${type}", type);
+            placeholders.put("${Type}", typeName);
+            placeholders.put("${Boxed}", boxed);
+            placeholders.put("${randomValue}", randomValue);
+        }
+    }
+
+    // template file -> generated class name, with ${Type} substituted
+    static final Map<String, String> TEMPLATES = new LinkedHashMap<>();
+
+    static
+    {
+        TEMPLATES.put("PrimitiveList.java.template", "${Type}List");
+        TEMPLATES.put("ArrayPrimitiveList.java.template", "Array${Type}List");
+        TEMPLATES.put("LinkedPrimitiveList.java.template", "Linked${Type}List");
+        TEMPLATES.put("PrimitiveListTest.java.template", "${Type}ListTest");
+        TEMPLATES.put("PrimitiveListBenchmark.java.template", "${Type}ListBenchmark");
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        boolean check = false;
+        Path projectDir = null;
+        for (String arg : args)
+        {
+            if (arg.equals("--check"))
+            {
+                check = true;
+            }
+            else
+            {
+                projectDir = Paths.get(arg);
+            }
+        }
+        if (projectDir == null)
+        {
+            projectDir = findProjectDir(Paths.get("").toAbsolutePath());
+        }
+
+        Path sourceDir = projectDir.resolve("src");
+        Map<String, String> generated = generate(projectDir.resolve("templates"));
+        List<String> stale = staleFiles(generated, sourceDir);
+        if (check)
+        {
+            stale.forEach(name -> System.out.println("out of date: " + name));
+            System.exit(stale.isEmpty() ? 0 : 1);
+        }
+        for (String name : stale)
+        {
+            Files.write(sourceDir.resolve(name), generated.get(name).getBytes(StandardCharsets.UTF_8));
+            System.out.println("wrote " + name);
+        }
+        System.out.printf("%d files generated, %d changed%n", generated.size(), stale.size());
+    }
+
+    /**
+     * Expands every template for every width.
+     *
+     * @param templateDir the directory holding the templates
+     * @return generated file name to file contents, in a fixed order
+     * @throws IOException if a template cannot be read
+     * @throws IllegalStateException if a template uses an unknown placeholder
+     */
+    static Map<String, String> generate(Path templateDir) throws IOException
+    {
+        Map<String, String> files = new LinkedHashMap<>();
+        for (Map.Entry<String, String> template : TEMPLATES.entrySet())
+        {
+            String source = new String(Files.readAllBytes(templateDir.resolve(template.getKey())),
+                    StandardCharsets.UTF_8);
+            for (Width width : Width.values())
+            {
+                String name = expand(template.getValue(), width) + ".java";
+                String header = "// GENERATED by PrimitiveListGenerator from templates/" + template.getKey()
+                        + ", do not edit\n";
+                files.put(name, header + expand(source, width));
+            }
+        }
+        return files;
+    }
+
+    static String expand(String text, Width width)
+    {
+        for (Map.Entry<String, String> placeholder : width.placeholders.entrySet())
+        {
+            text = text.replace(placeholder.getKey(), placeholder.getValue());
+        }
+        int unknown = text.indexOf("${");
+        if (unknown != -1)
+        {
+            throw new IllegalStateException("Unknown placeholder: "
+                    + text.substring(unknown, Math.min(text.length(), text.indexOf('}', unknown) + 1)));
+        }
+        return text;
+    }
+
+    /**
+     * Returns the names of the generated files whose copy in sourceDir is
+     * missing or different.
+     */
+    static List<String> staleFiles(Map<String, String> generated, Path sourceDir) throws IOException
+    {
+        List<String> stale = new ArrayList<>();
+        for (Map.Entry<String, String> file : generated.entrySet())
+        {
+            Path path = sourceDir.resolve(file.getKey());
+            if (!Files.exists(path)
+                    || !new String(Files.readAllBytes(path), StandardCharsets.UTF_8).equals(file.getValue()))
+            {
+                stale.add(file.getKey());
+            }
+        }
+        return stale;
+    }
+
+    // the directory holding templates/, starting from dir and going up (tests may run from src/)
+    static Path findProjectDir(Path dir)
+    {
+        for (Path current = dir; current != null; current = current.getParent())
+        {
+            if (Files.isDirectory(current.resolve("templates")))
+            {
+                return current;
+            }
+        }
+        throw new IllegalStateException("No templates directory in or above " + dir);
+    }
+}
@@ -0,0 +1,28 @@
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitiveListGeneratorTest {
+
+    @Test
+    void generatedSourcesAreUpToDate() throws Exception {
+        Path projectDir = PrimitiveListGenerator.findProjectDir(Paths.get("").toAbsolutePath());
+        Map<String, String> generated = PrimitiveListGenerator.generate(projectDir.resolve("templates"));
+        assertEquals(15, generated.size());
+        assertEquals("[]", PrimitiveListGenerator.staleFiles(generated, projectDir.resolve("src")).toString(),
+                "run PrimitiveListGenerator after editing templates/");
+    }
+
+    @Test
+    void expandsPlaceholders() {
+        assertEquals("short[] ShortList Short (short) random.nextInt()",
+                PrimitiveListGenerator.expand("${type}[] ${Type}List ${Boxed} ${randomValue}",
+                        PrimitiveListGenerator.Width.SHORT));
+        assertThrows(IllegalStateException.class,
+                () -> PrimitiveListGenerator.expand("${typo}", PrimitiveListGenerator.Width.LONG));
+    }
+}
@@ -0,0 +1,1145 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * A compressed set of ints in the style of a Roaring bitmap, for lists of
+ * distinct values that fall in dense ranges.
+ *
+ * Values are split into a high half (the top 16 bits) and a low half.
+ * Every high half in use gets one container holding the low halves
+ * of up to 65536 values, in whichever of three forms is smallest:
+ *
+ *   array container  - a sorted char[], used for up to 4096 values (2 bytes each)
+ *   bitmap container - a long[1024] with one bit per possible value (8 KB flat)
+ *   run container    - sorted (start, length) pairs, for long runs of consecutive
+ *                      values; only created by runOptimize()
+ *
+ * contains is a binary search over the high halves plus an O(1) bit test or
+ * a binary search inside one container. Union, intersection and difference
+ * work a container at a time, using whole-word bit operations between bitmaps.
+ *
+ * Values are kept in ascending (signed int) order, so iteration,
+ * toArray() and toArrayIntList() return them sorted.
+ */
+public class RoaringIntSet implements Iterable<Integer>
+{
+    // containers switch between array and bitmap form at this many values
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;    // 65536 bits
+
+    // high halves are stored with the sign bit flipped, so that sorting them
+    // as unsigned chars puts negative values first
+    private char[] keys;
+    private Container[] containers;
+    private int containerCount;
+
+    public RoaringIntSet()
+    {
+        keys = new char[4];
+        containers = new Container[4];
+        containerCount = 0;
+    }
+
+    /**
+     * Returns a set holding the distinct values of the specified list.
+     * The values are sorted once up front, so each container is built
+     * in a single pass instead of one insertion at a time.
+     *
+     * O(n log n) for the sort, then linear time O(n)
+     *
+     * @param list the list whose values are to be placed in the set
+     * @return a new set holding the values of the list
+     */
+    public static RoaringIntSet fromList(IntList list)
+    {
+        int[] values = list.toArray();
+        Arrays.sort(values);
+
+        RoaringIntSet set = new RoaringIntSet();
+        int start = 0;
+        while (start < values.length)
+        {
+            // find the run of values sharing this high half
+            char key = highOf(values[start]);
+            int end = start;
+            while (end < values.length && highOf(values[end]) == key)
+            {
+                end++;
+            }
+
+            char[] lows = new char[end - start];
+            int count = 0;
+            for (int i = start; i < end; i++)
+            {
+                char low = (char) values[i];
+                if (count == 0 || lows[count - 1] != low)   // skip duplicates
+                {
+                    lows[count++] = low;
+                }
+            }
+
+            Container container = new ArrayContainer(lows, count);
+            if (count > ARRAY_MAX)
+            {
+                container = ((ArrayContainer) container).toBitmap();
+            }
+            set.insertContainerAt(set.containerCount, key, container);
+            start = end;
+        }
+        return set;
+    }
+
+    /**
+     * Returns a new ArrayIntList holding the values of this set in ascending order.
+     *
+     * @return a new list holding the values of this set
+     */
+    public ArrayIntList toArrayIntList()
+    {
+        ArrayIntList list = new ArrayIntList();
+        forEachInt(list::addBack);
+        return list;
+    }
+
+    /**
+     * Returns an array holding the values of this set in ascending order.
+     *
+     * @return a new array holding the values of this set
+     * @throws IllegalStateException if the set holds more values than an array can
+     */
+    public int[] toArray()
+    {
+        long cardinality = cardinality();
+        if (cardinality > Integer.MAX_VALUE - 8)
+        {
+            throw new IllegalStateException("Too many values for an array: " + cardinality);
+        }
+
+        int[] result = new int[(int) cardinality];
+        int[] position = new int[1];
+        forEachInt(value -> result[position[0]++] = value);
+        return result;
+    }
+
+    /**
+     * Adds the specified value to this set if it is not already present.
+     *
+     * @param value value to be added
+     * @return true if the set did not already contain the value
+     */
+    public boolean add(int value)
+    {
+        char key = highOf(value);
+        int index = findKey(key);
+        if (index < 0)
+        {
+            insertContainerAt(-index - 1, key, new ArrayContainer(new char[] {(char) value}, 1));
+            return true;
+        }
+
+        Container container = containers[index];
+        int before = container.cardinality();
+        containers[index] = container.add((char) value);
+        return containers[index].cardinality() > before;
+    }
+
+    /**
+     * Removes the specified value from this set if it is present.
+     *
+     * @param value value to be removed
+     * @return true if the set contained the value
+     */
+    public boolean remove(int value)
+    {
+        int index = findKey(highOf(value));
+        if (index < 0)
+        {
+            return false;
+        }
+
+        Container container = containers[index];
+        int before = container.cardinality();
+        Container after = container.remove((char) value);
+        if (after.cardinality() == 0)
+        {
+            removeContainerAt(index);
+        }
+        else
+        {
+            containers[index] = after;
+        }
+        return after.cardinality() < before;
+    }
+
+    /**
+     * Returns true if this set contains the specified value.
+     *
+     * O(log containers) to find the container, then O(1) for a bitmap
+     * or O(log size) for an array or run container
+     *
+     * @param value value whose presence in this set is to be tested
+     * @return true if this set contains the value
+     */
+    public boolean contains(int value)
+    {
+        int index = findKey(highOf(value));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    /**
+     * Returns the number of values in this set. A set of ints can hold
+     * up to 2^32 values, so the count is a long.
+     *
+     * @return the number of values in this set
+     */
+    public long cardinality()
+    {
+        long total = 0;
+        for (int i = 0; i < containerCount; i++)
+        {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    /**
+     * Returns true if this set contains no values.
+     *
+     * @return true if this set contains no values
+     */
+    public boolean isEmpty()
+    {
+        return containerCount == 0;
+    }
+
+    /**
+     * Removes all the values from this set.
+     */
+    public void clear()
+    {
+        Arrays.fill(containers, 0, containerCount, null);
+        containerCount = 0;
+    }
+
+    /**
+     * Converts each container to run form where that is smaller, and run
+     * containers back to array or bitmap form where that is smaller.
+     * Worth calling once a set built from long consecutive ranges is complete.
+     */
+    public void runOptimize()
+    {
+        for (int i = 0; i < containerCount; i++)
+        {
+            containers[i] = containers[i].runOptimize();
+        }
+    }
+
+    /**
+     * Returns an estimate of the heap used by the containers of this set, in bytes.
+     *
+     * @return the approximate number of bytes used
+     */
+    public long bytesUsed()
+    {
+        // keys and containers references and the container count, then the two arrays
+        long total = IntListFootprint.object(2 * IntListFootprint.REFERENCE + Integer.BYTES)
+                + IntListFootprint.array(keys.length, Character.BYTES)
+                + IntListFootprint.array(containers.length, IntListFootprint.REFERENCE);
+        for (int i = 0; i < containerCount; i++)
+        {
+            total += containers[i].bytesUsed();
+        }
+        return total;
+    }
+
+    // ---------------------------------------------------------------
+    // set algebra
+    // ---------------------------------------------------------------
+
+    /**
+     * Returns a new set holding every value that is in this set or the other.
+     *
+     * @param other the set to combine with this one
+     * @return a new set holding the union
+     */
+    public RoaringIntSet union(RoaringIntSet other)
+    {
+        RoaringIntSet result = new RoaringIntSet();
+        int i = 0;
+        int j = 0;
+        while (i < containerCount || j < other.containerCount)
+        {
+            int compare = compareKeys(this, i, other, j);
+            if (compare < 0)
+            {
+                result.insertContainerAt(result.containerCount, keys[i], containers[i].copy());
+                i++;
+            }
+            else if (compare > 0)
+            {
+                result.insertContainerAt(result.containerCount, other.keys[j], other.containers[j].copy());
+                j++;
+            }
+            else
+            {
+                result.insertContainerAt(result.containerCount, keys[i], or(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new set holding every value that is in both this set and the other.
+     *
+     * @param other the set to intersect with this one
+     * @return a new set holding the intersection
+     */
+    public RoaringIntSet intersection(RoaringIntSet other)
+    {
+        RoaringIntSet result = new RoaringIntSet();
+        int i = 0;
+        int j = 0;
+        while (i < containerCount && j < other.containerCount)
+        {
+            int compare = compareKeys(this, i, other, j);
+            if (compare < 0)
+            {
+                i++;
+            }
+            else if (compare > 0)
+            {
+                j++;
+            }
+            else
+            {
+                Container container = and(containers[i], other.containers[j]);
+                if (container.cardinality() > 0)
+                {
+                    result.insertContainerAt(result.containerCount, keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new set holding every value that is in this set but not in the other.
+     *
+     * @param other the set whose values are to be left out
+     * @return a new set holding the difference
+     */
+    public RoaringIntSet difference(RoaringIntSet other)
+    {
+        RoaringIntSet result = new RoaringIntSet();
+        int i = 0;
+        int j = 0;
+        while (i < containerCount)
+        {
+            int compare = (j < other.containerCount) ? compareKeys(this, i, other, j) : -1;
+            if (compare < 0)
+            {
+                result.insertContainerAt(result.containerCount, keys[i], containers[i].copy());
+                i++;
+            }
+            else if (compare > 0)
+            {
+                j++;
+            }
+            else
+            {
+                Container container = andNot(containers[i], other.containers[j]);
+                if (container.cardinality() > 0)
+                {
+                    result.insertContainerAt(result.containerCount, keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // ---------------------------------------------------------------
+    // iteration
+    // ---------------------------------------------------------------
+
+    /**
+     * Passes each value in this set, in ascending order, to the specified
+     * action until the action returns false or every value has been visited.
+     * This is the same contract as IntList.forEachWhile.
+     *
+     * @param action the action to be performed for each value
+     * @return true if every value was visited, false if the action stopped the walk
+     */
+    public boolean forEachWhile(IntPredicate action)
+    {
+        for (int i = 0; i < containerCount; i++)
+        {
+            int high = (keys[i] ^ 0x8000) << 16;
+            if (!containers[i].forEachWhile(high, action))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Passes each value in this set, in ascending order, to the specified action.
+     *
+     * @param action the action to be performed for each value
+     */
+    public void forEachInt(IntConsumer action)
+    {
+        forEachWhile(value -> {
+            action.accept(value);
+            return true;
+        });
+    }
+
+    /**
+     * Returns an iterator over the values of this set in ascending order.
+     *
+     * @return an Iterator.
+     */
+    @Override
+    public Iterator<Integer> iterator()
+    {
+        // materialize one container at a time, so the iterator never holds
+        // more than 65536 values
+        return new Iterator<Integer>()
+        {
+            private int containerIndex = 0;
+            private int[] chunk = new int[0];
+            private int chunkSize = 0;
+            private int position = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                while (position == chunkSize && containerIndex < containerCount)
+                {
+                    Container container = containers[containerIndex];
+                    if (chunk.length < container.cardinality())
+                    {
+                        chunk = new int[container.cardinality()];
+                    }
+                    int high = (keys[containerIndex] ^ 0x8000) << 16;
+                    int[] count = new int[1];
+                    container.forEachWhile(high, value -> {
+                        chunk[count[0]++] = value;
+                        return true;
+                    });
+                    chunkSize = count[0];
+                    position = 0;
+                    containerIndex++;
+                }
+                return position < chunkSize;
+            }
+
+            @Override
+            public Integer next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                return chunk[position++];
+            }
+        };
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        forEachInt(value -> {
+            if (sb.length() > 1)
+            {
+                sb.append(", ");
+            }
+            sb.append(value);
+        });
+        sb.append("]");
+        return sb.toString();
+    }
+
+    // ---------------------------------------------------------------
+    // key directory
+    // ---------------------------------------------------------------
+
+    private static char highOf(int value)
+    {
+        return (char) ((value >>> 16) ^ 0x8000);
+    }
+
+    // index of key, or (-(insertion point) - 1) if absent
+    private int findKey(char key)
+    {
+        return Arrays.binarySearch(keys, 0, containerCount, key);
+    }
+
+    private static int compareKeys(RoaringIntSet a, int i, RoaringIntSet b, int j)
+    {
+        if (i >= a.containerCount)
+        {
+            return 1;
+        }
+        if (j >= b.containerCount)
+        {
+            return -1;
+        }
+        return Character.compare(a.keys[i], b.keys[j]);
+    }
+
+    private void insertContainerAt(int index, char key, Container container)
+    {
+        if (containerCount == keys.length)
+        {
+            keys = Arrays.copyOf(keys, 2 * keys.length);
+            containers = Arrays.copyOf(containers, 2 * containers.length);
+        }
+        System.arraycopy(keys, index, keys, index + 1, containerCount - index);
+        System.arraycopy(containers, index, containers, index + 1, containerCount - index);
+        keys[index] = key;
+        containers[index] = container;
+        containerCount++;
+    }
+
+    private void removeContainerAt(int index)
+    {
+        System.arraycopy(keys, index + 1, keys, index, containerCount - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, containerCount - index - 1);
+        containerCount--;
+        containers[containerCount] = null;
+    }
+
+    // ---------------------------------------------------------------
+    // container algebra, never modifies its arguments
+    // ---------------------------------------------------------------
+
+    private static Container or(Container a, Container b)
+    {
+        a = a.unrun();
+        b = b.unrun();
+        if (a instanceof ArrayContainer && b instanceof ArrayContainer)
+        {
+            ArrayContainer x = (ArrayContainer) a;
+            ArrayContainer y = (ArrayContainer) b;
+            if (x.cardinality + y.cardinality > ARRAY_MAX)
+            {
+                BitmapContainer result = x.toBitmap();
+                result.setAll(y);
+                return result.shrink();
+            }
+
+            char[] merged = new char[x.cardinality + y.cardinality];
+            int i = 0;
+            int j = 0;
+            int count = 0;
+            while (i < x.cardinality && j < y.cardinality)
+            {
+                char u = x.values[i];
+                char v = y.values[j];
+                if (u < v)
+                {
+                    merged[count++] = u;
+                    i++;
+                }
+                else if (u > v)
+                {
+                    merged[count++] = v;
+                    j++;
+                }
+                else
+                {
+                    merged[count++] = u;
+                    i++;
+                    j++;
+                }
+            }
+            while (i < x.cardinality)
+            {
+                merged[count++] = x.values[i++];
+            }
+            while (j < y.cardinality)
+            {
+                merged[count++] = y.values[j++];
+            }
+            return new ArrayContainer(merged, count);
+        }
+
+        if (a instanceof ArrayContainer)
+        {
+            Container swap = a;
+            a = b;
+            b = swap;
+        }
+        BitmapContainer result = ((BitmapContainer) a).copy();
+        if (b instanceof ArrayContainer)
+        {
+            result.setAll((ArrayContainer) b);
+        }
+        else
+        {
+            long[] words = ((BitmapContainer) b).words;
+            for (int w = 0; w < BITMAP_WORDS; w++)
+            {
+                result.words[w] |= words[w];
+            }
+            result.recount();
+        }
+        return result;
+    }
+
+    private static Container and(Container a, Container b)
+    {
+        a = a.unrun();
+        b = b.unrun();
+        if (a instanceof BitmapContainer && b instanceof BitmapContainer)
+        {
+            long[] x = ((BitmapContainer) a).words;
+            long[] y = ((BitmapContainer) b).words;
+            BitmapContainer result = new BitmapContainer();
+            for (int w = 0; w < BITMAP_WORDS; w++)
+            {
+                result.words[w] = x[w] & y[w];
+            }
+            result.recount();
+            return result.shrink();
+        }
+
+        // at least one side is an array: keep the array values found in the other side
+        if (b instanceof ArrayContainer && !(a instanceof ArrayContainer))
+        {
+            Container swap = a;
+            a = b;
+            b = swap;
+        }
+        return ((ArrayContainer) a).filter(b, true);
+    }
+
+    private static Container andNot(Container a, Container b)
+    {
+        a = a.unrun();
+        b = b.unrun();
+        if (a instanceof ArrayContainer)
+        {
+            return ((ArrayContainer) a).filter(b, false);
+        }
+
+        BitmapContainer result = ((BitmapContainer) a).copy();
+        if (b instanceof ArrayContainer)
+        {
+            ArrayContainer y = (ArrayContainer) b;
+            for (int i = 0; i < y.cardinality; i++)
+            {
+                result.clearBit(y.values[i]);
+            }
+        }
+        else
+        {
+            long[] words = ((BitmapContainer) b).words;
+            for (int w = 0; w < BITMAP_WORDS; w++)
+            {
+                result.words[w] &= ~words[w];
+            }
+            result.recount();
+        }
+        return result.shrink();
+    }
+
+    // ---------------------------------------------------------------
+    // containers
+    // ---------------------------------------------------------------
+
+    // the low 16 bits of the values sharing one high half
+    private abstract static class Container
+    {
+        abstract int cardinality();
+
+        abstract boolean contains(char low);
+
+        // these return the container to use from now on, which may be a new one in another form
+        abstract Container add(char low);
+
+        abstract Container remove(char low);
+
+        abstract Container runOptimize();
+
+        // array or bitmap form of this container (itself unless it is a run container)
+        abstract Container unrun();
+
+        abstract Container copy();
+
+        abstract boolean forEachWhile(int high, IntPredicate action);
+
+        abstract long bytesUsed();
+
+        // number of runs of consecutive values, used to decide whether run form is smaller
+        abstract int numberOfRuns();
+
+        // picks the smallest form for this container's values
+        Container smallest()
+        {
+            int runs = numberOfRuns();
+            long runBytes = 4L * runs;
+            long otherBytes = (cardinality() <= ARRAY_MAX) ? 2L * cardinality() : 8L * BITMAP_WORDS;
+            if (runBytes < otherBytes)
+            {
+                return (this instanceof RunContainer) ? this : RunContainer.from(this, runs);
+            }
+            return unrun();
+        }
+    }
+
+    private static final class ArrayContainer extends Container
+    {
+        char[] values;      // sorted low halves
+        int cardinality;
+
+        ArrayContainer(char[] values, int cardinality)
+        {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality()
+        {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low)
+        {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        Container add(char low)
+        {
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0)
+            {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX)
+            {
+                return toBitmap().add(low);
+            }
+
+            index = -index - 1;
+            if (cardinality == values.length)
+            {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, 2 * values.length)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char low)
+        {
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0)
+            {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Container runOptimize()
+        {
+            return smallest();
+        }
+
+        @Override
+        Container unrun()
+        {
+            return this;
+        }
+
+        @Override
+        ArrayContainer copy()
+        {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        boolean forEachWhile(int high, IntPredicate action)
+        {
+            for (int i = 0; i < cardinality; i++)
+            {
+                if (!action.test(high | values[i]))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        long bytesUsed()
+        {
+            return IntListFootprint.object(IntListFootprint.REFERENCE + Integer.BYTES)
+                    + IntListFootprint.array(values.length, Character.BYTES);
+        }
+
+        @Override
+        int numberOfRuns()
+        {
+            int runs = 0;
+            for (int i = 0; i < cardinality; i++)
+            {
+                if (i == 0 || values[i] != values[i - 1] + 1)
+                {
+                    runs++;
+                }
+            }
+            return runs;
+        }
+
+        BitmapContainer toBitmap()
+        {
+            BitmapContainer bitmap = new BitmapContainer();
+            bitmap.setAll(this);
+            return bitmap;
+        }
+
+        // values of this array that are (keep) or are not (!keep) in other
+        ArrayContainer filter(Container other, boolean keep)
+        {
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++)
+            {
+                if (other.contains(values[i]) == keep)
+                {
+                    result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+    }
+
+    private static final class BitmapContainer extends Container
+    {
+        final long[] words;
+        int cardinality;
+
+        BitmapContainer()
+        {
+            words = new long[BITMAP_WORDS];
+            cardinality = 0;
+        }
+
+        private BitmapContainer(long[] words, int cardinality)
+        {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality()
+        {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low)
+        {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(char low)
+        {
+            long before = words[low >>> 6];
+            long after = before | (1L << low);
+            if (before != after)
+            {
+                words[low >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char low)
+        {
+            clearBit(low);
+            return shrink();
+        }
+
+        @Override
+        Container runOptimize()
+        {
+            return smallest();
+        }
+
+        @Override
+        Container unrun()
+        {
+            return this;
+        }
+
+        @Override
+        BitmapContainer copy()
+        {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        boolean forEachWhile(int high, IntPredicate action)
+        {
+            for (int w = 0; w < BITMAP_WORDS; w++)
+            {
+                long word = words[w];
+                while (word != 0)
+                {
+                    int low = (w << 6) + Long.numberOfTrailingZeros(word);
+                    if (!action.test(high | low))
+                    {
+                        return false;
+                    }
+                    word &= word - 1;   // clear the lowest set bit
+                }
+            }
+            return true;
+        }
+
+        @Override
+        long bytesUsed()
+        {
+            return IntListFootprint.object(IntListFootprint.REFERENCE + Integer.BYTES)
+                    + IntListFootprint.array(BITMAP_WORDS, Long.BYTES);
+        }
+
+        @Override
+        int numberOfRuns()
+        {
+            int runs = 0;
+            long previous = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++)
+            {
+                long word = words[w];
+                // a run starts at every set bit whose lower neighbor is clear
+                runs += Long.bitCount(word & ~((word << 1) | (previous >>> 63)));
+                previous = word;
+            }
+            return runs;
+        }
+
+        void setAll(ArrayContainer array)
+        {
+            for (int i = 0; i < array.cardinality; i++)
+            {
+                add(array.values[i]);
+            }
+        }
+
+        void clearBit(char low)
+        {
+            long before = words[low >>> 6];
+            long after = before & ~(1L << low);
+            if (before != after)
+            {
+                words[low >>> 6] = after;
+                cardinality--;
+            }
+        }
+
+        void recount()
+        {
+            int count = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++)
+            {
+                count += Long.bitCount(words[w]);
+            }
+            cardinality = count;
+        }
+
+        // back to an array once the bitmap is no longer the smaller form
+        Container shrink()
+        {
+            if (cardinality > ARRAY_MAX)
+            {
+                return this;
+            }
+
+            char[] values = new char[cardinality];
+            int[] count = new int[1];
+            forEachWhile(0, low -> {
+                values[count[0]++] = (char) low;
+                return true;
+            });
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+
+    private static final class RunContainer extends Container
+    {
+        final char[] runs;      // runs[2i] = start of run i, runs[2i + 1] = its length - 1
+        final int runCount;
+        final int cardinality;
+
+        private RunContainer(char[] runs, int runCount)
+        {
+            this.runs = runs;
+            this.runCount = runCount;
+            int total = 0;
+            for (int i = 0; i < runCount; i++)
+            {
+                total += runs[2 * i + 1] + 1;
+            }
+            this.cardinality = total;
+        }
+
+        static RunContainer from(Container container, int runCount)
+        {
+            char[] runs = new char[2 * runCount];
+            int[] state = {-1, -2};     // {index of current run, previous value}
+            container.forEachWhile(0, low -> {
+                if (low != state[1] + 1)
+                {
+                    state[0]++;
+                    runs[2 * state[0]] = (char) low;
+                }
+                runs[2 * state[0] + 1] = (char) (low - runs[2 * state[0]]);
+                state[1] = low;
+                return true;
+            });
+            return new RunContainer(runs, runCount);
+        }
+
+        @Override
+        int cardinality()
+        {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low)
+        {
+            // find the last run starting at or before low
+            int lo = 0;
+            int hi = runCount - 1;
+            while (lo <= hi)
+            {
+                int mid = (lo + hi) >>> 1;
+                if (runs[2 * mid] <= low)
+                {
+                    lo = mid + 1;
+                }
+                else
+                {
+                    hi = mid - 1;
+                }
+            }
+            return hi >= 0 && low - runs[2 * hi] <= runs[2 * hi + 1];
+        }
+
+        // runs are built once by runOptimize; changing one goes back to array or bitmap form
+        @Override
+        Container add(char low)
+        {
+            return contains(low) ? this : unrun().add(low);
+        }
+
+        @Override
+        Container remove(char low)
+        {
+            return contains(low) ? unrun().remove(low) : this;
+        }
+
+        @Override
+        Container runOptimize()
+        {
+            return smallest();
+        }
+
+        @Override
+        Container unrun()
+        {
+            if (cardinality <= ARRAY_MAX)
+            {
+                char[] values = new char[cardinality];
+                int count = 0;
+                for (int i = 0; i < runCount; i++)
+                {
+                    int start = runs[2 * i];
+                    int end = start + runs[2 * i + 1];
+                    for (int low = start; low <= end; low++)
+                    {
+                        values[count++] = (char) low;
+                    }
+                }
+                return new ArrayContainer(values, count);
+            }
+
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < runCount; i++)
+            {
+                int start = runs[2 * i];
+                int end = start + runs[2 * i + 1];
+                for (int low = start; low <= end; low++)
+                {
+                    bitmap.words[low >>> 6] |= 1L << low;
+                }
+            }
+            bitmap.cardinality = cardinality;
+            return bitmap;
+        }
+
+        @Override
+        Container copy()
+        {
+            // never modified in place, so it can be shared
+            return this;
+        }
+
+        @Override
+        boolean forEachWhile(int high, IntPredicate action)
+        {
+            for (int i = 0; i < runCount; i++)
+            {
+                int start = runs[2 * i];
+                int end = start + runs[2 * i + 1];
+                for (int low = start; low <= end; low++)
+                {
+                    if (!action.test(high | low))
+                    {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        long bytesUsed()
+        {
+            return IntListFootprint.object(IntListFootprint.REFERENCE + 2 * Integer.BYTES)
+                    + IntListFootprint.array(runs.length, Character.BYTES);
+        }
+
+        @Override
+        int numberOfRuns()
+        {
+            return runCount;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoaringIntSetTest {
+
+    private static int[] toArray(TreeSet<Integer> set) {
+        int[] result = new int[set.size()];
+        int i = 0;
+        for (int value : set) {
+            result[i++] = value;
+        }
+        return result;
+    }
+
+    @Test
+    void addRemoveContains() {
+        RoaringIntSet set = new RoaringIntSet();
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.add(-7));
+        assertTrue(set.add(1 << 20));
+        assertTrue(set.contains(42));
+        assertTrue(set.contains(-7));
+        assertFalse(set.contains(43));
+        assertEquals(3, set.cardinality());
+        assertEquals("[-7, 42, 1048576]", set.toString());
+        assertTrue(set.remove(42));
+        assertFalse(set.remove(42));
+        assertEquals(2, set.cardinality());
+    }
+
+    @Test
+    void denseRangeSwitchesToBitmapAndBack() {
+        RoaringIntSet set = new RoaringIntSet();
+        for (int i = 0; i < 10000; i++) {
+            set.add(i * 2);
+        }
+        assertEquals(10000, set.cardinality());
+        assertTrue(set.contains(19998));
+        assertFalse(set.contains(19999));
+        for (int i = 0; i < 9000; i++) {
+            set.remove(i * 2);
+        }
+        assertEquals(1000, set.cardinality());
+        assertEquals(18000, set.toArray()[0]);
+    }
+
+    @Test
+    void runOptimizeKeepsValues() {
+        RoaringIntSet set = new RoaringIntSet();
+        for (int i = 0; i < 100000; i++) {
+            set.add(i);
+        }
+        long before = set.bytesUsed();
+        set.runOptimize();
+        assertTrue(set.bytesUsed() < before);
+        assertEquals(100000, set.cardinality());
+        assertTrue(set.contains(65535));
+        assertTrue(set.contains(65536));
+        assertFalse(set.contains(100000));
+        set.remove(500);
+        assertFalse(set.contains(500));
+        assertEquals(99999, set.cardinality());
+    }
+
+    @Test
+    void conversionFromAndToArrayIntList() {
+        ArrayIntList list = new ArrayIntList();
+        list.addBack(5);
+        list.addBack(-3);
+        list.addBack(5);
+        list.addBack(70000);
+        RoaringIntSet set = RoaringIntSet.fromList(list);
+        assertEquals("[-3, 5, 70000]", set.toArrayIntList().toString());
+    }
+
+    @Test
+    void setAlgebraMatchesTreeSet() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            RoaringIntSet a = new RoaringIntSet();
+            RoaringIntSet b = new RoaringIntSet();
+            TreeSet<Integer> x = new TreeSet<>();
+            TreeSet<Integer> y = new TreeSet<>();
+            // mix sparse and dense chunks, including negative values
+            int bound = (round % 2 == 0) ? 20000 : 300000;
+            int count = random.nextInt(12000);
+            for (int i = 0; i < count; i++) {
+                int u = random.nextInt(bound) - bound / 3;
+                int v = random.nextInt(bound) - bound / 3;
+                a.add(u);
+                x.add(u);
+                b.add(v);
+                y.add(v);
+            }
+            if (round % 3 == 0) {
+                for (int v = 1000; v < 90000; v++) {
+                    a.add(v);
+                    x.add(v);
+                }
+                a.runOptimize();
+            }
+
+            TreeSet<Integer> union = new TreeSet<>(x);
+            union.addAll(y);
+            TreeSet<Integer> intersection = new TreeSet<>(x);
+            intersection.retainAll(y);
+            TreeSet<Integer> difference = new TreeSet<>(x);
+            difference.removeAll(y);
+
+            assertArrayEquals(toArray(x), a.toArray());
+            assertArrayEquals(toArray(union), a.union(b).toArray());
+            assertArrayEquals(toArray(intersection), a.intersection(b).toArray());
+            assertArrayEquals(toArray(difference), a.difference(b).toArray());
+        }
+    }
+
+    @Test
+    void iteratorIsOrdered() {
+        RoaringIntSet set = new RoaringIntSet();
+        set.add(3);
+        set.add(Integer.MIN_VALUE);
+        set.add(Integer.MAX_VALUE);
+        StringBuilder sb = new StringBuilder();
+        for (int value : set) {
+            sb.append(value).append(' ');
+        }
+        assertEquals("-2147483648 3 2147483647 ", sb.toString());
+    }
+}
@@ -0,0 +1,493 @@
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * An IntList stored in fixed-size int[] chunks reached through a directory
+ * array, instead of one contiguous buffer like ArrayIntList.
+ *
+ * Growing only allocates one new chunk (256 KB by default, small enough
+ * to never be a humongous allocation on G1), so there is no doubling step
+ * that needs twice the memory and copies every value. get stays constant
+ * time: the chunk is index >>> chunkShift and the position inside it is
+ * index & chunkMask. Only the directory, one reference per chunk, is ever
+ * copied when it fills.
+ *
+ * Indexes and the size are longs internally, so the list can hold more
+ * than Integer.MAX_VALUE values; see longSize(), get(long), add(long, int)
+ * and remove(long), which also make it a BigIntList. The int methods of
+ * IntList work on the first Integer.MAX_VALUE positions.
+ */
+public class SegmentedIntList implements IntList, BigIntList
+{
+    static final int DEFAULT_CHUNK_SHIFT = 16;     // 65536 ints per chunk
+
+    // internal (private) representation
+    private final int chunkShift;
+    private final int chunkSize;
+    private final int chunkMask;
+    private int[][] chunks;     // directory: chunks[0, chunkCount) are allocated
+    private int chunkCount;
+    private long size;
+    private int modCount;
+
+    public SegmentedIntList()
+    {
+        this(DEFAULT_CHUNK_SHIFT);
+    }
+
+    // smaller chunks let tests cross chunk boundaries with few values
+    SegmentedIntList(int chunkShift)
+    {
+        if (chunkShift < 1 || chunkShift > 30)
+        {
+            throw new IllegalArgumentException("chunkShift must be between 1 and 30");
+        }
+        this.chunkShift = chunkShift;
+        this.chunkSize = 1 << chunkShift;
+        this.chunkMask = chunkSize - 1;
+        chunks = new int[4][];
+        chunkCount = 0;
+        size = 0;
+    }
+
+    @Override
+    public void addFront(int value) // slow, linear time O(size), every value moves one spot
+    {
+        add(0L, value);
+    }
+
+    @Override
+    public void addBack(int value) // fast, constant time O(1), at most one chunk is allocated
+    {
+        ensureChunkFor(size);
+        chunks[(int) (size >>> chunkShift)][(int) size & chunkMask] = value;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void add(int index, int value)
+    {
+        add((long) index, value);
+    }
+
+    /**
+     * Inserts the specified value at the specified position in this list.
+     * Shifts the value currently at that position (if any) and any subsequent
+     * values to the right, carrying the last value of each chunk into the next.
+     *
+     * @param index index at which the specified value is to be inserted
+     * @param value value to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public void add(long index, int value) // linear time O(size - index)
+    {
+        if (index < 0 || index > size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+
+        ensureChunkFor(size);
+        shiftRight(index);
+        chunks[(int) (index >>> chunkShift)][(int) index & chunkMask] = value;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void removeFront() // slow, linear time O(size)
+    {
+        if (size == 0)
+        {
+            throw new IllegalStateException("List is empty");
+        }
+        remove(0L);
+    }
+
+    @Override
+    public void removeBack() // fast, constant time O(1)
+    {
+        if (size == 0)
+        {
+            throw new IllegalStateException("Already empty!");
+        }
+        remove(size - 1);
+    }
+
+    @Override
+    public int remove(int index)
+    {
+        return remove((long) index);
+    }
+
+    /**
+     * Removes the value at the specified position in this list. Chunks
+     * left empty at the end are released, except for one spare so that
+     * adding and removing around a chunk boundary does not thrash.
+     *
+     * @param index the index of the value to be removed
+     * @return the value previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public int remove(long index) // linear time O(size - index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+
+        int removedValue = chunks[(int) (index >>> chunkShift)][(int) index & chunkMask];
+        shiftLeft(index);
+        size--;
+        modCount++;
+        releaseChunks(1);
+        return removedValue;
+    }
+
+    @Override
+    public int get(int index)
+    {
+        return get((long) index);
+    }
+
+    /**
+     * Returns the value at the specified position in the list.
+     *
+     * fast, constant time O(1): one shift and one mask
+     *
+     * @param index index of the value to return
+     * @return the value at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public int get(long index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        return chunks[(int) (index >>> chunkShift)][(int) index & chunkMask];
+    }
+
+    /**
+     * Replaces the value at the specified position in the list.
+     *
+     * @param index index of the value to replace
+     * @param value value to be stored at the specified position
+     * @return the value previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public int set(long index, int value)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        int[] chunk = chunks[(int) (index >>> chunkShift)];
+        int oldValue = chunk[(int) index & chunkMask];
+        chunk[(int) index & chunkMask] = value;
+        return oldValue;
+    }
+
+    @Override
+    public boolean contains(int value) // linear time O(size)
+    {
+        return longIndexOf(value) != -1;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified value,
+     * or -1 if it is not among the first Integer.MAX_VALUE values.
+     * Use longIndexOf to search the whole list.
+     *
+     * @param value value to search for
+     * @return the index of the first occurrence, or -1
+     */
+    @Override
+    public int indexOf(int value)
+    {
+        long index = longIndexOf(value);
+        return (index <= Integer.MAX_VALUE) ? (int) index : -1;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified value in
+     * the whole list, or -1 if it is not there.
+     *
+     * @param value value to search for
+     * @return the index of the first occurrence, or -1
+     */
+    @Override
+    public long longIndexOf(int value) // linear time O(size)
+    {
+        long base = 0;
+        for (int c = 0; c < chunkCount && base < size; c++)
+        {
+            int[] chunk = chunks[c];
+            int used = (int) Math.min(chunkSize, size - base);
+            for (int i = 0; i < used; i++)
+            {
+                if (chunk[i] == value)
+                {
+                    return base + i;
+                }
+            }
+            base += chunkSize;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of values in this list, or Integer.MAX_VALUE if
+     * there are more than that. Use longSize for the exact count.
+     *
+     * @return the size, capped at Integer.MAX_VALUE
+     */
+    @Override
+    public int size()
+    {
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of values in this list.
+     *
+     * @return the exact size
+     */
+    @Override
+    public long longSize()
+    {
+        return size;
+    }
+
+    @Override
+    public void clear()
+    {
+        chunks = new int[4][];
+        chunkCount = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Releases the spare chunk kept after removals, if any.
+     */
+    public void trimToSize()
+    {
+        releaseChunks(0);
+    }
+
+    /**
+     * Returns the number of chunks currently allocated.
+     *
+     * @return the allocated chunk count
+     */
+    public int chunkCount()
+    {
+        return chunkCount;
+    }
+
+    /**
+     * Returns the number of values the allocated chunks can hold, capped at
+     * Integer.MAX_VALUE like size(). At most one chunk is partly used, plus
+     * the spare chunk kept after removals.
+     *
+     * @return the capacity of the allocated chunks
+     */
+    @Override
+    public int capacity()
+    {
+        return (int) Math.min((long) chunkCount * chunkSize, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long bytesUsed()
+    {
+        // chunkShift, chunkSize, chunkMask, chunks reference, chunkCount, size and modCount
+        return IntListFootprint.object(5 * Integer.BYTES + IntListFootprint.REFERENCE + Long.BYTES)
+                + IntListFootprint.array(chunks.length, IntListFootprint.REFERENCE)
+                + chunkCount * IntListFootprint.array(chunkSize, Integer.BYTES);
+    }
+
+    @Override
+    public boolean forEachWhile(IntPredicate action)
+    {
+        int expectedModCount = modCount;
+        long base = 0;
+        for (int c = 0; c < chunkCount && base < size; c++)
+        {
+            int[] chunk = chunks[c];
+            int used = (int) Math.min(chunkSize, size - base);
+            for (int i = 0; i < used; i++)
+            {
+                if (!action.test(chunk[i]))
+                {
+                    return false;
+                }
+            }
+            base += chunkSize;
+        }
+        if (modCount != expectedModCount)
+        {
+            throw new ConcurrentModificationException();
+        }
+        return true;
+    }
+
+    @Override
+    public void forEachInt(IntConsumer action)
+    {
+        forEachWhile(value -> {
+            action.accept(value);
+            return true;
+        });
+    }
+
+    /**
+     * Returns this list, which is already an IntList.
+     *
+     * @return this list
+     */
+    @Override
+    public IntList asIntList()
+    {
+        return this;
+    }
+
+    /**
+     * Returns an array containing all the values in this list, one block
+     * copy per chunk.
+     *
+     * @return a new array containing the values in this list
+     * @throws IllegalStateException if the list has more values than an array can hold
+     */
+    @Override
+    public int[] toArray()
+    {
+        if (size > Integer.MAX_VALUE - 8)
+        {
+            throw new IllegalStateException("List of " + size + " values does not fit in an array");
+        }
+        int[] result = new int[(int) size];
+        for (int c = 0, position = 0; position < size; c++, position += chunkSize)
+        {
+            System.arraycopy(chunks[c], 0, result, position, Math.min(chunkSize, (int) size - position));
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<Integer> iterator()
+    {
+        return new Iterator<Integer>()
+        {
+            private long currentPosition = 0;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext()
+            {
+                return currentPosition < size;
+            }
+
+            @Override
+            public Integer next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                if (modCount != expectedModCount)
+                {
+                    throw new ConcurrentModificationException();
+                }
+                int value = chunks[(int) (currentPosition >>> chunkShift)][(int) currentPosition & chunkMask];
+                currentPosition++;
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public String toString()
+    {
+        return IntListFormat.toString(this, Integer.MAX_VALUE);
+    }
+
+    // makes sure the chunk holding index is allocated; grows the directory if needed
+    private void ensureChunkFor(long index)
+    {
+        int chunk = (int) (index >>> chunkShift);
+        if (chunk < chunkCount)
+        {
+            return;
+        }
+        if (chunkCount == chunks.length)
+        {
+            chunks = Arrays.copyOf(chunks, 2 * chunks.length);    // copies references only
+        }
+        chunks[chunkCount++] = new int[chunkSize];
+    }
+
+    // frees chunks past the one holding the last value, keeping up to spare of them
+    private void releaseChunks(int spare)
+    {
+        int needed = (int) ((size + chunkMask) >>> chunkShift);
+        while (chunkCount > needed + spare)
+        {
+            chunks[--chunkCount] = null;
+        }
+    }
+
+    // moves the values [from, size) one spot right; the chunk for position size must exist
+    private void shiftRight(long from)
+    {
+        int firstChunk = (int) (from >>> chunkShift);
+        int lastChunk = (int) (size >>> chunkShift);
+        for (int c = lastChunk; c > firstChunk; c--)
+        {
+            int[] chunk = chunks[c];
+            int used = (c == lastChunk) ? (int) size & chunkMask : chunkMask;
+            System.arraycopy(chunk, 0, chunk, 1, used);
+            chunk[0] = chunks[c - 1][chunkMask];    // carry in the last value of the previous chunk
+        }
+
+        int[] first = chunks[firstChunk];
+        int offset = (int) from & chunkMask;
+        int end = (firstChunk == lastChunk) ? (int) size & chunkMask : chunkMask;
+        System.arraycopy(first, offset, first, offset + 1, end - offset);
+    }
+
+    // moves the values (index, size) one spot left, overwriting index
+    private void shiftLeft(long index)
+    {
+        int firstChunk = (int) (index >>> chunkShift);
+        int lastChunk = (int) ((size - 1) >>> chunkShift);
+
+        int[] first = chunks[firstChunk];
+        int offset = (int) index & chunkMask;
+        int end = (firstChunk == lastChunk) ? (int) (size - 1) & chunkMask : chunkMask;
+        System.arraycopy(first, offset + 1, first, offset, end - offset);
+
+        for (int c = firstChunk + 1; c <= lastChunk; c++)
+        {
+            int[] chunk = chunks[c];
+            chunks[c - 1][chunkMask] = chunk[0];    // carry the first value back into the previous chunk
+            int last = (c == lastChunk) ? (int) (size - 1) & chunkMask : chunkMask;
+            System.arraycopy(chunk, 1, chunk, 0, last);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedIntListTest {
+
+    @Test
+    void growthOnlyAddsChunks() {
+        SegmentedIntList theList = new SegmentedIntList(4);   // 16 values per chunk
+        for (int i = 0; i < 100; i++) {
+            theList.addBack(i);
+        }
+        assertEquals(100, theList.size());
+        assertEquals(100L, theList.longSize());
+        assertEquals(7, theList.chunkCount());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, theList.get(i));
+        }
+        assertEquals(63, theList.get(63L));
+        assertEquals(63, theList.set(63L, -1));
+        assertEquals(-1, theList.get(63));
+    }
+
+    @Test
+    void removeReleasesChunksWithOneSpare() {
+        SegmentedIntList theList = new SegmentedIntList(4);
+        for (int i = 0; i < 64; i++) {
+            theList.addBack(i);
+        }
+        assertEquals(4, theList.chunkCount());
+        for (int i = 0; i < 40; i++) {
+            theList.removeBack();
+        }
+        assertEquals(3, theList.chunkCount());    // two in use and one spare
+        theList.trimToSize();
+        assertEquals(2, theList.chunkCount());
+        theList.clear();
+        assertEquals(0, theList.chunkCount());
+        assertThrows(IllegalStateException.class, theList::removeFront);
+        assertThrows(IllegalStateException.class, theList::removeBack);
+        assertThrows(IndexOutOfBoundsException.class, () -> theList.get(0L));
+    }
+
+    @Test
+    void matchesArrayListAcrossChunkBoundaries() {
+        Random random = new Random(36);
+        SegmentedIntList theList = new SegmentedIntList(3);   // 8 values per chunk
+        ArrayList<Integer> oracle = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            int op = random.nextInt(7);
+            int value = random.nextInt(100);
+            if (op == 0) {
+                theList.addFront(value);
+                oracle.add(0, value);
+            } else if (op <= 2) {
+                theList.addBack(value);
+                oracle.add(value);
+            } else if (op == 3) {
+                int index = random.nextInt(oracle.size() + 1);
+                theList.add(index, value);
+                oracle.add(index, value);
+            } else if (op == 4 && !oracle.isEmpty()) {
+                int index = random.nextInt(oracle.size());
+                assertEquals((int) oracle.remove(index), theList.remove(index));
+            } else if (op == 5 && !oracle.isEmpty()) {
+                theList.removeFront();
+                oracle.remove(0);
+            } else if (!oracle.isEmpty()) {
+                assertEquals(oracle.indexOf(value), theList.indexOf(value));
+            }
+        }
+        assertEquals(oracle.size(), theList.size());
+        assertEquals(oracle.toString(), theList.toString());
+        int[] values = theList.toArray();
+        int i = 0;
+        for (int value : theList) {
+            assertEquals(values[i++], value);
+        }
+    }
+}
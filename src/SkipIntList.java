@@ -0,0 +1,498 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * An IntList stored as an indexable skip list. Level 0 links every node in
+ * list order, like LinkedIntList; each higher level links a random quarter
+ * of the nodes of the level below. Every link also stores its span, the
+ * number of positions it jumps, so a walk to an index adds up spans from
+ * the top level down instead of counting nodes one by one.
+ *
+ * get, add(index) and remove(index) take O(log n) expected time, where
+ * LinkedIntList walks O(index) nodes. A Cursor keeps the last node before
+ * its position at every level, so next() and add(value) through it never
+ * search: add links the new node in where it stands and bumps one span per
+ * level above it.
+ *
+ * Iteration order, the IndexOutOfBoundsException of positional methods,
+ * the no-op removeFront/removeBack on an empty list and the fail-fast
+ * iterators all behave as in LinkedIntList.
+ */
+public class SkipIntList implements IntList
+{
+    static final int MAX_LEVEL = 16;    // a quarter per level, enough for 4^16 values
+
+    // one value, linked at levels 0 to next.length - 1
+    static final class Node
+    {
+        int data;
+        final Node[] next;
+        final int[] span;   // span[l]: positions from this node to next[l], or to one past the end if null
+
+        Node(int data, int levels)
+        {
+            this.data = data;
+            this.next = new Node[levels];
+            this.span = new int[levels];
+        }
+    }
+
+    private final Node head = new Node(0, MAX_LEVEL);  // position 0, before index 0
+    private int level = 1;      // levels in use, head.next[level, MAX_LEVEL) are null
+    private int size;
+    private int modCount;
+    private long nodeBytes;     // estimated heap size of all the nodes, for bytesUsed()
+    private int seed = 0x2545F491;
+
+    // set by findBefore(): the last node before a position at each level, and its position
+    private final Node[] update = new Node[MAX_LEVEL];
+    private final int[] rank = new int[MAX_LEVEL];
+
+    public SkipIntList()
+    {
+        head.span[0] = 1;
+    }
+
+    @Override
+    public void addFront(int value)
+    {
+        add(0, value);
+    }
+
+    // O(log n) expected, the last node is found from the top level like any other
+    @Override
+    public void addBack(int value)
+    {
+        add(size, value);
+    }
+
+    /**
+     * Inserts the specified value at the specified position in this list.
+     * Shifts the value currently at that position (if any) and any subsequent
+     * values to the right.
+     *
+     * O(log n) expected
+     *
+     * @param index index at which the specified value is to be inserted
+     * @param value value to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public void add(int index, int value)
+    {
+        if (index < 0 || index > size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        findBefore(index + 1, update, rank);
+        insert(update, rank, index + 1, value);
+    }
+
+    /**
+     * Removes the value located at the front of the list
+     * (at index 0), if it is present.
+     */
+    @Override
+    public void removeFront()
+    {
+        if (size > 0)
+        {
+            remove(0);
+        }
+    }
+
+    /**
+     * Removes the value located at the back of the list
+     * (at index size()-1), if it is present.
+     */
+    @Override
+    public void removeBack()
+    {
+        if (size > 0)
+        {
+            remove(size - 1);
+        }
+    }
+
+    /**
+     * Removes the value at the specified position in this list.
+     * Shifts any subsequent values to the left. Returns the value
+     * that was removed from the list.
+     *
+     * O(log n) expected
+     *
+     * @param index the index of the value to be removed
+     * @return the value previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public int remove(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        findBefore(index + 1, update, rank);
+        Node removed = update[0].next[0];
+        for (int l = 0; l < level; l++)
+        {
+            Node before = update[l];
+            if (before.next[l] == removed)
+            {
+                before.span[l] += removed.span[l] - 1;
+                before.next[l] = removed.next[l];
+            }
+            else
+            {
+                before.span[l]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null)
+        {
+            level--;
+        }
+        size--;
+        modCount++;
+        nodeBytes -= nodeBytes(removed.next.length);
+        return removed.data;
+    }
+
+    /**
+     * Returns the value at the specified position in the list.
+     *
+     * O(log n) expected
+     *
+     * @param index index of the value to return
+     * @return the value at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public int get(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        int target = index + 1;
+        Node current = head;
+        int position = 0;
+        for (int l = level - 1; l >= 0; l--)
+        {
+            while (current.next[l] != null && position + current.span[l] <= target)
+            {
+                position += current.span[l];
+                current = current.next[l];
+            }
+            if (position == target)
+            {
+                break;
+            }
+        }
+        return current.data;
+    }
+
+    @Override
+    public boolean contains(int value)
+    {
+        return indexOf(value) != -1;
+    }
+
+    // linear time O(size), along level 0
+    @Override
+    public int indexOf(int value)
+    {
+        int index = 0;
+        for (Node current = head.next[0]; current != null; current = current.next[0])
+        {
+            if (current.data == value)
+            {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public long bytesUsed()
+    {
+        // head, update and rank references, level, size, modCount and seed, nodeBytes
+        return IntListFootprint.object(3 * IntListFootprint.REFERENCE + 4 * Integer.BYTES + Long.BYTES)
+                + nodeBytes(MAX_LEVEL)
+                + IntListFootprint.array(MAX_LEVEL, IntListFootprint.REFERENCE)
+                + IntListFootprint.array(MAX_LEVEL, Integer.BYTES)
+                + nodeBytes;
+    }
+
+    /**
+     * Removes all the values from this list.
+     * The list will be empty after this call returns.
+     */
+    @Override
+    public void clear()
+    {
+        for (int l = 0; l < level; l++)
+        {
+            head.next[l] = null;
+        }
+        head.span[0] = 1;
+        level = 1;
+        size = 0;
+        modCount++;
+        nodeBytes = 0;
+    }
+
+    @Override
+    public boolean forEachWhile(IntPredicate action)
+    {
+        int expectedModCount = modCount;
+        for (Node current = head.next[0]; current != null; current = current.next[0])
+        {
+            if (!action.test(current.data))
+            {
+                return false;
+            }
+        }
+        if (modCount != expectedModCount)
+        {
+            throw new ConcurrentModificationException();
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<Integer> iterator()
+    {
+        return new Iterator<Integer>()
+        {
+            private Node current = head.next[0];
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext()
+            {
+                return current != null;
+            }
+
+            @Override
+            public Integer next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                if (modCount != expectedModCount)
+                {
+                    throw new ConcurrentModificationException();
+                }
+                int result = current.data;
+                current = current.next[0];
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Returns a cursor positioned just before the specified index, so its
+     * first next() returns get(index). Finding the position is O(log n)
+     * expected; moving on and adding from there never searches again.
+     *
+     * @param index index of the first value the cursor returns
+     * @return a cursor at the specified position
+     * @throws IndexOutOfBoundsException if index is out of range (index &lt; 0 || index &gt; size())
+     */
+    public Cursor cursor(int index)
+    {
+        if (index < 0 || index > size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        return new Cursor(index);
+    }
+
+    @Override
+    public String toString()
+    {
+        return IntListFormat.toString(this, Integer.MAX_VALUE);
+    }
+
+    /**
+     * A position between two values of the list, with the last node before
+     * it at every level. Structural changes not made through this cursor
+     * make it invalid, and any later use of it throws
+     * ConcurrentModificationException.
+     */
+    public class Cursor
+    {
+        private final Node[] before = new Node[MAX_LEVEL];
+        private final int[] beforeRank = new int[MAX_LEVEL];
+        private int position;       // position of before[0]; the cursor's next index is the same number
+        private int expectedModCount;
+
+        private Cursor(int index)
+        {
+            findBefore(index + 1, before, beforeRank);
+            position = index;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Returns true if there is a value after this cursor.
+         *
+         * @return true if next() would return a value
+         */
+        public boolean hasNext()
+        {
+            return position < size;
+        }
+
+        /**
+         * Returns the value after this cursor and moves past it.
+         * O(1) expected, the levels of the passed node are taken over
+         *
+         * @return the next value
+         * @throws NoSuchElementException if the cursor is at the end
+         */
+        public int next()
+        {
+            checkForComodification();
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            Node node = before[0].next[0];
+            position++;
+            for (int l = 0; l < node.next.length; l++)
+            {
+                before[l] = node;
+                beforeRank[l] = position;
+            }
+            return node.data;
+        }
+
+        /**
+         * Returns the index of the value next() would return.
+         *
+         * @return the index just after this cursor
+         */
+        public int nextIndex()
+        {
+            return position;
+        }
+
+        /**
+         * Inserts the specified value at this cursor, before the value
+         * next() would return, and moves the cursor past it. The node is
+         * linked in with the nodes the cursor already holds: O(1) expected
+         * for the links, plus one span update per level above the new node.
+         *
+         * @param value value to be inserted
+         */
+        public void add(int value)
+        {
+            checkForComodification();
+            Node node = insert(before, beforeRank, position + 1, value);
+            position++;
+            for (int l = 0; l < node.next.length; l++)
+            {
+                before[l] = node;
+                beforeRank[l] = position;
+            }
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification()
+        {
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    // fills before and ranks with the last node, at each level, whose position is below target
+    private void findBefore(int target, Node[] before, int[] ranks)
+    {
+        Node current = head;
+        int position = 0;
+        for (int l = MAX_LEVEL - 1; l >= 0; l--)
+        {
+            if (l < level)
+            {
+                while (current.next[l] != null && position + current.span[l] < target)
+                {
+                    position += current.span[l];
+                    current = current.next[l];
+                }
+            }
+            before[l] = current;
+            ranks[l] = position;
+        }
+    }
+
+    // links a new node in at position target, after before[l] at each level l
+    private Node insert(Node[] before, int[] ranks, int target, int value)
+    {
+        int levels = randomLevel();
+        if (levels > level)
+        {
+            for (int l = level; l < levels; l++)
+            {
+                head.next[l] = null;
+                head.span[l] = size + 1;
+                before[l] = head;
+                ranks[l] = 0;
+            }
+            level = levels;
+        }
+
+        Node node = new Node(value, levels);
+        for (int l = 0; l < levels; l++)
+        {
+            Node previous = before[l];
+            node.next[l] = previous.next[l];
+            node.span[l] = previous.span[l] - (target - ranks[l]) + 1;
+            previous.next[l] = node;
+            previous.span[l] = target - ranks[l];
+        }
+        for (int l = levels; l < level; l++)
+        {
+            before[l].span[l]++;
+        }
+        size++;
+        modCount++;
+        nodeBytes += nodeBytes(levels);
+        return node;
+    }
+
+    // 1 + the number of trailing pairs of zero bits: each level holds a quarter of the one below
+    private int randomLevel()
+    {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return 1 + Integer.numberOfTrailingZeros(seed | (1 << 30)) / 2;
+    }
+
+    // the Node object with its next and span arrays
+    private static long nodeBytes(int levels)
+    {
+        return IntListFootprint.object(Integer.BYTES + 2 * IntListFootprint.REFERENCE)
+                + IntListFootprint.array(levels, IntListFootprint.REFERENCE)
+                + IntListFootprint.array(levels, Integer.BYTES);
+    }
+}
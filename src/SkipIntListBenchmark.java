@@ -0,0 +1,105 @@
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Times random-index get, add(index) and remove(index) on LinkedIntList,
+ * which walks from head, against SkipIntList, which jumps by span counts,
+ * and ArrayIntList for reference; then one pass inserting after every
+ * value, by index and through a SkipIntList.Cursor.
+ *
+ * usage: java SkipIntListBenchmark [size] [operations] [rounds]
+ */
+public class SkipIntListBenchmark
+{
+    public static void main(String[] args)
+    {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        int operations = (args.length > 1) ? Integer.parseInt(args[1]) : 20_000;
+        int rounds = (args.length > 2) ? Integer.parseInt(args[2]) : 3;
+
+        System.out.printf("%d values, %d random operations of each kind, best of %d rounds%n",
+                size, operations, rounds);
+        run("LinkedIntList", () -> filled(new LinkedIntList(), size), operations, rounds);
+        run("SkipIntList", () -> filled(new SkipIntList(), size), operations, rounds);
+        run("ArrayIntList", () -> filled(new ArrayIntList(), size), operations, rounds);
+
+        long[] checksum = {0};
+        long byIndex = best(rounds, () -> filled(new SkipIntList(), size), list -> {
+            for (int i = 0; i < 2 * size; i += 2)
+            {
+                list.add(i + 1, -1);
+            }
+            checksum[0] += list.size();
+        });
+        long byCursor = best(rounds, () -> filled(new SkipIntList(), size), list -> {
+            SkipIntList.Cursor cursor = ((SkipIntList) list).cursor(0);
+            while (cursor.hasNext())
+            {
+                cursor.next();
+                cursor.add(-1);
+            }
+            checksum[0] += list.size();
+        });
+        System.out.printf("  insert after every value: add(index) %8.2f ms   cursor %8.2f ms   (checksum %d)%n",
+                byIndex / 1e6, byCursor / 1e6, checksum[0]);
+    }
+
+    private static void run(String name, Supplier<IntList> lists, int operations, int rounds)
+    {
+        long[] checksum = {0};
+        long get = best(rounds, lists, list -> {
+            Random random = new Random(1);
+            for (int i = 0; i < operations; i++)
+            {
+                checksum[0] += list.get(random.nextInt(list.size()));
+            }
+        });
+        long add = best(rounds, lists, list -> {
+            Random random = new Random(2);
+            for (int i = 0; i < operations; i++)
+            {
+                list.add(random.nextInt(list.size() + 1), i);
+            }
+            checksum[0] += list.size();
+        });
+        long remove = best(rounds, lists, list -> {
+            Random random = new Random(3);
+            for (int i = 0; i < operations; i++)
+            {
+                checksum[0] += list.remove(random.nextInt(list.size()));
+            }
+        });
+        System.out.printf("  %-14s get %9.2f ms   add %9.2f ms   remove %9.2f ms   (checksum %d)%n",
+                name, get / 1e6, add / 1e6, remove / 1e6, checksum[0]);
+    }
+
+    private static IntList filled(IntList list, int size)
+    {
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++)
+        {
+            list.addFront(random.nextInt());
+        }
+        return list;
+    }
+
+    interface ListTask
+    {
+        void run(IntList list);
+    }
+
+    // fastest of rounds runs on a fresh list each, after one warm-up run; building the list is not timed
+    private static long best(int rounds, Supplier<IntList> lists, ListTask task)
+    {
+        task.run(lists.get());
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++)
+        {
+            IntList list = lists.get();
+            long start = System.nanoTime();
+            task.run(list);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
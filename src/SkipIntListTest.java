@@ -0,0 +1,125 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkipIntListTest {
+
+    @Test
+    void matchesArrayList() {
+        Random random = new Random(50);
+        SkipIntList theList = new SkipIntList();
+        ArrayList<Integer> oracle = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int op = random.nextInt(7);
+            int value = random.nextInt(1000);
+            if (op == 0) {
+                theList.addFront(value);
+                oracle.add(0, value);
+            } else if (op == 1) {
+                theList.addBack(value);
+                oracle.add(value);
+            } else if (op == 2 || op == 3) {
+                int index = random.nextInt(oracle.size() + 1);
+                theList.add(index, value);
+                oracle.add(index, value);
+            } else if (op == 4 && !oracle.isEmpty()) {
+                int index = random.nextInt(oracle.size());
+                assertEquals((int) oracle.remove(index), theList.remove(index));
+            } else if (op == 5 && !oracle.isEmpty()) {
+                int index = random.nextInt(oracle.size());
+                assertEquals((int) oracle.get(index), theList.get(index));
+            } else {
+                assertEquals(oracle.indexOf(value), theList.indexOf(value));
+            }
+        }
+        assertEquals(oracle.size(), theList.size());
+        assertArrayEquals(oracle.stream().mapToInt(Integer::intValue).toArray(), theList.toArray());
+
+        while (!theList.isEmpty()) {        // shrink back down through the levels
+            assertEquals((int) oracle.remove(oracle.size() / 2), theList.remove(theList.size() / 2));
+        }
+        theList.addBack(7);
+        assertEquals("[7]", theList.toString());
+    }
+
+    @Test
+    void behavesLikeLinkedIntListAtTheEdges() {
+        SkipIntList theList = new SkipIntList();
+        theList.removeFront();      // no-op on an empty list, as in LinkedIntList
+        theList.removeBack();
+        assertThrows(IndexOutOfBoundsException.class, () -> theList.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> theList.add(1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> theList.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> theList.cursor(1));
+
+        theList.addBack(1);
+        theList.addBack(2);
+        Iterator<Integer> iterator = theList.iterator();
+        assertEquals(1, iterator.next());
+        theList.addBack(3);
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+
+        theList.clear();
+        assertTrue(theList.isEmpty());
+        assertFalse(theList.iterator().hasNext());
+        assertThrows(NoSuchElementException.class, () -> theList.iterator().next());
+        theList.addFront(4);
+        assertEquals(4, theList.get(0));
+    }
+
+    @Test
+    void cursorAddsWhereItStands() {
+        SkipIntList theList = new SkipIntList();
+        for (int i = 0; i < 1000; i++) {
+            theList.addBack(2 * i);
+        }
+        // fill in the odd numbers from 201 to 799 with one cursor
+        SkipIntList.Cursor cursor = theList.cursor(100);
+        for (int i = 0; i < 300; i++) {
+            int value = cursor.next();
+            theList.get(0);                     // reads do not invalidate the cursor
+            cursor.add(value + 1);
+        }
+        assertEquals(700, cursor.nextIndex());
+        assertEquals(1300, theList.size());
+        for (int i = 0; i < theList.size(); i++) {
+            int expected = (i < 100) ? 2 * i : (i < 700) ? 100 + i : 2 * (i - 300);
+            assertEquals(expected, theList.get(i), "index " + i);
+        }
+
+        SkipIntList.Cursor atEnd = theList.cursor(theList.size());
+        assertFalse(atEnd.hasNext());
+        assertThrows(NoSuchElementException.class, atEnd::next);
+        atEnd.add(5000);
+        atEnd.add(5001);
+        assertEquals(5001, theList.get(theList.size() - 1));
+
+        SkipIntList.Cursor stale = theList.cursor(0);
+        theList.addFront(0);
+        assertThrows(ConcurrentModificationException.class, stale::next);
+        assertThrows(ConcurrentModificationException.class, () -> stale.add(0));
+    }
+
+    @Test
+    void positionalAccessDoesNotWalk() {
+        SkipIntList skip = new SkipIntList();
+        for (int i = 0; i < 200_000; i++) {
+            skip.add(skip.size() / 2, i);
+        }
+        long start = System.nanoTime();
+        long sum = 0;
+        for (int i = 0; i < 200_000; i++) {
+            sum += skip.get((i * 7919) % skip.size());
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(sum > 0);
+        // 200 000 walks of a linked list this long would take minutes
+        assertTrue(elapsed < 5_000_000_000L, "200 000 gets took " + elapsed / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,358 @@
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * An IntList stored as a sequence of small int[] chunks, each between
+ * half full and full. Inserting or removing in the middle only shifts
+ * values inside one chunk (at most CHUNK_CAPACITY of them), instead of the
+ * whole tail as in ArrayIntList, and the chunks stay contiguous in memory,
+ * unlike the nodes of LinkedIntList.
+ *
+ * Finding the chunk for an index scans the array of chunk sizes, so get,
+ * add(index) and remove(index) are O(size / CHUNK_CAPACITY + CHUNK_CAPACITY).
+ */
+public class UnrolledIntList implements IntList
+{
+    static final int CHUNK_CAPACITY = 64;
+
+    // internal (private) representation
+    private int[][] chunks;     // chunks[0, chunkCount) hold the values in order
+    private int[] chunkSizes;   // number of values used in each chunk
+    private int chunkCount;
+    private int size;
+    private int modCount;
+
+    // set by locate(): the chunk holding an index and the position inside it
+    private int foundChunk;
+    private int foundOffset;
+
+    public UnrolledIntList()
+    {
+        chunks = new int[4][];
+        chunkSizes = new int[4];
+        chunkCount = 0;
+        size = 0;
+    }
+
+    @Override
+    public void addFront(int value)
+    {
+        add(0, value);
+    }
+
+    @Override
+    public void addBack(int value) // fast, constant time O(1) amortized
+    {
+        if (chunkCount == 0 || chunkSizes[chunkCount - 1] == CHUNK_CAPACITY)
+        {
+            insertChunk(chunkCount, new int[CHUNK_CAPACITY], 0);
+        }
+
+        int last = chunkCount - 1;
+        chunks[last][chunkSizes[last]] = value;
+        chunkSizes[last]++;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Inserts the specified value at the specified position in this list.
+     * Only the values after it in the same chunk are shifted; a full chunk
+     * is split in two first.
+     *
+     * @param index index at which the specified value is to be inserted
+     * @param value value to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public void add(int index, int value)
+    {
+        if (index < 0 || index > size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+        if (index == size)
+        {
+            addBack(value);
+            return;
+        }
+
+        locate(index);
+        int chunk = foundChunk;
+        int offset = foundOffset;
+        if (chunkSizes[chunk] == CHUNK_CAPACITY)
+        {
+            // split: move the upper half into a new chunk right after this one
+            int half = CHUNK_CAPACITY / 2;
+            int[] upper = new int[CHUNK_CAPACITY];
+            System.arraycopy(chunks[chunk], half, upper, 0, CHUNK_CAPACITY - half);
+            chunkSizes[chunk] = half;
+            insertChunk(chunk + 1, upper, CHUNK_CAPACITY - half);
+            if (offset > half)
+            {
+                chunk++;
+                offset -= half;
+            }
+        }
+
+        int[] values = chunks[chunk];
+        System.arraycopy(values, offset, values, offset + 1, chunkSizes[chunk] - offset);
+        values[offset] = value;
+        chunkSizes[chunk]++;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void removeFront()
+    {
+        if (size == 0)
+        {
+            throw new IllegalStateException("List is empty");
+        }
+        remove(0);
+    }
+
+    @Override
+    public void removeBack()
+    {
+        if (size == 0)
+        {
+            throw new IllegalStateException("Already empty!");
+        }
+        remove(size - 1);
+    }
+
+    /**
+     * Removes the value at the specified position in this list.
+     * Only the values after it in the same chunk are shifted; a chunk that
+     * drops below half full is merged with its neighbor when they fit together.
+     *
+     * @param index the index of the value to be removed
+     * @return the value previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public int remove(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+
+        locate(index);
+        int chunk = foundChunk;
+        int[] values = chunks[chunk];
+        int removedValue = values[foundOffset];
+        System.arraycopy(values, foundOffset + 1, values, foundOffset, chunkSizes[chunk] - foundOffset - 1);
+        chunkSizes[chunk]--;
+        size--;
+        modCount++;
+
+        if (chunkSizes[chunk] == 0)
+        {
+            removeChunk(chunk);
+        }
+        else if (chunkSizes[chunk] < CHUNK_CAPACITY / 2 && chunk + 1 < chunkCount
+                && chunkSizes[chunk] + chunkSizes[chunk + 1] <= CHUNK_CAPACITY)
+        {
+            // pull the next chunk into this one
+            System.arraycopy(chunks[chunk + 1], 0, values, chunkSizes[chunk], chunkSizes[chunk + 1]);
+            chunkSizes[chunk] += chunkSizes[chunk + 1];
+            removeChunk(chunk + 1);
+        }
+        return removedValue;
+    }
+
+    @Override
+    public int get(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index out of range");
+        }
+
+        locate(index);
+        return chunks[foundChunk][foundOffset];
+    }
+
+    @Override
+    public boolean contains(int value)
+    {
+        return indexOf(value) != -1;
+    }
+
+    @Override
+    public int indexOf(int value) // linear time O(size)
+    {
+        int index = 0;
+        for (int c = 0; c < chunkCount; c++)
+        {
+            int[] values = chunks[c];
+            for (int i = 0; i < chunkSizes[c]; i++)
+            {
+                if (values[i] == value)
+                {
+                    return index + i;
+                }
+            }
+            index += chunkSizes[c];
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    // every chunk is a full CHUNK_CAPACITY array, whatever its fill
+    @Override
+    public int capacity()
+    {
+        return chunkCount * CHUNK_CAPACITY;
+    }
+
+    @Override
+    public long bytesUsed()
+    {
+        // chunks and chunkSizes references, chunkCount, size, modCount, foundChunk and foundOffset
+        return IntListFootprint.object(2 * IntListFootprint.REFERENCE + 5 * Integer.BYTES)
+                + IntListFootprint.array(chunks.length, IntListFootprint.REFERENCE)
+                + IntListFootprint.array(chunkSizes.length, Integer.BYTES)
+                + chunkCount * IntListFootprint.array(CHUNK_CAPACITY, Integer.BYTES);
+    }
+
+    @Override
+    public void clear()
+    {
+        Arrays.fill(chunks, 0, chunkCount, null);
+        chunkCount = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public boolean forEachWhile(IntPredicate action)
+    {
+        int expectedModCount = modCount;
+        for (int c = 0; c < chunkCount; c++)
+        {
+            int[] values = chunks[c];
+            for (int i = 0; i < chunkSizes[c]; i++)
+            {
+                if (!action.test(values[i]))
+                {
+                    return false;
+                }
+            }
+        }
+        if (modCount != expectedModCount)
+        {
+            throw new ConcurrentModificationException();
+        }
+        return true;
+    }
+
+    @Override
+    public int[] toArray()
+    {
+        int[] result = new int[size];
+        int position = 0;
+        for (int c = 0; c < chunkCount; c++)
+        {
+            System.arraycopy(chunks[c], 0, result, position, chunkSizes[c]);
+            position += chunkSizes[c];
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<Integer> iterator()
+    {
+        return new Iterator<Integer>()
+        {
+            private int chunk = 0;
+            private int offset = 0;
+            private int remaining = size;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext()
+            {
+                return remaining > 0;
+            }
+
+            @Override
+            public Integer next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                if (modCount != expectedModCount)
+                {
+                    throw new ConcurrentModificationException();
+                }
+                if (offset == chunkSizes[chunk])
+                {
+                    chunk++;
+                    offset = 0;
+                }
+                remaining--;
+                return chunks[chunk][offset++];
+            }
+        };
+    }
+
+    @Override
+    public String toString()
+    {
+        return IntListFormat.toString(this, Integer.MAX_VALUE);
+    }
+
+    // finds the chunk holding index (0 <= index < size) by walking the chunk sizes
+    private void locate(int index)
+    {
+        int chunk = 0;
+        while (index >= chunkSizes[chunk])
+        {
+            index -= chunkSizes[chunk];
+            chunk++;
+        }
+        foundChunk = chunk;
+        foundOffset = index;
+    }
+
+    private void insertChunk(int position, int[] values, int used)
+    {
+        if (chunkCount == chunks.length)
+        {
+            chunks = Arrays.copyOf(chunks, 2 * chunks.length);
+            chunkSizes = Arrays.copyOf(chunkSizes, 2 * chunkSizes.length);
+        }
+        System.arraycopy(chunks, position, chunks, position + 1, chunkCount - position);
+        System.arraycopy(chunkSizes, position, chunkSizes, position + 1, chunkCount - position);
+        chunks[position] = values;
+        chunkSizes[position] = used;
+        chunkCount++;
+    }
+
+    private void removeChunk(int position)
+    {
+        System.arraycopy(chunks, position + 1, chunks, position, chunkCount - position - 1);
+        System.arraycopy(chunkSizes, position + 1, chunkSizes, position, chunkCount - position - 1);
+        chunkCount--;
+        chunks[chunkCount] = null;
+    }
+}
@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnrolledIntListTest {
+
+    @Test
+    void insertInMiddleSplitsChunks() {
+        UnrolledIntList theList = new UnrolledIntList();
+        for (int i = 0; i < 1000; i++) {
+            theList.add(theList.size() / 2, i);
+        }
+        assertEquals(1000, theList.size());
+        assertEquals(999, theList.get(499));
+        for (int i = 0; i < 990; i++) {
+            theList.remove(theList.size() / 2);
+        }
+        assertEquals(10, theList.size());
+        assertEquals(10, theList.toArray().length);
+    }
+
+    @Test
+    void removeFromEmptyList() {
+        UnrolledIntList theList = new UnrolledIntList();
+        assertThrows(IllegalStateException.class, theList::removeFront);
+        assertThrows(IllegalStateException.class, theList::removeBack);
+        assertThrows(IndexOutOfBoundsException.class, () -> theList.get(0));
+    }
+
+    @Test
+    void matchesArrayList() {
+        Random random = new Random(12);
+        UnrolledIntList theList = new UnrolledIntList();
+        ArrayList<Integer> oracle = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            int op = random.nextInt(6);
+            int value = random.nextInt(100);
+            if (op == 0) {
+                theList.addFront(value);
+                oracle.add(0, value);
+            } else if (op == 1) {
+                theList.addBack(value);
+                oracle.add(value);
+            } else if (op == 2) {
+                int index = random.nextInt(oracle.size() + 1);
+                theList.add(index, value);
+                oracle.add(index, value);
+            } else if (op == 3 && !oracle.isEmpty()) {
+                int index = random.nextInt(oracle.size());
+                assertEquals((int) oracle.remove(index), theList.remove(index));
+            } else if (op == 4 && !oracle.isEmpty()) {
+                theList.removeFront();
+                oracle.remove(0);
+            } else if (!oracle.isEmpty()) {
+                assertEquals(oracle.indexOf(value), theList.indexOf(value));
+            }
+        }
+        assertEquals(oracle.toString(), theList.toString());
+        int[] values = theList.toArray();
+        assertEquals(oracle.size(), values.length);
+    }
+}